@@ -0,0 +1,125 @@
+package com.egalvanic.base;
+
+import com.egalvanic.pages.WelcomePage;
+import com.egalvanic.stub.StubAppiumServer;
+import com.egalvanic.utils.DeviceDescriptor;
+import com.egalvanic.utils.DriverManager;
+import io.appium.java_client.AppiumBy;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openqa.selenium.By;
+import org.openqa.selenium.WebElement;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reading field + button state the way the page verifications used to
+ * (find, then one call per attribute) against BasePage.stateOf()
+ *
+ * latencyMs is added to every stub command to stand in for the network
+ * and WDA; the roundTrips / calls counters give stub commands per read.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ElementStateBenchmark {
+
+    private static final By COMPANY_CODE = AppiumBy.iOSNsPredicateString("type == 'XCUIElementTypeTextField'");
+    private static final By CONTINUE = AppiumBy.accessibilityId("Continue");
+
+    @Param({"0", "2"})
+    public int latencyMs;
+
+    private StubAppiumServer stub;
+    private WelcomePage page;
+
+    /** Stub commands and benchmark calls per iteration (roundTrips / calls = round-trips per read) */
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    @State(Scope.Thread)
+    public static class RoundTrips {
+        public long roundTrips;
+        public long calls;
+
+        void add(int commands) {
+            roundTrips += commands;
+            calls++;
+        }
+    }
+
+    @Setup
+    public void startSession() {
+        stub = new StubAppiumServer()
+            .addScreen("welcome", StubAppiumServer.loadFixture("/fixtures/welcome_page.xml"))
+            .setInitialScreen("welcome")
+            .start();
+        DriverManager.bindDevice(new DeviceDescriptor("stub", "", "17.0", stub.getUrl(), 0));
+        DriverManager.initDriver();
+        page = new WelcomePage();
+        stub.setLatency(StubAppiumServer.ANY_COMMAND, Duration.ofMillis(latencyMs));
+    }
+
+    @TearDown
+    public void stopSession() {
+        BasePage.invalidateSnapshot();
+        DriverManager.quitDriver();
+        DriverManager.shutdownPool();
+        DriverManager.unbindDevice();
+        stub.stop();
+    }
+
+    private int totalCommands() {
+        int total = 0;
+        for (int count : stub.getCommandCounts().values()) {
+            total += count;
+        }
+        return total;
+    }
+
+    @Benchmark
+    public void perAttributeCalls(RoundTrips counter, Blackhole bh) {
+        int before = totalCommands();
+        for (By locator : new By[] {COMPANY_CODE, CONTINUE}) {
+            WebElement element = DriverManager.getDriver().findElement(locator);
+            bh.consume(element.isDisplayed());
+            bh.consume(element.isEnabled());
+            bh.consume(element.getAttribute("value"));
+            bh.consume(element.getAttribute("placeholderValue"));
+            bh.consume(element.getAttribute("label"));
+            bh.consume(element.getRect());
+        }
+        counter.add(totalCommands() - before);
+    }
+
+    @Benchmark
+    public void stateFromFreshSnapshot(RoundTrips counter, Blackhole bh) {
+        int before = totalCommands();
+        BasePage.invalidateSnapshot();
+        bh.consume(page.stateOf(COMPANY_CODE));
+        bh.consume(page.stateOf(CONTINUE));
+        counter.add(totalCommands() - before);
+    }
+
+    @Benchmark
+    public void stateFromCachedSnapshot(RoundTrips counter, Blackhole bh) {
+        int before = totalCommands();
+        bh.consume(page.stateOf(COMPANY_CODE));
+        bh.consume(page.stateOf(CONTINUE));
+        counter.add(totalCommands() - before);
+    }
+}
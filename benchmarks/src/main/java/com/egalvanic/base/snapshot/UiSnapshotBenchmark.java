@@ -0,0 +1,76 @@
+package com.egalvanic.base.snapshot;
+
+import io.appium.java_client.AppiumBy;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openqa.selenium.By;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Local page-source work BasePage does instead of remote element lookups:
+ * parsing one snapshot and answering each locator strategy from it
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class UiSnapshotBenchmark {
+
+    private static final By ACCESSIBILITY_ID = AppiumBy.accessibilityId("Continue");
+    private static final By PREDICATE = AppiumBy.iOSNsPredicateString(
+        "type == 'XCUIElementTypeTextField' AND name == 'Company Code'");
+    private static final By CLASS_CHAIN = AppiumBy.iOSClassChain(
+        "**/XCUIElementTypeButton[`name == 'Continue'`]");
+    private static final By XPATH = By.xpath("//XCUIElementTypeButton[@name='Continue']");
+
+    private String pageSource;
+    private UiSnapshot snapshot;
+
+    @Setup
+    public void loadFixture() throws IOException {
+        try (InputStream in = UiSnapshotBenchmark.class.getResourceAsStream("/fixtures/welcome_page.xml")) {
+            pageSource = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+        snapshot = UiSnapshot.parse(pageSource);
+    }
+
+    @Benchmark
+    public UiSnapshot parse() {
+        return UiSnapshot.parse(pageSource);
+    }
+
+    @Benchmark
+    public void queryByAccessibilityId(Blackhole bh) {
+        bh.consume(snapshot.isDisplayed(ACCESSIBILITY_ID));
+    }
+
+    @Benchmark
+    public void queryByPredicate(Blackhole bh) {
+        bh.consume(snapshot.isDisplayed(PREDICATE));
+    }
+
+    @Benchmark
+    public void queryByClassChain(Blackhole bh) {
+        bh.consume(snapshot.isDisplayed(CLASS_CHAIN));
+    }
+
+    @Benchmark
+    public void queryByXPath(Blackhole bh) {
+        bh.consume(snapshot.isDisplayed(XPATH));
+    }
+}
@@ -0,0 +1,95 @@
+package com.egalvanic.pages;
+
+import com.egalvanic.base.BasePage;
+import com.egalvanic.constants.AppConstants;
+import com.egalvanic.stub.StubAppiumServer;
+import com.egalvanic.utils.DeviceDescriptor;
+import com.egalvanic.utils.DriverManager;
+import io.appium.java_client.pagefactory.AppiumFieldDecorator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openqa.selenium.support.PageFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Page object overhead against the stub Appium server
+ *
+ * pageFactoryInitElements is the PageFactory / AppiumFieldDecorator
+ * proxying paid by every BasePage constructor; newWelcomePage adds the
+ * page-load wait. The verification benchmarks are one snapshot fetch plus
+ * local queries, next to the bare page source round-trip.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class PageObjectBenchmark {
+
+    private StubAppiumServer stub;
+    private WelcomePage welcomePage;
+
+    @Setup
+    public void startSession() throws IOException {
+        stub = new StubAppiumServer().start();
+        try (InputStream in = PageObjectBenchmark.class.getResourceAsStream("/fixtures/welcome_page.xml")) {
+            stub.setPageSource(new String(in.readAllBytes(), StandardCharsets.UTF_8));
+        }
+        // Sessions of this (benchmark) thread go to the stub
+        DriverManager.bindDevice(new DeviceDescriptor("stub", "", "17.0", stub.getUrl(), 0));
+        DriverManager.initDriver();
+        welcomePage = new WelcomePage();
+    }
+
+    @TearDown
+    public void stopSession() {
+        DriverManager.quitDriver();
+        DriverManager.shutdownPool();
+        DriverManager.unbindDevice();
+        stub.stop();
+    }
+
+    @Benchmark
+    public WelcomePage pageFactoryInitElements() {
+        PageFactory.initElements(new AppiumFieldDecorator(DriverManager.getDriver(),
+            Duration.ofSeconds(AppConstants.AJAX_TIMEOUT)), welcomePage);
+        return welcomePage;
+    }
+
+    @Benchmark
+    public WelcomePage newWelcomePage() {
+        return new WelcomePage();
+    }
+
+    @Benchmark
+    public boolean continueButtonDisplayed() {
+        BasePage.invalidateSnapshot();
+        return welcomePage.isContinueButtonDisplayed();
+    }
+
+    @Benchmark
+    public String placeholderText() {
+        BasePage.invalidateSnapshot();
+        return welcomePage.getPlaceholderText();
+    }
+
+    @Benchmark
+    public String pageSourceRoundTrip() {
+        return DriverManager.getDriver().getPageSource();
+    }
+}
@@ -0,0 +1,60 @@
+package com.egalvanic.utils;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openqa.selenium.remote.Command;
+import org.openqa.selenium.remote.SessionId;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bookkeeping TimedCommandExecutor adds to every driver command, in ns/op
+ *
+ * The budget is under 1 us per command for each part: the timings (two
+ * clock reads, the key lookup, suite + test histogram updates) and the
+ * flight recorder ring.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class InstrumentationBenchmark {
+
+    private final Command find = new Command(new SessionId("s"), "findElement",
+        Map.of("using", "-ios class chain", "value", "**/XCUIElementTypeButton"));
+
+    @Setup(Level.Iteration)
+    public void startTest() {
+        CommandTimings.startTest("benchmark");
+    }
+
+    @TearDown(Level.Iteration)
+    public void endTest() {
+        CommandTimings.endTest();
+        CommandTimings.reset();
+    }
+
+    @Benchmark
+    public void commandTimings() {
+        long start = System.nanoTime();
+        CommandTimings.record(TimedCommandExecutor.keyOf(find), System.nanoTime() - start);
+    }
+
+    @Benchmark
+    public void flightRecorder() {
+        FlightRecorder.record("findElement[-ios class chain]", "**/XCUIElementTypeButton", 1_000, null);
+    }
+}
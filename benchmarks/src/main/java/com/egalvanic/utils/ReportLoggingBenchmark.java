@@ -0,0 +1,63 @@
+package com.egalvanic.utils;
+
+import com.aventstack.extentreports.ExtentReports;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ExtentReportManager cost on the test thread for one short test:
+ * createTest, ten steps and a pass, with synchronous and background writing
+ *
+ * Shaped per test rather than per log call because ExtentTest re-derives
+ * its status on every log (cost grows with the test's log count).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ReportLoggingBenchmark {
+
+    private static final int STEPS = 10;
+
+    @Param({"false", "true"})
+    public boolean async;
+
+    private int testNumber;
+
+    @Setup(Level.Iteration)
+    public void initReports() {
+        // In-memory reports: no HTML reporter attached, so flush writes nothing
+        ExtentReportManager.initReports(new ExtentReports(), new ExtentReports(), async);
+    }
+
+    @TearDown(Level.Iteration)
+    public void flushReports() {
+        ExtentReportManager.flushReports();
+    }
+
+    @Benchmark
+    public void reportOneTest() {
+        int n = testNumber++;
+        ExtentReportManager.createTest("Benchmark", "Feature " + (n % 5), "test " + n);
+        for (int i = 0; i < STEPS; i++) {
+            ExtentReportManager.logInfo("step " + i);
+        }
+        ExtentReportManager.logPass("done");
+        ExtentReportManager.removeTests();
+    }
+}
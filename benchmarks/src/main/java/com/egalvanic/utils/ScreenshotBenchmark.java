@@ -0,0 +1,87 @@
+package com.egalvanic.utils;
+
+import com.egalvanic.stub.StubAppiumServer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Base64;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Screenshot encoding cost: Base64 for the report, thumbnail scaling, and
+ * the full capture round-trip through ScreenshotUtil against the stub
+ *
+ * The PNG is a noisy 390x844 frame so encoders see realistic entropy
+ * (a blank frame compresses to almost nothing).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ScreenshotBenchmark {
+
+    private StubAppiumServer stub;
+    private byte[] png;
+
+    @Setup
+    public void startSession() throws IOException {
+        png = noisyScreen(390, 844);
+        stub = new StubAppiumServer().start().setScreenshot(png);
+        DriverManager.bindDevice(new DeviceDescriptor("stub", "", "17.0", stub.getUrl(), 0));
+        DriverManager.initDriver();
+    }
+
+    @TearDown
+    public void stopSession() {
+        DriverManager.quitDriver();
+        DriverManager.shutdownPool();
+        DriverManager.unbindDevice();
+        stub.stop();
+    }
+
+    @Benchmark
+    public String base64Encode() {
+        return Base64.getEncoder().encodeToString(png);
+    }
+
+    @Benchmark
+    public String thumbnail() {
+        return ScreenshotPipeline.thumbnail(png, 200);
+    }
+
+    @Benchmark
+    public String captureBase64FromStub() {
+        return ScreenshotUtil.captureScreenshotAsBase64();
+    }
+
+    private static byte[] noisyScreen(int width, int height) throws IOException {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Random random = new Random(42);
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                // UI-like: flat bands with some noisy content rows
+                int rgb = (y / 40) % 3 == 0 ? random.nextInt(0xFFFFFF) : 0xF2F2F7;
+                image.setRGB(x, y, rgb);
+            }
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, "png", out);
+        return out.toByteArray();
+    }
+}
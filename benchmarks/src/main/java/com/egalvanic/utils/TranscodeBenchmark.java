@@ -0,0 +1,99 @@
+package com.egalvanic.utils;
+
+import com.egalvanic.constants.AppConstants;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javax.imageio.ImageIO;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Screenshot transcoding throughput in images/s on one pipeline worker
+ *
+ * Compares the report thumbnail as a scaled PNG (the old embed) with the
+ * scaled JPEG the pipeline now makes, both from a single decode of a
+ * retina-sized frame. Sizes are printed once at setup, so the size
+ * reduction sits next to the throughput in the output.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class TranscodeBenchmark {
+
+    @Param({"390"})
+    public int width;
+
+    private byte[] png;
+
+    @Setup
+    public void createFrame() throws IOException {
+        png = noisyScreen(1179, 2556);
+        BufferedImage image = ScreenshotPipeline.decode(png);
+        int pngThumbnail = pngThumbnail(image, width).length;
+        int jpegThumbnail = ScreenshotPipeline.thumbnailJpeg(image, width).length;
+        System.out.printf("%nfull PNG %d KB, PNG thumbnail %d KB, JPEG thumbnail (q=%.1f) %d KB (%.1fx smaller "
+                + "than the PNG thumbnail, %.0fx than the full PNG)%n",
+            png.length / 1024, pngThumbnail / 1024, AppConstants.SCREENSHOT_JPEG_QUALITY, jpegThumbnail / 1024,
+            (double) pngThumbnail / jpegThumbnail, (double) png.length / jpegThumbnail);
+    }
+
+    @Benchmark
+    public BufferedImage decodeOnly() {
+        return ScreenshotPipeline.decode(png);
+    }
+
+    @Benchmark
+    public byte[] pngThumbnail() throws IOException {
+        return pngThumbnail(ScreenshotPipeline.decode(png), width);
+    }
+
+    @Benchmark
+    public byte[] jpegThumbnail() {
+        return ScreenshotPipeline.thumbnailJpeg(ScreenshotPipeline.decode(png), width);
+    }
+
+    private static byte[] pngThumbnail(BufferedImage source, int width) throws IOException {
+        int height = source.getHeight() * width / source.getWidth();
+        BufferedImage scaled = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D graphics = scaled.createGraphics();
+        graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+        graphics.drawImage(source, 0, 0, width, height, null);
+        graphics.dispose();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(scaled, "png", out);
+        return out.toByteArray();
+    }
+
+    private static byte[] noisyScreen(int width, int height) throws IOException {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Random random = new Random(42);
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                // UI-like: flat bands with some noisy content rows
+                int rgb = (y / 120) % 3 == 0 ? random.nextInt(0xFFFFFF) : 0xF2F2F7;
+                image.setRGB(x, y, rgb);
+            }
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, "png", out);
+        return out.toByteArray();
+    }
+}
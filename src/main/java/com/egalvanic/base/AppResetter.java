@@ -0,0 +1,234 @@
+package com.egalvanic.base;
+
+import com.egalvanic.base.snapshot.UiNode;
+import com.egalvanic.base.snapshot.UiSnapshot;
+import com.egalvanic.constants.AppConstants;
+import com.egalvanic.pages.AppScreens;
+import com.egalvanic.pages.WelcomePage;
+import com.egalvanic.utils.DriverManager;
+import io.appium.java_client.AppiumBy;
+import io.appium.java_client.ios.IOSDriver;
+import org.openqa.selenium.By;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Tiered app reset for pooled sessions
+ *
+ * Between tests a reused session has to get back to a clean Welcome screen
+ * (empty company code, Continue disabled, no keyboard). Tiers are tried
+ * cheapest first and each is verified before the next is attempted:
+ * - CHECKPOINT:      the test requires the authenticated checkpoint and
+ *                    the session still holds it (see AuthCheckpoint)
+ * - CLEAN:           already there, nothing to do
+ * - NAVIGATE_BACK:   navigate to Welcome in-app through the screen graph
+ *                    (AppScreens), then clear a leftover company code
+ * - RELAUNCH:        terminateApp + activateApp
+ * - CLEAR_DATA:      terminateApp + clear keychain + activateApp
+ * - RESTART_SESSION: all tiers failed; reset() throws and the DriverPool
+ *                    replaces the session with a new one
+ *
+ * Install with DriverManager.setResetAction(AppResetter::reset) and restore
+ * the action it returns when the suite ends (see BaseTest).
+ * Per tier the resetter records how often it was used and what it cost,
+ * next to the average session creation time it avoided - see getReport().
+ */
+public final class AppResetter {
+
+    public enum Tier { CHECKPOINT, CLEAN, NAVIGATE_BACK, RELAUNCH, CLEAR_DATA, RESTART_SESSION }
+
+    private static final By KEYBOARD = AppiumBy.className("XCUIElementTypeKeyboard");
+
+    private static final Tier[] TIERS = Tier.values();
+    private static final AtomicLongArray counts = new AtomicLongArray(TIERS.length);
+    private static final AtomicLongArray nanos = new AtomicLongArray(TIERS.length);
+
+    private AppResetter() {}
+
+    // ================================================================
+    // RESET
+    // ================================================================
+
+    /**
+     * Bring a reused session back to a clean Welcome screen using the
+     * cheapest tier that works
+     *
+     * @return the tier that restored the app
+     * @throws IllegalStateException when no enabled tier could, so the pool restarts the session
+     */
+    public static Tier reset(IOSDriver driver) {
+        long start = System.nanoTime();
+        Tier tier = restore(driver);
+        record(tier, System.nanoTime() - start);
+        if (tier == Tier.RESTART_SESSION) {
+            throw new IllegalStateException("No reset tier restored a clean Welcome screen");
+        }
+        System.out.println("✔ App reset via " + tier);
+        return tier;
+    }
+
+    private static Tier restore(IOSDriver driver) {
+        if (AuthCheckpoint.isRequired() && AuthCheckpoint.resume(driver)) {
+            return Tier.CHECKPOINT;
+        }
+        // Anything else ends up logged out on Welcome
+        AuthCheckpoint.invalidate(driver);
+        if (isCleanWelcome(driver)) {
+            return Tier.CLEAN;
+        }
+        if (isEnabled(Tier.NAVIGATE_BACK) && attempt(() -> navigateBack(driver))) {
+            return Tier.NAVIGATE_BACK;
+        }
+        if (isEnabled(Tier.RELAUNCH) && attempt(() -> relaunch(driver, false))) {
+            return Tier.RELAUNCH;
+        }
+        if (isEnabled(Tier.CLEAR_DATA) && attempt(() -> relaunch(driver, true))) {
+            return Tier.CLEAR_DATA;
+        }
+        return Tier.RESTART_SESSION;
+    }
+
+    /**
+     * Navigate to Welcome through the screen graph, then clear a leftover company code
+     * Throws when the current screen is unknown or has no path to Welcome
+     */
+    private static boolean navigateBack(IOSDriver driver) {
+        // The pool has not handed this session to the thread yet; page objects need it bound
+        BasePage.invalidateSnapshot();
+        DriverManager.runWith(driver, () -> AppScreens.graph().navigateTo(WelcomePage.SCREEN));
+        BasePage.invalidateSnapshot();
+
+        UiSnapshot snapshot = UiSnapshot.parse(driver.getPageSource());
+        if (isCleanWelcome(snapshot)) {
+            return true;
+        }
+        // On Welcome, but with a typed code or the keyboard up
+        driver.findElement(WelcomePage.COMPANY_CODE_FIELD).clear();
+        if (snapshot.find(KEYBOARD) != null) {
+            driver.hideKeyboard();
+        }
+        return awaitCleanWelcome(driver, "AppResetter.navigateBack", AppConstants.SETTLE_BUDGET);
+    }
+
+    private static boolean relaunch(IOSDriver driver, boolean clearData) {
+        String bundleId = DriverManager.getBundleId(driver);
+        driver.terminateApp(bundleId);
+        if (clearData) {
+            driver.executeScript("mobile: clearKeychains");
+        }
+        driver.activateApp(bundleId);
+        return awaitCleanWelcome(driver, clearData ? "AppResetter.clearData" : "AppResetter.relaunch",
+            AppConstants.APP_RELAUNCH_BUDGET);
+    }
+
+    // ================================================================
+    // VERIFICATION
+    // ================================================================
+
+    private static boolean awaitCleanWelcome(IOSDriver driver, String callSite, long budgetMs) {
+        boolean clean = WaitEngine.waitUntil(callSite, AppConstants.PAGE_LOAD_WAIT, budgetMs,
+            () -> isCleanWelcome(driver));
+        // With adaptive waits off, waitUntil only sleeps
+        return AppConstants.ADAPTIVE_WAITS ? clean : isCleanWelcome(driver);
+    }
+
+    /**
+     * Welcome screen with an empty company code, Continue disabled and no keyboard
+     */
+    static boolean isCleanWelcome(IOSDriver driver) {
+        try {
+            return isCleanWelcome(UiSnapshot.parse(driver.getPageSource()));
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    static boolean isCleanWelcome(UiSnapshot snapshot) {
+        UiNode field = snapshot.find(WelcomePage.COMPANY_CODE_FIELD);
+        UiNode continueButton = snapshot.find(WelcomePage.CONTINUE_BUTTON);
+        if (field == null || continueButton == null || snapshot.find(KEYBOARD) != null) {
+            return false;
+        }
+        String value = field.getValue();
+        boolean empty = value == null || value.isEmpty() || value.equals(field.getAttribute("placeholderValue"));
+        return empty && !continueButton.isEnabled();
+    }
+
+    private static boolean attempt(BooleanSupplier tier) {
+        try {
+            return tier.getAsBoolean();
+        } catch (Exception e) {
+            System.out.println("✗ Reset tier failed: " + e.getMessage());
+            return false;
+        }
+    }
+
+    private static boolean isEnabled(Tier tier) {
+        String name = tier == Tier.NAVIGATE_BACK ? "navigate" : tier.name().toLowerCase(Locale.ROOT);
+        for (String enabled : AppConstants.APP_RESET_TIERS.split(",")) {
+            if (enabled.trim().equalsIgnoreCase(name)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // ================================================================
+    // REPORTING
+    // ================================================================
+
+    private static void record(Tier tier, long elapsedNanos) {
+        counts.incrementAndGet(tier.ordinal());
+        nanos.addAndGet(tier.ordinal(), elapsedNanos);
+    }
+
+    /** Resets served by a tier */
+    public static long getCount(Tier tier) {
+        return counts.get(tier.ordinal());
+    }
+
+    public static long getTotalMillis(Tier tier) {
+        return TimeUnit.NANOSECONDS.toMillis(nanos.get(tier.ordinal()));
+    }
+
+    /**
+     * Time saved against restarting the session for every reset, using
+     * the measured average session creation time (failed tiers before a
+     * restart count as lost time)
+     */
+    public static long getSavedMillis() {
+        long sessionMillis = DriverManager.getAverageSessionCreateMillis();
+        long saved = 0;
+        for (Tier tier : TIERS) {
+            long spent = getTotalMillis(tier);
+            saved += tier == Tier.RESTART_SESSION ? -spent : getCount(tier) * sessionMillis - spent;
+        }
+        return saved;
+    }
+
+    /**
+     * Resets per tier, their cost, and the time saved
+     */
+    public static String getReport() {
+        StringBuilder report = new StringBuilder();
+        report.append(String.format("%-16s %6s %10s %8s%n", "Tier", "Tests", "Total ms", "Avg ms"));
+        for (Tier tier : TIERS) {
+            long count = getCount(tier);
+            report.append(String.format("%-16s %6d %10d %8d%n", tier, count, getTotalMillis(tier),
+                count == 0 ? 0 : getTotalMillis(tier) / count));
+        }
+        report.append(String.format("Saved ~%d ms vs. a new session per test (%d sessions created, avg %d ms)%n",
+            getSavedMillis(), DriverManager.getSessionsCreated(), DriverManager.getAverageSessionCreateMillis()));
+        return report.toString();
+    }
+
+    public static void resetStats() {
+        for (int i = 0; i < TIERS.length; i++) {
+            counts.set(i, 0);
+            nanos.set(i, 0);
+        }
+    }
+}
@@ -0,0 +1,269 @@
+package com.egalvanic.base;
+
+import com.egalvanic.base.snapshot.UiSnapshot;
+import com.egalvanic.constants.AppConstants;
+import com.egalvanic.pages.LoginPage;
+import com.egalvanic.pages.WelcomePage;
+import io.appium.java_client.AppiumBy;
+import io.appium.java_client.ios.IOSDriver;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * "Authenticated at home screen" checkpoint per driver session
+ *
+ * The first test on a session that needs a logged-in app runs the login
+ * flow once and marks the session; later tests needing the same state
+ * resume from the checkpoint instead of retyping company code, email and
+ * password. A checkpoint is dropped when a test fails or logs out, when
+ * the session is reset to Welcome, or when the app is no longer at home.
+ *
+ * While a test requires the checkpoint (require(true) before the session
+ * is leased), AppResetter leaves an authenticated session where it is.
+ *
+ * Login-flow time is recorded per test next to test-body time - see getReport().
+ */
+public final class AuthCheckpoint {
+
+    // Session id -> when the checkpoint was taken
+    private static final Map<String, Long> checkpoints = new ConcurrentHashMap<>();
+
+    private static final ThreadLocal<Boolean> required = new ThreadLocal<>();
+    private static final ThreadLocal<Long> loginNanos = new ThreadLocal<>();
+    // Session already verified at home for the current test (by AppResetter during lease)
+    private static final ThreadLocal<String> verified = new ThreadLocal<>();
+
+    // Metrics
+    private static final AtomicInteger logins = new AtomicInteger();
+    private static final AtomicInteger resumes = new AtomicInteger();
+    private static final AtomicInteger invalidations = new AtomicInteger();
+    private static final AtomicLong totalLoginNanos = new AtomicLong();
+    private static final AtomicLong totalBodyNanos = new AtomicLong();
+    private static final Queue<TestPhases> finishedTests = new ConcurrentLinkedQueue<>();
+
+    private AuthCheckpoint() {}
+
+    // ================================================================
+    // PRECONDITION
+    // ================================================================
+
+    /**
+     * Declare whether the current thread's test starts from the checkpoint
+     */
+    public static void require(boolean authenticated) {
+        if (authenticated) {
+            required.set(Boolean.TRUE);
+        } else {
+            required.remove();
+        }
+        loginNanos.remove();
+        verified.remove();
+    }
+
+    public static boolean isRequired() {
+        return Boolean.TRUE.equals(required.get());
+    }
+
+    // ================================================================
+    // CHECKPOINT
+    // ================================================================
+
+    /**
+     * Resume from this session's checkpoint if it is still valid
+     *
+     * @return true when the app is authenticated at home; false (and the
+     *         checkpoint is dropped) when the login flow has to run again
+     */
+    public static boolean resume(IOSDriver driver) {
+        String sessionId = sessionIdOf(driver);
+        if (sessionId == null || !checkpoints.containsKey(sessionId)) {
+            return false;
+        }
+        if (sessionId.equals(verified.get())) {
+            return true;
+        }
+        if (isAtHome(driver)) {
+            resumes.incrementAndGet();
+            verified.set(sessionId);
+            return true;
+        }
+        invalidate(driver);
+        return false;
+    }
+
+    /**
+     * Mark the session authenticated after a login flow that took loginNanos
+     *
+     * @return false when the app did not reach the home screen
+     */
+    public static boolean establish(IOSDriver driver, long nanos) {
+        logins.incrementAndGet();
+        totalLoginNanos.addAndGet(nanos);
+        loginNanos.set(nanos);
+        String sessionId = sessionIdOf(driver);
+        if (sessionId == null || !isAtHome(driver)) {
+            return false;
+        }
+        checkpoints.put(sessionId, System.currentTimeMillis());
+        System.out.println("✔ Authenticated checkpoint taken in " + TimeUnit.NANOSECONDS.toMillis(nanos) + "ms");
+        return true;
+    }
+
+    /**
+     * Drop the session's checkpoint (test failed, logged out, app reset)
+     */
+    public static void invalidate(IOSDriver driver) {
+        String sessionId = sessionIdOf(driver);
+        if (sessionId != null && checkpoints.remove(sessionId) != null) {
+            invalidations.incrementAndGet();
+            System.out.println("✔ Authenticated checkpoint invalidated");
+        }
+    }
+
+    public static boolean hasCheckpoint(IOSDriver driver) {
+        String sessionId = sessionIdOf(driver);
+        return sessionId != null && checkpoints.containsKey(sessionId);
+    }
+
+    /**
+     * Logged in: past Welcome and Login (or showing HOME_SCREEN_ID when set)
+     */
+    static boolean isAtHome(IOSDriver driver) {
+        try {
+            return isAtHome(UiSnapshot.parse(driver.getPageSource()));
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    public static boolean isAtHome(UiSnapshot snapshot) {
+        if (!AppConstants.HOME_SCREEN_ID.isEmpty()) {
+            return snapshot.isDisplayed(AppiumBy.accessibilityId(AppConstants.HOME_SCREEN_ID));
+        }
+        boolean onWelcome = snapshot.find(WelcomePage.COMPANY_CODE_FIELD) != null
+            && snapshot.find(WelcomePage.CONTINUE_BUTTON) != null;
+        return !onWelcome && snapshot.find(LoginPage.PASSWORD_FIELD) == null;
+    }
+
+    private static String sessionIdOf(IOSDriver driver) {
+        try {
+            return driver.getSessionId() == null ? null : driver.getSessionId().toString();
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    // ================================================================
+    // REPORTING
+    // ================================================================
+
+    /**
+     * Record the finished test's body time next to the login time it paid
+     * (zero when it resumed from the checkpoint or needs no login)
+     */
+    public static void recordTest(String testName, long bodyNanos) {
+        Long login = loginNanos.get();
+        TestPhases phases = new TestPhases(testName, login == null ? 0 : login, bodyNanos, isRequired());
+        totalBodyNanos.addAndGet(bodyNanos);
+        finishedTests.add(phases);
+        loginNanos.remove();
+    }
+
+    /**
+     * Login-flow time the current thread's test spent, in milliseconds
+     */
+    public static long getLoginMillis() {
+        Long login = loginNanos.get();
+        return login == null ? 0 : TimeUnit.NANOSECONDS.toMillis(login);
+    }
+
+    public static int getLoginCount() {
+        return logins.get();
+    }
+
+    public static int getResumeCount() {
+        return resumes.get();
+    }
+
+    public static int getInvalidationCount() {
+        return invalidations.get();
+    }
+
+    public static List<TestPhases> getTestPhases() {
+        return new ArrayList<>(finishedTests);
+    }
+
+    /**
+     * Logins vs. checkpoint resumes, then login and body time per authenticated test
+     */
+    public static String getReport() {
+        StringBuilder report = new StringBuilder();
+        int loginCount = logins.get();
+        long loginMillis = TimeUnit.NANOSECONDS.toMillis(totalLoginNanos.get());
+        report.append(String.format("Logins: %d (%d ms), checkpoint resumes: %d, invalidations: %d%n",
+            loginCount, loginMillis, resumes.get(), invalidations.get()));
+        if (loginCount > 0 && resumes.get() > 0) {
+            report.append(String.format("Saved ~%d ms of login flow%n", loginMillis / loginCount * resumes.get()));
+        }
+        report.append(String.format("%-60s %10s %10s%n", "Authenticated test", "Login ms", "Body ms"));
+        for (TestPhases test : finishedTests) {
+            if (test.authenticated) {
+                report.append(String.format("%-60s %10d %10d%n", test.name, test.getLoginMillis(), test.getBodyMillis()));
+            }
+        }
+        report.append(String.format("%-60s %10d %10d%n", "TOTAL (all tests)", loginMillis,
+            TimeUnit.NANOSECONDS.toMillis(totalBodyNanos.get())));
+        return report.toString();
+    }
+
+    public static void reset() {
+        checkpoints.clear();
+        finishedTests.clear();
+        logins.set(0);
+        resumes.set(0);
+        invalidations.set(0);
+        totalLoginNanos.set(0);
+        totalBodyNanos.set(0);
+    }
+
+    /**
+     * Login-flow and test-body time of one finished test
+     */
+    public static final class TestPhases {
+        final String name;
+        final long loginNanos;
+        final long bodyNanos;
+        final boolean authenticated;
+
+        TestPhases(String name, long loginNanos, long bodyNanos, boolean authenticated) {
+            this.name = name;
+            this.loginNanos = loginNanos;
+            this.bodyNanos = bodyNanos;
+            this.authenticated = authenticated;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public long getLoginMillis() {
+            return TimeUnit.NANOSECONDS.toMillis(loginNanos);
+        }
+
+        public long getBodyMillis() {
+            return TimeUnit.NANOSECONDS.toMillis(bodyNanos);
+        }
+
+        public boolean isAuthenticated() {
+            return authenticated;
+        }
+    }
+}
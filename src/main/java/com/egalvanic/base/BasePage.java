@@ -1,10 +1,15 @@
 package com.egalvanic.base;
 
+import com.egalvanic.base.snapshot.UiNode;
+import com.egalvanic.base.snapshot.UiSnapshot;
 import com.egalvanic.constants.AppConstants;
 import com.egalvanic.utils.DriverManager;
+import com.egalvanic.utils.TimedCommandExecutor;
+import io.appium.java_client.AppiumBy;
 import io.appium.java_client.ios.IOSDriver;
 import io.appium.java_client.TouchAction;
 import io.appium.java_client.pagefactory.AppiumFieldDecorator;
+import io.appium.java_client.pagefactory.iOSXCUITFindBy;
 import org.openqa.selenium.By;
 import org.openqa.selenium.WebElement;
 import org.openqa.selenium.support.PageFactory;
@@ -12,16 +17,42 @@ import org.openqa.selenium.support.pagefactory.AjaxElementLocatorFactory;
 import org.openqa.selenium.support.ui.ExpectedConditions;
 import org.openqa.selenium.support.ui.WebDriverWait;
 
+import java.lang.reflect.Field;
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+import java.util.function.Predicate;
 
 /**
  * Base Page class with PageFactory and AjaxElementLocatorFactory
  * All Page Objects extend this class
  * 
- * Includes Thread.sleep for elements that take extra time to load
+ * Waits for slow elements poll a real condition through WaitEngine
+ * instead of a fixed Thread.sleep
+ * 
+ * Snapshot mode: verification queries by locator are answered from one
+ * page source fetch (UiSnapshot) shared by all pages on the thread, until
+ * the next page action invalidates it
  */
 public abstract class BasePage {
 
+    // Latest page source snapshot for this thread's driver
+    private static final ThreadLocal<CachedSnapshot> snapshotCache = new ThreadLocal<>();
+    private static final Map<String, By> fieldLocators = new ConcurrentHashMap<>();
+
+    private static final AtomicInteger snapshotFetches = new AtomicInteger();
+    private static final AtomicInteger localQueries = new AtomicInteger();
+    private static final AtomicInteger remoteFallbacks = new AtomicInteger();
+
+    static {
+        // Any click, typing or script sent by any code path makes the snapshot stale
+        TimedCommandExecutor.setUiChangeListener(BasePage::invalidateSnapshot);
+    }
+
     protected IOSDriver driver;
     protected WebDriverWait wait;
 
@@ -41,61 +72,397 @@ public abstract class BasePage {
     }
 
     // ================================================================
-    // THREAD SLEEP METHODS - For elements that need extra load time
+    // ADAPTIVE WAIT METHODS - Poll a real condition instead of sleeping
+    // Each replaces a fixed Thread.sleep; see WaitEngine for reporting
     // ================================================================
 
     /**
      * Wait for page to fully load (use after navigation)
+     * Waits until the UI hierarchy stops changing
      */
     protected void waitForPageLoad() {
-        try {
-            Thread.sleep(AppConstants.PAGE_LOAD_WAIT);
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-        }
+        WaitEngine.waitUntil(callSite(), AppConstants.PAGE_LOAD_WAIT,
+            AppConstants.PAGE_LOAD_BUDGET, hierarchyStable());
+    }
+
+    /**
+     * Wait for page to load until a marker element is displayed
+     */
+    protected boolean waitForPageLoad(WebElement marker) {
+        return WaitEngine.waitUntil(callSite(), AppConstants.PAGE_LOAD_WAIT,
+            AppConstants.PAGE_LOAD_BUDGET, () -> marker.isDisplayed());
+    }
+
+    /**
+     * Wait for page to load until a marker locator is displayed
+     * Each poll is one page source fetch; the result stays as the snapshot
+     */
+    protected boolean waitForPageLoad(By marker) {
+        return WaitEngine.waitUntil(callSite(), AppConstants.PAGE_LOAD_WAIT,
+            AppConstants.PAGE_LOAD_BUDGET, displayedInFreshSnapshot(marker));
     }
 
     /**
      * Wait for slow element to load (use before interacting with slow elements)
+     * Waits until the UI hierarchy stops changing
      */
     protected void waitForElementLoad() {
-        try {
-            Thread.sleep(AppConstants.ELEMENT_LOAD_WAIT);
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-        }
+        WaitEngine.waitUntil(callSite(), AppConstants.ELEMENT_LOAD_WAIT,
+            AppConstants.ELEMENT_LOAD_BUDGET, hierarchyStable());
+    }
+
+    /**
+     * Wait until a slow element is displayed
+     */
+    protected boolean waitForElementLoad(WebElement element) {
+        return WaitEngine.waitUntil(callSite(), AppConstants.ELEMENT_LOAD_WAIT,
+            AppConstants.ELEMENT_LOAD_BUDGET, () -> element.isDisplayed());
+    }
+
+    /**
+     * Wait until a slow element is displayed, polling the page snapshot
+     */
+    protected boolean waitForElementLoad(By locator) {
+        return WaitEngine.waitUntil(callSite(), AppConstants.ELEMENT_LOAD_WAIT,
+            AppConstants.ELEMENT_LOAD_BUDGET, displayedInFreshSnapshot(locator));
     }
 
     /**
      * Wait for UI animation to complete
+     * Waits until the UI hierarchy stops changing
      */
     protected void waitForAnimation() {
-        try {
-            Thread.sleep(AppConstants.ANIMATION_WAIT);
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-        }
+        WaitEngine.waitUntil(callSite(), AppConstants.ANIMATION_WAIT,
+            AppConstants.SETTLE_BUDGET, hierarchyStable());
     }
 
     /**
      * Short wait for quick transitions
+     * Waits until the UI hierarchy stops changing
      */
     protected void shortWait() {
-        try {
-            Thread.sleep(AppConstants.SHORT_WAIT);
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
+        WaitEngine.waitUntil(callSite(), AppConstants.SHORT_WAIT,
+            AppConstants.SETTLE_BUDGET, hierarchyStable());
+    }
+
+    /**
+     * Wait until the on-screen keyboard is gone
+     */
+    protected boolean waitForKeyboardHidden() {
+        return WaitEngine.waitUntil(callSite(), AppConstants.SHORT_WAIT,
+            AppConstants.SETTLE_BUDGET, () -> !driver.isKeyboardShown());
+    }
+
+    /**
+     * Race several outcome conditions in one polling loop
+     *
+     * Each poll is a single page source fetch; outcomes are checked against
+     * it in map order and the first that holds wins, so detection takes as
+     * long as the fastest real signal instead of the sum of separate waits.
+     *
+     * @return key of the first outcome that held, or null when none did within budget
+     */
+    protected <T> T waitForAny(long budgetMs, Map<T, Predicate<UiSnapshot>> outcomes) {
+        List<T> winner = new ArrayList<>(1);
+        boolean[] first = {true};
+        WaitEngine.waitUntil(callSite(), AppConstants.PAGE_LOAD_WAIT, budgetMs, () -> {
+            UiSnapshot current = first[0] ? snapshot() : refreshSnapshot();
+            first[0] = false;
+            T holding = firstHolding(current, outcomes);
+            if (holding != null) {
+                winner.add(holding);
+            }
+            return holding != null;
+        });
+        if (!winner.isEmpty()) {
+            return winner.get(0);
+        }
+        // Fixed-sleep mode never polled; otherwise this re-checks the last snapshot locally
+        return firstHolding(first[0] ? refreshSnapshot() : snapshot(), outcomes);
+    }
+
+    private static <T> T firstHolding(UiSnapshot current, Map<T, Predicate<UiSnapshot>> outcomes) {
+        for (Map.Entry<T, Predicate<UiSnapshot>> outcome : outcomes.entrySet()) {
+            try {
+                if (outcome.getValue().test(current)) {
+                    return outcome.getKey();
+                }
+            } catch (RuntimeException e) {
+                // An outcome the snapshot cannot evaluate does not hold
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Condition that holds once two consecutive page sources are identical
+     *
+     * A cached snapshot counts as the first of the two: nothing has changed
+     * the UI since it was fetched, so a settled screen costs one fetch.
+     */
+    protected BooleanSupplier hierarchyStable() {
+        CachedSnapshot cached = snapshotCache.get();
+        boolean[] seen = {cached != null && cached.driver == driver};
+        int[] lastHash = {seen[0] ? cached.sourceHash : 0};
+        return () -> {
+            String source = fetchPageSource();
+            int hash = source.hashCode();
+            boolean stable = seen[0] && hash == lastHash[0];
+            lastHash[0] = hash;
+            seen[0] = true;
+            if (stable && AppConstants.SNAPSHOT_QUERIES) {
+                // Settled hierarchy doubles as the snapshot for following queries
+                snapshotCache.set(new CachedSnapshot(driver, UiSnapshot.parse(source), hash));
+            }
+            return stable;
+        };
+    }
+
+    /**
+     * Condition polling a locator; the first poll may use the cached
+     * snapshot, later polls fetch a fresh one
+     */
+    private BooleanSupplier displayedInFreshSnapshot(By locator) {
+        if (!AppConstants.SNAPSHOT_QUERIES) {
+            return () -> isDisplayedRemote(locator);
         }
+        boolean[] first = {true};
+        return () -> {
+            UiSnapshot current = first[0] ? snapshot() : refreshSnapshot();
+            first[0] = false;
+            try {
+                localQueries.incrementAndGet();
+                return current.isDisplayed(locator);
+            } catch (UnsupportedOperationException e) {
+                remoteFallbacks.incrementAndGet();
+                return isDisplayedRemote(locator);
+            }
+        };
+    }
+
+    private String callSite() {
+        return WaitEngine.callerOf(BasePage.class);
     }
 
     /**
      * Custom sleep with specified milliseconds
      */
     protected void sleep(int milliseconds) {
+        WaitEngine.sleep(callSite(), milliseconds);
+    }
+
+    // ================================================================
+    // SNAPSHOT QUERIES - One page source fetch answers many checks
+    // ================================================================
+
+    /**
+     * Current snapshot, fetching page source only if none is cached
+     */
+    protected UiSnapshot snapshot() {
+        CachedSnapshot cached = snapshotCache.get();
+        if (cached != null && cached.driver == driver) {
+            return cached.snapshot;
+        }
+        return refreshSnapshot();
+    }
+
+    /**
+     * Cached snapshot for this page's driver, or null (never fetches)
+     */
+    private UiSnapshot cachedSnapshot() {
+        CachedSnapshot cached = snapshotCache.get();
+        return cached != null && cached.driver == driver ? cached.snapshot : null;
+    }
+
+    /**
+     * Fetch page source and replace the cached snapshot
+     */
+    protected UiSnapshot refreshSnapshot() {
+        String source = fetchPageSource();
+        UiSnapshot fresh = UiSnapshot.parse(source);
+        snapshotCache.set(new CachedSnapshot(driver, fresh, source.hashCode()));
+        return fresh;
+    }
+
+    /**
+     * Drop the cached snapshot - runs after every UI-changing driver command
+     * (see TimedCommandExecutor), so page code rarely needs to call it
+     */
+    public static void invalidateSnapshot() {
+        snapshotCache.remove();
+        KeyboardState.invalidate();
+    }
+
+    /**
+     * Check if element matching locator is displayed (snapshot first)
+     */
+    protected boolean isDisplayed(By locator) {
+        if (AppConstants.SNAPSHOT_QUERIES) {
+            try {
+                UiSnapshot current = snapshot();
+                localQueries.incrementAndGet();
+                return current.isDisplayed(locator);
+            } catch (UnsupportedOperationException e) {
+                remoteFallbacks.incrementAndGet();
+            } catch (Exception e) {
+                return false;
+            }
+        }
+        return isDisplayedRemote(locator);
+    }
+
+    /**
+     * Check if element matching locator is enabled (snapshot first)
+     */
+    protected boolean isEnabled(By locator) {
+        if (AppConstants.SNAPSHOT_QUERIES) {
+            try {
+                UiSnapshot current = snapshot();
+                localQueries.incrementAndGet();
+                return current.isEnabled(locator);
+            } catch (UnsupportedOperationException e) {
+                remoteFallbacks.incrementAndGet();
+            } catch (Exception e) {
+                return false;
+            }
+        }
         try {
-            Thread.sleep(milliseconds);
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
+            List<WebElement> found = driver.findElements(locator);
+            return !found.isEmpty() && found.get(0).isEnabled();
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    /**
+     * State of the first element matching any of the locators, in order
+     *
+     * All attributes come from one snapshot (at most one page source fetch);
+     * a locator the snapshot cannot evaluate is read from the remote element
+     */
+    protected ElementState stateOf(By... locators) {
+        for (By locator : locators) {
+            ElementState state = stateOfOne(locator);
+            if (state.isPresent()) {
+                return state;
+            }
+        }
+        return ElementState.absent();
+    }
+
+    private ElementState stateOfOne(By locator) {
+        if (AppConstants.SNAPSHOT_QUERIES) {
+            try {
+                UiSnapshot current = snapshot();
+                localQueries.incrementAndGet();
+                UiNode node = current.find(locator);
+                return node == null ? ElementState.absent() : ElementState.of(node);
+            } catch (UnsupportedOperationException e) {
+                remoteFallbacks.incrementAndGet();
+            }
+        }
+        List<WebElement> found = driver.findElements(locator);
+        return found.isEmpty() ? ElementState.absent() : ElementState.of(found.get(0));
+    }
+
+    /**
+     * Attribute of the first element matching locator (snapshot first)
+     */
+    protected String getAttribute(By locator, String attributeName) {
+        if (AppConstants.SNAPSHOT_QUERIES) {
+            try {
+                UiSnapshot current = snapshot();
+                localQueries.incrementAndGet();
+                return current.getAttribute(locator, attributeName);
+            } catch (UnsupportedOperationException e) {
+                remoteFallbacks.incrementAndGet();
+            }
+        }
+        return driver.findElement(locator).getAttribute(attributeName);
+    }
+
+    /**
+     * Locator declared by a page field's @iOSXCUITFindBy annotation
+     */
+    protected By locatorOf(String fieldName) {
+        return locatorOf(getClass(), fieldName);
+    }
+
+    /**
+     * Locator declared by a field's @iOSXCUITFindBy annotation on the given page,
+     * for static constants shared outside the page object
+     */
+    protected static By locatorOf(Class<? extends BasePage> page, String fieldName) {
+        return fieldLocators.computeIfAbsent(page.getName() + "#" + fieldName, key -> {
+            try {
+                Field field = page.getDeclaredField(fieldName);
+                iOSXCUITFindBy findBy = field.getAnnotation(iOSXCUITFindBy.class);
+                if (findBy == null) {
+                    throw new IllegalArgumentException("Field has no @iOSXCUITFindBy: " + key);
+                }
+                if (!findBy.accessibility().isEmpty()) {
+                    return AppiumBy.accessibilityId(findBy.accessibility());
+                }
+                if (!findBy.iOSNsPredicate().isEmpty()) {
+                    return AppiumBy.iOSNsPredicateString(findBy.iOSNsPredicate());
+                }
+                if (!findBy.iOSClassChain().isEmpty()) {
+                    return AppiumBy.iOSClassChain(findBy.iOSClassChain());
+                }
+                if (!findBy.xpath().isEmpty()) {
+                    return By.xpath(findBy.xpath());
+                }
+                if (!findBy.id().isEmpty()) {
+                    return AppiumBy.id(findBy.id());
+                }
+                if (!findBy.className().isEmpty()) {
+                    return AppiumBy.className(findBy.className());
+                }
+                throw new IllegalArgumentException("Unsupported @iOSXCUITFindBy on " + key);
+            } catch (NoSuchFieldException e) {
+                throw new IllegalArgumentException("No such page field: " + key, e);
+            }
+        });
+    }
+
+    /** Page source round-trips made for snapshots and stability checks */
+    public static int getSnapshotFetchCount() {
+        return snapshotFetches.get();
+    }
+
+    /** Queries answered locally from a snapshot */
+    public static int getLocalQueryCount() {
+        return localQueries.get();
+    }
+
+    /** Queries the snapshot could not evaluate and sent to the server */
+    public static int getRemoteFallbackCount() {
+        return remoteFallbacks.get();
+    }
+
+    private String fetchPageSource() {
+        snapshotFetches.incrementAndGet();
+        return driver.getPageSource();
+    }
+
+    private boolean isDisplayedRemote(By locator) {
+        try {
+            List<WebElement> found = driver.findElements(locator);
+            return !found.isEmpty() && found.get(0).isDisplayed();
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    private static final class CachedSnapshot {
+        final IOSDriver driver;
+        final UiSnapshot snapshot;
+        final int sourceHash;
+
+        CachedSnapshot(IOSDriver driver, UiSnapshot snapshot, int sourceHash) {
+            this.driver = driver;
+            this.snapshot = snapshot;
+            this.sourceHash = sourceHash;
         }
     }
 
@@ -107,57 +474,19 @@ public abstract class BasePage {
      * Click on element with wait
      */
     protected void click(WebElement element) {
+        invalidateSnapshot();
         wait.until(ExpectedConditions.elementToBeClickable(element));
         element.click();
     }
 
     /**
      * Dismiss the keyboard to prevent click issues
+     * No-op when no keyboard is up (see KeyboardState)
+     *
+     * @return true when a keyboard was dismissed
      */
-    protected void dismissKeyboard() {
-        try {
-            // Try to hide keyboard using Appium's built-in method
-            driver.hideKeyboard();
-            shortWait(); // Brief wait after hiding keyboard
-        } catch (Exception e) {
-            // If hideKeyboard doesn't work, try alternative methods
-            try {
-                // Alternative: press the 'Done' key on the keyboard
-                driver.hideKeyboard("Done");
-                shortWait();
-            } catch (Exception ex1) {
-                try {
-                    // Try pressing the 'Return' key
-                    driver.hideKeyboard("Return");
-                    shortWait();
-                } catch (Exception ex2) {
-                    try {
-                        // Try pressing the 'Go' key
-                        driver.hideKeyboard("Go");
-                        shortWait();
-                    } catch (Exception ex3) {
-                        try {
-                            // Alternative: tap on the screen to dismiss keyboard
-                            driver.executeScript("mobile: tap", 
-                                java.util.Collections.singletonMap("x", 100),
-                                java.util.Collections.singletonMap("y", 100));
-                            shortWait();
-                        } catch (Exception ex4) {
-                            try {
-                                // Use TouchAction as fallback
-                                io.appium.java_client.TouchAction touchAction = 
-                                    new io.appium.java_client.TouchAction(driver);
-                                touchAction.tap(io.appium.java_client.touch.offset.PointOption.point(100, 100)).perform();
-                                shortWait();
-                            } catch (Exception ex5) {
-                                // If all methods fail, just continue with the test
-                                System.out.println("Could not dismiss keyboard, continuing test...");
-                            }
-                        }
-                    }
-                }
-            }
-        }
+    protected boolean dismissKeyboard() {
+        return KeyboardState.dismiss(driver, cachedSnapshot());
     }
 
     /**
@@ -165,8 +494,9 @@ public abstract class BasePage {
      */
     protected void clickWithKeyboardDismiss(WebElement element) {
         // Dismiss keyboard before clicking to prevent click issues
-        dismissKeyboard();
-        shortWait();
+        if (dismissKeyboard()) {
+            shortWait();
+        }
         wait.until(ExpectedConditions.elementToBeClickable(element));
         element.click();
     }
@@ -175,6 +505,7 @@ public abstract class BasePage {
      * Enter text into element with wait and clear
      */
     protected void enterText(WebElement element, String text) {
+        invalidateSnapshot();
         wait.until(ExpectedConditions.visibilityOf(element));
         element.clear();
         element.sendKeys(text);
@@ -250,6 +581,22 @@ public abstract class BasePage {
         return wait.until(ExpectedConditions.invisibilityOf(element));
     }
 
+    /**
+     * Find the first element matching locator within timeout
+     * Implicit wait is suspended so the timeout is exact (used by FallbackChain)
+     */
+    protected WebElement findWithin(By locator, Duration timeout) {
+        driver.manage().timeouts().implicitlyWait(Duration.ZERO);
+        try {
+            return new WebDriverWait(driver, timeout, Duration.ofMillis(100)).until(d -> {
+                List<WebElement> found = d.findElements(locator);
+                return found.isEmpty() ? null : found.get(0);
+            });
+        } finally {
+            driver.manage().timeouts().implicitlyWait(Duration.ofSeconds(AppConstants.IMPLICIT_WAIT));
+        }
+    }
+
     /**
      * Wait with custom timeout
      */
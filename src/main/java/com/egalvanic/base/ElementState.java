@@ -0,0 +1,121 @@
+package com.egalvanic.base;
+
+import com.egalvanic.base.snapshot.UiNode;
+import org.openqa.selenium.Rectangle;
+import org.openqa.selenium.WebElement;
+
+/**
+ * Immutable state of one element read in a single pass
+ *
+ * Presence, display and enabled state, the common attributes and the rect,
+ * taken from a page source snapshot (no extra round-trip) or, for locators
+ * a snapshot cannot evaluate, from the remote element (one call per
+ * attribute) - see BasePage.stateOf().
+ */
+public final class ElementState {
+
+    private static final ElementState ABSENT = new ElementState(false, false, false,
+        null, null, null, null, null, new Rectangle(0, 0, 0, 0));
+
+    private final boolean present;
+    private final boolean displayed;
+    private final boolean enabled;
+    private final String type;
+    private final String name;
+    private final String label;
+    private final String value;
+    private final String placeholder;
+    private final Rectangle rect;
+
+    private ElementState(boolean present, boolean displayed, boolean enabled, String type, String name,
+                         String label, String value, String placeholder, Rectangle rect) {
+        this.present = present;
+        this.displayed = displayed;
+        this.enabled = enabled;
+        this.type = type;
+        this.name = name;
+        this.label = label;
+        this.value = value;
+        this.placeholder = placeholder;
+        this.rect = rect;
+    }
+
+    /** No element matched */
+    public static ElementState absent() {
+        return ABSENT;
+    }
+
+    /**
+     * State from a snapshot node (no round-trip)
+     */
+    public static ElementState of(UiNode node) {
+        return new ElementState(true, node.isVisible(), node.isEnabled(), node.getType(), node.getName(),
+            node.getLabel(), node.getValue(), node.getAttribute("placeholderValue"),
+            new Rectangle(node.getInt("x"), node.getInt("y"), node.getInt("height"), node.getInt("width")));
+    }
+
+    /**
+     * State read attribute by attribute from a remote element
+     */
+    public static ElementState of(WebElement element) {
+        return new ElementState(true, element.isDisplayed(), element.isEnabled(), element.getAttribute("type"),
+            element.getAttribute("name"), element.getAttribute("label"), element.getAttribute("value"),
+            element.getAttribute("placeholderValue"), element.getRect());
+    }
+
+    public boolean isPresent() {
+        return present;
+    }
+
+    public boolean isDisplayed() {
+        return displayed;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getLabel() {
+        return label;
+    }
+
+    public String getValue() {
+        return value;
+    }
+
+    public String getPlaceholder() {
+        return placeholder;
+    }
+
+    public Rectangle getRect() {
+        return rect;
+    }
+
+    /** Value is null or whitespace */
+    public boolean isBlank() {
+        return value == null || value.trim().isEmpty();
+    }
+
+    /** Text field showing nothing but its placeholder (iOS reports the placeholder as value) */
+    public boolean isEmpty() {
+        return isBlank() || value.equals(placeholder);
+    }
+
+    @Override
+    public String toString() {
+        if (!present) {
+            return "ElementState[absent]";
+        }
+        return "ElementState[" + type + " name=" + name + " value=" + value + " displayed=" + displayed
+            + " enabled=" + enabled + " rect=" + rect.getX() + "," + rect.getY() + " "
+            + rect.getWidth() + "x" + rect.getHeight() + "]";
+    }
+}
@@ -0,0 +1,130 @@
+package com.egalvanic.base;
+
+import com.egalvanic.constants.AppConstants;
+import com.egalvanic.utils.FlightRecorder;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Ordered list of strategies for locating / acting on one element
+ *
+ * Strategies are tried in declaration order until one succeeds. The winner is
+ * remembered in LocatorMemory, and on later calls it is tried first with a
+ * short timeout so a stale early strategy no longer burns a full wait.
+ * Every strategy tried is recorded in the FlightRecorder.
+ *
+ * Usage:
+ *   new FallbackChain<Void>("LoginPage.signInButton")
+ *       .attempt("accessibility", timeout -> { ...; return null; })
+ *       .attempt("predicate", timeout -> { ...; return null; })
+ *       .run();
+ */
+public class FallbackChain<T> {
+
+    private final String elementKey;
+    private final List<Strategy<T>> strategies = new ArrayList<>();
+
+    public FallbackChain(String elementKey) {
+        this.elementKey = elementKey;
+    }
+
+    /**
+     * Add a strategy; it receives the timeout it should wait for the element
+     */
+    public FallbackChain<T> attempt(String name, Function<Duration, T> action) {
+        strategies.add(new Strategy<>(name, action));
+        return this;
+    }
+
+    /**
+     * Run strategies (learned winner first) and return the first result
+     *
+     * @throws RuntimeException if every strategy failed
+     */
+    public T run() {
+        Duration fullTimeout = Duration.ofSeconds(AppConstants.AJAX_TIMEOUT);
+        Duration learnedTimeout = Duration.ofSeconds(AppConstants.LEARNED_LOCATOR_TIMEOUT);
+
+        String learned = LocatorMemory.get(elementKey);
+        Strategy<T> preferred = find(learned);
+        RuntimeException lastFailure = null;
+
+        if (preferred != null) {
+            try {
+                T result = attempt(preferred, learnedTimeout);
+                LocatorMemory.recordLearnedHit();
+                return result;
+            } catch (RuntimeException e) {
+                LocatorMemory.recordLearnedMiss();
+                lastFailure = e;
+            }
+        }
+
+        for (Strategy<T> strategy : strategies) {
+            if (strategy == preferred) {
+                continue;
+            }
+            try {
+                T result = attempt(strategy, fullTimeout);
+                LocatorMemory.remember(elementKey, strategy.name);
+                return result;
+            } catch (RuntimeException e) {
+                lastFailure = e;
+            }
+        }
+
+        // Learned strategy may have only needed more time
+        if (preferred != null) {
+            try {
+                return attempt(preferred, fullTimeout);
+            } catch (RuntimeException e) {
+                lastFailure = e;
+            }
+        }
+
+        throw new RuntimeException("All " + strategies.size() + " strategies failed for " + elementKey, lastFailure);
+    }
+
+    /**
+     * Apply one strategy, recording it in the FlightRecorder
+     */
+    private T attempt(Strategy<T> strategy, Duration timeout) {
+        long start = System.nanoTime();
+        String outcome = null;
+        try {
+            return strategy.action.apply(timeout);
+        } catch (RuntimeException e) {
+            outcome = e.getClass().getSimpleName();
+            throw e;
+        } finally {
+            FlightRecorder.record(strategy.recorderKey, elementKey, System.nanoTime() - start, outcome);
+        }
+    }
+
+    private Strategy<T> find(String name) {
+        if (name == null) {
+            return null;
+        }
+        for (Strategy<T> strategy : strategies) {
+            if (strategy.name.equals(name)) {
+                return strategy;
+            }
+        }
+        return null;
+    }
+
+    private static final class Strategy<T> {
+        final String name;
+        final Function<Duration, T> action;
+        final String recorderKey;
+
+        Strategy(String name, Function<Duration, T> action) {
+            this.name = name;
+            this.action = action;
+            this.recorderKey = "fallback[" + name + "]";
+        }
+    }
+}
@@ -0,0 +1,212 @@
+package com.egalvanic.base;
+
+import com.egalvanic.base.snapshot.UiSnapshot;
+import com.egalvanic.constants.AppConstants;
+import io.appium.java_client.AppiumBy;
+import io.appium.java_client.ios.IOSDriver;
+import org.openqa.selenium.By;
+import org.openqa.selenium.Capabilities;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Tracks whether the on-screen keyboard is up so dismissal only runs when needed
+ *
+ * dismiss() first checks for a keyboard - from the cached page snapshot
+ * when there is one, otherwise with one isKeyboardShown call - and returns
+ * straight away when none is up. Once the keyboard is known to be hidden,
+ * further calls are free until the next UI action (BasePage.invalidateSnapshot).
+ *
+ * When a keyboard is up, the dismissal methods run as a FallbackChain keyed
+ * by device, so the method that worked for this device and app build
+ * (LocatorMemory) is tried first next time.
+ */
+public final class KeyboardState {
+
+    static final By KEYBOARD = AppiumBy.className("XCUIElementTypeKeyboard");
+
+    // Session whose keyboard is known hidden, until the next UI action on this thread
+    private static final ThreadLocal<String> knownHidden = new ThreadLocal<>();
+
+    // Metrics
+    private static final AtomicInteger calls = new AtomicInteger();
+    private static final AtomicInteger skipped = new AtomicInteger();
+    private static final AtomicInteger absent = new AtomicInteger();
+    private static final AtomicInteger dismissals = new AtomicInteger();
+    private static final AtomicInteger failures = new AtomicInteger();
+    private static final AtomicLong checkNanos = new AtomicLong();
+    private static final AtomicLong dismissNanos = new AtomicLong();
+
+    private KeyboardState() {}
+
+    // ================================================================
+    // DISMISSAL
+    // ================================================================
+
+    /**
+     * Hide the keyboard if one is up
+     *
+     * @param snapshot current page snapshot, or null to ask the server
+     * @return true when a keyboard was up and has been dismissed
+     */
+    public static boolean dismiss(IOSDriver driver, UiSnapshot snapshot) {
+        calls.incrementAndGet();
+        String sessionId = sessionIdOf(driver);
+        if (snapshot == null && sessionId != null && sessionId.equals(knownHidden.get())) {
+            skipped.incrementAndGet();
+            return false;
+        }
+
+        long start = System.nanoTime();
+        boolean shown = snapshot != null ? snapshot.find(KEYBOARD) != null : isShown(driver);
+        checkNanos.addAndGet(System.nanoTime() - start);
+        if (!shown) {
+            absent.incrementAndGet();
+            markHidden(sessionId);
+            return false;
+        }
+
+        BasePage.invalidateSnapshot();
+        start = System.nanoTime();
+        try {
+            new FallbackChain<Void>("KeyboardState.dismiss@" + deviceOf(driver))
+                .attempt("hideKeyboard", timeout -> verify(driver, "hideKeyboard", driver::hideKeyboard))
+                .attempt("doneKey", timeout -> verify(driver, "doneKey", () -> driver.hideKeyboard("Done")))
+                .attempt("returnKey", timeout -> verify(driver, "returnKey", () -> driver.hideKeyboard("Return")))
+                .attempt("goKey", timeout -> verify(driver, "goKey", () -> driver.hideKeyboard("Go")))
+                // Tap outside the keyboard
+                .attempt("mobileTap", timeout -> verify(driver, "mobileTap",
+                    () -> driver.executeScript("mobile: tap", Map.of("x", 100, "y", 100))))
+                .run();
+            dismissals.incrementAndGet();
+            markHidden(sessionId);
+            return true;
+        } catch (RuntimeException e) {
+            // If all methods fail, just continue with the test
+            failures.incrementAndGet();
+            System.out.println("Could not dismiss keyboard, continuing test...");
+            return false;
+        } finally {
+            dismissNanos.addAndGet(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Forget the known-hidden state (any UI action may bring the keyboard up)
+     */
+    public static void invalidate() {
+        knownHidden.remove();
+    }
+
+    /**
+     * Run one dismissal method and wait for the keyboard to go
+     *
+     * @throws IllegalStateException when the keyboard is still up, so the chain moves on
+     */
+    private static Void verify(IOSDriver driver, String method, Runnable action) {
+        action.run();
+        if (!WaitEngine.waitUntil("KeyboardState." + method, AppConstants.SHORT_WAIT,
+                AppConstants.SETTLE_BUDGET, () -> !isShown(driver))) {
+            throw new IllegalStateException("Keyboard still shown after " + method);
+        }
+        return null;
+    }
+
+    private static boolean isShown(IOSDriver driver) {
+        try {
+            return driver.isKeyboardShown();
+        } catch (Exception e) {
+            // Unknown - assume it is up so the dismissal still runs
+            return true;
+        }
+    }
+
+    private static void markHidden(String sessionId) {
+        if (sessionId != null) {
+            knownHidden.set(sessionId);
+        }
+    }
+
+    private static String sessionIdOf(IOSDriver driver) {
+        try {
+            return driver.getSessionId() == null ? null : driver.getSessionId().toString();
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    /**
+     * Device name and OS version from the session (the app build is part of the LocatorMemory key)
+     */
+    static String deviceOf(IOSDriver driver) {
+        try {
+            Capabilities caps = driver.getCapabilities();
+            return caps.getCapability("deviceName") + "/" + caps.getCapability("platformVersion");
+        } catch (Exception e) {
+            return "unknown";
+        }
+    }
+
+    // ================================================================
+    // REPORTING
+    // ================================================================
+
+    public static int getCallCount() {
+        return calls.get();
+    }
+
+    /** Calls answered from the known-hidden state without a round-trip */
+    public static int getSkippedCount() {
+        return skipped.get();
+    }
+
+    /** Calls where the check found no keyboard */
+    public static int getAbsentCount() {
+        return absent.get();
+    }
+
+    public static int getDismissalCount() {
+        return dismissals.get();
+    }
+
+    public static int getFailureCount() {
+        return failures.get();
+    }
+
+    /**
+     * Estimated time saved: calls that found no keyboard, at the average
+     * cost of a real dismissal, less the time spent checking
+     */
+    public static long getAvoidedMillis() {
+        int dismissed = dismissals.get() + failures.get();
+        if (dismissed == 0) {
+            return 0;
+        }
+        long perDismissal = dismissNanos.get() / dismissed;
+        long avoided = (skipped.get() + absent.get()) * perDismissal - checkNanos.get();
+        return Math.max(0, TimeUnit.NANOSECONDS.toMillis(avoided));
+    }
+
+    public static String getReport() {
+        int dismissed = dismissals.get() + failures.get();
+        return String.format("Keyboard dismiss calls: %d, skipped (known hidden): %d, no keyboard: %d, "
+                + "dismissed: %d, failed: %d%n"
+                + "Check time: %d ms, dismissal time: %d ms (avg %d ms), est. avoided: %d ms%n",
+            calls.get(), skipped.get(), absent.get(), dismissals.get(), failures.get(),
+            TimeUnit.NANOSECONDS.toMillis(checkNanos.get()), TimeUnit.NANOSECONDS.toMillis(dismissNanos.get()),
+            dismissed == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(dismissNanos.get() / dismissed), getAvoidedMillis());
+    }
+
+    public static void resetStats() {
+        calls.set(0);
+        skipped.set(0);
+        absent.set(0);
+        dismissals.set(0);
+        failures.set(0);
+        checkNanos.set(0);
+        dismissNanos.set(0);
+    }
+}
@@ -0,0 +1,129 @@
+package com.egalvanic.base;
+
+import com.egalvanic.constants.AppConstants;
+
+import java.io.File;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.util.Properties;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Remembers which fallback strategy located each element, per app build
+ *
+ * Stored as a small properties file (key "build|element" = strategy name)
+ * so the learned order survives across runs. A new app build starts with
+ * an empty memory and re-learns.
+ */
+public final class LocatorMemory {
+
+    private static final Properties learned = new Properties();
+    private static final AtomicInteger learnedHits = new AtomicInteger();
+    private static final AtomicInteger learnedMisses = new AtomicInteger();
+
+    private static File file = new File(AppConstants.LOCATOR_MEMORY_PATH);
+    private static String appBuild = resolveAppBuild();
+
+    static {
+        load();
+    }
+
+    private LocatorMemory() {}
+
+    /**
+     * Strategy that last succeeded for this element on the current build, or null
+     */
+    public static synchronized String get(String elementKey) {
+        return learned.getProperty(key(elementKey));
+    }
+
+    /**
+     * Record the strategy that succeeded; persists only when it changed
+     */
+    public static synchronized void remember(String elementKey, String strategy) {
+        String key = key(elementKey);
+        if (!strategy.equals(learned.getProperty(key))) {
+            learned.setProperty(key, strategy);
+            save();
+        }
+    }
+
+    static void recordLearnedHit() {
+        learnedHits.incrementAndGet();
+    }
+
+    static void recordLearnedMiss() {
+        learnedMisses.incrementAndGet();
+    }
+
+    /** Calls where the learned strategy worked on the first try */
+    public static int getLearnedHitCount() {
+        return learnedHits.get();
+    }
+
+    /** Calls where the learned strategy failed and the chain fell back */
+    public static int getLearnedMissCount() {
+        return learnedMisses.get();
+    }
+
+    public static String getAppBuild() {
+        return appBuild;
+    }
+
+    /**
+     * Point the memory at another file and build (used by offline tests)
+     */
+    public static synchronized void useFile(File memoryFile, String build) {
+        file = memoryFile;
+        appBuild = build;
+        learned.clear();
+        load();
+    }
+
+    // ================================================================
+    // PERSISTENCE
+    // ================================================================
+
+    private static String key(String elementKey) {
+        return appBuild + "|" + elementKey;
+    }
+
+    private static synchronized void load() {
+        if (!file.exists()) {
+            return;
+        }
+        try (Reader reader = new FileReader(file)) {
+            learned.load(reader);
+        } catch (IOException e) {
+            System.err.println("Could not read locator memory " + file + ": " + e.getMessage());
+        }
+    }
+
+    private static void save() {
+        try {
+            File parent = file.getAbsoluteFile().getParentFile();
+            if (parent != null) {
+                parent.mkdirs();
+            }
+            try (Writer writer = new FileWriter(file)) {
+                learned.store(writer, "Learned fallback locator order (build|element=strategy)");
+            }
+        } catch (IOException e) {
+            System.err.println("Could not write locator memory " + file + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * APP_BUILD if set, otherwise the app bundle name plus its modification time
+     */
+    private static String resolveAppBuild() {
+        if (!AppConstants.APP_BUILD.isEmpty()) {
+            return AppConstants.APP_BUILD;
+        }
+        File app = new File(AppConstants.APP_PATH);
+        return app.exists() ? app.getName() + "@" + app.lastModified() : app.getName();
+    }
+}
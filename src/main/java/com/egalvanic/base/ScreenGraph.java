@@ -0,0 +1,293 @@
+package com.egalvanic.base;
+
+import com.egalvanic.base.snapshot.UiSnapshot;
+import com.egalvanic.constants.AppConstants;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Declarative screen graph with a shortest-path navigation planner
+ *
+ * Page objects register their screen (a detector evaluated on one page
+ * source snapshot) and their outgoing transitions with an estimated cost.
+ * navigateTo() detects the current screen, runs the cheapest path to the
+ * target and verifies every hop, replanning from wherever the app actually
+ * ended up when a hop misses.
+ *
+ * Each transition records its measured latency; once it has run, the
+ * planner uses the smoothed latency divided by the success rate instead
+ * of the declared cost - see getReport().
+ */
+public final class ScreenGraph {
+
+    static final double LATENCY_SMOOTHING = 0.3;
+
+    private final Supplier<UiSnapshot> snapshots;
+
+    // Screen name -> detector; registration order is detection order
+    private final Map<String, Predicate<UiSnapshot>> screens = new LinkedHashMap<>();
+    // Outgoing transitions per screen (targets may be registered later)
+    private final Map<String, List<Transition>> transitions = new HashMap<>();
+
+    /**
+     * @param snapshots fetches a fresh snapshot of the current UI
+     */
+    public ScreenGraph(Supplier<UiSnapshot> snapshots) {
+        this.snapshots = snapshots;
+    }
+
+    // ================================================================
+    // REGISTRATION
+    // ================================================================
+
+    /**
+     * Register a screen and how to recognise it
+     */
+    public synchronized ScreenGraph screen(String name, Predicate<UiSnapshot> detector) {
+        screens.put(name, detector);
+        return this;
+    }
+
+    /**
+     * Register a transition (its screens may be registered later)
+     * The action runs on the test thread and should leave the app on the target screen
+     *
+     * @param costMs estimated duration, used until the transition has been measured
+     */
+    public synchronized ScreenGraph transition(String from, String to, long costMs, Runnable action) {
+        transitions.computeIfAbsent(from, k -> new ArrayList<>()).add(new Transition(from, to, costMs, action));
+        return this;
+    }
+
+    public synchronized Set<String> getScreens() {
+        return Collections.unmodifiableSet(new HashSet<>(screens.keySet()));
+    }
+
+    // ================================================================
+    // DETECTION / PLANNING
+    // ================================================================
+
+    /**
+     * Screen the app is on now, or null when no detector matches
+     */
+    public String detectCurrent() {
+        return detect(snapshots.get());
+    }
+
+    public synchronized String detect(UiSnapshot snapshot) {
+        for (Map.Entry<String, Predicate<UiSnapshot>> screen : screens.entrySet()) {
+            try {
+                if (screen.getValue().test(snapshot)) {
+                    return screen.getKey();
+                }
+            } catch (RuntimeException e) {
+                // A detector that cannot evaluate this snapshot does not match
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Cheapest sequence of transitions from one screen to another
+     * (empty when already there; null when unreachable)
+     */
+    public synchronized List<Transition> plan(String from, String to) {
+        if (from.equals(to)) {
+            return Collections.emptyList();
+        }
+        Map<String, Long> distance = new HashMap<>();
+        Map<String, Transition> via = new HashMap<>();
+        Set<String> done = new HashSet<>();
+        distance.put(from, 0L);
+
+        while (true) {
+            String next = null;
+            for (Map.Entry<String, Long> entry : distance.entrySet()) {
+                if (!done.contains(entry.getKey()) && (next == null || entry.getValue() < distance.get(next))) {
+                    next = entry.getKey();
+                }
+            }
+            if (next == null) {
+                return null;
+            }
+            if (next.equals(to)) {
+                break;
+            }
+            done.add(next);
+            for (Transition transition : transitions.getOrDefault(next, Collections.emptyList())) {
+                long candidate = distance.get(next) + transition.getCostMillis();
+                Long known = distance.get(transition.to);
+                if (known == null || candidate < known) {
+                    distance.put(transition.to, candidate);
+                    via.put(transition.to, transition);
+                }
+            }
+        }
+
+        List<Transition> path = new ArrayList<>();
+        for (String screen = to; !screen.equals(from); screen = via.get(screen).from) {
+            path.add(0, via.get(screen));
+        }
+        return path;
+    }
+
+    // ================================================================
+    // NAVIGATION
+    // ================================================================
+
+    /**
+     * Take the app from whatever screen it is on to the target screen
+     *
+     * @throws IllegalStateException when the current screen is unknown or the target unreachable
+     */
+    public void navigateTo(String target) {
+        if (!getScreens().contains(target)) {
+            throw new IllegalArgumentException("Unknown screen: " + target);
+        }
+        int maxHops = getScreens().size() * 2;
+        String current = detectCurrent();
+        for (int hop = 0; hop <= maxHops; hop++) {
+            if (target.equals(current)) {
+                return;
+            }
+            if (current == null) {
+                throw new IllegalStateException("Cannot navigate to " + target + ": current screen not recognised");
+            }
+            List<Transition> path = plan(current, target);
+            if (path == null) {
+                throw new IllegalStateException("No path from " + current + " to " + target);
+            }
+            current = run(path.get(0));
+        }
+        throw new IllegalStateException("Gave up navigating to " + target + " after " + maxHops + " hops");
+    }
+
+    /**
+     * Run one transition and verify arrival
+     *
+     * @return the screen the app is on afterwards
+     */
+    private String run(Transition transition) {
+        long start = System.nanoTime();
+        boolean arrived;
+        try {
+            transition.action.run();
+            BasePage.invalidateSnapshot();
+            arrived = WaitEngine.waitUntil("ScreenGraph." + transition, AppConstants.PAGE_LOAD_WAIT,
+                AppConstants.PAGE_LOAD_BUDGET, () -> transition.to.equals(detectCurrent()));
+        } catch (RuntimeException e) {
+            System.out.println("✗ Transition " + transition + " failed: " + e.getMessage());
+            arrived = false;
+        }
+        String landed = arrived && AppConstants.ADAPTIVE_WAITS ? transition.to : detectCurrent();
+        transition.record(System.nanoTime() - start, transition.to.equals(landed));
+        System.out.println((transition.to.equals(landed) ? "✔ " : "✗ ") + "Screen " + transition
+            + (transition.to.equals(landed) ? "" : " landed on " + landed));
+        return landed;
+    }
+
+    // ================================================================
+    // REPORTING
+    // ================================================================
+
+    /**
+     * Declared vs. measured cost per transition
+     */
+    public synchronized String getReport() {
+        StringBuilder report = new StringBuilder();
+        report.append(String.format("%-35s %6s %6s %10s %10s %10s%n",
+            "Transition", "Runs", "Misses", "Declared", "Smoothed", "Cost ms"));
+        for (List<Transition> outgoing : transitions.values()) {
+            for (Transition t : outgoing) {
+                report.append(String.format("%-35s %6d %6d %10d %10d %10d%n", t, t.getRuns(),
+                    t.getRuns() - t.getSuccesses(), t.declaredCostMs, t.getSmoothedMillis(), t.getCostMillis()));
+            }
+        }
+        return report.toString();
+    }
+
+    public synchronized Transition getTransition(String from, String to) {
+        for (Transition transition : transitions.getOrDefault(from, Collections.emptyList())) {
+            if (transition.to.equals(to)) {
+                return transition;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Edge between two screens with its measured latency
+     */
+    public static final class Transition {
+        final String from;
+        final String to;
+        final long declaredCostMs;
+        final Runnable action;
+
+        private int runs;
+        private int successes;
+        private double smoothedNanos;
+
+        Transition(String from, String to, long declaredCostMs, Runnable action) {
+            this.from = from;
+            this.to = to;
+            this.declaredCostMs = declaredCostMs;
+            this.action = action;
+        }
+
+        synchronized void record(long nanos, boolean success) {
+            smoothedNanos = runs == 0 ? nanos : LATENCY_SMOOTHING * nanos + (1 - LATENCY_SMOOTHING) * smoothedNanos;
+            runs++;
+            if (success) {
+                successes++;
+            }
+        }
+
+        /**
+         * Planning cost: declared until measured, then smoothed latency over
+         * the (Laplace-smoothed) success rate, so unreliable hops cost more
+         */
+        public synchronized long getCostMillis() {
+            if (runs == 0) {
+                return declaredCostMs;
+            }
+            double successRate = (successes + 1.0) / (runs + 1.0);
+            return Math.max(1, Math.round(TimeUnit.NANOSECONDS.toMillis((long) smoothedNanos) / successRate));
+        }
+
+        public synchronized long getSmoothedMillis() {
+            return TimeUnit.NANOSECONDS.toMillis((long) smoothedNanos);
+        }
+
+        public synchronized int getRuns() {
+            return runs;
+        }
+
+        public synchronized int getSuccesses() {
+            return successes;
+        }
+
+        public String getFrom() {
+            return from;
+        }
+
+        public String getTo() {
+            return to;
+        }
+
+        @Override
+        public String toString() {
+            return from + " -> " + to;
+        }
+    }
+}
@@ -0,0 +1,236 @@
+package com.egalvanic.base;
+
+import com.egalvanic.constants.AppConstants;
+import com.egalvanic.utils.CommandTimings;
+import com.egalvanic.utils.FrameworkEvents;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Adaptive wait engine - polls a real condition instead of sleeping
+ *
+ * Each wait is keyed by its call site (e.g. "LoginPage.enterEmail"). The
+ * condition is polled with exponential backoff until it holds or the call
+ * site's budget runs out. A call site that keeps timing out has its budget
+ * cut back to the old fixed sleep, so a condition that never holds costs
+ * no more than the legacy Thread.sleep did.
+ *
+ * Per call site the engine records actual time waited next to the fixed
+ * sleep it replaced - see getReport(). Each wait is also a JFR WaitEvent.
+ */
+public final class WaitEngine {
+
+    static final long INITIAL_POLL_MS = 50;
+    static final long MAX_POLL_MS = 400;
+    static final int TIMEOUTS_BEFORE_FALLBACK = 2;
+
+    private static final Map<String, CallSiteStats> stats = new ConcurrentHashMap<>();
+
+    private WaitEngine() {}
+
+    /**
+     * Poll condition until it holds or the call site budget is spent
+     *
+     * @param callSite    stable name of the waiting code, e.g. "WelcomePage.tapContinue"
+     * @param legacyMs    fixed sleep this wait replaces (for reporting and fallback)
+     * @param budgetMs    default budget for this call site
+     * @param condition   condition to poll; exceptions count as "not yet"
+     * @return true if the condition held within the budget
+     */
+    public static boolean waitUntil(String callSite, long legacyMs, long budgetMs, BooleanSupplier condition) {
+        FrameworkEvents.WaitEvent event = new FrameworkEvents.WaitEvent();
+        event.begin();
+        boolean satisfied = AppConstants.ADAPTIVE_WAITS
+            ? poll(callSite, legacyMs, budgetMs, condition) : fixedSleep(callSite, legacyMs, budgetMs);
+        commit(event, AppConstants.ADAPTIVE_WAITS ? "adaptive" : "fixed", callSite, legacyMs, satisfied);
+        return satisfied;
+    }
+
+    /**
+     * Record a plain sleep (no condition) of a page object as a JFR wait event
+     */
+    static void sleep(String callSite, long millis) {
+        FrameworkEvents.WaitEvent event = new FrameworkEvents.WaitEvent();
+        event.begin();
+        CommandTimings.sleep(millis);
+        commit(event, "sleep", callSite, millis, true);
+    }
+
+    private static void commit(FrameworkEvents.WaitEvent event, String kind, String callSite, long legacyMs,
+                               boolean satisfied) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.test = CommandTimings.getCurrentTest();
+            event.kind = kind;
+            event.callSite = callSite;
+            event.legacyMillis = legacyMs;
+            event.satisfied = satisfied;
+            event.commit();
+        }
+    }
+
+    private static boolean fixedSleep(String callSite, long legacyMs, long budgetMs) {
+        CallSiteStats site = stats.computeIfAbsent(callSite, k -> new CallSiteStats(legacyMs, budgetMs));
+        sleepQuietly(legacyMs);
+        site.record(TimeUnit.MILLISECONDS.toNanos(legacyMs), true);
+        return true;
+    }
+
+    private static boolean poll(String callSite, long legacyMs, long budgetMs, BooleanSupplier condition) {
+        CallSiteStats site = stats.computeIfAbsent(callSite, k -> new CallSiteStats(legacyMs, budgetMs));
+
+        long start = System.nanoTime();
+        long deadline = start + TimeUnit.MILLISECONDS.toNanos(site.budgetMs());
+        long pollMs = INITIAL_POLL_MS;
+        boolean satisfied = false;
+
+        while (true) {
+            if (check(condition)) {
+                satisfied = true;
+                break;
+            }
+            long remainingMs = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+            if (remainingMs <= 0 || Thread.currentThread().isInterrupted()) {
+                break;
+            }
+            sleepQuietly(Math.min(pollMs, remainingMs));
+            pollMs = Math.min(pollMs * 2, MAX_POLL_MS);
+        }
+
+        site.record(System.nanoTime() - start, satisfied);
+        return satisfied;
+    }
+
+    /**
+     * Name of the page method that called into BasePage, e.g. "LoginPage.tapSignIn"
+     */
+    static String callerOf(Class<?>... skip) {
+        return StackWalker.getInstance(StackWalker.Option.RETAIN_CLASS_REFERENCE)
+            .walk(frames -> frames
+                .filter(f -> f.getDeclaringClass() != WaitEngine.class && !isSkipped(f.getDeclaringClass(), skip))
+                .findFirst()
+                .map(f -> f.getDeclaringClass().getSimpleName() + "." + f.getMethodName())
+                .orElse("unknown"));
+    }
+
+    private static boolean isSkipped(Class<?> type, Class<?>[] skip) {
+        for (Class<?> s : skip) {
+            if (s == type) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean check(BooleanSupplier condition) {
+        try {
+            return condition.getAsBoolean();
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    private static void sleepQuietly(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // ================================================================
+    // REPORTING
+    // ================================================================
+
+    /**
+     * Actual vs. legacy fixed wait per call site, worst savings last
+     */
+    public static String getReport() {
+        List<Map.Entry<String, CallSiteStats>> entries = new ArrayList<>(stats.entrySet());
+        entries.sort((a, b) -> Long.compare(b.getValue().savedMillis(), a.getValue().savedMillis()));
+
+        StringBuilder report = new StringBuilder();
+        report.append(String.format("%-45s %6s %8s %10s %10s %10s%n",
+            "Call site", "Calls", "Timeouts", "Actual ms", "Legacy ms", "Saved ms"));
+        long actual = 0;
+        long legacy = 0;
+        for (Map.Entry<String, CallSiteStats> entry : entries) {
+            CallSiteStats s = entry.getValue();
+            report.append(String.format("%-45s %6d %8d %10d %10d %10d%n",
+                entry.getKey(), s.calls.get(), s.timeouts.get(),
+                s.actualMillis(), s.legacyMillis(), s.savedMillis()));
+            actual += s.actualMillis();
+            legacy += s.legacyMillis();
+        }
+        report.append(String.format("%-45s %6s %8s %10d %10d %10d%n", "TOTAL", "", "", actual, legacy, legacy - actual));
+        return report.toString();
+    }
+
+    public static long getTotalActualMillis() {
+        return stats.values().stream().mapToLong(CallSiteStats::actualMillis).sum();
+    }
+
+    public static long getTotalLegacyMillis() {
+        return stats.values().stream().mapToLong(CallSiteStats::legacyMillis).sum();
+    }
+
+    public static void reset() {
+        stats.clear();
+    }
+
+    /**
+     * Current budget for a call site (after any fallback)
+     */
+    public static long getBudgetMillis(String callSite) {
+        CallSiteStats site = stats.get(callSite);
+        return site == null ? -1 : site.budgetMs();
+    }
+
+    private static final class CallSiteStats {
+        final long legacyMs;
+        final long defaultBudgetMs;
+        final AtomicInteger calls = new AtomicInteger();
+        final AtomicInteger timeouts = new AtomicInteger();
+        final AtomicInteger consecutiveTimeouts = new AtomicInteger();
+        final AtomicLong actualNanos = new AtomicLong();
+
+        CallSiteStats(long legacyMs, long defaultBudgetMs) {
+            this.legacyMs = legacyMs;
+            this.defaultBudgetMs = Math.max(defaultBudgetMs, legacyMs);
+        }
+
+        long budgetMs() {
+            return consecutiveTimeouts.get() >= TIMEOUTS_BEFORE_FALLBACK ? legacyMs : defaultBudgetMs;
+        }
+
+        void record(long waitedNanos, boolean satisfied) {
+            calls.incrementAndGet();
+            actualNanos.addAndGet(waitedNanos);
+            if (satisfied) {
+                consecutiveTimeouts.set(0);
+            } else {
+                timeouts.incrementAndGet();
+                consecutiveTimeouts.incrementAndGet();
+            }
+        }
+
+        long actualMillis() {
+            return TimeUnit.NANOSECONDS.toMillis(actualNanos.get());
+        }
+
+        long legacyMillis() {
+            return legacyMs * calls.get();
+        }
+
+        long savedMillis() {
+            return legacyMillis() - actualMillis();
+        }
+    }
+}
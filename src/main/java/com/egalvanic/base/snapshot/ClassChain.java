@@ -0,0 +1,172 @@
+package com.egalvanic.base.snapshot;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Predicate;
+
+/**
+ * Local evaluator for XCUITest class chain queries
+ *
+ * Supported: "/" child steps, "**" descendant steps, element type or "*",
+ * [`predicate`] filters, [$predicate$] descendant filters and [n] / [-n]
+ * positional indexes (1-based, negative counts from the end).
+ */
+public final class ClassChain {
+
+    private ClassChain() {}
+
+    /**
+     * Evaluate a class chain against the snapshot root, in document order
+     */
+    public static List<UiNode> select(UiNode root, String chain) {
+        List<UiNode> current = new ArrayList<>();
+        current.add(root);
+        boolean descendant = false;
+
+        for (String step : splitSteps(chain)) {
+            if ("**".equals(step)) {
+                descendant = true;
+                continue;
+            }
+            current = applyStep(root, current, step, descendant);
+            descendant = false;
+        }
+        return current;
+    }
+
+    private static List<UiNode> applyStep(UiNode root, List<UiNode> context, String step, boolean descendant) {
+        int bracket = indexOfFilter(step);
+        String type = bracket < 0 ? step : step.substring(0, bracket);
+        List<String> filters = bracket < 0 ? new ArrayList<>() : splitFilters(step.substring(bracket));
+
+        // Positional indexes apply per context node; the result is in document order
+        Set<UiNode> selected = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (UiNode node : context) {
+            List<UiNode> candidates = new ArrayList<>();
+            if (descendant) {
+                List<UiNode> all = new ArrayList<>();
+                node.collect(all);
+                all.remove(0);
+                candidates.addAll(all);
+            } else {
+                candidates.addAll(node.getChildren());
+            }
+            candidates.removeIf(candidate -> !"*".equals(type) && !type.equals(candidate.getType()));
+            for (String filter : filters) {
+                candidates = applyFilter(candidates, filter);
+            }
+            selected.addAll(candidates);
+        }
+        List<UiNode> result = new ArrayList<>(selected.size());
+        if (!selected.isEmpty()) {
+            root.collectSelected(selected, result);
+        }
+        return result;
+    }
+
+    private static List<UiNode> applyFilter(List<UiNode> candidates, String filter) {
+        if (filter.startsWith("`") && filter.endsWith("`")) {
+            Predicate<UiNode> predicate = NsPredicate.compile(filter.substring(1, filter.length() - 1));
+            List<UiNode> kept = new ArrayList<>();
+            for (UiNode candidate : candidates) {
+                if (predicate.test(candidate)) {
+                    kept.add(candidate);
+                }
+            }
+            return kept;
+        }
+        if (filter.startsWith("$") && filter.endsWith("$")) {
+            Predicate<UiNode> predicate = NsPredicate.compile(filter.substring(1, filter.length() - 1));
+            List<UiNode> kept = new ArrayList<>();
+            for (UiNode candidate : candidates) {
+                List<UiNode> descendants = new ArrayList<>();
+                candidate.collect(descendants);
+                descendants.remove(0);
+                if (descendants.stream().anyMatch(predicate)) {
+                    kept.add(candidate);
+                }
+            }
+            return kept;
+        }
+        if (filter.matches("-?\\d+")) {
+            int index = Integer.parseInt(filter);
+            int position = index > 0 ? index - 1 : candidates.size() + index;
+            List<UiNode> kept = new ArrayList<>();
+            if (index != 0 && position >= 0 && position < candidates.size()) {
+                kept.add(candidates.get(position));
+            }
+            return kept;
+        }
+        throw new UnsupportedOperationException("Unsupported class chain filter: [" + filter + "]");
+    }
+
+    // ================================================================
+    // SPLITTING - "/" and "[]" that are not inside a `...` or $...$ filter
+    // ================================================================
+
+    private static List<String> splitSteps(String chain) {
+        List<String> steps = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        char quote = 0;
+        for (char c : chain.toCharArray()) {
+            if (quote != 0) {
+                if (c == quote) {
+                    quote = 0;
+                }
+                current.append(c);
+            } else if (c == '`' || c == '$') {
+                quote = c;
+                current.append(c);
+            } else if (c == '/') {
+                if (current.length() > 0) {
+                    steps.add(current.toString());
+                }
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        if (current.length() > 0) {
+            steps.add(current.toString());
+        }
+        return steps;
+    }
+
+    private static int indexOfFilter(String step) {
+        return step.indexOf('[');
+    }
+
+    private static List<String> splitFilters(String filters) {
+        List<String> result = new ArrayList<>();
+        int i = 0;
+        while (i < filters.length()) {
+            if (filters.charAt(i) != '[') {
+                throw new UnsupportedOperationException("Malformed class chain filter: " + filters);
+            }
+            int j = i + 1;
+            char quote = 0;
+            while (j < filters.length()) {
+                char c = filters.charAt(j);
+                if (quote != 0) {
+                    if (c == quote) {
+                        quote = 0;
+                    }
+                } else if (c == '`' || c == '$') {
+                    quote = c;
+                } else if (c == ']') {
+                    break;
+                }
+                j++;
+            }
+            if (j >= filters.length()) {
+                throw new UnsupportedOperationException("Unterminated class chain filter: " + filters);
+            }
+            result.add(filters.substring(i + 1, j));
+            i = j + 1;
+        }
+        return result;
+    }
+}
@@ -0,0 +1,312 @@
+package com.egalvanic.base.snapshot;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+
+/**
+ * Local evaluator for the iOSNsPredicate subset used by XCUITest locators
+ *
+ * Supported:
+ * - comparisons: ==, =, !=, <>, CONTAINS, BEGINSWITH, ENDSWITH, LIKE, MATCHES
+ *   with optional [c], [d] or [cd] modifiers
+ * - AND / &&, OR / ||, NOT / !, parentheses, TRUEPREDICATE, FALSEPREDICATE
+ * - string, number and boolean (true/false/YES/NO) literals
+ * - keys: type, name, label, value, placeholderValue, enabled, visible, ...
+ *   (wdName, wdLabel etc. are accepted as aliases)
+ *
+ * Anything else throws UnsupportedOperationException so callers can fall
+ * back to asking the server.
+ */
+public final class NsPredicate {
+
+    private final List<String> tokens;
+    private int pos;
+
+    private NsPredicate(String expression) {
+        this.tokens = tokenize(expression);
+    }
+
+    /**
+     * Compile a predicate string into a node matcher
+     */
+    public static Predicate<UiNode> compile(String expression) {
+        NsPredicate parser = new NsPredicate(expression);
+        Predicate<UiNode> predicate = parser.parseOr();
+        if (parser.pos != parser.tokens.size()) {
+            throw new UnsupportedOperationException(
+                "Unexpected token '" + parser.tokens.get(parser.pos) + "' in predicate: " + expression);
+        }
+        return predicate;
+    }
+
+    // ================================================================
+    // PARSER
+    // ================================================================
+
+    private Predicate<UiNode> parseOr() {
+        Predicate<UiNode> left = parseAnd();
+        while (acceptKeyword("OR") || accept("||")) {
+            left = left.or(parseAnd());
+        }
+        return left;
+    }
+
+    private Predicate<UiNode> parseAnd() {
+        Predicate<UiNode> left = parseNot();
+        while (acceptKeyword("AND") || accept("&&")) {
+            left = left.and(parseNot());
+        }
+        return left;
+    }
+
+    private Predicate<UiNode> parseNot() {
+        if (acceptKeyword("NOT") || accept("!")) {
+            return parseNot().negate();
+        }
+        return parsePrimary();
+    }
+
+    private Predicate<UiNode> parsePrimary() {
+        if (accept("(")) {
+            Predicate<UiNode> inner = parseOr();
+            expect(")");
+            return inner;
+        }
+        if (acceptKeyword("TRUEPREDICATE")) {
+            return node -> true;
+        }
+        if (acceptKeyword("FALSEPREDICATE")) {
+            return node -> false;
+        }
+        return parseComparison();
+    }
+
+    private Predicate<UiNode> parseComparison() {
+        String key = normalizeKey(next());
+        String operator = next().toUpperCase(Locale.ROOT);
+        boolean caseInsensitive = false;
+        if (peek() != null && peek().startsWith("[") && peek().endsWith("]")) {
+            // [d] (diacritic-insensitive) is accepted and treated as exact
+            caseInsensitive = next().toLowerCase(Locale.ROOT).contains("c");
+        }
+        String literal = parseLiteral();
+        boolean ci = caseInsensitive;
+
+        switch (operator) {
+            case "==":
+            case "=":
+                return node -> equalsValue(node.getAttribute(key), literal, ci);
+            case "!=":
+            case "<>":
+                return node -> !equalsValue(node.getAttribute(key), literal, ci);
+            case "CONTAINS":
+                return node -> textOp(node.getAttribute(key), literal, ci, (a, b) -> a.contains(b));
+            case "BEGINSWITH":
+                return node -> textOp(node.getAttribute(key), literal, ci, (a, b) -> a.startsWith(b));
+            case "ENDSWITH":
+                return node -> textOp(node.getAttribute(key), literal, ci, (a, b) -> a.endsWith(b));
+            case "LIKE": {
+                Pattern pattern = Pattern.compile(likeToRegex(literal), ci ? Pattern.CASE_INSENSITIVE : 0);
+                return node -> node.getAttribute(key) != null && pattern.matcher(node.getAttribute(key)).matches();
+            }
+            case "MATCHES": {
+                Pattern pattern = Pattern.compile(literal, ci ? Pattern.CASE_INSENSITIVE : 0);
+                return node -> node.getAttribute(key) != null && pattern.matcher(node.getAttribute(key)).matches();
+            }
+            default:
+                throw new UnsupportedOperationException("Unsupported predicate operator: " + operator);
+        }
+    }
+
+    private String parseLiteral() {
+        String token = next();
+        if (isQuoted(token)) {
+            return token.substring(1, token.length() - 1);
+        }
+        String upper = token.toUpperCase(Locale.ROOT);
+        if ("TRUE".equals(upper) || "YES".equals(upper)) {
+            return "true";
+        }
+        if ("FALSE".equals(upper) || "NO".equals(upper)) {
+            return "false";
+        }
+        if (token.matches("-?\\d+(\\.\\d+)?")) {
+            return token;
+        }
+        throw new UnsupportedOperationException("Unsupported predicate value: " + token);
+    }
+
+    // ================================================================
+    // EVALUATION HELPERS
+    // ================================================================
+
+    private static boolean equalsValue(String actual, String expected, boolean caseInsensitive) {
+        if (actual == null) {
+            return false;
+        }
+        // Boolean attributes: enabled == 1 / visible == true
+        if ("true".equals(actual) || "false".equals(actual)) {
+            if ("1".equals(expected)) {
+                return "true".equals(actual);
+            }
+            if ("0".equals(expected)) {
+                return "false".equals(actual);
+            }
+        }
+        return caseInsensitive ? actual.equalsIgnoreCase(expected) : actual.equals(expected);
+    }
+
+    private interface TextOp {
+        boolean apply(String actual, String expected);
+    }
+
+    private static boolean textOp(String actual, String expected, boolean caseInsensitive, TextOp op) {
+        if (actual == null) {
+            return false;
+        }
+        if (caseInsensitive) {
+            return op.apply(actual.toLowerCase(Locale.ROOT), expected.toLowerCase(Locale.ROOT));
+        }
+        return op.apply(actual, expected);
+    }
+
+    private static String likeToRegex(String like) {
+        StringBuilder regex = new StringBuilder();
+        for (char c : like.toCharArray()) {
+            if (c == '*') {
+                regex.append(".*");
+            } else if (c == '?') {
+                regex.append('.');
+            } else {
+                regex.append(Pattern.quote(String.valueOf(c)));
+            }
+        }
+        return regex.toString();
+    }
+
+    static String normalizeKey(String key) {
+        switch (key) {
+            case "wdName":
+                return "name";
+            case "wdLabel":
+                return "label";
+            case "wdValue":
+                return "value";
+            case "wdType":
+                return "type";
+            case "wdEnabled":
+            case "isEnabled":
+                return "enabled";
+            case "wdVisible":
+            case "isVisible":
+                return "visible";
+            case "wdPlaceholderValue":
+                return "placeholderValue";
+            case "identifier":
+                return "name";
+            default:
+                if (!key.matches("[A-Za-z_][A-Za-z0-9_]*")) {
+                    throw new UnsupportedOperationException("Unsupported predicate key: " + key);
+                }
+                return key;
+        }
+    }
+
+    // ================================================================
+    // TOKENIZER
+    // ================================================================
+
+    private static List<String> tokenize(String expression) {
+        List<String> tokens = new ArrayList<>();
+        int i = 0;
+        while (i < expression.length()) {
+            char c = expression.charAt(i);
+            if (Character.isWhitespace(c)) {
+                i++;
+            } else if (c == '\'' || c == '"' || c == '`') {
+                int end = i + 1;
+                StringBuilder literal = new StringBuilder();
+                while (end < expression.length() && expression.charAt(end) != c) {
+                    if (expression.charAt(end) == '\\' && end + 1 < expression.length()) {
+                        end++;
+                    }
+                    literal.append(expression.charAt(end));
+                    end++;
+                }
+                if (end >= expression.length()) {
+                    throw new UnsupportedOperationException("Unterminated string in predicate: " + expression);
+                }
+                tokens.add("'" + literal + "'");
+                i = end + 1;
+            } else if (c == '(' || c == ')') {
+                tokens.add(String.valueOf(c));
+                i++;
+            } else if (c == '[') {
+                int end = expression.indexOf(']', i);
+                if (end < 0) {
+                    throw new UnsupportedOperationException("Unterminated modifier in predicate: " + expression);
+                }
+                tokens.add(expression.substring(i, end + 1));
+                i = end + 1;
+            } else if ("=!<>&|".indexOf(c) >= 0) {
+                int end = i + 1;
+                while (end < expression.length() && "=!<>&|".indexOf(expression.charAt(end)) >= 0) {
+                    end++;
+                }
+                tokens.add(expression.substring(i, end));
+                i = end;
+            } else {
+                int end = i;
+                while (end < expression.length()
+                    && !Character.isWhitespace(expression.charAt(end))
+                    && "()[]=!<>&|'\"`".indexOf(expression.charAt(end)) < 0) {
+                    end++;
+                }
+                tokens.add(expression.substring(i, end));
+                i = end;
+            }
+        }
+        return tokens;
+    }
+
+    private static boolean isQuoted(String token) {
+        return token.length() >= 2 && token.charAt(0) == '\'' && token.charAt(token.length() - 1) == '\'';
+    }
+
+    private String peek() {
+        return pos < tokens.size() ? tokens.get(pos) : null;
+    }
+
+    private String next() {
+        if (pos >= tokens.size()) {
+            throw new UnsupportedOperationException("Unexpected end of predicate");
+        }
+        return tokens.get(pos++);
+    }
+
+    private boolean accept(String token) {
+        if (token.equals(peek())) {
+            pos++;
+            return true;
+        }
+        return false;
+    }
+
+    private boolean acceptKeyword(String keyword) {
+        String token = peek();
+        if (token != null && !isQuoted(token) && token.equalsIgnoreCase(keyword)) {
+            pos++;
+            return true;
+        }
+        return false;
+    }
+
+    private void expect(String token) {
+        if (!accept(token)) {
+            throw new UnsupportedOperationException("Expected '" + token + "' but found '" + peek() + "'");
+        }
+    }
+}
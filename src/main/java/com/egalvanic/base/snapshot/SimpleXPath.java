@@ -0,0 +1,343 @@
+package com.egalvanic.base.snapshot;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Local evaluator for the simple XPath subset used in page objects
+ *
+ * Supported: absolute and relative paths with "/" and "//" steps, element
+ * type or "*" node tests, and predicates built from @attr, @attr = 'v',
+ * @attr != 'v', contains(), starts-with(), not(), and, or, parentheses,
+ * [n] and [last()].
+ *
+ * Anything else (axes, text(), arithmetic ...) throws
+ * UnsupportedOperationException so callers can fall back to the server.
+ */
+public final class SimpleXPath {
+
+    private final List<String> tokens;
+    private int pos;
+    private UiNode root;
+
+    private SimpleXPath(String expression) {
+        this.tokens = tokenize(expression);
+    }
+
+    /**
+     * Evaluate an XPath against the snapshot root, in document order
+     */
+    public static List<UiNode> select(UiNode root, String expression) {
+        SimpleXPath parser = new SimpleXPath(expression);
+        List<UiNode> result = parser.evaluatePath(root);
+        if (parser.pos != parser.tokens.size()) {
+            throw new UnsupportedOperationException(
+                "Unexpected token '" + parser.tokens.get(parser.pos) + "' in xpath: " + expression);
+        }
+        return result;
+    }
+
+    // ================================================================
+    // PATH EVALUATION
+    // ================================================================
+
+    private List<UiNode> evaluatePath(UiNode root) {
+        List<UiNode> context = new ArrayList<>();
+        context.add(root);
+        this.root = root;
+
+        boolean first = true;
+        while (peek() != null) {
+            boolean descendant;
+            if (accept("//")) {
+                descendant = true;
+            } else if (accept("/")) {
+                descendant = false;
+            } else if (first) {
+                descendant = false;  // relative path from the root
+            } else {
+                break;
+            }
+            first = false;
+            context = evaluateStep(context, descendant);
+        }
+        return context;
+    }
+
+    private List<UiNode> evaluateStep(List<UiNode> context, boolean descendant) {
+        String nodeTest = next();
+        if (!"*".equals(nodeTest) && !nodeTest.matches("[A-Za-z_][A-Za-z0-9_.-]*")) {
+            throw new UnsupportedOperationException("Unsupported xpath node test: " + nodeTest);
+        }
+
+        // Group candidates by parent so positional predicates are per sibling set
+        Map<UiNode, List<UiNode>> groups = new IdentityHashMap<>();
+        for (UiNode node : context) {
+            List<UiNode> parents = new ArrayList<>();
+            if (descendant) {
+                node.collect(parents);
+            } else {
+                parents.add(node);
+            }
+            for (UiNode parent : parents) {
+                if (groups.containsKey(parent)) {
+                    continue;  // already reached from an ancestor in the context
+                }
+                groups.put(parent, new ArrayList<>());
+                for (UiNode child : parent.getChildren()) {
+                    if ("*".equals(nodeTest) || nodeTest.equals(child.getType())) {
+                        groups.get(parent).add(child);
+                    }
+                }
+            }
+        }
+
+        List<List<String>> predicates = new ArrayList<>();
+        while (accept("[")) {
+            predicates.add(readUntilClosingBracket());
+        }
+
+        Set<UiNode> selected = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (List<UiNode> group : groups.values()) {
+            List<UiNode> filtered = group;
+            for (List<String> predicate : predicates) {
+                filtered = applyPredicate(filtered, predicate);
+            }
+            selected.addAll(filtered);
+        }
+        List<UiNode> result = new ArrayList<>(selected.size());
+        if (!selected.isEmpty()) {
+            root.collectSelected(selected, result);
+        }
+        return result;
+    }
+
+    private List<String> readUntilClosingBracket() {
+        List<String> predicate = new ArrayList<>();
+        int depth = 0;
+        while (true) {
+            String token = next();
+            if ("[".equals(token)) {
+                depth++;
+            } else if ("]".equals(token)) {
+                if (depth == 0) {
+                    return predicate;
+                }
+                depth--;
+            }
+            predicate.add(token);
+        }
+    }
+
+    private static List<UiNode> applyPredicate(List<UiNode> candidates, List<String> predicate) {
+        if (predicate.size() == 1 && predicate.get(0).matches("\\d+")) {
+            int index = Integer.parseInt(predicate.get(0)) - 1;
+            List<UiNode> kept = new ArrayList<>();
+            if (index >= 0 && index < candidates.size()) {
+                kept.add(candidates.get(index));
+            }
+            return kept;
+        }
+        if (predicate.equals(List.of("last", "(", ")"))) {
+            return candidates.isEmpty() ? candidates : List.of(candidates.get(candidates.size() - 1));
+        }
+        List<UiNode> kept = new ArrayList<>();
+        for (UiNode candidate : candidates) {
+            ExpressionEvaluator evaluator = new ExpressionEvaluator(predicate, candidate);
+            if (evaluator.evaluate()) {
+                kept.add(candidate);
+            }
+        }
+        return kept;
+    }
+
+    // ================================================================
+    // PREDICATE EXPRESSIONS
+    // ================================================================
+
+    private static final class ExpressionEvaluator {
+        private final List<String> tokens;
+        private final UiNode node;
+        private int pos;
+
+        ExpressionEvaluator(List<String> tokens, UiNode node) {
+            this.tokens = tokens;
+            this.node = node;
+        }
+
+        boolean evaluate() {
+            boolean result = or();
+            if (pos != tokens.size()) {
+                throw new UnsupportedOperationException("Unsupported xpath predicate: " + String.join(" ", tokens));
+            }
+            return result;
+        }
+
+        private boolean or() {
+            boolean left = and();
+            while (acceptWord("or")) {
+                boolean right = and();
+                left = left || right;
+            }
+            return left;
+        }
+
+        private boolean and() {
+            boolean left = unary();
+            while (acceptWord("and")) {
+                boolean right = unary();
+                left = left && right;
+            }
+            return left;
+        }
+
+        private boolean unary() {
+            if (acceptWord("not")) {
+                expectToken("(");
+                boolean inner = or();
+                expectToken(")");
+                return !inner;
+            }
+            if (acceptToken("(")) {
+                boolean inner = or();
+                expectToken(")");
+                return inner;
+            }
+            if (acceptWord("contains")) {
+                String[] args = functionArgs();
+                return args[0] != null && args[0].contains(args[1]);
+            }
+            if (acceptWord("starts-with")) {
+                String[] args = functionArgs();
+                return args[0] != null && args[0].startsWith(args[1]);
+            }
+            if (acceptToken("@")) {
+                String attribute = nextToken();
+                String actual = node.getAttribute(attribute);
+                if (acceptToken("=")) {
+                    return actual != null && actual.equals(literal());
+                }
+                if (acceptToken("!=")) {
+                    return actual != null && !actual.equals(literal());
+                }
+                return actual != null;
+            }
+            throw new UnsupportedOperationException("Unsupported xpath predicate: " + String.join(" ", tokens));
+        }
+
+        private String[] functionArgs() {
+            expectToken("(");
+            expectToken("@");
+            String actual = node.getAttribute(nextToken());
+            expectToken(",");
+            String expected = literal();
+            expectToken(")");
+            return new String[] {actual, expected};
+        }
+
+        private String literal() {
+            String token = nextToken();
+            if (token.length() >= 2 && token.startsWith("'") && token.endsWith("'")) {
+                return token.substring(1, token.length() - 1);
+            }
+            throw new UnsupportedOperationException("Expected string literal in xpath but found " + token);
+        }
+
+        private String nextToken() {
+            if (pos >= tokens.size()) {
+                throw new UnsupportedOperationException("Unexpected end of xpath predicate");
+            }
+            return tokens.get(pos++);
+        }
+
+        private boolean acceptToken(String token) {
+            if (pos < tokens.size() && tokens.get(pos).equals(token)) {
+                pos++;
+                return true;
+            }
+            return false;
+        }
+
+        private boolean acceptWord(String word) {
+            return acceptToken(word);
+        }
+
+        private void expectToken(String token) {
+            if (!acceptToken(token)) {
+                throw new UnsupportedOperationException("Expected '" + token + "' in xpath predicate");
+            }
+        }
+    }
+
+    // ================================================================
+    // TOKENIZER
+    // ================================================================
+
+    private static List<String> tokenize(String expression) {
+        List<String> tokens = new ArrayList<>();
+        int i = 0;
+        while (i < expression.length()) {
+            char c = expression.charAt(i);
+            if (Character.isWhitespace(c)) {
+                i++;
+            } else if (c == '/') {
+                if (i + 1 < expression.length() && expression.charAt(i + 1) == '/') {
+                    tokens.add("//");
+                    i += 2;
+                } else {
+                    tokens.add("/");
+                    i++;
+                }
+            } else if (c == '\'' || c == '"') {
+                int end = expression.indexOf(c, i + 1);
+                if (end < 0) {
+                    throw new UnsupportedOperationException("Unterminated string in xpath: " + expression);
+                }
+                tokens.add("'" + expression.substring(i + 1, end) + "'");
+                i = end + 1;
+            } else if (c == '!' && i + 1 < expression.length() && expression.charAt(i + 1) == '=') {
+                tokens.add("!=");
+                i += 2;
+            } else if ("[]()@=,*".indexOf(c) >= 0) {
+                tokens.add(String.valueOf(c));
+                i++;
+            } else {
+                int end = i;
+                while (end < expression.length()
+                    && !Character.isWhitespace(expression.charAt(end))
+                    && "/[]()@=,!'\"*".indexOf(expression.charAt(end)) < 0) {
+                    end++;
+                }
+                if (end == i) {
+                    throw new UnsupportedOperationException("Unsupported character '" + c + "' in xpath: " + expression);
+                }
+                tokens.add(expression.substring(i, end));
+                i = end;
+            }
+        }
+        return tokens;
+    }
+
+    private String peek() {
+        return pos < tokens.size() ? tokens.get(pos) : null;
+    }
+
+    private String next() {
+        if (pos >= tokens.size()) {
+            throw new UnsupportedOperationException("Unexpected end of xpath");
+        }
+        return tokens.get(pos++);
+    }
+
+    private boolean accept(String token) {
+        if (token.equals(peek())) {
+            pos++;
+            return true;
+        }
+        return false;
+    }
+}
@@ -0,0 +1,122 @@
+package com.egalvanic.base.snapshot;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * One XCUIElement from a page source snapshot
+ *
+ * Keeps only the tag (element type), its attributes and the tree links.
+ */
+public final class UiNode {
+
+    private final String type;
+    private final Map<String, String> attributes;
+    private final UiNode parent;
+    private final List<UiNode> children = new ArrayList<>(4);
+
+    UiNode(String type, Map<String, String> attributes, UiNode parent) {
+        this.type = type;
+        this.attributes = attributes;
+        this.parent = parent;
+    }
+
+    void addChild(UiNode child) {
+        children.add(child);
+    }
+
+    /** Element type, e.g. XCUIElementTypeButton */
+    public String getType() {
+        return type;
+    }
+
+    /**
+     * Attribute value as reported by WDA, or null if absent
+     * "type" is answered from the tag name
+     */
+    public String getAttribute(String name) {
+        if ("type".equals(name) || "elementType".equals(name)) {
+            return attributes.getOrDefault("type", type);
+        }
+        return attributes.get(name);
+    }
+
+    public Map<String, String> getAttributes() {
+        return Collections.unmodifiableMap(attributes);
+    }
+
+    public UiNode getParent() {
+        return parent;
+    }
+
+    public List<UiNode> getChildren() {
+        return Collections.unmodifiableList(children);
+    }
+
+    public boolean isVisible() {
+        return "true".equals(attributes.get("visible"));
+    }
+
+    public boolean isEnabled() {
+        return "true".equals(attributes.get("enabled"));
+    }
+
+    public String getName() {
+        return attributes.get("name");
+    }
+
+    public String getLabel() {
+        return attributes.get("label");
+    }
+
+    public String getValue() {
+        return attributes.get("value");
+    }
+
+    /** Integer attribute (x, y, width, height), or 0 when missing */
+    public int getInt(String name) {
+        String value = attributes.get(name);
+        if (value == null || value.isEmpty()) {
+            return 0;
+        }
+        try {
+            return (int) Double.parseDouble(value);
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    /**
+     * Add this node and all descendants to out, in document order
+     */
+    void collect(List<UiNode> out) {
+        out.add(this);
+        for (UiNode child : children) {
+            child.collect(out);
+        }
+    }
+
+    /**
+     * Add the selected nodes among this node and its descendants to out,
+     * in document order (one pre-order walk, stopping once all are found)
+     */
+    void collectSelected(Set<UiNode> selected, List<UiNode> out) {
+        if (selected.contains(this)) {
+            out.add(this);
+        }
+        for (UiNode child : children) {
+            if (out.size() == selected.size()) {
+                return;
+            }
+            child.collectSelected(selected, out);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return type + attributes;
+    }
+}
@@ -0,0 +1,186 @@
+package com.egalvanic.base.snapshot;
+
+import org.openqa.selenium.By;
+import org.xml.sax.Attributes;
+import org.xml.sax.InputSource;
+import org.xml.sax.helpers.DefaultHandler;
+
+import javax.xml.parsers.SAXParser;
+import javax.xml.parsers.SAXParserFactory;
+import java.io.StringReader;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+
+/**
+ * In-memory copy of one page source fetch
+ *
+ * Answers accessibility id, iOSNsPredicate, class chain and simple XPath
+ * queries locally, so a verification that reads several elements costs a
+ * single getPageSource round-trip. Unsupported locator syntax throws
+ * UnsupportedOperationException; callers fall back to the server.
+ */
+public final class UiSnapshot {
+
+    // Factory lookup and parser setup cost more than parsing a small page; reuse one parser per thread
+    private static final ThreadLocal<SAXParser> PARSER = ThreadLocal.withInitial(() -> {
+        try {
+            SAXParserFactory factory = SAXParserFactory.newInstance();
+            factory.setFeature("http://apache.org/xml/features/disallow-doctype-decl", true);
+            factory.setFeature("http://xml.org/sax/features/external-general-entities", false);
+            return factory.newSAXParser();
+        } catch (Exception e) {
+            throw new IllegalStateException("Could not create page source parser", e);
+        }
+    });
+
+    private final UiNode document;
+    private final List<UiNode> allElements;
+
+    private UiSnapshot(UiNode document) {
+        this.document = document;
+        List<UiNode> all = new ArrayList<>();
+        for (UiNode child : document.getChildren()) {
+            child.collect(all);
+        }
+        this.allElements = Collections.unmodifiableList(all);
+    }
+
+    // ================================================================
+    // PARSING
+    // ================================================================
+
+    /**
+     * Parse XCUITest page source XML
+     */
+    public static UiSnapshot parse(String pageSource) {
+        try {
+            SAXParser parser = PARSER.get();
+            parser.reset();
+
+            UiNode document = new UiNode("#document", Collections.emptyMap(), null);
+            Deque<UiNode> stack = new ArrayDeque<>();
+            stack.push(document);
+
+            parser.parse(new InputSource(new StringReader(pageSource)), new DefaultHandler() {
+                @Override
+                public void startElement(String uri, String localName, String qName, Attributes attrs) {
+                    Map<String, String> attributes = new HashMap<>(attrs.getLength() * 2);
+                    for (int i = 0; i < attrs.getLength(); i++) {
+                        attributes.put(attrs.getQName(i), attrs.getValue(i));
+                    }
+                    UiNode node = new UiNode(qName, attributes, stack.peek());
+                    stack.peek().addChild(node);
+                    stack.push(node);
+                }
+
+                @Override
+                public void endElement(String uri, String localName, String qName) {
+                    stack.pop();
+                }
+            });
+            return new UiSnapshot(document);
+        } catch (Exception e) {
+            throw new IllegalArgumentException("Could not parse page source: " + e.getMessage(), e);
+        }
+    }
+
+    // ================================================================
+    // QUERIES
+    // ================================================================
+
+    /**
+     * All elements matching a Selenium / Appium locator, in document order
+     */
+    public List<UiNode> findAll(By locator) {
+        if (!(locator instanceof By.Remotable)) {
+            throw new UnsupportedOperationException("Locator cannot be evaluated locally: " + locator);
+        }
+        By.Remotable.Parameters parameters = ((By.Remotable) locator).getRemoteParameters();
+        return findAll(parameters.using(), String.valueOf(parameters.value()));
+    }
+
+    /**
+     * All elements matching a W3C / Appium locator strategy and selector
+     */
+    public List<UiNode> findAll(String using, String selector) {
+        switch (using) {
+            case "accessibility id":
+            case "id":
+            case "name":
+                return filter(node -> selector.equals(node.getName()));
+            case "class name":
+                return filter(node -> selector.equals(node.getType()));
+            case "-ios predicate string":
+                return filter(NsPredicate.compile(selector));
+            case "-ios class chain":
+                return ClassChain.select(getApplication(), selector);
+            case "xpath":
+                return SimpleXPath.select(document, selector);
+            default:
+                throw new UnsupportedOperationException("Locator strategy not supported locally: " + using);
+        }
+    }
+
+    /**
+     * First element matching the locator, or null
+     */
+    public UiNode find(By locator) {
+        List<UiNode> found = findAll(locator);
+        return found.isEmpty() ? null : found.get(0);
+    }
+
+    public boolean isDisplayed(By locator) {
+        UiNode node = find(locator);
+        return node != null && node.isVisible();
+    }
+
+    public boolean isEnabled(By locator) {
+        UiNode node = find(locator);
+        return node != null && node.isEnabled();
+    }
+
+    /**
+     * Attribute of the first match, or null when nothing matches
+     */
+    public String getAttribute(By locator, String attribute) {
+        UiNode node = find(locator);
+        return node == null ? null : node.getAttribute(attribute);
+    }
+
+    /** Every element in document order */
+    public List<UiNode> getAllElements() {
+        return allElements;
+    }
+
+    public int size() {
+        return allElements.size();
+    }
+
+    /**
+     * XCUIElementTypeApplication node - the root class chains are resolved from
+     */
+    public UiNode getApplication() {
+        for (UiNode node : allElements) {
+            if ("XCUIElementTypeApplication".equals(node.getType())) {
+                return node;
+            }
+        }
+        return document;
+    }
+
+    private List<UiNode> filter(Predicate<UiNode> predicate) {
+        List<UiNode> result = new ArrayList<>();
+        for (UiNode node : allElements) {
+            if (predicate.test(node)) {
+                result.add(node);
+            }
+        }
+        return result;
+    }
+}
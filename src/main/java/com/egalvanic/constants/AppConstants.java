@@ -18,6 +18,10 @@ public class AppConstants {
     public static final String PLATFORM_NAME = "iOS";
     public static final String AUTOMATION_NAME = "XCUITest";
 
+    // Simulator pool for DeviceScheduler, ';'-separated entries of
+    // name|udid|platformVersion|appiumUrl[|wdaLocalPort]. Empty = the single device above
+    public static final String DEVICES = getEnv("DEVICES", "");
+
     // ============================================
     // TEST DATA - COMPANY CODE
     // ============================================
@@ -48,6 +52,58 @@ public class AppConstants {
     public static final int ANIMATION_WAIT = 500;
     public static final int SHORT_WAIT = 500;
 
+    // ============================================
+    // ADAPTIVE WAITS (in milliseconds)
+    // Max time a condition-based wait may poll before giving up.
+    // Set ADAPTIVE_WAITS=false to fall back to the fixed sleeps above
+    // ============================================
+    public static final boolean ADAPTIVE_WAITS = Boolean.parseBoolean(getEnv("ADAPTIVE_WAITS", "true"));
+    public static final int PAGE_LOAD_BUDGET = 3000;
+    public static final int ELEMENT_LOAD_BUDGET = 2000;
+    public static final int SETTLE_BUDGET = 1000;
+    public static final int OUTCOME_BUDGET = 5000;  // racing outcomes, e.g. home screen vs. login error
+
+    // Answer verification queries from one page source fetch (see UiSnapshot)
+    public static final boolean SNAPSHOT_QUERIES = Boolean.parseBoolean(getEnv("SNAPSHOT_QUERIES", "true"));
+
+    // ============================================
+    // LEARNED LOCATOR ORDER
+    // ============================================
+    public static final int LEARNED_LOCATOR_TIMEOUT = 1;  // seconds, for the remembered strategy
+    public static final String LOCATOR_MEMORY_PATH = getEnv("LOCATOR_MEMORY_PATH", "cache/locator-memory.properties");
+    public static final String APP_BUILD = getEnv("APP_BUILD", "");  // Derived from APP_PATH when empty
+
+    // Per-test durations and outcomes across runs, for longest-first ordering (see HistoryOrderInterceptor)
+    public static final String TEST_HISTORY_PATH = getEnv("TEST_HISTORY_PATH", "cache/test-history.tsv");
+
+    // ============================================
+    // SHARDING (one process or CI node per shard, see ShardPlanner)
+    // ============================================
+    public static final int SHARD_COUNT = Integer.parseInt(getEnv("SHARD_COUNT", "1"));
+    public static final int SHARD_INDEX = Integer.parseInt(getEnv("SHARD_INDEX", "0"));  // 0-based
+
+    // ============================================
+    // DRIVER SESSION POOL (Environment aware)
+    // ============================================
+    public static final boolean DRIVER_POOL_ENABLED = Boolean.parseBoolean(getEnv("DRIVER_POOL_ENABLED", "true"));
+    public static final int DRIVER_POOL_SIZE = Integer.parseInt(getEnv("DRIVER_POOL_SIZE", "1"));
+    public static final int DRIVER_POOL_LEASE_TIMEOUT = 300;  // seconds
+    public static final boolean CLEAR_KEYCHAIN_ON_RESET = Boolean.parseBoolean(getEnv("CLEAR_KEYCHAIN_ON_RESET", "true"));
+    public static final String BUNDLE_ID = getEnv("BUNDLE_ID", "");  // Resolved from the session when empty
+
+    // Sessions created in the background ahead of need (0 = off).
+    // Only enable when the Appium server can host an extra session (e.g. sessionOverride off, spare simulator)
+    public static final int PREWARM_SESSIONS = Integer.parseInt(getEnv("PREWARM_SESSIONS", "0"));
+
+    // Tiers tried, cheapest first, to bring a reused session back to a clean Welcome screen
+    // (navigate, relaunch, clear_data); a full session restart is the last resort
+    public static final String APP_RESET_TIERS = getEnv("APP_RESET_TIERS", "navigate,relaunch,clear_data");
+    public static final int APP_RELAUNCH_BUDGET = 10000;  // milliseconds for the Welcome screen after a relaunch
+
+    // Accessibility id only shown once logged in; empty = any screen past Welcome and Login (see AuthCheckpoint),
+    // which awaitLoginOutcome only accepts when it holds on two consecutive polls
+    public static final String HOME_SCREEN_ID = getEnv("HOME_SCREEN_ID", "");
+
     // ============================================
     // REPORT CONFIGURATION
     // ============================================
@@ -56,6 +112,38 @@ public class AppConstants {
     public static final String SCREENSHOT_PATH = "screenshots/";
     public static final String DETAILED_REPORT_NAME = "eGalvanic_Detailed_Report.html";
     public static final String CLIENT_REPORT_NAME = "eGalvanic_Client_Report.html";
+    public static final String SHARD_REPORT_PATH = "reports/shards/";  // JSON per shard, merged by ReportMerger
+
+    // Report events handed to a background writer instead of written on the test thread
+    public static final boolean ASYNC_REPORTING = Boolean.parseBoolean(getEnv("ASYNC_REPORTING", "true"));
+    public static final int REPORT_QUEUE_CAPACITY = Integer.parseInt(getEnv("REPORT_QUEUE_CAPACITY", "1024"));
+    public static final int REPORT_DRAIN_TIMEOUT = 60;  // seconds
+
+    // Detailed report keeps screenshots and finished tests' steps on disk instead of in heap (see ReportSpill)
+    public static final boolean REPORT_SPILL_TO_DISK = Boolean.parseBoolean(getEnv("REPORT_SPILL_TO_DISK", "false"));
+    public static final int REPORT_THUMBNAIL_WIDTH = 240;  // px, lazy-loaded preview linking to the full screenshot
+
+    // Per-command latency histograms (see CommandTimings), written next to the reports
+    public static final boolean COMMAND_TIMING_ENABLED = Boolean.parseBoolean(getEnv("COMMAND_TIMING_ENABLED", "true"));
+    public static final String COMMAND_LATENCY_REPORT = "reports/command-latency.json";
+
+    // Last driver commands per thread, dumped to the detailed report and a binary file on failure (0 = off)
+    public static final int FLIGHT_RECORDER_SIZE = Integer.parseInt(getEnv("FLIGHT_RECORDER_SIZE", "256"));
+    public static final String FLIGHT_RECORDER_PATH = "reports/flight-recorder/";
+
+    // Screenshot pipeline: one capture is decoded once, off the test thread, into the archived
+    // full-size PNG and a downscaled JPEG for the report. A full queue skips the thumbnail, never blocks
+    public static final int SCREENSHOT_PIPELINE_THREADS = 2;
+    public static final int SCREENSHOT_QUEUE_CAPACITY = Integer.parseInt(getEnv("SCREENSHOT_QUEUE_CAPACITY", "64"));
+    public static final int SCREENSHOT_THUMBNAIL_WIDTH = Integer.parseInt(getEnv("SCREENSHOT_THUMBNAIL_WIDTH", "390"));  // px, 0 = embed full-size PNG
+    public static final float SCREENSHOT_JPEG_QUALITY = 0.8f;
+
+    // Screenshot files are stored once per content under SCREENSHOT_PATH/objects (see ScreenshotStore).
+    // Perceptual dedup also folds near-identical screens (pHash within the distance, of 64 bits)
+    public static final boolean SCREENSHOT_PERCEPTUAL_DEDUP = Boolean.parseBoolean(getEnv("SCREENSHOT_PERCEPTUAL_DEDUP", "false"));
+    public static final int SCREENSHOT_PHASH_DISTANCE = 4;
+    public static final int SCREENSHOT_RETENTION_DAYS = Integer.parseInt(getEnv("SCREENSHOT_RETENTION_DAYS", "7"));
+    public static final int SCREENSHOT_RETENTION_MB = Integer.parseInt(getEnv("SCREENSHOT_RETENTION_MB", "500"));
 
     // ============================================
     // MODULE & FEATURE NAMES (for Client Report)
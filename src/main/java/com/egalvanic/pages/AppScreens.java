@@ -0,0 +1,48 @@
+package com.egalvanic.pages;
+
+import com.egalvanic.base.AuthCheckpoint;
+import com.egalvanic.base.ScreenGraph;
+import com.egalvanic.base.snapshot.UiSnapshot;
+import com.egalvanic.utils.DriverManager;
+
+/**
+ * Screen graph of the app, assembled from the page objects
+ *
+ * Detection order: Welcome, Login, then Home (anything past both - see
+ * AuthCheckpoint). The graph is shared by all threads; each navigation
+ * reads the page source of the calling thread's driver.
+ */
+public final class AppScreens {
+
+    public static final String HOME = "Home";
+
+    private static volatile ScreenGraph graph;
+
+    private AppScreens() {}
+
+    public static ScreenGraph graph() {
+        if (graph == null) {
+            synchronized (AppScreens.class) {
+                if (graph == null) {
+                    graph = build();
+                }
+            }
+        }
+        return graph;
+    }
+
+    /**
+     * Take the current thread's app to a screen without relaunching it
+     */
+    public static void navigateTo(String screen) {
+        graph().navigateTo(screen);
+    }
+
+    private static ScreenGraph build() {
+        ScreenGraph screens = new ScreenGraph(() -> UiSnapshot.parse(DriverManager.getDriver().getPageSource()));
+        WelcomePage.registerScreen(screens);
+        LoginPage.registerScreen(screens);
+        screens.screen(HOME, AuthCheckpoint::isAtHome);
+        return screens;
+    }
+}
@@ -1,12 +1,22 @@
 package com.egalvanic.pages;
 
+import com.egalvanic.base.AuthCheckpoint;
 import com.egalvanic.base.BasePage;
+import com.egalvanic.base.FallbackChain;
+import com.egalvanic.base.ScreenGraph;
+import com.egalvanic.base.snapshot.UiSnapshot;
 import com.egalvanic.constants.AppConstants;
+import io.appium.java_client.AppiumBy;
 import io.appium.java_client.pagefactory.iOSXCUITFindBy;
 import io.appium.java_client.ios.IOSDriver;
+import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.NoSuchElementException;
 import org.openqa.selenium.WebElement;
 
-import java.util.List;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Predicate;
 
 /**
  * Login Page - Email and Password Entry Screen
@@ -14,6 +24,8 @@ import java.util.List;
  * 
  * CLIENT REQUIREMENT: Sign In button should be DISABLED when fields are empty
  * This is EXPECTED behavior - tests should PASS when button is disabled with empty fields
+ * 
+ * Verification methods read from the shared page snapshot
  */
 public class LoginPage extends BasePage {
 
@@ -21,34 +33,10 @@ public class LoginPage extends BasePage {
     // PAGE ELEMENTS
     // ================================================================
 
-    // Email Text Field
-    @iOSXCUITFindBy(iOSNsPredicate = "type == 'XCUIElementTypeTextField' AND (label CONTAINS 'email' OR label CONTAINS 'Email' OR placeholder CONTAINS 'email')")
-    private WebElement emailField;
-
-    // Alternative: Email field by type
-    @iOSXCUITFindBy(iOSNsPredicate = "type == 'XCUIElementTypeTextField'")
-    private WebElement emailFieldAlt;
-
     // Password Secure Text Field
     @iOSXCUITFindBy(iOSNsPredicate = "type == 'XCUIElementTypeSecureTextField'")
     private WebElement passwordField;
 
-    // Sign In Button - Multiple locator strategies
-    @iOSXCUITFindBy(accessibility = "Sign In")
-    private WebElement signInButton;
-
-    // Alternative: Sign In by predicate
-    @iOSXCUITFindBy(iOSNsPredicate = "type == 'XCUIElementTypeButton' AND (label == 'Sign In' OR label == 'Login' OR label == 'Log In')")
-    private WebElement signInButtonAlt;
-    
-    // Additional alternative locators for Sign In button
-    @iOSXCUITFindBy(iOSNsPredicate = "type == 'XCUIElementTypeButton'")
-    private List<WebElement> allButtons;
-    
-    // XPath locator as fallback
-    @iOSXCUITFindBy(xpath = "//XCUIElementTypeButton[contains(@label, 'Sign') or contains(@label, 'Login') or contains(@label, 'Log')]")
-    private WebElement signInButtonXPath;
-
     // Show/Hide Password Toggle
     @iOSXCUITFindBy(accessibility = "Show Password")
     private WebElement showPasswordIcon;
@@ -69,6 +57,39 @@ public class LoginPage extends BasePage {
     @iOSXCUITFindBy(iOSNsPredicate = "type == 'XCUIElementTypeStaticText' AND (label CONTAINS 'Sign In' OR label CONTAINS 'Login' OR label CONTAINS 'Log In')")
     private WebElement loginTitle;
 
+    // ================================================================
+    // FALLBACK CHAIN LOCATORS - Tried in order by locateEmailField / tapSignIn
+    // ================================================================
+
+    private static final By EMAIL_BY_LABEL = AppiumBy.iOSNsPredicateString(
+        "type == 'XCUIElementTypeTextField' AND (label CONTAINS 'email' OR label CONTAINS 'Email' OR placeholder CONTAINS 'email')");
+    private static final By EMAIL_BY_TYPE = AppiumBy.iOSNsPredicateString("type == 'XCUIElementTypeTextField'");
+    private static final By SIGN_IN_BY_ACCESSIBILITY = AppiumBy.accessibilityId("Sign In");
+    private static final By SIGN_IN_BY_PREDICATE = AppiumBy.iOSNsPredicateString(
+        "type == 'XCUIElementTypeButton' AND (label == 'Sign In' OR label == 'Login' OR label == 'Log In')");
+    private static final By SIGN_IN_BY_XPATH = By.xpath(
+        "//XCUIElementTypeButton[contains(@label, 'Sign') or contains(@label, 'Login') or contains(@label, 'Log') or contains(@name, 'Sign') or contains(@name, 'Login') or contains(@name, 'Log')]");
+    private static final By ANY_BUTTON = By.xpath("//XCUIElementTypeButton");
+
+    // Shared with AuthCheckpoint to recognise the Login screen
+    public static final By PASSWORD_FIELD = locatorOf(LoginPage.class, "passwordField");
+
+    // ================================================================
+    // SCREEN GRAPH
+    // ================================================================
+
+    public static final String SCREEN = "Login";
+
+    /**
+     * Register the Login screen, its way back to Welcome and on to Home (see AppScreens)
+     */
+    public static void registerScreen(ScreenGraph graph) {
+        graph.screen(SCREEN, snapshot -> snapshot.isDisplayed(PASSWORD_FIELD))
+            .transition(SCREEN, WelcomePage.SCREEN, 1500, () -> new LoginPage().tapChangeCompanyCode())
+            .transition(SCREEN, AppScreens.HOME, 8000,
+                () -> new LoginPage().login(AppConstants.VALID_EMAIL, AppConstants.VALID_PASSWORD));
+    }
+
     // ================================================================
     // CONSTRUCTOR
     // ================================================================
@@ -88,151 +109,100 @@ public class LoginPage extends BasePage {
      */
     public void enterEmail(String email) {
         waitForElementLoad();
-        try {
-            waitForVisibility(emailField);
-            emailField.clear();
-            emailField.sendKeys(email);
-        } catch (Exception e) {
-            // Fallback to alternative locator
-            waitForVisibility(emailFieldAlt);
-            emailFieldAlt.clear();
-            emailFieldAlt.sendKeys(email);
-        }
+        WebElement field = locateEmailField();
+        field.clear();
+        field.sendKeys(email);
+        invalidateSnapshot();
     }
 
     /**
      * Enter password
      */
     public void enterPassword(String password) {
-        waitForElementLoad();
+        waitForElementLoad(passwordField);
         waitForVisibility(passwordField);
         passwordField.clear();
         passwordField.sendKeys(password);
+        invalidateSnapshot();
     }
 
     /**
      * Tap Sign In button
+     * Strategies are tried in order; the one that worked last is tried first
      */
     public void tapSignIn() {
         // Dismiss keyboard first
-        dismissKeyboard();
-        shortWait();
+        if (dismissKeyboard()) {
+            shortWait();
+        }
         
-        // Try multiple approaches to click the sign-in button
-        // Approach 1: Use direct click with no explicit wait
-        try {
-            signInButton.click();
-            return;
-        } catch (Exception e1) {
-            try {
-                signInButtonAlt.click();
-                return;
-            } catch (Exception e2) {
-                // Approach 2: Use JavaScript executor
-                try {
-                    ((org.openqa.selenium.JavascriptExecutor) driver).executeScript("arguments[0].click();", signInButton);
-                    return;
-                } catch (Exception e3) {
-                    try {
-                        ((org.openqa.selenium.JavascriptExecutor) driver).executeScript("arguments[0].click();", signInButtonAlt);
-                        return;
-                    } catch (Exception e4) {
-                        // Approach 3: Find and click by XPath
-                        try {
-                            WebElement button = driver.findElement(org.openqa.selenium.By.xpath("//XCUIElementTypeButton[contains(@label, 'Sign') or contains(@label, 'Login') or contains(@label, 'Log') or contains(@name, 'Sign') or contains(@name, 'Login') or contains(@name, 'Log')]")
-                            );
-                            button.click();
-                            return;
-                        } catch (Exception e5) {
-                            // Approach 4: Tap by coordinates
-                            try {
-                                // Look for any button that might be the sign-in button
-                                List<WebElement> allButtons = driver.findElements(org.openqa.selenium.By.xpath("//XCUIElementTypeButton"));
-                                for (WebElement button : allButtons) {
-                                    String label = button.getAttribute("label");
-                                    String name = button.getAttribute("name");
-                                    if (label != null && (label.toLowerCase().contains("sign") || 
-                                        label.toLowerCase().contains("login") || 
-                                        label.toLowerCase().contains("log"))) {
-                                        int centerX = button.getLocation().getX() + (button.getSize().getWidth() / 2);
-                                        int centerY = button.getLocation().getY() + (button.getSize().getHeight() / 2);
-                                        io.appium.java_client.TouchAction touchAction = 
-                                            new io.appium.java_client.TouchAction(driver);
-                                        touchAction.tap(io.appium.java_client.touch.offset.PointOption.point(centerX, centerY)).perform();
-                                        return;
-                                    }
-                                }
-                            } catch (Exception e6) {
-                                // If all else fails, try coordinate tap on any button
-                                try {
-                                    List<WebElement> allButtons = driver.findElements(org.openqa.selenium.By.xpath("//XCUIElementTypeButton"));
-                                    if (!allButtons.isEmpty()) {
-                                        WebElement firstButton = allButtons.get(0);
-                                        int centerX = firstButton.getLocation().getX() + (firstButton.getSize().getWidth() / 2);
-                                        int centerY = firstButton.getLocation().getY() + (firstButton.getSize().getHeight() / 2);
-                                        io.appium.java_client.TouchAction touchAction = 
-                                            new io.appium.java_client.TouchAction(driver);
-                                        touchAction.tap(io.appium.java_client.touch.offset.PointOption.point(centerX, centerY)).perform();
-                                        return;
-                                    }
-                                } catch (Exception e7) {
-                                    throw new RuntimeException("Unable to click sign-in button using any method", e7);
-                                }
-                            }
-                        }
+        new FallbackChain<Void>("LoginPage.signInButton")
+            // Approach 1: Direct click by accessibility id / predicate
+            .attempt("accessibility", timeout -> {
+                findWithin(SIGN_IN_BY_ACCESSIBILITY, timeout).click();
+                return null;
+            })
+            .attempt("predicate", timeout -> {
+                findWithin(SIGN_IN_BY_PREDICATE, timeout).click();
+                return null;
+            })
+            // Approach 2: Use JavaScript executor
+            .attempt("jsClickAccessibility", timeout -> {
+                ((JavascriptExecutor) driver).executeScript("arguments[0].click();",
+                    findWithin(SIGN_IN_BY_ACCESSIBILITY, timeout));
+                return null;
+            })
+            .attempt("jsClickPredicate", timeout -> {
+                ((JavascriptExecutor) driver).executeScript("arguments[0].click();",
+                    findWithin(SIGN_IN_BY_PREDICATE, timeout));
+                return null;
+            })
+            // Approach 3: Find and click by XPath
+            .attempt("xpath", timeout -> {
+                findWithin(SIGN_IN_BY_XPATH, timeout).click();
+                return null;
+            })
+            // Approach 4: Tap the centre of any button labelled like sign-in
+            .attempt("labelScanTap", timeout -> {
+                findWithin(ANY_BUTTON, timeout);
+                for (WebElement button : driver.findElements(ANY_BUTTON)) {
+                    String label = button.getAttribute("label");
+                    if (label != null && (label.toLowerCase().contains("sign") || 
+                        label.toLowerCase().contains("login") || 
+                        label.toLowerCase().contains("log"))) {
+                        tapCenter(button);
+                        return null;
                     }
                 }
-            }
-        }
+                throw new NoSuchElementException("No button labelled Sign In / Login / Log In");
+            })
+            // If all else fails, coordinate tap on the first button
+            .attempt("firstButtonTap", timeout -> {
+                tapCenter(findWithin(ANY_BUTTON, timeout));
+                return null;
+            })
+            .run();
     }
 
     /**
-     * Dismiss the keyboard to prevent click issues
+     * Tap the centre of an element by coordinates
      */
-    public void dismissKeyboard() {
-        try {
-            // Try to hide keyboard using Appium's built-in method
-            driver.hideKeyboard();
-            shortWait(); // Brief wait after hiding keyboard
-        } catch (Exception e) {
-            // If hideKeyboard doesn't work, try alternative methods
-            try {
-                // Alternative: press the 'Done' key on the keyboard
-                driver.hideKeyboard("Done");
-                shortWait();
-            } catch (Exception ex1) {
-                try {
-                    // Try pressing the 'Return' key
-                    driver.hideKeyboard("Return");
-                    shortWait();
-                } catch (Exception ex2) {
-                    try {
-                        // Try pressing the 'Go' key
-                        driver.hideKeyboard("Go");
-                        shortWait();
-                    } catch (Exception ex3) {
-                        try {
-                            // Alternative: tap on the screen to dismiss keyboard
-                            driver.executeScript("mobile: tap", 
-                                java.util.Collections.singletonMap("x", 100),
-                                java.util.Collections.singletonMap("y", 100));
-                            shortWait();
-                        } catch (Exception ex4) {
-                            try {
-                                // Use TouchAction as fallback
-                                io.appium.java_client.TouchAction touchAction = 
-                                    new io.appium.java_client.TouchAction(driver);
-                                touchAction.tap(io.appium.java_client.touch.offset.PointOption.point(100, 100)).perform();
-                                shortWait();
-                            } catch (Exception ex5) {
-                                // If all methods fail, just continue with the test
-                                System.out.println("Could not dismiss keyboard, continuing test...");
-                            }
-                        }
-                    }
-                }
-            }
-        }
+    private void tapCenter(WebElement element) {
+        int centerX = element.getLocation().getX() + (element.getSize().getWidth() / 2);
+        int centerY = element.getLocation().getY() + (element.getSize().getHeight() / 2);
+        io.appium.java_client.TouchAction touchAction = 
+            new io.appium.java_client.TouchAction(driver);
+        touchAction.tap(io.appium.java_client.touch.offset.PointOption.point(centerX, centerY)).perform();
+    }
+
+    /**
+     * Locate the email field via its learned fallback order
+     */
+    private WebElement locateEmailField() {
+        return new FallbackChain<WebElement>("LoginPage.emailField")
+            .attempt("label", timeout -> findWithin(EMAIL_BY_LABEL, timeout))
+            .attempt("type", timeout -> findWithin(EMAIL_BY_TYPE, timeout))
+            .run();
     }
 
     /**
@@ -243,8 +213,9 @@ public class LoginPage extends BasePage {
         enterPassword(password);
         shortWait();
         // Dismiss keyboard before tapping sign in
-        dismissKeyboard();
-        shortWait();
+        if (dismissKeyboard()) {
+            shortWait();
+        }
         tapSignIn();
         waitForPageLoad();
     }
@@ -277,19 +248,17 @@ public class LoginPage extends BasePage {
      */
     public void clearEmail() {
         waitForElementLoad();
-        try {
-            emailField.clear();
-        } catch (Exception e) {
-            emailFieldAlt.clear();
-        }
+        locateEmailField().clear();
+        invalidateSnapshot();
     }
 
     /**
      * Clear password field
      */
     public void clearPassword() {
-        waitForElementLoad();
+        waitForElementLoad(passwordField);
         passwordField.clear();
+        invalidateSnapshot();
     }
 
     /**
@@ -309,8 +278,7 @@ public class LoginPage extends BasePage {
      */
     @Override
     public boolean isPageLoaded() {
-        waitForElementLoad();
-        return isDisplayed(passwordField);
+        return waitForElementLoad(PASSWORD_FIELD);
     }
 
     /**
@@ -326,7 +294,7 @@ public class LoginPage extends BasePage {
      */
     public boolean isEmailFieldDisplayed() {
         try {
-            return isDisplayed(emailField) || isDisplayed(emailFieldAlt);
+            return isDisplayed(EMAIL_BY_LABEL) || isDisplayed(EMAIL_BY_TYPE);
         } catch (Exception e) {
             return false;
         }
@@ -336,7 +304,7 @@ public class LoginPage extends BasePage {
      * Check if password field is displayed
      */
     public boolean isPasswordFieldDisplayed() {
-        return isDisplayed(passwordField);
+        return isDisplayed(PASSWORD_FIELD);
     }
 
     /**
@@ -344,7 +312,7 @@ public class LoginPage extends BasePage {
      */
     public boolean isSignInButtonDisplayed() {
         try {
-            return isDisplayed(signInButton) || isDisplayed(signInButtonAlt);
+            return isDisplayed(SIGN_IN_BY_ACCESSIBILITY) || isDisplayed(SIGN_IN_BY_PREDICATE);
         } catch (Exception e) {
             return false;
         }
@@ -358,13 +326,9 @@ public class LoginPage extends BasePage {
     public boolean isSignInButtonEnabled() {
         shortWait();
         try {
-            return signInButton.isEnabled();
+            return stateOf(SIGN_IN_BY_ACCESSIBILITY, SIGN_IN_BY_PREDICATE).isEnabled();
         } catch (Exception e) {
-            try {
-                return signInButtonAlt.isEnabled();
-            } catch (Exception ex) {
-                return false;
-            }
+            return false;
         }
     }
 
@@ -373,7 +337,7 @@ public class LoginPage extends BasePage {
      */
     public boolean isErrorMessageDisplayed() {
         waitForAnimation();
-        return isDisplayed(errorMessage);
+        return isDisplayed(locatorOf("errorMessage"));
     }
 
     /**
@@ -381,7 +345,7 @@ public class LoginPage extends BasePage {
      */
     public String getErrorMessageText() {
         if (isErrorMessageDisplayed()) {
-            return getText(errorMessage);
+            return getAttribute(locatorOf("errorMessage"), "label");
         }
         return "";
     }
@@ -390,48 +354,96 @@ public class LoginPage extends BasePage {
      * Get email field text
      */
     public String getEmailText() {
-        try {
-            return getAttribute(emailField, "value");
-        } catch (Exception e) {
-            return getAttribute(emailFieldAlt, "value");
-        }
+        By field = isDisplayed(EMAIL_BY_LABEL) ? EMAIL_BY_LABEL : EMAIL_BY_TYPE;
+        return getAttribute(field, "value");
     }
 
     /**
      * Get password field text (will be masked)
      */
     public String getPasswordText() {
-        return getAttribute(passwordField, "value");
+        return getAttribute(PASSWORD_FIELD, "value");
     }
 
     /**
      * Check if email field is empty
      */
     public boolean isEmailFieldEmpty() {
-        String value = getEmailText();
-        return value == null || value.trim().isEmpty();
+        return stateOf(EMAIL_BY_LABEL, EMAIL_BY_TYPE).isBlank();
     }
 
     /**
      * Check if password field is empty
      */
     public boolean isPasswordFieldEmpty() {
-        String value = getPasswordText();
-        return value == null || value.trim().isEmpty();
+        return stateOf(PASSWORD_FIELD).isBlank();
     }
 
     /**
      * Check if Forgot Password link is displayed
      */
     public boolean isForgotPasswordDisplayed() {
-        return isDisplayed(forgotPasswordLink);
+        return isDisplayed(locatorOf("forgotPasswordLink"));
     }
 
     /**
      * Check if Change Company link is displayed
      */
     public boolean isChangeCompanyLinkDisplayed() {
-        return isDisplayed(changeCompanyLink);
+        return isDisplayed(locatorOf("changeCompanyLink"));
+    }
+
+    // ================================================================
+    // LOGIN OUTCOME
+    // ================================================================
+
+    /**
+     * Where a sign-in attempt ended up
+     */
+    public enum LoginOutcome {
+        HOME, ERROR, STILL_ON_LOGIN, UNKNOWN
+    }
+
+    /**
+     * Wait for the result of a sign-in: home screen or error label, whichever
+     * shows first, polled together on one page source per poll. When neither
+     * shows within the budget, reports whether the login form is still up.
+     *
+     * Without HOME_SCREEN_ID, home is only "no welcome or login form", which a
+     * spinner or transition frame also matches, so HOME must then hold on two
+     * consecutive page sources.
+     */
+    public LoginOutcome awaitLoginOutcome() {
+        Predicate<UiSnapshot> home = AppConstants.HOME_SCREEN_ID.isEmpty()
+            ? onTwoPolls(AuthCheckpoint::isAtHome) : AuthCheckpoint::isAtHome;
+        Map<LoginOutcome, Predicate<UiSnapshot>> outcomes = new LinkedHashMap<>();
+        outcomes.put(LoginOutcome.ERROR, snapshot -> snapshot.isDisplayed(locatorOf("errorMessage")));
+        outcomes.put(LoginOutcome.HOME, home);
+        LoginOutcome outcome = waitForAny(AppConstants.OUTCOME_BUDGET, outcomes);
+        if (outcome == null) {
+            // One more page source: confirms a home seen only on the last poll
+            UiSnapshot last = refreshSnapshot();
+            outcome = home.test(last) ? LoginOutcome.HOME
+                : last.isDisplayed(PASSWORD_FIELD) ? LoginOutcome.STILL_ON_LOGIN : LoginOutcome.UNKNOWN;
+        }
+        System.out.println("✔ Login outcome: " + outcome);
+        return outcome;
+    }
+
+    /**
+     * Holds once the signal held on this page source and on the one before it
+     */
+    static Predicate<UiSnapshot> onTwoPolls(Predicate<UiSnapshot> signal) {
+        UiSnapshot[] held = {null};
+        return snapshot -> {
+            if (!signal.test(snapshot)) {
+                held[0] = null;
+                return false;
+            }
+            boolean confirmed = held[0] != null && held[0] != snapshot;
+            held[0] = snapshot;
+            return confirmed;
+        };
     }
 
     // ================================================================
@@ -449,9 +461,10 @@ public class LoginPage extends BasePage {
     public boolean isButtonDisabledWhenBothFieldsEmpty() {
         clearAllFields();
         shortWait();
+        // All three read from the snapshot the settle wait left behind
         boolean emailEmpty = isEmailFieldEmpty();
         boolean passwordEmpty = isPasswordFieldEmpty();
-        boolean buttonDisabled = !isSignInButtonEnabled();
+        boolean buttonDisabled = !stateOf(SIGN_IN_BY_ACCESSIBILITY, SIGN_IN_BY_PREDICATE).isEnabled();
         
         // Expected: both fields empty AND button disabled
         return emailEmpty && passwordEmpty && buttonDisabled;
@@ -1,16 +1,22 @@
 package com.egalvanic.pages;
 
 import com.egalvanic.base.BasePage;
+import com.egalvanic.base.FallbackChain;
+import com.egalvanic.base.ScreenGraph;
 import com.egalvanic.constants.AppConstants;
+import io.appium.java_client.AppiumBy;
 import io.appium.java_client.pagefactory.iOSXCUITFindBy;
+import org.openqa.selenium.By;
 import org.openqa.selenium.WebElement;
 
 /**
  * Welcome Page - Company Code Entry Screen
  * First screen shown when app launches
  * 
- * NOTE: Uses Thread.sleep before accessing companyCodeField
+ * NOTE: Waits for companyCodeField before accessing it
  * because the placeholder "(e.g. acme.egalvanic)" takes time to load
+ * 
+ * Verification methods read from the shared page snapshot
  */
 public class WelcomePage extends BasePage {
 
@@ -22,14 +28,6 @@ public class WelcomePage extends BasePage {
     @iOSXCUITFindBy(iOSNsPredicate = "type == 'XCUIElementTypeTextField'")
     private WebElement companyCodeField;
 
-    // Continue Button
-    @iOSXCUITFindBy(accessibility = "Continue")
-    private WebElement continueButton;
-
-    // Alternative: Continue button by type and label
-    @iOSXCUITFindBy(iOSNsPredicate = "type == 'XCUIElementTypeButton' AND label == 'Continue'")
-    private WebElement continueButtonAlt;
-
     // Back Button (if navigating back from login)
     @iOSXCUITFindBy(accessibility = "Back")
     private WebElement backButton;
@@ -46,6 +44,33 @@ public class WelcomePage extends BasePage {
     @iOSXCUITFindBy(iOSNsPredicate = "type == 'XCUIElementTypeStaticText' AND label CONTAINS 'not found'")
     private WebElement errorMessage;
 
+    // ================================================================
+    // FALLBACK CHAIN LOCATORS - Tried in order by locateContinueButton
+    // ================================================================
+
+    public static final By CONTINUE_BUTTON = AppiumBy.accessibilityId("Continue");
+    private static final By CONTINUE_BY_PREDICATE = AppiumBy.iOSNsPredicateString(
+        "type == 'XCUIElementTypeButton' AND label == 'Continue'");
+
+    // Shared with AppResetter / AuthCheckpoint to recognise the Welcome screen
+    public static final By COMPANY_CODE_FIELD = locatorOf(WelcomePage.class, "companyCodeField");
+
+    // ================================================================
+    // SCREEN GRAPH
+    // ================================================================
+
+    public static final String SCREEN = "Welcome";
+
+    /**
+     * Register the Welcome screen and its way to Login (see AppScreens)
+     */
+    public static void registerScreen(ScreenGraph graph) {
+        graph.screen(SCREEN, snapshot -> snapshot.isDisplayed(COMPANY_CODE_FIELD)
+                && snapshot.find(CONTINUE_BUTTON) != null)
+            .transition(SCREEN, LoginPage.SCREEN, 4000,
+                () -> new WelcomePage().submitCompanyCode(AppConstants.VALID_COMPANY_CODE));
+    }
+
     // ================================================================
     // CONSTRUCTOR
     // ================================================================
@@ -54,7 +79,7 @@ public class WelcomePage extends BasePage {
         super();
         // CRITICAL: Wait for page elements to fully load
         // The placeholder "(e.g. acme.egalvanic)" takes time to appear
-        waitForPageLoad();
+        waitForPageLoad(COMPANY_CODE_FIELD);
     }
 
     // ================================================================
@@ -69,7 +94,7 @@ public class WelcomePage extends BasePage {
      */
     public void enterCompanyCode(String companyCode) {
         // Extra wait for the text field to be fully ready
-        waitForElementLoad();
+        waitForElementLoad(companyCodeField);
         
         try {
             waitForVisibility(companyCodeField);
@@ -81,6 +106,7 @@ public class WelcomePage extends BasePage {
             companyCodeField.clear();
             companyCodeField.sendKeys(companyCode);
         }
+        invalidateSnapshot();
     }
 
     /**
@@ -88,12 +114,17 @@ public class WelcomePage extends BasePage {
      */
     public void tapContinue() {
         shortWait();
-        try {
-            click(continueButton);
-        } catch (Exception e) {
-            // Fallback to alternative locator
-            click(continueButtonAlt);
-        }
+        click(locateContinueButton());
+    }
+
+    /**
+     * Locate the Continue button via its learned fallback order
+     */
+    private WebElement locateContinueButton() {
+        return new FallbackChain<WebElement>("WelcomePage.continueButton")
+            .attempt("accessibility", timeout -> findWithin(CONTINUE_BUTTON, timeout))
+            .attempt("predicate", timeout -> findWithin(CONTINUE_BY_PREDICATE, timeout))
+            .run();
     }
 
     /**
@@ -126,7 +157,7 @@ public class WelcomePage extends BasePage {
      * Clear company code field
      */
     public void clearCompanyCode() {
-        waitForElementLoad();
+        waitForElementLoad(companyCodeField);
         
         // First clear the field
         companyCodeField.clear();
@@ -137,6 +168,7 @@ public class WelcomePage extends BasePage {
         
         // Send empty string to ensure field is cleared
         companyCodeField.sendKeys("");
+        invalidateSnapshot();
         
         shortWait();
     }
@@ -150,8 +182,7 @@ public class WelcomePage extends BasePage {
      */
     @Override
     public boolean isPageLoaded() {
-        waitForElementLoad();
-        return isDisplayed(companyCodeField);
+        return waitForElementLoad(COMPANY_CODE_FIELD);
     }
 
     /**
@@ -166,8 +197,7 @@ public class WelcomePage extends BasePage {
      * Check if company code field is displayed
      */
     public boolean isCompanyCodeFieldDisplayed() {
-        waitForElementLoad();
-        return isDisplayed(companyCodeField);
+        return waitForElementLoad(COMPANY_CODE_FIELD);
     }
 
     /**
@@ -175,7 +205,7 @@ public class WelcomePage extends BasePage {
      */
     public boolean isContinueButtonDisplayed() {
         try {
-            return isDisplayed(continueButton) || isDisplayed(continueButtonAlt);
+            return isDisplayed(CONTINUE_BUTTON) || isDisplayed(CONTINUE_BY_PREDICATE);
         } catch (Exception e) {
             return false;
         }
@@ -190,14 +220,9 @@ public class WelcomePage extends BasePage {
     public boolean isContinueButtonEnabled() {
         shortWait();
         try {
-            // Try primary locator first
-            return continueButton.isEnabled();
+            return stateOf(CONTINUE_BUTTON, CONTINUE_BY_PREDICATE).isEnabled();
         } catch (Exception e) {
-            try {
-                return continueButtonAlt.isEnabled();
-            } catch (Exception ex) {
-                return false;
-            }
+            return false;
         }
     }
 
@@ -205,16 +230,18 @@ public class WelcomePage extends BasePage {
      * Get current text in company code field
      */
     public String getCompanyCodeText() {
-        waitForElementLoad();
-        return getAttribute(companyCodeField, "value");
+        By field = COMPANY_CODE_FIELD;
+        waitForElementLoad(field);
+        return getAttribute(field, "value");
     }
 
     /**
      * Get placeholder text from company code field
      */
     public String getPlaceholderText() {
-        waitForElementLoad();
-        return getAttribute(companyCodeField, "placeholderValue");
+        By field = COMPANY_CODE_FIELD;
+        waitForElementLoad(field);
+        return getAttribute(field, "placeholderValue");
     }
 
     /**
@@ -222,7 +249,7 @@ public class WelcomePage extends BasePage {
      */
     public boolean isErrorMessageDisplayed() {
         waitForAnimation();
-        return isDisplayed(errorMessage);
+        return isDisplayed(locatorOf("errorMessage"));
     }
 
     /**
@@ -230,7 +257,7 @@ public class WelcomePage extends BasePage {
      */
     public String getErrorMessageText() {
         if (isErrorMessageDisplayed()) {
-            return getText(errorMessage);
+            return getAttribute(locatorOf("errorMessage"), "label");
         }
         return "";
     }
@@ -242,24 +269,11 @@ public class WelcomePage extends BasePage {
         try {
             // Wait a bit to ensure field is updated after clearing
             shortWait();
-            
-            String value = getCompanyCodeText();
-            
-            // Get the placeholder text
-            String placeholder = getAttribute(companyCodeField, "placeholder");
-            
-            // Check if value is null or empty after trimming
-            if (value == null || value.trim().isEmpty()) {
-                return true;
-            }
-            
-            // If the field value matches the placeholder, it means the field is effectively empty
-            if (placeholder != null && value.equals(placeholder)) {
-                return true;
-            }
-            
-            // If the field has any other value besides the placeholder, it's not empty
-            return false;
+            By field = COMPANY_CODE_FIELD;
+            waitForElementLoad(field);
+
+            // Value and placeholder in one read: a field showing only its placeholder is empty
+            return stateOf(field).isEmpty();
         } catch (Exception e) {
             // If there's an issue getting the value, assume it's not empty
             System.out.println("Error checking if company code field is empty: " + e.getMessage());
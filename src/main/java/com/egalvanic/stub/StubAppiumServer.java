@@ -0,0 +1,754 @@
+package com.egalvanic.stub;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.openqa.selenium.json.Json;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Local Appium stand-in for offline framework testing
+ *
+ * Speaks enough of the W3C WebDriver / Appium wire protocol for IOSDriver
+ * and the page objects to run on a Linux build agent:
+ * - each session gets its own copy of a scripted XCUIElement hierarchy
+ *   (screens loaded from fixture XML, tap transitions, enable rules)
+ * - find / click / clear / sendKeys / attributes / rect / screenshot /
+ *   hideKeyboard work against that hierarchy
+ * - per-command latencies and failure rates can be injected
+ *
+ * Unknown commands are acknowledged with a null value; every command is
+ * counted so tests can assert how many round-trips the framework made.
+ * Missing elements are reported at once - implicit waits are not honoured.
+ */
+public class StubAppiumServer {
+
+    public static final String DEFAULT_BUNDLE_ID = "com.egalvanic.stub";
+
+    /** Latency / failure key that applies to every command without its own entry */
+    public static final String ANY_COMMAND = "*";
+
+    private static final String ELEMENT_KEY = "element-6066-11e4-a52e-4f735466cecf";
+    private static final String NATIVE_CONTEXT = "NATIVE_APP";
+    private static final String DEFAULT_SCREEN = "main";
+    private static final String EMPTY_SOURCE = "<?xml version=\"1.0\" encoding=\"UTF-8\"?><AppiumAUT>"
+        + "<XCUIElementTypeApplication type=\"XCUIElementTypeApplication\" name=\"Stub\" enabled=\"true\" visible=\"true\""
+        + " x=\"0\" y=\"0\" width=\"390\" height=\"844\"/>"
+        + "</AppiumAUT>";
+
+    private static final Json JSON = new Json();
+
+    static {
+        // Without TCP_NODELAY every small response waits on delayed ACK (~40 ms)
+        if (System.getProperty("sun.net.httpserver.nodelay") == null) {
+            System.setProperty("sun.net.httpserver.nodelay", "true");
+        }
+    }
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+
+    private final Map<String, StubSession> sessions = new ConcurrentHashMap<>();
+    private final Map<String, AtomicInteger> commandCounts = new ConcurrentHashMap<>();
+    private final AtomicInteger sessionsCreated = new AtomicInteger();
+    private final AtomicInteger sessionsDeleted = new AtomicInteger();
+    private final AtomicInteger injectedFailures = new AtomicInteger();
+
+    // Scripted app
+    private final Map<String, StubElement> screens = new ConcurrentHashMap<>();
+    private final Map<String, Map<String, String>> transitions = new ConcurrentHashMap<>();
+    private final List<EnableRule> enableRules = new CopyOnWriteArrayList<>();
+    private volatile String initialScreen = DEFAULT_SCREEN;
+
+    // Fault injection
+    private final Map<String, long[]> latencies = new ConcurrentHashMap<>();
+    private final Map<String, Double> failureRates = new ConcurrentHashMap<>();
+    private volatile Random random = new Random();
+
+    private volatile long sessionCreateDelayMillis;
+    private volatile byte[] screenshotPng = blankScreen(390, 844);
+
+    /**
+     * Create a stub bound to an ephemeral localhost port
+     */
+    public StubAppiumServer() {
+        try {
+            server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 1024);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to start stub Appium server: " + e.getMessage(), e);
+        }
+        executor = Executors.newCachedThreadPool(r -> {
+            Thread thread = new Thread(r, "stub-appium");
+            thread.setDaemon(true);
+            return thread;
+        });
+        server.setExecutor(executor);
+        server.createContext("/", this::handle);
+        addScreen(DEFAULT_SCREEN, EMPTY_SOURCE);
+    }
+
+    // ================================================================
+    // LIFECYCLE
+    // ================================================================
+
+    public StubAppiumServer start() {
+        server.start();
+        return this;
+    }
+
+    public void stop() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    /**
+     * Base URL to hand to IOSDriver, e.g. http://127.0.0.1:54321
+     */
+    public URL getUrl() {
+        try {
+            return new URL("http://127.0.0.1:" + server.getAddress().getPort());
+        } catch (Exception e) {
+            throw new RuntimeException("Invalid stub URL: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Simulate XCUITest session start-up cost (install, WDA handshake, launch)
+     */
+    public StubAppiumServer setSessionCreateDelay(Duration delay) {
+        this.sessionCreateDelayMillis = delay.toMillis();
+        return this;
+    }
+
+    /**
+     * PNG returned by the screenshot endpoint
+     */
+    public StubAppiumServer setScreenshot(byte[] png) {
+        this.screenshotPng = png;
+        return this;
+    }
+
+    // ================================================================
+    // SCRIPTED APP - Screens, tap transitions and enable rules
+    // ================================================================
+
+    /**
+     * Single-screen app: sessions created from now on show this hierarchy
+     */
+    public StubAppiumServer setPageSource(String xml) {
+        addScreen(DEFAULT_SCREEN, xml);
+        return setInitialScreen(DEFAULT_SCREEN);
+    }
+
+    /**
+     * Register a screen from page source XML (see src/test/resources/fixtures)
+     */
+    public StubAppiumServer addScreen(String name, String xml) {
+        screens.put(name, StubElement.parse(xml));
+        return this;
+    }
+
+    /**
+     * Screen new sessions start on
+     */
+    public StubAppiumServer setInitialScreen(String name) {
+        if (!screens.containsKey(name)) {
+            throw new IllegalArgumentException("Unknown stub screen: " + name);
+        }
+        this.initialScreen = name;
+        return this;
+    }
+
+    /**
+     * Tapping the element with this name or label on screen navigates to target
+     * (only while the element is enabled)
+     */
+    public StubAppiumServer onTap(String screen, String element, String targetScreen) {
+        transitions.computeIfAbsent(screen, k -> new ConcurrentHashMap<>()).put(element, targetScreen);
+        return this;
+    }
+
+    /**
+     * Keep a button enabled only while all the given text fields hold typed text
+     * Fields are matched by name, label or placeholder value.
+     */
+    public StubAppiumServer enableWhenFilled(String button, String... fields) {
+        enableRules.add(new EnableRule(button, fields));
+        return this;
+    }
+
+    /**
+     * Read a fixture from the classpath, e.g. "/fixtures/welcome_page.xml"
+     */
+    public static String loadFixture(String resource) {
+        try (InputStream in = StubAppiumServer.class.getResourceAsStream(resource)) {
+            if (in == null) {
+                throw new IllegalArgumentException("Fixture not found: " + resource);
+            }
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Could not read fixture " + resource + ": " + e.getMessage(), e);
+        }
+    }
+
+    StubElement screenTemplate(String name) {
+        return screens.get(name);
+    }
+
+    String initialScreen() {
+        return initialScreen;
+    }
+
+    String transition(String screen, StubElement tapped) {
+        Map<String, String> targets = transitions.get(screen);
+        if (targets == null) {
+            return null;
+        }
+        for (Map.Entry<String, String> target : targets.entrySet()) {
+            if (tapped.matches(target.getKey())) {
+                return target.getValue();
+            }
+        }
+        return null;
+    }
+
+    List<EnableRule> enableRules() {
+        return enableRules;
+    }
+
+    static final class EnableRule {
+        final String button;
+        final String[] fields;
+
+        EnableRule(String button, String[] fields) {
+            this.button = button;
+            this.fields = fields;
+        }
+    }
+
+    // ================================================================
+    // FAULT INJECTION
+    // ================================================================
+
+    /**
+     * Delay a command (e.g. "findElement", "getPageSource", or ANY_COMMAND)
+     * by base plus a uniformly random part up to jitter
+     */
+    public StubAppiumServer setLatency(String command, Duration base, Duration jitter) {
+        latencies.put(command, new long[] {base.toMillis(), jitter.toMillis()});
+        return this;
+    }
+
+    public StubAppiumServer setLatency(String command, Duration base) {
+        return setLatency(command, base, Duration.ZERO);
+    }
+
+    /**
+     * Answer this fraction (0..1) of a command with a 500 "unknown error"
+     */
+    public StubAppiumServer failCommand(String command, double rate) {
+        failureRates.put(command, rate);
+        return this;
+    }
+
+    /**
+     * Seed the latency jitter and failure draws, for repeatable runs
+     */
+    public StubAppiumServer setSeed(long seed) {
+        this.random = new Random(seed);
+        return this;
+    }
+
+    private void injectLatency(String command) throws InterruptedException {
+        long[] latency = latencies.getOrDefault(command, latencies.get(ANY_COMMAND));
+        if (latency == null) {
+            return;
+        }
+        long millis = latency[0] + (latency[1] > 0 ? (long) (random.nextDouble() * latency[1]) : 0);
+        if (millis > 0) {
+            Thread.sleep(millis);
+        }
+    }
+
+    private boolean injectFailure(String command) {
+        Double rate = failureRates.getOrDefault(command, failureRates.get(ANY_COMMAND));
+        if (rate != null && random.nextDouble() < rate) {
+            injectedFailures.incrementAndGet();
+            return true;
+        }
+        return false;
+    }
+
+    // ================================================================
+    // COUNTERS - For assertions in framework tests
+    // ================================================================
+
+    public int getSessionsCreated() {
+        return sessionsCreated.get();
+    }
+
+    public int getSessionsDeleted() {
+        return sessionsDeleted.get();
+    }
+
+    public int getActiveSessionCount() {
+        return sessions.size();
+    }
+
+    public int getInjectedFailureCount() {
+        return injectedFailures.get();
+    }
+
+    /**
+     * Screen a session is currently on, or null for an unknown session
+     */
+    public String getScreen(String sessionId) {
+        StubSession session = sessions.get(sessionId);
+        return session == null ? null : session.getScreen();
+    }
+
+    /**
+     * Number of times a command was received, keyed by command name
+     * (e.g. "findElement", "terminateApp", "execute:mobile: clearKeychains")
+     */
+    public int getCommandCount(String command) {
+        AtomicInteger count = commandCounts.get(command);
+        return count == null ? 0 : count.get();
+    }
+
+    public Map<String, Integer> getCommandCounts() {
+        Map<String, Integer> snapshot = new HashMap<>();
+        commandCounts.forEach((name, count) -> snapshot.put(name, count.get()));
+        return snapshot;
+    }
+
+    // ================================================================
+    // REQUEST HANDLING
+    // ================================================================
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try {
+            String method = exchange.getRequestMethod();
+            String[] parts = exchange.getRequestURI().getPath().replaceAll("^/+|/+$", "").split("/");
+            Map<String, Object> body = readBody(exchange);
+
+            if (parts.length == 1 && "status".equals(parts[0])) {
+                respond(exchange, 200, Collections.singletonMap("ready", true));
+                return;
+            }
+            if (parts.length < 1 || !"session".equals(parts[0])) {
+                respondError(exchange, 404, "unknown command", "Unknown path " + exchange.getRequestURI());
+                return;
+            }
+
+            String command = commandName(method, parts, body);
+            count(command);
+            injectLatency(command);
+            if (injectFailure(command)) {
+                respondError(exchange, 500, "unknown error", "Injected failure for " + command);
+                return;
+            }
+
+            if (parts.length == 1 && "POST".equals(method)) {
+                respond(exchange, 200, newSession(body));
+                return;
+            }
+            String sessionId = parts[1];
+            StubSession session = sessions.get(sessionId);
+            if (session == null) {
+                respondError(exchange, 404, "invalid session id", "Session " + sessionId + " does not exist");
+            } else if (parts.length == 2 && "DELETE".equals(method)) {
+                sessions.remove(sessionId);
+                sessionsDeleted.incrementAndGet();
+                respond(exchange, 200, null);
+            } else {
+                respond(exchange, 200, sessionCommand(session, command, parts, body));
+            }
+        } catch (WireError e) {
+            respondError(exchange, e.status, e.error, e.getMessage());
+        } catch (Exception e) {
+            respondError(exchange, 500, "unknown error", String.valueOf(e.getMessage()));
+        }
+    }
+
+    private Map<String, Object> newSession(Map<String, Object> body) throws InterruptedException {
+        if (sessionCreateDelayMillis > 0) {
+            Thread.sleep(sessionCreateDelayMillis);
+        }
+        String sessionId = UUID.randomUUID().toString();
+        // Like Appium, answer with the vendor prefix stripped (the page factory reads "automationName")
+        Map<String, Object> capabilities = new LinkedHashMap<>();
+        requestedCapabilities(body).forEach((name, value) ->
+            capabilities.put(name.startsWith("appium:") ? name.substring("appium:".length()) : name, value));
+        capabilities.putIfAbsent("platformName", "iOS");
+        capabilities.putIfAbsent("automationName", "XCUITest");
+
+        sessions.put(sessionId, new StubSession(this));
+        sessionsCreated.incrementAndGet();
+
+        Map<String, Object> value = new LinkedHashMap<>();
+        value.put("sessionId", sessionId);
+        value.put("capabilities", capabilities);
+        return value;
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, Object> requestedCapabilities(Map<String, Object> body) {
+        Object caps = body.get("capabilities");
+        if (caps instanceof Map) {
+            Object alwaysMatch = ((Map<String, Object>) caps).get("alwaysMatch");
+            if (alwaysMatch instanceof Map) {
+                return (Map<String, Object>) alwaysMatch;
+            }
+            Object firstMatch = ((Map<String, Object>) caps).get("firstMatch");
+            if (firstMatch instanceof List && !((List<?>) firstMatch).isEmpty()) {
+                return (Map<String, Object>) ((List<?>) firstMatch).get(0);
+            }
+        }
+        return Collections.emptyMap();
+    }
+
+    /**
+     * Command name for counting and fault injection, e.g. "findElement"
+     * parts = ["session", id, ...command path]
+     */
+    private static String commandName(String method, String[] parts, Map<String, Object> body) {
+        if (parts.length == 1) {
+            return "newSession";
+        }
+        if (parts.length == 2) {
+            return "DELETE".equals(method) ? "deleteSession" : method + " session";
+        }
+        String path = String.join("/", Arrays.copyOfRange(parts, 2, parts.length));
+        if ("element".equals(parts[2]) && parts.length > 3) {
+            String action = parts.length > 4 ? parts[4] : "";
+            switch (action) {
+                case "element": return "findChildElement";
+                case "elements": return "findChildElements";
+                case "click": return "clickElement";
+                case "clear": return "clearElement";
+                case "value": return "sendKeysToElement";
+                case "attribute": return "getElementAttribute";
+                case "enabled": return "isElementEnabled";
+                case "displayed": return "isElementDisplayed";
+                case "selected": return "isElementSelected";
+                case "text": return "getElementText";
+                case "name": return "getElementTagName";
+                case "rect": return "getElementRect";
+                case "screenshot": return "elementScreenshot";
+                default: return method + " element/" + action;
+            }
+        }
+        switch (path) {
+            case "element": return "findElement";
+            case "elements": return "findElements";
+            case "source": return "getPageSource";
+            case "screenshot": return "screenshot";
+            case "timeouts": return "setTimeout";
+            case "context": return "GET".equals(method) ? "getCurrentContext" : "switchToContext";
+            case "contexts": return "getContexts";
+            case "actions": return "actions";
+            case "touch/perform": return "touchPerform";
+            case "execute/sync": return "execute:" + body.get("script");
+            case "appium/device/hide_keyboard": return "hideKeyboard";
+            case "appium/device/is_keyboard_shown": return "isKeyboardShown";
+            case "appium/device/terminate_app": return "terminateApp";
+            case "appium/device/activate_app": return "activateApp";
+            default: return method + " " + path;
+        }
+    }
+
+    /**
+     * Answer a command inside an existing session
+     */
+    private Object sessionCommand(StubSession session, String command, String[] parts, Map<String, Object> body) {
+        String elementId = "element".equals(parts[2]) && parts.length > 3 ? parts[3] : null;
+        switch (command) {
+            case "findElement":
+            case "findChildElement": {
+                List<String> ids = session.find(String.valueOf(body.get("using")), String.valueOf(body.get("value")),
+                    elementId);
+                if (ids.isEmpty()) {
+                    throw new WireError(404, "no such element",
+                        "No element matches " + body.get("using") + "=" + body.get("value"));
+                }
+                return elementRef(ids.get(0));
+            }
+            case "findElements":
+            case "findChildElements": {
+                List<Map<String, String>> refs = new ArrayList<>();
+                for (String id : session.find(String.valueOf(body.get("using")), String.valueOf(body.get("value")),
+                        elementId)) {
+                    refs.add(elementRef(id));
+                }
+                return refs;
+            }
+            case "clickElement":
+                session.click(elementId);
+                return null;
+            case "clearElement":
+                session.clear(elementId);
+                return null;
+            case "sendKeysToElement":
+                session.sendKeys(elementId, keysOf(body));
+                return null;
+            case "getElementAttribute": {
+                StubElement element = session.element(elementId);
+                String name = parts[5];
+                String value = element.get(name);
+                return value == null && "type".equals(name) ? element.type : value;
+            }
+            case "isElementEnabled":
+                return session.element(elementId).is("enabled");
+            case "isElementDisplayed":
+                return session.element(elementId).is("visible");
+            case "isElementSelected":
+                return session.element(elementId).is("selected");
+            case "getElementText": {
+                StubElement element = session.element(elementId);
+                return element.get("label") != null ? element.get("label") : element.get("value");
+            }
+            case "getElementTagName":
+                return session.element(elementId).type;
+            case "getElementRect": {
+                StubElement element = session.element(elementId);
+                Map<String, Object> rect = new LinkedHashMap<>();
+                rect.put("x", element.getInt("x"));
+                rect.put("y", element.getInt("y"));
+                rect.put("width", element.getInt("width"));
+                rect.put("height", element.getInt("height"));
+                return rect;
+            }
+            case "elementScreenshot":
+                session.element(elementId);
+                return Base64.getEncoder().encodeToString(screenshotPng);
+            case "getPageSource":
+                return session.pageSource();
+            case "screenshot":
+                return Base64.getEncoder().encodeToString(screenshotPng);
+            case "hideKeyboard":
+                session.hideKeyboard();
+                return null;
+            case "isKeyboardShown":
+                return session.isKeyboardShown();
+            case "actions":
+            case "touchPerform":
+                tap(session, body);
+                return null;
+            case "getCurrentContext":
+                // The page factory only applies @iOSXCUITFindBy in the native context
+                return NATIVE_CONTEXT;
+            case "getContexts":
+                return Collections.singletonList(NATIVE_CONTEXT);
+            case "terminateApp":
+                return true;
+            case "activateApp":
+                session.relaunch();
+                return null;
+            default:
+                if (command.startsWith("execute:")) {
+                    return executeScript(session, String.valueOf(body.get("script")), body.get("args"));
+                }
+                return null;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private Object executeScript(StubSession session, String script, Object args) {
+        List<Object> arguments = args instanceof List ? (List<Object>) args : Collections.emptyList();
+        Map<String, Object> first = !arguments.isEmpty() && arguments.get(0) instanceof Map
+            ? (Map<String, Object>) arguments.get(0) : Collections.emptyMap();
+
+        if ("mobile: activeAppInfo".equals(script)) {
+            Map<String, Object> info = new LinkedHashMap<>();
+            info.put("bundleId", DEFAULT_BUNDLE_ID);
+            info.put("name", "Stub");
+            info.put("processArguments", Collections.emptyMap());
+            return info;
+        }
+        if ("mobile: terminateApp".equals(script)) {
+            return true;
+        }
+        if ("mobile: activateApp".equals(script) || "mobile: launchApp".equals(script)) {
+            session.relaunch();
+            return null;
+        }
+        if ("mobile: hideKeyboard".equals(script)) {
+            session.hideKeyboard();
+            return null;
+        }
+        if ("mobile: isKeyboardShown".equals(script)) {
+            return session.isKeyboardShown();
+        }
+        if ("mobile: tap".equals(script)) {
+            session.tapAt(toInt(first.get("x")), toInt(first.get("y")));
+            return null;
+        }
+        if (script.contains(".click()") && first.containsKey(ELEMENT_KEY)) {
+            // executeScript("arguments[0].click();", element)
+            session.click(String.valueOf(first.get(ELEMENT_KEY)));
+            return null;
+        }
+        return null;
+    }
+
+    /**
+     * Tap from a W3C pointer action or a legacy TouchAction
+     */
+    @SuppressWarnings("unchecked")
+    private void tap(StubSession session, Map<String, Object> body) {
+        Object actions = body.get("actions");
+        if (!(actions instanceof List)) {
+            return;
+        }
+        for (Object source : (List<Object>) actions) {
+            Map<String, Object> map = (Map<String, Object>) source;
+            if (map.get("options") instanceof Map) {
+                // touch/perform: [{"action": "tap", "options": {"x": .., "y": ..}}]
+                Map<String, Object> options = (Map<String, Object>) map.get("options");
+                if (options.get("element") != null) {
+                    session.click(String.valueOf(options.get("element")));
+                } else {
+                    session.tapAt(toInt(options.get("x")), toInt(options.get("y")));
+                }
+                return;
+            }
+            if (map.get("actions") instanceof List) {
+                // W3C: pointerMove to the point, then pointerDown
+                Map<String, Object> move = null;
+                for (Object step : (List<Object>) map.get("actions")) {
+                    Map<String, Object> action = (Map<String, Object>) step;
+                    if ("pointerMove".equals(action.get("type"))) {
+                        move = action;
+                    } else if ("pointerDown".equals(action.get("type")) && move != null) {
+                        Object origin = move.get("origin");
+                        if (origin instanceof Map && ((Map<String, Object>) origin).containsKey(ELEMENT_KEY)) {
+                            session.click(String.valueOf(((Map<String, Object>) origin).get(ELEMENT_KEY)));
+                        } else {
+                            session.tapAt(toInt(move.get("x")), toInt(move.get("y")));
+                        }
+                        return;
+                    }
+                }
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static String keysOf(Map<String, Object> body) {
+        Object text = body.get("text");
+        if (text != null) {
+            return String.valueOf(text);
+        }
+        Object value = body.get("value");
+        if (value instanceof List) {
+            StringBuilder keys = new StringBuilder();
+            for (Object key : (List<Object>) value) {
+                keys.append(key);
+            }
+            return keys.toString();
+        }
+        return "";
+    }
+
+    private static Map<String, String> elementRef(String id) {
+        Map<String, String> ref = new LinkedHashMap<>();
+        ref.put(ELEMENT_KEY, id);
+        ref.put("ELEMENT", id);
+        return ref;
+    }
+
+    private static int toInt(Object value) {
+        return value instanceof Number ? ((Number) value).intValue() : 0;
+    }
+
+    private static byte[] blankScreen(int width, int height) {
+        try {
+            BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            ImageIO.write(image, "png", out);
+            return out.toByteArray();
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to render stub screenshot: " + e.getMessage(), e);
+        }
+    }
+
+    private void count(String command) {
+        commandCounts.computeIfAbsent(command, k -> new AtomicInteger()).incrementAndGet();
+    }
+
+    /**
+     * W3C error raised while answering a session command
+     */
+    static final class WireError extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        final int status;
+        final String error;
+
+        WireError(int status, String error, String message) {
+            super(message);
+            this.status = status;
+            this.error = error;
+        }
+    }
+
+    // ================================================================
+    // WIRE HELPERS
+    // ================================================================
+
+    private Map<String, Object> readBody(HttpExchange exchange) throws IOException {
+        try (InputStream in = exchange.getRequestBody()) {
+            String raw = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+            if (raw.isBlank()) {
+                return Collections.emptyMap();
+            }
+            return JSON.toType(raw, Json.MAP_TYPE);
+        }
+    }
+
+    private void respond(HttpExchange exchange, int status, Object value) throws IOException {
+        write(exchange, status, Collections.singletonMap("value", value));
+    }
+
+    private void respondError(HttpExchange exchange, int status, String error, String message) throws IOException {
+        Map<String, Object> value = new LinkedHashMap<>();
+        value.put("error", error);
+        value.put("message", message);
+        value.put("stacktrace", "");
+        write(exchange, status, Collections.singletonMap("value", value));
+    }
+
+    private void write(HttpExchange exchange, int status, Object payload) throws IOException {
+        byte[] bytes = JSON.toJson(payload).getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+}
@@ -0,0 +1,206 @@
+package com.egalvanic.stub;
+
+import org.xml.sax.Attributes;
+import org.xml.sax.InputSource;
+import org.xml.sax.helpers.DefaultHandler;
+
+import javax.xml.parsers.SAXParser;
+import javax.xml.parsers.SAXParserFactory;
+import java.io.StringReader;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Mutable XCUIElement in a stub session's hierarchy
+ *
+ * Parsed from fixture XML and written back as page source, so values typed
+ * into fields and enabled states show up in later queries.
+ */
+final class StubElement {
+
+    final String type;
+    final Map<String, String> attributes;
+    final List<StubElement> children = new ArrayList<>(4);
+    StubElement parent;
+
+    StubElement(String type, Map<String, String> attributes) {
+        this.type = type;
+        this.attributes = attributes;
+    }
+
+    // ================================================================
+    // PARSING / COPYING
+    // ================================================================
+
+    /**
+     * Parse page source XML, returning the root (AppiumAUT) element
+     */
+    static StubElement parse(String xml) {
+        try {
+            SAXParserFactory factory = SAXParserFactory.newInstance();
+            factory.setFeature("http://apache.org/xml/features/disallow-doctype-decl", true);
+            SAXParser parser = factory.newSAXParser();
+
+            Deque<StubElement> stack = new ArrayDeque<>();
+            List<StubElement> roots = new ArrayList<>(1);
+            parser.parse(new InputSource(new StringReader(xml)), new DefaultHandler() {
+                @Override
+                public void startElement(String uri, String localName, String qName, Attributes attrs) {
+                    Map<String, String> attributes = new LinkedHashMap<>();
+                    for (int i = 0; i < attrs.getLength(); i++) {
+                        attributes.put(attrs.getQName(i), attrs.getValue(i));
+                    }
+                    StubElement element = new StubElement(qName, attributes);
+                    if (stack.isEmpty()) {
+                        roots.add(element);
+                    } else {
+                        stack.peek().add(element);
+                    }
+                    stack.push(element);
+                }
+
+                @Override
+                public void endElement(String uri, String localName, String qName) {
+                    stack.pop();
+                }
+            });
+            return roots.get(0);
+        } catch (Exception e) {
+            throw new IllegalArgumentException("Could not parse stub hierarchy: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Deep copy, so each session mutates its own hierarchy
+     */
+    StubElement copy() {
+        StubElement copy = new StubElement(type, new LinkedHashMap<>(attributes));
+        for (StubElement child : children) {
+            copy.add(child.copy());
+        }
+        return copy;
+    }
+
+    void add(StubElement child) {
+        child.parent = this;
+        children.add(child);
+    }
+
+    void remove(StubElement child) {
+        children.remove(child);
+        child.parent = null;
+    }
+
+    // ================================================================
+    // QUERIES
+    // ================================================================
+
+    String get(String attribute) {
+        return attributes.get(attribute);
+    }
+
+    boolean is(String attribute) {
+        return "true".equals(attributes.get(attribute));
+    }
+
+    int getInt(String attribute) {
+        String value = attributes.get(attribute);
+        try {
+            return value == null ? 0 : (int) Double.parseDouble(value);
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    /**
+     * Name or label equals the given text
+     */
+    boolean matches(String nameOrLabel) {
+        return nameOrLabel.equals(get("name")) || nameOrLabel.equals(get("label"));
+    }
+
+    boolean isTextInput() {
+        return "XCUIElementTypeTextField".equals(type) || "XCUIElementTypeSecureTextField".equals(type)
+            || "XCUIElementTypeSearchField".equals(type) || "XCUIElementTypeTextView".equals(type);
+    }
+
+    boolean contains(int x, int y) {
+        int left = getInt("x");
+        int top = getInt("y");
+        return x >= left && y >= top && x < left + getInt("width") && y < top + getInt("height");
+    }
+
+    /**
+     * True when other is this element or one of its descendants
+     */
+    boolean isAncestorOf(StubElement other) {
+        for (StubElement node = other; node != null; node = node.parent) {
+            if (node == this) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Add this element and all descendants to out, in document order
+     */
+    void collect(List<StubElement> out) {
+        out.add(this);
+        for (StubElement child : children) {
+            child.collect(out);
+        }
+    }
+
+    // ================================================================
+    // XML
+    // ================================================================
+
+    String toXml() {
+        StringBuilder xml = new StringBuilder(4096);
+        xml.append("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n");
+        appendXml(xml, 0);
+        return xml.toString();
+    }
+
+    private void appendXml(StringBuilder xml, int depth) {
+        for (int i = 0; i < depth; i++) {
+            xml.append("  ");
+        }
+        xml.append('<').append(type);
+        for (Map.Entry<String, String> attribute : attributes.entrySet()) {
+            xml.append(' ').append(attribute.getKey()).append("=\"");
+            escape(xml, attribute.getValue());
+            xml.append('"');
+        }
+        if (children.isEmpty()) {
+            xml.append("/>\n");
+            return;
+        }
+        xml.append(">\n");
+        for (StubElement child : children) {
+            child.appendXml(xml, depth + 1);
+        }
+        for (int i = 0; i < depth; i++) {
+            xml.append("  ");
+        }
+        xml.append("</").append(type).append(">\n");
+    }
+
+    private static void escape(StringBuilder xml, String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '&': xml.append("&amp;"); break;
+                case '<': xml.append("&lt;"); break;
+                case '>': xml.append("&gt;"); break;
+                case '"': xml.append("&quot;"); break;
+                default: xml.append(c);
+            }
+        }
+    }
+}
@@ -0,0 +1,317 @@
+package com.egalvanic.stub;
+
+import com.egalvanic.base.snapshot.UiNode;
+import com.egalvanic.base.snapshot.UiSnapshot;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * App state behind one stub session: current screen, its element tree,
+ * typed values and the keyboard
+ *
+ * Locators are answered by the same UiSnapshot evaluators BasePage uses
+ * locally, so the stub and the framework agree on what matches. Element
+ * ids are "generation-index"; navigating to another screen bumps the
+ * generation, so references from the previous screen become stale.
+ */
+final class StubSession {
+
+    static final String KEYBOARD = "XCUIElementTypeKeyboard";
+
+    private final StubAppiumServer server;
+
+    private String screen;
+    private StubElement root;
+    private List<StubElement> elements;
+    private int generation;
+    private boolean keyboardShown;
+    private StubElement keyboard;
+
+    // Real text of secure fields, whose value only shows bullets
+    private final Map<StubElement, String> secureText = new IdentityHashMap<>();
+
+    // Snapshot of the current tree, rebuilt after any change
+    private UiSnapshot snapshot;
+    private Map<UiNode, Integer> snapshotIndex;
+
+    StubSession(StubAppiumServer server) {
+        this.server = server;
+        show(server.initialScreen());
+    }
+
+    // ================================================================
+    // SCREENS
+    // ================================================================
+
+    private void show(String screenName) {
+        screen = screenName;
+        root = server.screenTemplate(screenName).copy();
+        generation++;
+        keyboardShown = false;
+        keyboard = null;
+        secureText.clear();
+        applyEnableRules();
+        changed();
+    }
+
+    /**
+     * App relaunch: back to the initial screen with fresh state
+     */
+    synchronized void relaunch() {
+        show(server.initialScreen());
+    }
+
+    synchronized String getScreen() {
+        return screen;
+    }
+
+    synchronized String pageSource() {
+        return root.toXml();
+    }
+
+    private void changed() {
+        elements = new ArrayList<>();
+        root.collect(elements);
+        snapshot = null;
+        snapshotIndex = null;
+    }
+
+    // ================================================================
+    // FINDING
+    // ================================================================
+
+    /**
+     * Ids of all elements matching the locator, optionally under a parent element
+     */
+    synchronized List<String> find(String using, String value, String parentId) {
+        StubElement parent = parentId == null ? null : element(parentId);
+        if (snapshot == null) {
+            snapshot = UiSnapshot.parse(root.toXml());
+            snapshotIndex = new IdentityHashMap<>();
+            List<UiNode> all = snapshot.getAllElements();
+            for (int i = 0; i < all.size(); i++) {
+                snapshotIndex.put(all.get(i), i);
+            }
+        }
+        List<UiNode> matches;
+        try {
+            matches = snapshot.findAll(using, value);
+        } catch (UnsupportedOperationException | IllegalArgumentException e) {
+            throw new StubAppiumServer.WireError(400, "invalid selector", e.getMessage());
+        }
+        List<String> ids = new ArrayList<>(matches.size());
+        for (UiNode node : matches) {
+            int index = snapshotIndex.get(node);
+            if (parent == null || (parent != elements.get(index) && parent.isAncestorOf(elements.get(index)))) {
+                ids.add(generation + "-" + index);
+            }
+        }
+        return ids;
+    }
+
+    /**
+     * Resolve an element id from this session
+     */
+    synchronized StubElement element(String id) {
+        int dash = id.indexOf('-');
+        try {
+            int idGeneration = Integer.parseInt(id.substring(0, dash));
+            int index = Integer.parseInt(id.substring(dash + 1));
+            if (idGeneration == generation && index < elements.size()) {
+                return elements.get(index);
+            }
+        } catch (RuntimeException e) {
+            throw new StubAppiumServer.WireError(404, "no such element", "Unknown element id " + id);
+        }
+        throw new StubAppiumServer.WireError(404, "stale element reference",
+            "Element " + id + " is no longer attached to the " + screen + " screen");
+    }
+
+    // ================================================================
+    // INTERACTIONS
+    // ================================================================
+
+    synchronized void click(String id) {
+        tap(element(id));
+    }
+
+    /**
+     * Tap whatever element is on top at the given screen coordinates
+     */
+    synchronized void tapAt(int x, int y) {
+        StubElement hit = null;
+        for (StubElement element : elements) {
+            // Later (deeper / drawn later) elements win
+            if (element != root && element.contains(x, y) && element.is("visible")) {
+                hit = element;
+            }
+        }
+        if (hit != null) {
+            tap(hit);
+        }
+    }
+
+    private void tap(StubElement element) {
+        if (!element.is("enabled")) {
+            return;
+        }
+        String target = server.transition(screen, element);
+        if (target != null) {
+            show(target);
+            return;
+        }
+        if (element.isTextInput()) {
+            showKeyboard();
+        } else if (keyboard != null && keyboard.isAncestorOf(element)) {
+            // Return / Done keys
+            hideKeyboard();
+        }
+    }
+
+    synchronized void clear(String id) {
+        StubElement field = element(id);
+        String placeholder = field.get("placeholderValue");
+        if (placeholder != null) {
+            field.attributes.put("value", placeholder);
+        } else {
+            field.attributes.remove("value");
+        }
+        secureText.remove(field);
+        applyEnableRules();
+        changed();
+    }
+
+    synchronized void sendKeys(String id, String text) {
+        StubElement field = element(id);
+        showKeyboard();
+        String current = typedValue(field);
+        StringBuilder value = new StringBuilder(current);
+        for (char c : text.toCharArray()) {
+            if (c == '\b') {
+                if (value.length() > 0) {
+                    value.setLength(value.length() - 1);
+                }
+            } else if (c == '\n') {
+                hideKeyboard();
+            } else if (c < 0xE000 || c > 0xF8FF) {
+                // Skip WebDriver special keys (private use area)
+                value.append(c);
+            }
+        }
+        secureText.remove(field);
+        if (value.length() == 0) {
+            String placeholder = field.get("placeholderValue");
+            if (placeholder != null) {
+                field.attributes.put("value", placeholder);
+            } else {
+                field.attributes.remove("value");
+            }
+        } else if (isSecure(field)) {
+            field.attributes.put("value", "•".repeat(value.length()));
+            secureText.put(field, value.toString());
+        } else {
+            field.attributes.put("value", value.toString());
+        }
+        applyEnableRules();
+        changed();
+    }
+
+    /**
+     * What the user has typed so far (empty when showing the placeholder)
+     */
+    private String typedValue(StubElement field) {
+        if (isSecure(field)) {
+            return secureText.getOrDefault(field, "");
+        }
+        String value = field.get("value");
+        if (value == null || value.equals(field.get("placeholderValue"))) {
+            return "";
+        }
+        return value;
+    }
+
+    private static boolean isSecure(StubElement field) {
+        return "XCUIElementTypeSecureTextField".equals(field.type);
+    }
+
+    // ================================================================
+    // KEYBOARD
+    // ================================================================
+
+    synchronized boolean isKeyboardShown() {
+        return keyboardShown;
+    }
+
+    synchronized void hideKeyboard() {
+        if (keyboard != null && keyboard.parent != null) {
+            keyboard.parent.remove(keyboard);
+        }
+        keyboard = null;
+        keyboardShown = false;
+        changed();
+    }
+
+    private void showKeyboard() {
+        if (keyboardShown) {
+            return;
+        }
+        keyboardShown = true;
+        StubElement application = root.children.isEmpty() ? root : root.children.get(0);
+        Map<String, String> attributes = new LinkedHashMap<>();
+        attributes.put("type", KEYBOARD);
+        attributes.put("enabled", "true");
+        attributes.put("visible", "true");
+        attributes.put("x", "0");
+        attributes.put("y", "508");
+        attributes.put("width", "390");
+        attributes.put("height", "336");
+        keyboard = new StubElement(KEYBOARD, attributes);
+        Map<String, String> returnKey = new LinkedHashMap<>();
+        returnKey.put("type", "XCUIElementTypeButton");
+        returnKey.put("name", "Return");
+        returnKey.put("label", "Return");
+        returnKey.put("enabled", "true");
+        returnKey.put("visible", "true");
+        returnKey.put("x", "290");
+        returnKey.put("y", "790");
+        returnKey.put("width", "96");
+        returnKey.put("height", "42");
+        keyboard.add(new StubElement("XCUIElementTypeButton", returnKey));
+        // Appended last, so existing element ids keep their index
+        application.add(keyboard);
+        changed();
+    }
+
+    // ================================================================
+    // SCRIPTED RULES
+    // ================================================================
+
+    private void applyEnableRules() {
+        for (StubAppiumServer.EnableRule rule : server.enableRules()) {
+            StubElement button = null;
+            List<StubElement> fields = new ArrayList<>();
+            List<StubElement> all = new ArrayList<>();
+            root.collect(all);
+            for (StubElement element : all) {
+                if (element.matches(rule.button)) {
+                    button = element;
+                }
+                for (String field : rule.fields) {
+                    if (element.isTextInput() && (element.matches(field)
+                        || field.equals(element.get("placeholderValue")))) {
+                        fields.add(element);
+                    }
+                }
+            }
+            if (button == null || fields.size() < rule.fields.length) {
+                continue;
+            }
+            boolean filled = fields.stream().noneMatch(field -> typedValue(field).isEmpty());
+            button.attributes.put("enabled", String.valueOf(filled));
+        }
+    }
+}
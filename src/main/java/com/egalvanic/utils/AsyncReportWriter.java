@@ -0,0 +1,191 @@
+package com.egalvanic.utils;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Single background thread that applies report events in submission order
+ *
+ * Test threads only pay for an enqueue onto a BoundedEventQueue. When the
+ * queue is full the submitting thread spins, then parks briefly, until the
+ * writer frees a slot (backpressure - events are never dropped).
+ *
+ * Ordering: one writer applies events FIFO, so every event a test thread
+ * submits is applied after the events it submitted earlier.
+ */
+public class AsyncReportWriter {
+
+    private static final int SPINS_BEFORE_PARK = 100;
+    private static final long PRODUCER_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+    private static final long WRITER_IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final BoundedEventQueue<Runnable> queue;
+    private final Thread writer;
+    private volatile boolean running = true;
+
+    // Metrics
+    private final AtomicLong submitted = new AtomicLong();
+    private final AtomicLong applied = new AtomicLong();
+    private final AtomicInteger failures = new AtomicInteger();
+    private final AtomicLong backpressureStalls = new AtomicLong();
+    private final AtomicLong backpressureNanos = new AtomicLong();
+    private volatile int maxDepth;
+
+    public AsyncReportWriter(int capacity) {
+        this.queue = new BoundedEventQueue<>(capacity);
+        this.writer = new Thread(this::drainLoop, "report-writer");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    // ================================================================
+    // PRODUCER SIDE
+    // ================================================================
+
+    /**
+     * Queue a report event; blocks only while the queue is full
+     */
+    public void submit(Runnable event) {
+        enqueue(event);
+        submitted.incrementAndGet();
+    }
+
+    private void enqueue(Runnable event) {
+        if (!running) {
+            throw new IllegalStateException("Report writer is shut down");
+        }
+        if (!queue.offer(event)) {
+            long start = System.nanoTime();
+            backpressureStalls.incrementAndGet();
+            int spins = 0;
+            while (!queue.offer(event)) {
+                LockSupport.unpark(writer);
+                if (++spins < SPINS_BEFORE_PARK) {
+                    Thread.onSpinWait();
+                } else {
+                    LockSupport.parkNanos(PRODUCER_PARK_NANOS);
+                }
+            }
+            backpressureNanos.addAndGet(System.nanoTime() - start);
+        }
+        int depth = queue.size();
+        if (depth > maxDepth) {
+            maxDepth = depth;
+        }
+    }
+
+    /**
+     * Wait until every event submitted before this call has been applied
+     *
+     * @return false if the timeout elapsed first
+     */
+    public boolean drain(Duration timeout) {
+        if (Thread.currentThread() == writer) {
+            return true;
+        }
+        Barrier barrier = new Barrier();
+        enqueue(barrier);
+        LockSupport.unpark(writer);
+        try {
+            return barrier.latch.await(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    /**
+     * Drain outstanding events, then stop the writer thread
+     */
+    public void shutdown(Duration timeout) {
+        if (!running) {
+            return;
+        }
+        drain(timeout);
+        running = false;
+        LockSupport.unpark(writer);
+    }
+
+    // ================================================================
+    // WRITER SIDE
+    // ================================================================
+
+    private void drainLoop() {
+        while (running || !queue.isEmpty()) {
+            Runnable event = queue.poll();
+            if (event == null) {
+                LockSupport.parkNanos(WRITER_IDLE_PARK_NANOS);
+                continue;
+            }
+            if (event instanceof Barrier) {
+                event.run();
+                continue;
+            }
+            try {
+                event.run();
+            } catch (Throwable t) {
+                failures.incrementAndGet();
+                System.err.println("Report event failed: " + t);
+            }
+            applied.incrementAndGet();
+        }
+    }
+
+    /**
+     * Drain marker - not counted as a report event
+     */
+    private static final class Barrier implements Runnable {
+        final CountDownLatch latch = new CountDownLatch(1);
+
+        @Override
+        public void run() {
+            latch.countDown();
+        }
+    }
+
+    // ================================================================
+    // METRICS
+    // ================================================================
+
+    public boolean isWriterThread() {
+        return Thread.currentThread() == writer;
+    }
+
+    public long getSubmittedCount() {
+        return submitted.get();
+    }
+
+    public long getAppliedCount() {
+        return applied.get();
+    }
+
+    public int getFailureCount() {
+        return failures.get();
+    }
+
+    public long getBackpressureStalls() {
+        return backpressureStalls.get();
+    }
+
+    public long getBackpressureMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(backpressureNanos.get());
+    }
+
+    public int getMaxDepth() {
+        return maxDepth;
+    }
+
+    public int getCapacity() {
+        return queue.capacity();
+    }
+
+    public String getSummary() {
+        return String.format("events=%d applied=%d failed=%d maxDepth=%d/%d stalls=%d (%d ms)",
+            getSubmittedCount(), getAppliedCount(), getFailureCount(), getMaxDepth(), getCapacity(),
+            getBackpressureStalls(), getBackpressureMillis());
+    }
+}
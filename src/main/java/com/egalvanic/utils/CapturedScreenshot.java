@@ -0,0 +1,72 @@
+package com.egalvanic.utils;
+
+import java.util.Base64;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * One screenshot capture and the work derived from its bytes
+ *
+ * The PNG bytes are taken once on the test thread; the stored file and the
+ * JPEG thumbnail are produced by ScreenshotPipeline in the background.
+ * Getters block until that piece is ready and return null if it failed.
+ * Base64 of the full PNG is only made when asked for.
+ */
+public class CapturedScreenshot {
+
+    private final String name;
+    private final byte[] png;
+    final CompletableFuture<String> savedFile;
+    final CompletableFuture<byte[]> thumbnail;
+
+    CapturedScreenshot(String name, byte[] png,
+                       CompletableFuture<String> savedFile,
+                       CompletableFuture<byte[]> thumbnail) {
+        this.name = name;
+        this.png = png;
+        this.savedFile = savedFile;
+        this.thumbnail = thumbnail;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /** Raw PNG bytes as returned by WDA */
+    public byte[] getBytes() {
+        return png;
+    }
+
+    public int getSize() {
+        return png.length;
+    }
+
+    /**
+     * Wait for the PNG file; null if writing failed
+     * The path is that of the stored content, shared by identical captures
+     */
+    public String awaitFile() {
+        return savedFile.exceptionally(t -> null).join();
+    }
+
+    /**
+     * Base64 of the full screenshot
+     */
+    public String getBase64() {
+        return Base64.getEncoder().encodeToString(png);
+    }
+
+    /**
+     * Wait for the JPEG thumbnail; null when thumbnails are off, skipped or failed
+     */
+    public byte[] getThumbnail() {
+        return thumbnail.exceptionally(t -> null).join();
+    }
+
+    /**
+     * JPEG thumbnail as a data URI, or the full PNG base64 when there is none
+     */
+    public String getReportBase64() {
+        byte[] jpeg = getThumbnail();
+        return jpeg != null ? "data:image/jpeg;base64," + Base64.getEncoder().encodeToString(jpeg) : getBase64();
+    }
+}
@@ -0,0 +1,231 @@
+package com.egalvanic.utils;
+
+import com.egalvanic.constants.AppConstants;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Queue;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Latency of every driver command, per test and per suite
+ *
+ * TimedCommandExecutor records each WebDriver / Appium command under its
+ * name (find commands also under the locator strategy); explicit sleeps
+ * are recorded as "sleep". The suite histograms are shared by all
+ * threads, the test histograms belong to the thread between startTest
+ * and endTest. writeSummary() puts a JSON summary next to the reports.
+ */
+public class CommandTimings {
+
+    private static final Map<String, LatencyHistogram> suite = new ConcurrentHashMap<>();
+    private static final ThreadLocal<TestTimings> currentTest = new ThreadLocal<>();
+    private static final Queue<TestTimings> finishedTests = new ConcurrentLinkedQueue<>();
+
+    private CommandTimings() {}
+
+    // ================================================================
+    // RECORDING
+    // ================================================================
+
+    /**
+     * Record one command, into the suite and the current test of this thread
+     */
+    public static void record(String command, long nanos) {
+        if (!AppConstants.COMMAND_TIMING_ENABLED) {
+            return;
+        }
+        histogram(suite, command).record(nanos);
+        TestTimings test = currentTest.get();
+        if (test != null) {
+            histogram(test.histograms, command).record(nanos);
+        }
+    }
+
+    /**
+     * Sleep and record the time as a "sleep" command
+     */
+    public static void sleep(long millis) {
+        long start = System.nanoTime();
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            record("sleep", System.nanoTime() - start);
+        }
+    }
+
+    private static LatencyHistogram histogram(Map<String, LatencyHistogram> histograms, String command) {
+        LatencyHistogram histogram = histograms.get(command);
+        if (histogram == null) {
+            histogram = histograms.computeIfAbsent(command, k -> new LatencyHistogram());
+        }
+        return histogram;
+    }
+
+    // ================================================================
+    // TEST SCOPE
+    // ================================================================
+
+    /**
+     * Start collecting per-test timings on this thread
+     */
+    public static void startTest(String testName) {
+        currentTest.set(new TestTimings(testName));
+    }
+
+    /**
+     * Name of the test this thread is collecting for, or null
+     */
+    public static String getCurrentTest() {
+        TestTimings test = currentTest.get();
+        return test == null ? null : test.name;
+    }
+
+    /**
+     * Stop collecting for this thread's test and keep its summary
+     * Histograms are dropped; only count and percentiles are kept per test.
+     */
+    public static void endTest() {
+        TestTimings test = currentTest.get();
+        currentTest.remove();
+        if (test != null) {
+            for (Map.Entry<String, LatencyHistogram> entry : test.histograms.entrySet()) {
+                test.summaries.put(entry.getKey(), entry.getValue().summarize());
+            }
+            test.histograms.clear();
+            finishedTests.add(test);
+        }
+    }
+
+    /**
+     * Suite-wide summary per command
+     */
+    public static Map<String, LatencyHistogram.Summary> getSuiteSummary() {
+        Map<String, LatencyHistogram.Summary> summary = new TreeMap<>();
+        suite.forEach((command, histogram) -> summary.put(command, histogram.summarize()));
+        return summary;
+    }
+
+    /**
+     * Per-command summaries of every finished test, keyed by test name
+     */
+    public static Map<String, Map<String, LatencyHistogram.Summary>> getTestSummaries() {
+        Map<String, Map<String, LatencyHistogram.Summary>> tests = new LinkedHashMap<>();
+        for (TestTimings test : finishedTests) {
+            tests.put(test.name, test.summaries);
+        }
+        return tests;
+    }
+
+    public static void reset() {
+        suite.clear();
+        finishedTests.clear();
+        currentTest.remove();
+    }
+
+    // ================================================================
+    // REPORTING
+    // ================================================================
+
+    /**
+     * Console table of the suite, commands with the most total time first
+     */
+    public static String getReport() {
+        List<Map.Entry<String, LatencyHistogram.Summary>> rows = new ArrayList<>(getSuiteSummary().entrySet());
+        rows.sort(Comparator.comparingLong(
+            (Map.Entry<String, LatencyHistogram.Summary> e) -> e.getValue().totalNanos).reversed());
+
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("  %-40s %7s %10s %9s %9s %9s %9s%n",
+            "command", "count", "total ms", "p50 ms", "p95 ms", "p99 ms", "max ms"));
+        for (Map.Entry<String, LatencyHistogram.Summary> row : rows) {
+            LatencyHistogram.Summary s = row.getValue();
+            sb.append(String.format(Locale.ROOT, "  %-40s %7d %10.1f %9.2f %9.2f %9.2f %9.2f%n",
+                row.getKey(), s.count, millis(s.totalNanos), millis(s.p50Nanos),
+                millis(s.p95Nanos), millis(s.p99Nanos), millis(s.maxNanos)));
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Write suite and per-test summaries as JSON
+     */
+    public static File writeSummary(String path) throws IOException {
+        StringBuilder json = new StringBuilder();
+        json.append("{\n  \"suite\": ");
+        appendCommands(json, getSuiteSummary(), "  ");
+        json.append(",\n  \"tests\": [");
+        boolean first = true;
+        for (Map.Entry<String, Map<String, LatencyHistogram.Summary>> test : getTestSummaries().entrySet()) {
+            json.append(first ? "\n" : ",\n");
+            first = false;
+            json.append("    {\"name\": ").append(quote(test.getKey())).append(", \"commands\": ");
+            appendCommands(json, test.getValue(), "    ");
+            json.append('}');
+        }
+        json.append(first ? "]\n}\n" : "\n  ]\n}\n");
+
+        File file = new File(path);
+        if (file.getParentFile() != null) {
+            file.getParentFile().mkdirs();
+        }
+        Files.write(file.toPath(), json.toString().getBytes(StandardCharsets.UTF_8));
+        return file;
+    }
+
+    private static void appendCommands(StringBuilder json, Map<String, LatencyHistogram.Summary> commands,
+                                       String indent) {
+        json.append('{');
+        boolean first = true;
+        for (Map.Entry<String, LatencyHistogram.Summary> entry : new TreeMap<>(commands).entrySet()) {
+            LatencyHistogram.Summary s = entry.getValue();
+            json.append(first ? "\n" : ",\n").append(indent).append("  ").append(quote(entry.getKey()));
+            json.append(String.format(Locale.ROOT,
+                ": {\"count\": %d, \"totalMs\": %.3f, \"p50Ms\": %.3f, \"p95Ms\": %.3f, \"p99Ms\": %.3f, \"maxMs\": %.3f}",
+                s.count, millis(s.totalNanos), millis(s.p50Nanos), millis(s.p95Nanos),
+                millis(s.p99Nanos), millis(s.maxNanos)));
+            first = false;
+        }
+        json.append(first ? "}" : "\n" + indent + "}");
+    }
+
+    private static String quote(String value) {
+        StringBuilder sb = new StringBuilder("\"");
+        for (char c : value.toCharArray()) {
+            if (c == '"' || c == '\\') {
+                sb.append('\\').append(c);
+            } else if (c < 0x20) {
+                sb.append(String.format("\\u%04x", (int) c));
+            } else {
+                sb.append(c);
+            }
+        }
+        return sb.append('"').toString();
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+
+    private static final class TestTimings {
+        final String name;
+        final Map<String, LatencyHistogram> histograms = new ConcurrentHashMap<>();
+        final Map<String, LatencyHistogram.Summary> summaries = new TreeMap<>();
+
+        TestTimings(String name) {
+            this.name = name;
+        }
+    }
+}
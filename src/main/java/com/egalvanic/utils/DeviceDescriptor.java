@@ -0,0 +1,120 @@
+package com.egalvanic.utils;
+
+import com.egalvanic.constants.AppConstants;
+
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * One simulator and the Appium endpoint that drives it
+ *
+ * Spec format (AppConstants.DEVICES), entries separated by ';':
+ *   name|udid|platformVersion|appiumUrl[|wdaLocalPort]
+ */
+public final class DeviceDescriptor {
+
+    private final String name;
+    private final String udid;
+    private final String platformVersion;
+    private final URL appiumUrl;
+    private final int wdaLocalPort;
+
+    public DeviceDescriptor(String name, String udid, String platformVersion, URL appiumUrl, int wdaLocalPort) {
+        this.name = name;
+        this.udid = udid;
+        this.platformVersion = platformVersion;
+        this.appiumUrl = appiumUrl;
+        this.wdaLocalPort = wdaLocalPort;
+    }
+
+    // ================================================================
+    // PARSING
+    // ================================================================
+
+    /**
+     * Devices from AppConstants.DEVICES, or the single configured device
+     */
+    public static List<DeviceDescriptor> configured() {
+        if (AppConstants.DEVICES.isEmpty()) {
+            return Collections.singletonList(new DeviceDescriptor(AppConstants.DEVICE_NAME, AppConstants.UDID,
+                AppConstants.PLATFORM_VERSION, toUrl(AppConstants.APPIUM_SERVER), 0));
+        }
+        return parseList(AppConstants.DEVICES);
+    }
+
+    /**
+     * Parse a ';'-separated list of device specs
+     */
+    public static List<DeviceDescriptor> parseList(String spec) {
+        List<DeviceDescriptor> devices = new ArrayList<>();
+        for (String entry : spec.split(";")) {
+            if (!entry.trim().isEmpty()) {
+                devices.add(parse(entry.trim()));
+            }
+        }
+        if (devices.isEmpty()) {
+            throw new IllegalArgumentException("No devices in spec: " + spec);
+        }
+        return devices;
+    }
+
+    /**
+     * Parse one name|udid|platformVersion|appiumUrl[|wdaLocalPort] entry
+     */
+    public static DeviceDescriptor parse(String entry) {
+        String[] fields = entry.split("\\|");
+        if (fields.length < 4 || fields.length > 5) {
+            throw new IllegalArgumentException(
+                "Expected name|udid|platformVersion|appiumUrl[|wdaLocalPort] but got: " + entry);
+        }
+        int wdaLocalPort = fields.length == 5 ? Integer.parseInt(fields[4].trim()) : 0;
+        return new DeviceDescriptor(fields[0].trim(), fields[1].trim(), fields[2].trim(),
+            toUrl(fields[3].trim()), wdaLocalPort);
+    }
+
+    private static URL toUrl(String url) {
+        try {
+            return new URL(url);
+        } catch (MalformedURLException e) {
+            throw new IllegalArgumentException("Invalid Appium server URL: " + url, e);
+        }
+    }
+
+    // ================================================================
+    // ACCESSORS
+    // ================================================================
+
+    /** Stable key for per-device state (udid, else endpoint) */
+    public String getId() {
+        return udid.isEmpty() ? appiumUrl.toString() : udid;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getUdid() {
+        return udid;
+    }
+
+    public String getPlatformVersion() {
+        return platformVersion;
+    }
+
+    public URL getAppiumUrl() {
+        return appiumUrl;
+    }
+
+    /** WDA port for this simulator, 0 = Appium default */
+    public int getWdaLocalPort() {
+        return wdaLocalPort;
+    }
+
+    @Override
+    public String toString() {
+        return name + " (" + getId() + " @ " + appiumUrl + ")";
+    }
+}
@@ -0,0 +1,58 @@
+package com.egalvanic.utils;
+
+import org.testng.IExecutorServiceFactory;
+
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * TestNG executor factory that runs parallel test methods on a DeviceScheduler
+ *
+ * Register with TestNG#setExecutorServiceFactory (see DeviceSuiteRunner) or
+ * the -threadpoolfactoryclass command line option. Thread counts from the
+ * suite are ignored: there is always one worker per device.
+ */
+public class DeviceExecutorFactory implements IExecutorServiceFactory {
+
+    private static final List<DeviceScheduler> schedulers = new CopyOnWriteArrayList<>();
+
+    private final List<DeviceDescriptor> devices;
+
+    public DeviceExecutorFactory() {
+        this(DeviceDescriptor.configured());
+    }
+
+    public DeviceExecutorFactory(List<DeviceDescriptor> devices) {
+        this.devices = devices;
+    }
+
+    @Override
+    public ExecutorService create(int corePoolSize, int maximumPoolSize, long keepAliveTime, TimeUnit unit,
+                                  BlockingQueue<Runnable> workQueue, ThreadFactory threadFactory) {
+        DeviceScheduler scheduler = new DeviceScheduler(devices);
+        schedulers.add(scheduler);
+        return scheduler;
+    }
+
+    /**
+     * Schedulers created so far (one per parallel <test>)
+     */
+    public static List<DeviceScheduler> getSchedulers() {
+        return schedulers;
+    }
+
+    /**
+     * Utilization / queue wait tables of every scheduler created so far
+     */
+    public static String getReport() {
+        StringBuilder report = new StringBuilder();
+        for (DeviceScheduler scheduler : schedulers) {
+            report.append(scheduler.getReport());
+        }
+        return report.toString();
+    }
+}
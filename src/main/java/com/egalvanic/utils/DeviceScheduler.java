@@ -0,0 +1,286 @@
+package com.egalvanic.utils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Work-stealing executor with one worker thread per simulator
+ *
+ * Each worker is bound to its device in DriverManager for its whole life,
+ * so every test it runs creates / leases sessions on that device. Work is
+ * queued round-robin (or on the submitting worker's own deque); a worker
+ * takes from the head of its own deque and, when that is empty, steals
+ * from the tail of the busiest other deque - a slow test on one device
+ * never leaves the rest idle.
+ *
+ * TestNG plugs it in through DeviceExecutorFactory (parallel methods/classes).
+ */
+public class DeviceScheduler extends AbstractExecutorService {
+
+    private static final long IDLE_POLL_MILLIS = 100;
+
+    private final List<Worker> workers = new ArrayList<>();
+    private final Semaphore available = new Semaphore(0);
+    private final AtomicInteger nextWorker = new AtomicInteger();
+    private final CountDownLatch terminated;
+    private final long startedNanos = System.nanoTime();
+    private volatile boolean shutdown;
+
+    public DeviceScheduler(List<DeviceDescriptor> devices) {
+        if (devices.isEmpty()) {
+            throw new IllegalArgumentException("DeviceScheduler needs at least one device");
+        }
+        this.terminated = new CountDownLatch(devices.size());
+        for (DeviceDescriptor device : devices) {
+            workers.add(new Worker(device));
+        }
+        for (Worker worker : workers) {
+            worker.thread.start();
+        }
+    }
+
+    // ================================================================
+    // EXECUTOR SERVICE
+    // ================================================================
+
+    @Override
+    public void execute(Runnable command) {
+        if (shutdown) {
+            throw new RejectedExecutionException("DeviceScheduler is shut down");
+        }
+        Task task = new Task(command);
+        Worker current = currentWorker();
+        Worker target = current != null
+            ? current
+            : workers.get(Math.floorMod(nextWorker.getAndIncrement(), workers.size()));
+        target.deque.addLast(task);
+        available.release();
+    }
+
+    @Override
+    public void shutdown() {
+        shutdown = true;
+    }
+
+    @Override
+    public List<Runnable> shutdownNow() {
+        shutdown = true;
+        List<Runnable> pending = new ArrayList<>();
+        for (Worker worker : workers) {
+            Task task;
+            while ((task = worker.deque.pollFirst()) != null) {
+                pending.add(task.command);
+            }
+            worker.thread.interrupt();
+        }
+        return pending;
+    }
+
+    @Override
+    public boolean isShutdown() {
+        return shutdown;
+    }
+
+    @Override
+    public boolean isTerminated() {
+        return terminated.getCount() == 0;
+    }
+
+    @Override
+    public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+        return terminated.await(timeout, unit);
+    }
+
+    // ================================================================
+    // WORKERS
+    // ================================================================
+
+    private Worker currentWorker() {
+        for (Worker worker : workers) {
+            if (worker.thread == Thread.currentThread()) {
+                return worker;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Own head first, else steal from the tail of the fullest other deque
+     * Returns null only when the worker is interrupted (shutdownNow)
+     */
+    private Task take(Worker self) {
+        Task task = self.deque.pollFirst();
+        if (task != null) {
+            return task;
+        }
+        while (true) {
+            Worker victim = null;
+            for (Worker other : workers) {
+                if (other != self && (victim == null || other.deque.size() > victim.deque.size())) {
+                    victim = other;
+                }
+            }
+            if (victim != null) {
+                task = victim.deque.pollLast();
+                if (task != null) {
+                    self.stolen.incrementAndGet();
+                    return task;
+                }
+            }
+            // A permit guarantees a task exists; it may have moved between deques
+            task = self.deque.pollFirst();
+            if (task != null) {
+                return task;
+            }
+            if (Thread.currentThread().isInterrupted()) {
+                return null;
+            }
+            Thread.onSpinWait();
+        }
+    }
+
+    private final class Worker implements Runnable {
+        final DeviceDescriptor device;
+        final ConcurrentLinkedDeque<Task> deque = new ConcurrentLinkedDeque<>();
+        final Thread thread;
+
+        final AtomicInteger completed = new AtomicInteger();
+        final AtomicInteger stolen = new AtomicInteger();
+        final AtomicInteger failed = new AtomicInteger();
+        final AtomicLong busyNanos = new AtomicLong();
+        final AtomicLong queueWaitNanos = new AtomicLong();
+        final AtomicLong maxQueueWaitNanos = new AtomicLong();
+
+        Worker(DeviceDescriptor device) {
+            this.device = device;
+            this.thread = new Thread(this, "device-" + device.getName());
+            this.thread.setDaemon(true);
+        }
+
+        @Override
+        public void run() {
+            DriverManager.bindDevice(device);
+            try {
+                while (true) {
+                    if (!available.tryAcquire(IDLE_POLL_MILLIS, TimeUnit.MILLISECONDS)) {
+                        if (shutdown) {
+                            return;
+                        }
+                        continue;
+                    }
+                    Task task = take(this);
+                    if (task == null) {
+                        return;
+                    }
+                    runTask(task);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                DriverManager.unbindDevice();
+                terminated.countDown();
+            }
+        }
+
+        private void runTask(Task task) {
+            long start = System.nanoTime();
+            long wait = start - task.queuedNanos;
+            queueWaitNanos.addAndGet(wait);
+            maxQueueWaitNanos.accumulateAndGet(wait, Math::max);
+            try {
+                task.command.run();
+            } catch (Throwable t) {
+                failed.incrementAndGet();
+                System.err.println("Task failed on " + device.getName() + ": " + t);
+            } finally {
+                busyNanos.addAndGet(System.nanoTime() - start);
+                completed.incrementAndGet();
+            }
+        }
+    }
+
+    private static final class Task {
+        final Runnable command;
+        final long queuedNanos = System.nanoTime();
+
+        Task(Runnable command) {
+            this.command = command;
+        }
+    }
+
+    // ================================================================
+    // METRICS
+    // ================================================================
+
+    /**
+     * Per-device counters at this moment
+     */
+    public List<DeviceStats> getStats() {
+        long wallNanos = Math.max(1, System.nanoTime() - startedNanos);
+        List<DeviceStats> stats = new ArrayList<>();
+        for (Worker worker : workers) {
+            int completed = worker.completed.get();
+            stats.add(new DeviceStats(
+                worker.device,
+                completed,
+                worker.stolen.get(),
+                worker.failed.get(),
+                TimeUnit.NANOSECONDS.toMillis(worker.busyNanos.get()),
+                (double) worker.busyNanos.get() / wallNanos,
+                completed == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(worker.queueWaitNanos.get() / completed),
+                TimeUnit.NANOSECONDS.toMillis(worker.maxQueueWaitNanos.get())
+            ));
+        }
+        return Collections.unmodifiableList(stats);
+    }
+
+    /**
+     * Utilization / queue wait table, one row per device
+     */
+    public String getReport() {
+        StringBuilder report = new StringBuilder();
+        report.append(String.format("%-24s %6s %6s %6s %10s %6s %10s %10s%n",
+            "device", "tests", "stolen", "failed", "busy ms", "util", "avg wait", "max wait"));
+        for (DeviceStats stat : getStats()) {
+            report.append(String.format("%-24s %6d %6d %6d %10d %5.0f%% %10d %10d%n",
+                stat.device.getName(), stat.completed, stat.stolen, stat.failed,
+                stat.busyMillis, stat.utilization * 100, stat.avgQueueWaitMillis, stat.maxQueueWaitMillis));
+        }
+        return report.toString();
+    }
+
+    /**
+     * Snapshot of one device's counters
+     */
+    public static final class DeviceStats {
+        public final DeviceDescriptor device;
+        public final int completed;
+        public final int stolen;
+        public final int failed;
+        public final long busyMillis;
+        public final double utilization;
+        public final long avgQueueWaitMillis;
+        public final long maxQueueWaitMillis;
+
+        DeviceStats(DeviceDescriptor device, int completed, int stolen, int failed, long busyMillis,
+                    double utilization, long avgQueueWaitMillis, long maxQueueWaitMillis) {
+            this.device = device;
+            this.completed = completed;
+            this.stolen = stolen;
+            this.failed = failed;
+            this.busyMillis = busyMillis;
+            this.utilization = utilization;
+            this.avgQueueWaitMillis = avgQueueWaitMillis;
+            this.maxQueueWaitMillis = maxQueueWaitMillis;
+        }
+    }
+}
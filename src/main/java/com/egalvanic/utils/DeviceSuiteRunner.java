@@ -0,0 +1,66 @@
+package com.egalvanic.utils;
+
+import org.testng.TestNG;
+import org.testng.xml.XmlSuite;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Runs TestNG suites across the simulator pool in AppConstants.DEVICES
+ *
+ * Usage: DeviceSuiteRunner [suite.xml ...]   (default testng-parallel.xml)
+ * Suite files must declare parallel="methods" or "classes"; suites built in
+ * code are switched to parallel="methods" when they are not parallel.
+ */
+public class DeviceSuiteRunner {
+
+    /** TestNG reports go under target/ like the surefire run */
+    private static final String OUTPUT_DIR = "target/test-output";
+
+    private DeviceSuiteRunner() {}
+
+    public static void main(String[] args) {
+        List<DeviceDescriptor> devices = DeviceDescriptor.configured();
+        String[] suiteFiles = args.length > 0 ? args : new String[] {"testng-parallel.xml"};
+
+        TestNG testng = run(devices, suiteFiles);
+
+        System.out.println("Device utilization:");
+        System.out.print(DeviceExecutorFactory.getReport());
+        System.exit(testng.getStatus());
+    }
+
+    /**
+     * Run the given suite files with one scheduler worker per device
+     */
+    public static TestNG run(List<DeviceDescriptor> devices, String... suiteFiles) {
+        System.out.println("✔ Running on " + devices.size() + " device(s): " + devices);
+        TestNG testng = new TestNG();
+        testng.setExecutorServiceFactory(new DeviceExecutorFactory(devices));
+        testng.setOutputDirectory(OUTPUT_DIR);
+        testng.setTestSuites(Arrays.asList(suiteFiles));
+        testng.run();
+        return testng;
+    }
+
+    /**
+     * Run the given suites with one scheduler worker per device
+     */
+    public static TestNG run(List<DeviceDescriptor> devices, List<XmlSuite> suites) {
+        for (XmlSuite suite : suites) {
+            if (suite.getParallel() == null || suite.getParallel() == XmlSuite.ParallelMode.NONE) {
+                suite.setParallel(XmlSuite.ParallelMode.METHODS);
+            }
+            suite.setThreadCount(devices.size());
+        }
+        System.out.println("✔ Running on " + devices.size() + " device(s): " + devices);
+
+        TestNG testng = new TestNG();
+        testng.setExecutorServiceFactory(new DeviceExecutorFactory(devices));
+        testng.setOutputDirectory(OUTPUT_DIR);
+        testng.setXmlSuites(suites);
+        testng.run();
+        return testng;
+    }
+}
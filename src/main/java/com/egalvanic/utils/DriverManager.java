@@ -7,15 +7,49 @@ import io.appium.java_client.ios.options.XCUITestOptions;
 import java.net.MalformedURLException;
 import java.net.URL;
 import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
 
 /**
  * Thread-safe Driver Manager using ThreadLocal
  * Manages IOSDriver lifecycle for parallel test execution
+ * 
+ * With DRIVER_POOL_ENABLED each test leases a warm session from a DriverPool
+ * and gives it back on quit, instead of creating and quitting one per test
+ * 
+ * A thread bound to a DeviceDescriptor (see DeviceScheduler) creates and
+ * pools its sessions on that device; unbound threads use AppConstants
  */
 public class DriverManager {
 
     private static final ThreadLocal<IOSDriver> driverThreadLocal = new ThreadLocal<>();
 
+    private static final String DEFAULT_DEVICE = "default";
+
+    // One pool per device id (DEFAULT_DEVICE for unbound threads)
+    private static final Map<String, DriverPool> pools = new ConcurrentHashMap<>();
+    private static volatile SessionPrewarmer prewarmer;
+
+    // Device the current thread runs on (null = AppConstants device)
+    private static final ThreadLocal<DeviceDescriptor> boundDevice = new ThreadLocal<>();
+
+    // Whether the current thread's driver came from the pool
+    private static final ThreadLocal<Boolean> pooledLease = new ThreadLocal<>();
+
+    // Bundle id per session, resolved once via mobile: activeAppInfo
+    private static final Map<String, String> bundleIds = new ConcurrentHashMap<>();
+
+    // Restores a reused pooled session (see AppResetter)
+    private static volatile Consumer<IOSDriver> resetAction = DriverManager::resetAppState;
+
+    // Session creation cost, the baseline cheaper resets are measured against
+    private static final AtomicInteger sessionsCreated = new AtomicInteger();
+    private static final AtomicLong sessionCreateNanos = new AtomicLong();
+
     private DriverManager() {
         // Prevent instantiation
     }
@@ -31,69 +65,333 @@ public class DriverManager {
     }
 
     /**
-     * Initialize IOSDriver with XCUITest options
+     * Initialize IOSDriver for the current thread
+     * Leases from the session pool when pooling is enabled
      */
     public static void initDriver() {
+        if (AppConstants.DRIVER_POOL_ENABLED) {
+            driverThreadLocal.set(getPool().lease());
+            pooledLease.set(Boolean.TRUE);
+            System.out.println("✔ IOSDriver leased from pool (" + getPool().getSummary() + ")");
+            return;
+        }
+        initFreshDriver();
+    }
+
+    /**
+     * Initialize a brand-new session for the current thread, bypassing the pool
+     * Handed over from the pre-warmer when PREWARM_SESSIONS is enabled
+     */
+    public static void initFreshDriver() {
+        driverThreadLocal.set(newSession());
+        pooledLease.set(Boolean.FALSE);
+        System.out.println("✔ IOSDriver initialized successfully");
+    }
+
+    /**
+     * New session on the bound device, or from the pre-warmer when enabled
+     */
+    private static IOSDriver newSession() {
+        DeviceDescriptor device = boundDevice.get();
+        if (device != null) {
+            return createDriver(device);
+        }
+        SessionPrewarmer warmer = getPrewarmer();
+        return warmer != null ? warmer.get() : createDriver();
+    }
+
+    // ================================================================
+    // DEVICE BINDING
+    // ================================================================
+
+    /**
+     * Run this thread's sessions on the given device
+     */
+    public static void bindDevice(DeviceDescriptor device) {
+        boundDevice.set(device);
+    }
+
+    public static void unbindDevice() {
+        boundDevice.remove();
+    }
+
+    /**
+     * Device bound to this thread, or null for the AppConstants device
+     */
+    public static DeviceDescriptor getBoundDevice() {
+        return boundDevice.get();
+    }
+
+    /**
+     * Create a new session against the configured Appium server
+     */
+    public static IOSDriver createDriver() {
         try {
-            XCUITestOptions options = new XCUITestOptions();
-            
-            // Device Configuration
-            options.setDeviceName(AppConstants.DEVICE_NAME);
-            options.setPlatformVersion(AppConstants.PLATFORM_VERSION);
-            options.setUdid(AppConstants.UDID);
-            options.setApp(AppConstants.APP_PATH);
-            
-            // Automation Settings
-            options.setAutomationName(AppConstants.AUTOMATION_NAME);
-            options.setNoReset(false);  // Fresh app state each test
-            options.setFullReset(false);
-            
-            // Alert Handling
-            options.setCapability("autoAcceptAlerts", true);
-            options.setCapability("autoDismissAlerts", false);
-            
-            // Performance Settings
-            options.setCapability("waitForQuiescence", true);
-            options.setCapability("shouldUseSingletonTestManager", false);
-            
-            // Timeouts
-            options.setCapability("newCommandTimeout", 300);
-            options.setCapability("launchTimeout", 120000);
-            
-            // Create driver
-            IOSDriver driver = new IOSDriver(
-                new URL(AppConstants.APPIUM_SERVER), 
-                options
-            );
+            return createDriver(new URL(AppConstants.APPIUM_SERVER));
+        } catch (MalformedURLException e) {
+            throw new RuntimeException("Invalid Appium server URL: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Create a new session on the given device
+     */
+    public static IOSDriver createDriver(DeviceDescriptor device) {
+        return createDriver(device.getAppiumUrl(), buildOptions(device));
+    }
+
+    /**
+     * Create a new session against the given Appium server
+     */
+    public static IOSDriver createDriver(URL serverUrl) {
+        return createDriver(serverUrl, buildOptions());
+    }
+
+    private static IOSDriver createDriver(URL serverUrl, XCUITestOptions options) {
+        FrameworkEvents.SessionEvent event = new FrameworkEvents.SessionEvent();
+        event.begin();
+        IOSDriver driver = null;
+        try {
+            long start = System.nanoTime();
+            // Create driver - every command it sends is timed (see CommandTimings)
+            driver = new IOSDriver(new TimedCommandExecutor(serverUrl), options);
             
             // Set implicit wait
             driver.manage().timeouts().implicitlyWait(
                 Duration.ofSeconds(AppConstants.IMPLICIT_WAIT)
             );
+            sessionCreateNanos.addAndGet(System.nanoTime() - start);
+            sessionsCreated.incrementAndGet();
+            event.success = true;
+            return driver;
             
-            driverThreadLocal.set(driver);
-            System.out.println("✔ IOSDriver initialized successfully");
-            
-        } catch (MalformedURLException e) {
-            throw new RuntimeException("Invalid Appium server URL: " + e.getMessage());
         } catch (Exception e) {
             throw new RuntimeException("Failed to initialize driver: " + e.getMessage());
+        } finally {
+            commitSessionEvent(event, "create", driver, serverUrl.toString());
+        }
+    }
+
+    private static void commitSessionEvent(FrameworkEvents.SessionEvent event, String action, IOSDriver driver,
+                                           String server) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.test = FrameworkEvents.currentTest();
+            event.action = action;
+            event.server = server;
+            event.sessionId = driver == null ? null : String.valueOf(driver.getSessionId());
+            event.commit();
         }
     }
 
+    /**
+     * Build XCUITest options from AppConstants
+     */
+    public static XCUITestOptions buildOptions() {
+        XCUITestOptions options = new XCUITestOptions();
+        
+        // Device Configuration
+        options.setDeviceName(AppConstants.DEVICE_NAME);
+        options.setPlatformVersion(AppConstants.PLATFORM_VERSION);
+        options.setUdid(AppConstants.UDID);
+        options.setApp(AppConstants.APP_PATH);
+        
+        // Automation Settings
+        options.setAutomationName(AppConstants.AUTOMATION_NAME);
+        options.setNoReset(false);  // Fresh app state on session start
+        options.setFullReset(false);
+        
+        // Alert Handling
+        options.setCapability("autoAcceptAlerts", true);
+        options.setCapability("autoDismissAlerts", false);
+        
+        // Performance Settings
+        options.setCapability("waitForQuiescence", true);
+        options.setCapability("shouldUseSingletonTestManager", false);
+        
+        // Timeouts
+        options.setCapability("newCommandTimeout", 300);
+        options.setCapability("launchTimeout", 120000);
+        return options;
+    }
+
+    /**
+     * Build XCUITest options for a specific simulator
+     */
+    public static XCUITestOptions buildOptions(DeviceDescriptor device) {
+        XCUITestOptions options = buildOptions();
+        options.setDeviceName(device.getName());
+        options.setPlatformVersion(device.getPlatformVersion());
+        options.setUdid(device.getUdid());
+        if (device.getWdaLocalPort() > 0) {
+            // Separate WDA port per simulator when several share one Appium server
+            options.setWdaLocalPort(device.getWdaLocalPort());
+        }
+        return options;
+    }
+
+    // ================================================================
+    // SESSION POOL
+    // ================================================================
+
+    /**
+     * Get the session pool of this thread's device, creating it on first use
+     */
+    public static DriverPool getPool() {
+        DeviceDescriptor device = boundDevice.get();
+        return pools.computeIfAbsent(poolKey(), k -> new DriverPool(
+            device == null ? DriverManager::newSession : () -> createDriver(device),
+            driver -> resetAction.accept(driver),
+            AppConstants.DRIVER_POOL_SIZE,
+            Duration.ofSeconds(AppConstants.DRIVER_POOL_LEASE_TIMEOUT)
+        ));
+    }
+
+    private static String poolKey() {
+        DeviceDescriptor device = boundDevice.get();
+        return device == null ? DEFAULT_DEVICE : device.getId();
+    }
+
+    /**
+     * Get the shared pre-warmer, or null when PREWARM_SESSIONS is 0
+     */
+    public static SessionPrewarmer getPrewarmer() {
+        if (prewarmer == null && AppConstants.PREWARM_SESSIONS > 0) {
+            synchronized (DriverManager.class) {
+                if (prewarmer == null) {
+                    prewarmer = new SessionPrewarmer(DriverManager::createDriver, AppConstants.PREWARM_SESSIONS);
+                }
+            }
+        }
+        return prewarmer;
+    }
+
+    /**
+     * Replace the pool of this thread's device (e.g. one backed by a stub Appium server)
+     */
+    public static void setPool(DriverPool driverPool) {
+        pools.put(poolKey(), driverPool);
+    }
+
+    /**
+     * Quit all pooled sessions - call at end of suite
+     */
+    public static void shutdownPool() {
+        SessionPrewarmer warmer = prewarmer;
+        if (warmer != null) {
+            warmer.shutdown();
+            System.out.println("✔ Session pre-warmer shut down (" + warmer.getSummary() + ")");
+        }
+        for (Map.Entry<String, DriverPool> entry : pools.entrySet()) {
+            entry.getValue().shutdown();
+            System.out.println("✔ Driver pool [" + entry.getKey() + "] shut down ("
+                + entry.getValue().getSummary() + ")");
+        }
+        pools.clear();
+    }
+
+    /**
+     * Replace how pooled sessions are reset between tests (default: resetAppState)
+     *
+     * @return the action replaced, to restore when the caller's suite ends
+     */
+    public static Consumer<IOSDriver> setResetAction(Consumer<IOSDriver> action) {
+        Consumer<IOSDriver> previous = resetAction;
+        resetAction = action;
+        return previous;
+    }
+
+    /**
+     * Run an action with the given session as this thread's driver
+     * Lets a reset action drive page objects before the pool hands the lease over
+     */
+    public static void runWith(IOSDriver driver, Runnable action) {
+        IOSDriver previous = driverThreadLocal.get();
+        driverThreadLocal.set(driver);
+        try {
+            action.run();
+        } finally {
+            if (previous == null) {
+                driverThreadLocal.remove();
+            } else {
+                driverThreadLocal.set(previous);
+            }
+        }
+    }
+
+    /**
+     * Sessions created so far, and their average creation time
+     */
+    public static int getSessionsCreated() {
+        return sessionsCreated.get();
+    }
+
+    public static long getAverageSessionCreateMillis() {
+        int created = sessionsCreated.get();
+        return created == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(sessionCreateNanos.get() / created);
+    }
+
+    /**
+     * Reset a reused session to a clean app state:
+     * terminate app, clear keychain, activate app
+     */
+    public static void resetAppState(IOSDriver driver) {
+        String bundleId = getBundleId(driver);
+        driver.terminateApp(bundleId);
+        if (AppConstants.CLEAR_KEYCHAIN_ON_RESET) {
+            driver.executeScript("mobile: clearKeychains");
+        }
+        driver.activateApp(bundleId);
+    }
+
+    /**
+     * Bundle id of the app under test for this session
+     */
+    @SuppressWarnings("unchecked")
+    public static String getBundleId(IOSDriver driver) {
+        if (!AppConstants.BUNDLE_ID.isEmpty()) {
+            return AppConstants.BUNDLE_ID;
+        }
+        return bundleIds.computeIfAbsent(String.valueOf(driver.getSessionId()), id -> {
+            Object info = driver.executeScript("mobile: activeAppInfo");
+            if (info instanceof Map && ((Map<String, Object>) info).get("bundleId") != null) {
+                return String.valueOf(((Map<String, Object>) info).get("bundleId"));
+            }
+            throw new RuntimeException("Could not resolve bundle id from mobile: activeAppInfo");
+        });
+    }
+
     /**
      * Quit driver and clean up
+     * Pooled sessions are returned to the pool instead of quit, unless the
+     * pool was shut down meanwhile
      */
     public static void quitDriver() {
         IOSDriver driver = driverThreadLocal.get();
+        boolean pooled = Boolean.TRUE.equals(pooledLease.get());
+        pooledLease.remove();
+        FrameworkEvents.SessionEvent event = new FrameworkEvents.SessionEvent();
+        event.begin();
+        DriverPool pool = pooled ? pools.get(poolKey()) : null;
+        if (driver != null && pool != null) {
+            driverThreadLocal.remove();
+            pool.release(driver);
+            event.success = true;
+            commitSessionEvent(event, "release", driver, null);
+            System.out.println("✔ IOSDriver returned to pool");
+            return;
+        }
         if (driver != null) {
+            bundleIds.remove(String.valueOf(driver.getSessionId()));
             try {
                 driver.quit();
+                event.success = true;
                 System.out.println("✔ IOSDriver quit successfully");
             } catch (Exception e) {
                 System.err.println("Error quitting driver: " + e.getMessage());
             } finally {
                 driverThreadLocal.remove();
+                commitSessionEvent(event, "quit", driver, null);
             }
         }
     }
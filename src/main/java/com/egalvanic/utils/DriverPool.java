@@ -0,0 +1,276 @@
+package com.egalvanic.utils;
+
+import io.appium.java_client.ios.IOSDriver;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Pool of warm IOSDriver sessions
+ *
+ * Creating an XCUITest session (install, WDA handshake, launch) costs tens of
+ * seconds. The pool leases an existing session to each test instead and
+ * resets app state when a session is handed out again.
+ */
+public class DriverPool {
+
+    private final Supplier<IOSDriver> factory;
+    private final Consumer<IOSDriver> resetAction;
+    private final int maxSize;
+    private final long leaseTimeoutMillis;
+
+    private final BlockingDeque<IOSDriver> idle = new LinkedBlockingDeque<>();
+    private final Map<IOSDriver, Boolean> leased = new ConcurrentHashMap<>();
+    private final AtomicInteger size = new AtomicInteger();
+
+    // Metrics
+    private final AtomicInteger created = new AtomicInteger();
+    private final AtomicInteger discarded = new AtomicInteger();
+    private final AtomicInteger leases = new AtomicInteger();
+    private final AtomicInteger reuses = new AtomicInteger();
+    private final AtomicInteger resetFailures = new AtomicInteger();
+    private final AtomicLong leaseWaitNanos = new AtomicLong();
+    private final AtomicLong maxLeaseWaitNanos = new AtomicLong();
+
+    /**
+     * @param factory      creates a brand-new session
+     * @param resetAction  restores a reused session to a clean app state
+     * @param maxSize      maximum number of live sessions
+     * @param leaseTimeout how long lease() blocks when every session is in use
+     */
+    public DriverPool(Supplier<IOSDriver> factory, Consumer<IOSDriver> resetAction,
+                      int maxSize, Duration leaseTimeout) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("Driver pool size must be at least 1, was " + maxSize);
+        }
+        this.factory = factory;
+        this.resetAction = resetAction;
+        this.maxSize = maxSize;
+        this.leaseTimeoutMillis = leaseTimeout.toMillis();
+    }
+
+    // ================================================================
+    // LEASE / RELEASE
+    // ================================================================
+
+    /**
+     * Lease a session: reuse an idle one, create one if under capacity,
+     * otherwise wait for another test to release one
+     */
+    public IOSDriver lease() {
+        long start = System.nanoTime();
+        long deadline = start + TimeUnit.MILLISECONDS.toNanos(leaseTimeoutMillis);
+
+        while (true) {
+            IOSDriver driver = idle.pollFirst();
+
+            if (driver == null && reserveSlot()) {
+                driver = createSession();
+                recordLease(start);
+                return driver;
+            }
+
+            if (driver == null) {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    throw new RuntimeException("Timed out after " + leaseTimeoutMillis
+                        + "ms waiting for a pooled driver session (pool size " + maxSize + ")");
+                }
+                try {
+                    driver = idle.pollFirst(remaining, TimeUnit.NANOSECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new RuntimeException("Interrupted while waiting for a pooled driver session");
+                }
+                if (driver == null) {
+                    continue;
+                }
+            }
+
+            if (reset(driver)) {
+                reuses.incrementAndGet();
+                leased.put(driver, Boolean.TRUE);
+                recordLease(start);
+                return driver;
+            }
+            destroy(driver);
+        }
+    }
+
+    /**
+     * Return a leased session to the pool for the next test
+     */
+    public void release(IOSDriver driver) {
+        if (driver == null || leased.remove(driver) == null) {
+            return;
+        }
+        if (isAlive(driver)) {
+            idle.offerFirst(driver);
+        } else {
+            destroy(driver);
+        }
+    }
+
+    /**
+     * Drop a leased session that is known to be broken
+     */
+    public void discard(IOSDriver driver) {
+        if (driver != null && leased.remove(driver) != null) {
+            destroy(driver);
+        }
+    }
+
+    /**
+     * Quit every session, idle or still leased - call at end of suite
+     * A session released after this is unknown to the pool and ignored
+     */
+    public void shutdown() {
+        IOSDriver driver;
+        while ((driver = idle.pollFirst()) != null) {
+            quitSession(driver);
+        }
+        for (IOSDriver leasedDriver : leased.keySet()) {
+            if (leased.remove(leasedDriver) != null) {
+                quitSession(leasedDriver);
+            }
+        }
+    }
+
+    // ================================================================
+    // METRICS
+    // ================================================================
+
+    /** Live sessions (idle + leased) */
+    public int getSize() {
+        return size.get();
+    }
+
+    public int getIdleCount() {
+        return idle.size();
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public int getCreatedCount() {
+        return created.get();
+    }
+
+    public int getDiscardedCount() {
+        return discarded.get();
+    }
+
+    public int getLeaseCount() {
+        return leases.get();
+    }
+
+    /** Leases served by an existing session instead of a new one */
+    public int getReuseCount() {
+        return reuses.get();
+    }
+
+    public int getResetFailureCount() {
+        return resetFailures.get();
+    }
+
+    /** Total time tests spent inside lease(), including creation and reset */
+    public long getTotalLeaseWaitMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(leaseWaitNanos.get());
+    }
+
+    public long getMaxLeaseWaitMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(maxLeaseWaitNanos.get());
+    }
+
+    public String getSummary() {
+        return String.format(
+            "size=%d/%d idle=%d leases=%d reuses=%d created=%d discarded=%d resetFailures=%d leaseWait=%dms (max %dms)",
+            getSize(), maxSize, getIdleCount(), getLeaseCount(), getReuseCount(), getCreatedCount(),
+            getDiscardedCount(), getResetFailureCount(), getTotalLeaseWaitMillis(), getMaxLeaseWaitMillis());
+    }
+
+    // ================================================================
+    // INTERNALS
+    // ================================================================
+
+    private boolean reserveSlot() {
+        while (true) {
+            int current = size.get();
+            if (current >= maxSize) {
+                return false;
+            }
+            if (size.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    private IOSDriver createSession() {
+        try {
+            IOSDriver driver = factory.get();
+            created.incrementAndGet();
+            leased.put(driver, Boolean.TRUE);
+            return driver;
+        } catch (RuntimeException e) {
+            size.decrementAndGet();
+            throw e;
+        }
+    }
+
+    private boolean reset(IOSDriver driver) {
+        try {
+            resetAction.accept(driver);
+            return true;
+        } catch (Exception e) {
+            resetFailures.incrementAndGet();
+            System.err.println("Pooled session reset failed, discarding: " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Round-trip a cheap session command: a session the server dropped fails it
+     */
+    private boolean isAlive(IOSDriver driver) {
+        try {
+            if (driver.getSessionId() == null) {
+                return false;
+            }
+            driver.getContext();
+            return true;
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    private void destroy(IOSDriver driver) {
+        discarded.incrementAndGet();
+        quitSession(driver);
+    }
+
+    private void quitSession(IOSDriver driver) {
+        try {
+            driver.quit();
+        } catch (Exception e) {
+            System.err.println("Error quitting pooled driver: " + e.getMessage());
+        } finally {
+            size.decrementAndGet();
+        }
+    }
+
+    private void recordLease(long startNanos) {
+        long waited = System.nanoTime() - startNanos;
+        leases.incrementAndGet();
+        leaseWaitNanos.addAndGet(waited);
+        maxLeaseWaitNanos.accumulateAndGet(waited, Math::max);
+    }
+}
@@ -4,14 +4,16 @@ import com.aventstack.extentreports.ExtentReports;
 import com.aventstack.extentreports.ExtentTest;
 import com.aventstack.extentreports.Status;
 import com.aventstack.extentreports.reporter.ExtentSparkReporter;
+import com.aventstack.extentreports.reporter.JsonFormatter;
 import com.aventstack.extentreports.reporter.configuration.Theme;
 import com.egalvanic.constants.AppConstants;
 
 import java.io.File;
 import java.text.SimpleDateFormat;
+import java.time.Duration;
 import java.util.Date;
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Dual Extent Report Manager
@@ -24,18 +26,41 @@ import java.util.Map;
  * - Module > Feature > Test Name > Pass/Fail ONLY
  * - NO screenshots, NO logs, NO tags, NO technical details
  * - Clean, professional summary view
+ * 
+ * PARALLEL RUNS:
+ * - Safe with TestNG parallel="methods" / "classes"; module and feature
+ *   nodes are created once per key without a global lock
+ * 
+ * SHARDED RUNS (SHARD_COUNT > 1):
+ * - Each shard also writes both reports as JSON under SHARD_REPORT_PATH;
+ *   ReportMerger combines them into one detailed and one client report
+ * 
+ * SPILL MODE (REPORT_SPILL_TO_DISK, default off):
+ * - Screenshots are stored once per content under media/ and shown as
+ *   lazy-loaded thumbnails; passed tests' steps move to disk when they end
+ *   (see ReportSpill)
+ * 
+ * ASYNC MODE (ASYNC_REPORTING, default on):
+ * - Log calls only enqueue an event; AsyncReportWriter applies them to both
+ *   reports on a background thread, in order, and flushReports drains first
  */
 public class ExtentReportManager {
 
     private static ExtentReports detailedReport;
     private static ExtentReports clientReport;
     
-    private static final ThreadLocal<ExtentTest> detailedTest = new ThreadLocal<>();
-    private static final ThreadLocal<ExtentTest> clientTest = new ThreadLocal<>();
+    // Per-thread report nodes; filled in by whichever thread applies createTest
+    private static final ThreadLocal<TestNodes> currentTest = new ThreadLocal<>();
+
+    // Background writer (null = write synchronously on the test thread)
+    private static volatile AsyncReportWriter writer;
+
+    // Screenshots and finished steps kept on disk (null = everything in the report model)
+    private static volatile ReportSpill spill;
     
-    // Track module/feature nodes for client report hierarchy
-    private static final Map<String, ExtentTest> clientModuleNodes = new HashMap<>();
-    private static final Map<String, ExtentTest> clientFeatureNodes = new HashMap<>();
+    // Track module/feature nodes for client report hierarchy (created once per key)
+    private static final Map<String, ExtentTest> clientModuleNodes = new ConcurrentHashMap<>();
+    private static final Map<String, ExtentTest> clientFeatureNodes = new ConcurrentHashMap<>();
     
     private static String timestamp;
 
@@ -53,16 +78,65 @@ public class ExtentReportManager {
         
         initDetailedReport();
         initClientReport();
+        spill = AppConstants.REPORT_SPILL_TO_DISK
+            ? new ReportSpill(new File(AppConstants.DETAILED_REPORT_PATH), timestamp + shardSuffix()) : null;
+        startWriter(AppConstants.ASYNC_REPORTING);
         
         System.out.println("✔ Dual Extent Reports initialized");
     }
 
+    /**
+     * Use the given reports instead of HTML files (tests and benchmarks)
+     */
+    static void initReports(ExtentReports detailed, ExtentReports client, boolean async) {
+        initReports(detailed, client, async, null);
+    }
+
+    /**
+     * Use the given reports, spilling screenshots and finished steps under spillDir (null = off)
+     */
+    static void initReports(ExtentReports detailed, ExtentReports client, boolean async, File spillDir) {
+        detailedReport = detailed;
+        clientReport = client;
+        spill = spillDir == null ? null
+            : new ReportSpill(spillDir, new SimpleDateFormat("yyyyMMdd_HHmmss").format(new Date()));
+        clientModuleNodes.clear();
+        clientFeatureNodes.clear();
+        startWriter(async);
+    }
+
+    private static void startWriter(boolean async) {
+        AsyncReportWriter previous = writer;
+        if (previous != null) {
+            previous.shutdown(Duration.ofSeconds(AppConstants.REPORT_DRAIN_TIMEOUT));
+        }
+        writer = async ? new AsyncReportWriter(AppConstants.REPORT_QUEUE_CAPACITY) : null;
+    }
+
     /**
      * Initialize Detailed Report (for QA Team)
      */
     private static void initDetailedReport() {
-        String reportPath = AppConstants.DETAILED_REPORT_PATH + "Detailed_Report_" + timestamp + ".html";
+        String reportPath = AppConstants.DETAILED_REPORT_PATH + "Detailed_Report_" + timestamp + shardSuffix() + ".html";
+        
+        detailedReport = new ExtentReports();
+        detailedReport.attachReporter(detailedSpark(reportPath));
+        attachShardJson(detailedReport, "detailed");
         
+        // System Info
+        detailedReport.setSystemInfo("Application", "eGalvanic iOS");
+        detailedReport.setSystemInfo("Platform", "iOS");
+        detailedReport.setSystemInfo("Device", AppConstants.DEVICE_NAME);
+        detailedReport.setSystemInfo("iOS Version", AppConstants.PLATFORM_VERSION);
+        detailedReport.setSystemInfo("Automation Tool", "Appium + XCUITest");
+        detailedReport.setSystemInfo("Framework", "TestNG + Page Object Model");
+        detailedReport.setSystemInfo("Report Type", "DETAILED (QA Team)");
+    }
+
+    /**
+     * Spark reporter with the detailed report look (also used by ReportMerger)
+     */
+    static ExtentSparkReporter detailedSpark(String reportPath) {
         ExtentSparkReporter spark = new ExtentSparkReporter(reportPath);
         spark.config().setTheme(Theme.DARK);
         spark.config().setDocumentTitle("eGalvanic iOS - Detailed QA Report");
@@ -76,18 +150,7 @@ public class ExtentReportManager {
             ".test-content { padding: 15px; }" +
             ".screenshot { max-width: 100%; border: 1px solid #ddd; margin: 10px 0; }"
         );
-        
-        detailedReport = new ExtentReports();
-        detailedReport.attachReporter(spark);
-        
-        // System Info
-        detailedReport.setSystemInfo("Application", "eGalvanic iOS");
-        detailedReport.setSystemInfo("Platform", "iOS");
-        detailedReport.setSystemInfo("Device", AppConstants.DEVICE_NAME);
-        detailedReport.setSystemInfo("iOS Version", AppConstants.PLATFORM_VERSION);
-        detailedReport.setSystemInfo("Automation Tool", "Appium + XCUITest");
-        detailedReport.setSystemInfo("Framework", "TestNG + Page Object Model");
-        detailedReport.setSystemInfo("Report Type", "DETAILED (QA Team)");
+        return spark;
     }
 
     /**
@@ -96,8 +159,21 @@ public class ExtentReportManager {
      * NO screenshots, NO logs, NO tags, NO technical details
      */
     private static void initClientReport() {
-        String reportPath = AppConstants.CLIENT_REPORT_PATH + "Client_Report_" + timestamp + ".html";
+        String reportPath = AppConstants.CLIENT_REPORT_PATH + "Client_Report_" + timestamp + shardSuffix() + ".html";
+        
+        clientReport = new ExtentReports();
+        clientReport.attachReporter(clientSpark(reportPath));
+        attachShardJson(clientReport, "client");
         
+        // Minimal system info for client
+        clientReport.setSystemInfo("Application", "eGalvanic iOS");
+        clientReport.setSystemInfo("Test Date", new SimpleDateFormat("MMMM dd, yyyy").format(new Date()));
+    }
+
+    /**
+     * Spark reporter with the client report look (also used by ReportMerger)
+     */
+    static ExtentSparkReporter clientSpark(String reportPath) {
         ExtentSparkReporter spark = new ExtentSparkReporter(reportPath);
         spark.config().setTheme(Theme.STANDARD);
         spark.config().setDocumentTitle("eGalvanic iOS - Test Results");
@@ -157,13 +233,33 @@ public class ExtentReportManager {
             // Hide step-by-step logs
             ".node-step, .step { display: none !important; }"
         );
-        
-        clientReport = new ExtentReports();
-        clientReport.attachReporter(spark);
-        
-        // Minimal system info for client
-        clientReport.setSystemInfo("Application", "eGalvanic iOS");
-        clientReport.setSystemInfo("Test Date", new SimpleDateFormat("MMMM dd, yyyy").format(new Date()));
+        return spark;
+    }
+
+    // ================================================================
+    // SHARDED RUNS
+    // ================================================================
+
+    private static String shardSuffix() {
+        return AppConstants.SHARD_COUNT > 1
+            ? "_shard" + AppConstants.SHARD_INDEX + "of" + AppConstants.SHARD_COUNT : "";
+    }
+
+    /**
+     * Sharded runs also write the report as JSON for ReportMerger
+     */
+    private static void attachShardJson(ExtentReports report, String kind) {
+        if (AppConstants.SHARD_COUNT > 1) {
+            new File(AppConstants.SHARD_REPORT_PATH).mkdirs();
+            report.attachReporter(new JsonFormatter(shardJson(kind, AppConstants.SHARD_INDEX)));
+        }
+    }
+
+    /**
+     * JSON file of one shard's "detailed" or "client" report
+     */
+    static File shardJson(String kind, int shardIndex) {
+        return new File(AppConstants.SHARD_REPORT_PATH, kind + "-" + shardIndex + ".json");
     }
 
     /**
@@ -174,62 +270,64 @@ public class ExtentReportManager {
      * @param testName     e.g., "Verify login with valid credentials"
      */
     public static void createTest(String moduleName, String featureName, String testName) {
-        // === DETAILED REPORT: Simple flat test with all details ===
-        ExtentTest detailed = detailedReport.createTest(testName);
-        detailed.assignCategory(moduleName, featureName);
-        detailedTest.set(detailed);
-        
-        // === CLIENT REPORT: Hierarchical Module > Feature > Test ===
-        // Get or create Module node
-        String moduleKey = moduleName;
-        ExtentTest moduleNode = clientModuleNodes.get(moduleKey);
-        if (moduleNode == null) {
-            moduleNode = clientReport.createTest(moduleName);
-            clientModuleNodes.put(moduleKey, moduleNode);
-        }
-        
-        // Get or create Feature node under Module
-        String featureKey = moduleName + "|" + featureName;
-        ExtentTest featureNode = clientFeatureNodes.get(featureKey);
-        if (featureNode == null) {
-            featureNode = moduleNode.createNode(featureName);
-            clientFeatureNodes.put(featureKey, featureNode);
-        }
-        
-        // Create Test under Feature (just name, no category/tags)
-        ExtentTest clientTestNode = featureNode.createNode(testName);
-        clientTest.set(clientTestNode);
+        TestNodes nodes = new TestNodes();
+        currentTest.set(nodes);
+        dispatch(() -> {
+            // === DETAILED REPORT: Simple flat test with all details ===
+            ExtentTest detailed = detailedReport.createTest(testName);
+            detailed.assignCategory(moduleName, featureName);
+            nodes.detailed = detailed;
+            
+            // === CLIENT REPORT: Hierarchical Module > Feature > Test ===
+            // Get or create Module node (atomic per key)
+            ExtentTest moduleNode = clientModuleNodes.computeIfAbsent(moduleName,
+                key -> clientReport.createTest(moduleName));
+            
+            // Get or create Feature node under Module
+            String featureKey = moduleName + "|" + featureName;
+            ExtentTest featureNode = clientFeatureNodes.computeIfAbsent(featureKey,
+                key -> moduleNode.createNode(featureName));
+            
+            // Create Test under Feature (just name, no category/tags)
+            nodes.client = featureNode.createNode(testName);
+        });
     }
 
     /**
      * Log info step - DETAILED REPORT ONLY
      */
     public static void logInfo(String message) {
-        if (detailedTest.get() != null) {
-            detailedTest.get().info(message);
+        TestNodes nodes = currentTest.get();
+        if (nodes != null) {
+            dispatch(() -> nodes.detailed.info(message));
         }
         // Client report: NO logs
     }
 
     /**
-     * Log step with screenshot - DETAILED REPORT ONLY
+     * Log step with an already captured screenshot - DETAILED REPORT ONLY
+     * Base64 encoding is awaited by the writer, not the test thread
      */
-    public static void logStepWithScreenshot(String stepDescription, String screenshotPath) {
-    if (detailedTest.get() != null) {
-        try {
-            // Use Base64 instead of file path (more reliable)
-            String base64 = ScreenshotUtil.captureScreenshotAsBase64();
+    public static void logStepWithScreenshot(String stepDescription, CapturedScreenshot screenshot) {
+        TestNodes nodes = currentTest.get();
+        if (nodes == null) {
+            return;
+        }
+        dispatch(() -> {
+            ReportSpill current = spill;
+            if (current != null && screenshot != null) {
+                nodes.detailed.info(current.screenshotStep(stepDescription, screenshot));
+                return;
+            }
+            String base64 = screenshot == null ? null : screenshot.getReportBase64();
             if (base64 != null) {
-                detailedTest.get().info(stepDescription)
+                nodes.detailed.info(stepDescription)
                     .addScreenCaptureFromBase64String(base64);
             } else {
-                detailedTest.get().info(stepDescription + " [Screenshot failed]");
+                nodes.detailed.info(stepDescription + " [Screenshot failed]");
             }
-        } catch (Exception e) {
-            detailedTest.get().info(stepDescription + " [Screenshot failed]");
-        }
+        });
     }
-}
 
     /**
      * Log PASS result
@@ -237,12 +335,13 @@ public class ExtentReportManager {
      * - Client: Just marks as PASS (no message shown due to CSS)
      */
     public static void logPass(String message) {
-        if (detailedTest.get() != null) {
-            detailedTest.get().pass(message);
-        }
-        if (clientTest.get() != null) {
-            // For client, just mark pass - CSS hides the message
-            clientTest.get().pass("✓");
+        TestNodes nodes = currentTest.get();
+        if (nodes != null) {
+            dispatch(() -> {
+                nodes.detailed.pass(message);
+                // For client, just mark pass - CSS hides the message
+                nodes.client.pass("✓");
+            });
         }
     }
 
@@ -252,12 +351,13 @@ public class ExtentReportManager {
      * - Client: Just marks as FAIL (no technical details shown)
      */
     public static void logFail(String message) {
-        if (detailedTest.get() != null) {
-            detailedTest.get().fail(message);
-        }
-        if (clientTest.get() != null) {
-            // For client, just mark fail - CSS hides technical details
-            clientTest.get().fail("✗");
+        TestNodes nodes = currentTest.get();
+        if (nodes != null) {
+            dispatch(() -> {
+                nodes.detailed.fail(message);
+                // For client, just mark fail - CSS hides technical details
+                nodes.client.fail("✗");
+            });
         }
     }
 
@@ -265,13 +365,14 @@ public class ExtentReportManager {
      * Log FAIL with exception - DETAILED gets full stack trace, CLIENT just sees FAIL
      */
     public static void logFail(String message, Throwable throwable) {
-        if (detailedTest.get() != null) {
-            detailedTest.get().fail(message);
-            detailedTest.get().fail(throwable);
-        }
-        if (clientTest.get() != null) {
-            // Client just sees FAIL status, no exception details
-            clientTest.get().fail("✗");
+        TestNodes nodes = currentTest.get();
+        if (nodes != null) {
+            dispatch(() -> {
+                nodes.detailed.fail(message);
+                nodes.detailed.fail(throwable);
+                // Client just sees FAIL status, no exception details
+                nodes.client.fail("✗");
+            });
         }
     }
 
@@ -279,16 +380,41 @@ public class ExtentReportManager {
      * Log FAIL with screenshot - DETAILED ONLY gets screenshot
      */
     public static void logFailWithScreenshot(String message, String screenshotPath) {
-        if (detailedTest.get() != null) {
-            try {
-                detailedTest.get().fail(message)
-                    .addScreenCaptureFromPath(screenshotPath);
-            } catch (Exception e) {
-                detailedTest.get().fail(message + " [Screenshot failed]");
-            }
+        TestNodes nodes = currentTest.get();
+        if (nodes != null) {
+            dispatch(() -> {
+                try {
+                    nodes.detailed.fail(message)
+                        .addScreenCaptureFromPath(screenshotPath);
+                } catch (Exception e) {
+                    nodes.detailed.fail(message + " [Screenshot failed]");
+                }
+                nodes.client.fail("✗");
+            });
         }
-        if (clientTest.get() != null) {
-            clientTest.get().fail("✗");
+    }
+
+    /**
+     * Log FAIL with an already captured screenshot - DETAILED ONLY gets screenshot
+     */
+    public static void logFailWithScreenshot(String message, CapturedScreenshot screenshot) {
+        TestNodes nodes = currentTest.get();
+        if (nodes != null) {
+            dispatch(() -> {
+                ReportSpill current = spill;
+                if (current != null && screenshot != null) {
+                    nodes.detailed.fail(current.screenshotStep(message, screenshot));
+                } else {
+                    String base64 = screenshot == null ? null : screenshot.getReportBase64();
+                    if (base64 != null) {
+                        nodes.detailed.fail(message)
+                            .addScreenCaptureFromBase64String(base64);
+                    } else {
+                        nodes.detailed.fail(message + " [Screenshot failed]");
+                    }
+                }
+                nodes.client.fail("✗");
+            });
         }
     }
 
@@ -296,11 +422,12 @@ public class ExtentReportManager {
      * Log SKIP result
      */
     public static void logSkip(String message) {
-        if (detailedTest.get() != null) {
-            detailedTest.get().skip(message);
-        }
-        if (clientTest.get() != null) {
-            clientTest.get().skip("-");
+        TestNodes nodes = currentTest.get();
+        if (nodes != null) {
+            dispatch(() -> {
+                nodes.detailed.skip(message);
+                nodes.client.skip("-");
+            });
         }
     }
 
@@ -308,16 +435,29 @@ public class ExtentReportManager {
      * Log WARNING - DETAILED REPORT ONLY
      */
     public static void logWarning(String message) {
-        if (detailedTest.get() != null) {
-            detailedTest.get().warning(message);
+        TestNodes nodes = currentTest.get();
+        if (nodes != null) {
+            dispatch(() -> nodes.detailed.warning(message));
         }
         // Client: No warnings shown
     }
 
     /**
      * Flush both reports - MUST be called at end of suite
+     * In async mode, waits for queued events to be written first
      */
     public static void flushReports() {
+        AsyncReportWriter current = writer;
+        if (current != null) {
+            if (!current.drain(Duration.ofSeconds(AppConstants.REPORT_DRAIN_TIMEOUT))) {
+                System.err.println("Report writer did not drain within "
+                    + AppConstants.REPORT_DRAIN_TIMEOUT + "s - report may be incomplete");
+            }
+            System.out.println("✔ Report writer: " + current.getSummary());
+        }
+        if (spill != null) {
+            System.out.println("✔ Report spill: " + spill.getSummary());
+        }
         if (detailedReport != null) {
             detailedReport.flush();
             System.out.println("✔ Detailed Report saved to: " + AppConstants.DETAILED_REPORT_PATH);
@@ -330,23 +470,115 @@ public class ExtentReportManager {
 
     /**
      * Get current detailed test (for advanced usage)
+     * In async mode, waits for queued events so the node is up to date
      */
     public static ExtentTest getDetailedTest() {
-        return detailedTest.get();
+        TestNodes nodes = awaitCurrentTest();
+        return nodes == null ? null : nodes.detailed;
     }
 
     /**
      * Get current client test (for advanced usage)
      */
     public static ExtentTest getClientTest() {
-        return clientTest.get();
+        TestNodes nodes = awaitCurrentTest();
+        return nodes == null ? null : nodes.client;
+    }
+
+    /**
+     * Background writer, or null in synchronous mode
+     */
+    public static AsyncReportWriter getWriter() {
+        return writer;
     }
 
     /**
      * Clean up thread locals
+     * In spill mode the finished test's steps are moved to disk first
      */
     public static void removeTests() {
-        detailedTest.remove();
-        clientTest.remove();
+        TestNodes nodes = currentTest.get();
+        ReportSpill current = spill;
+        if (nodes != null && current != null) {
+            dispatch(() -> current.compact(nodes.detailed));
+        }
+        currentTest.remove();
+    }
+
+    /**
+     * Spill store of the current reports, or null when off
+     */
+    static ReportSpill getSpill() {
+        return spill;
+    }
+
+    // ================================================================
+    // EVENT DISPATCH
+    // ================================================================
+
+    /**
+     * Run a report event on the writer thread, or inline in sync mode
+     */
+    private static void dispatch(Runnable event) {
+        FrameworkEvents.ReportEvent dispatched = new FrameworkEvents.ReportEvent();
+        Runnable task = dispatched.isEnabled() ? recorded(event, dispatched) : event;
+        dispatched.begin();
+        AsyncReportWriter current = writer;
+        if (current != null) {
+            current.submit(task);
+        } else {
+            task.run();
+        }
+        dispatched.end();
+        if (dispatched.shouldCommit()) {
+            dispatched.commit();
+        }
+    }
+
+    /**
+     * Tag the dispatch JFR event and wrap the task in a "write" event of its own,
+     * which may run on the report writer thread
+     */
+    private static Runnable recorded(Runnable event, FrameworkEvents.ReportEvent dispatched) {
+        String test = FrameworkEvents.currentTest();
+        // Caller of dispatch: the public log method, e.g. "logStepWithScreenshot"
+        String method = StackWalker.getInstance().walk(frames -> frames.skip(2).findFirst())
+            .map(StackWalker.StackFrame::getMethodName).orElse("unknown");
+        dispatched.test = test;
+        dispatched.method = method;
+        dispatched.phase = "dispatch";
+        return () -> {
+            FrameworkEvents.ReportEvent write = new FrameworkEvents.ReportEvent();
+            write.begin();
+            try {
+                event.run();
+            } finally {
+                write.end();
+                if (write.shouldCommit()) {
+                    write.test = test;
+                    write.method = method;
+                    write.phase = "write";
+                    write.commit();
+                }
+            }
+        };
+    }
+
+    private static TestNodes awaitCurrentTest() {
+        TestNodes nodes = currentTest.get();
+        AsyncReportWriter current = writer;
+        if (nodes != null && current != null) {
+            current.drain(Duration.ofSeconds(AppConstants.REPORT_DRAIN_TIMEOUT));
+        }
+        return nodes;
+    }
+
+    /**
+     * Detailed and client nodes of one test
+     * Written by the thread that applies createTest, read by later events
+     */
+    private static final class TestNodes {
+        volatile ExtentTest detailed;
+        volatile ExtentTest client;
     }
 }
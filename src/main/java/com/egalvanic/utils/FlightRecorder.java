@@ -0,0 +1,252 @@
+package com.egalvanic.utils;
+
+import com.egalvanic.constants.AppConstants;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Last FLIGHT_RECORDER_SIZE driver commands of each thread, kept for failures
+ *
+ * TimedCommandExecutor records every command with its locator, duration and
+ * outcome; FallbackChain records each strategy it tries, so a cascade like
+ * tapSignIn shows which locators were given up on. Entries go into parallel
+ * arrays that are overwritten in a ring: recording stores references to
+ * strings that already exist (command keys, locator values, error states)
+ * and allocates nothing, so it stays on in every run.
+ *
+ * Nothing is written unless a test fails; BaseTest then puts the ring into
+ * the detailed report and into a compact binary file under
+ * FLIGHT_RECORDER_PATH, readable with: FlightRecorder <file.bin>...
+ */
+public class FlightRecorder {
+
+    private static final int MAGIC = 0x45474652;  // "EGFR"
+    private static final int VERSION = 1;
+
+    private static final ThreadLocal<Ring> rings = ThreadLocal.withInitial(
+        () -> new Ring(AppConstants.FLIGHT_RECORDER_SIZE));
+
+    private FlightRecorder() {}
+
+    // ================================================================
+    // RECORDING
+    // ================================================================
+
+    /**
+     * Record one finished command on this thread
+     *
+     * @param command command key, e.g. "findElement[accessibility id]"
+     * @param target  locator value or element key, null if none
+     * @param nanos   duration
+     * @param outcome null for success, otherwise the error
+     */
+    public static void record(String command, String target, long nanos, String outcome) {
+        if (AppConstants.FLIGHT_RECORDER_SIZE > 0) {
+            rings.get().add(command, target, nanos, outcome);
+        }
+    }
+
+    /**
+     * Forget this thread's entries, e.g. at the start of a test
+     */
+    public static void clear() {
+        rings.get().count = 0;
+    }
+
+    /**
+     * Copy of this thread's entries, oldest first
+     */
+    public static List<Entry> snapshot() {
+        Ring ring = rings.get();
+        int size = (int) Math.min(ring.count, ring.commands.length);
+        List<Entry> entries = new ArrayList<>(size);
+        for (long i = ring.count - size; i < ring.count; i++) {
+            int slot = (int) (i % ring.commands.length);
+            entries.add(new Entry(ring.endMillis[slot], ring.nanos[slot], ring.commands[slot],
+                ring.targets[slot], ring.outcomes[slot]));
+        }
+        return entries;
+    }
+
+    // ================================================================
+    // DUMPS
+    // ================================================================
+
+    /**
+     * Entries as an HTML table for the detailed report, failures marked
+     */
+    public static String toHtml(List<Entry> entries) {
+        SimpleDateFormat time = new SimpleDateFormat("HH:mm:ss.SSS");
+        StringBuilder html = new StringBuilder("<details><summary>Last ").append(entries.size())
+            .append(" driver commands</summary><table class='table table-sm'>")
+            .append("<tr><th>time</th><th>command</th><th>locator</th><th>ms</th><th>outcome</th></tr>");
+        for (Entry entry : entries) {
+            html.append(entry.isFailure() ? "<tr style='color:#c62828'>" : "<tr>")
+                .append("<td>").append(time.format(new Date(entry.endMillis))).append("</td>")
+                .append("<td>").append(escape(entry.command)).append("</td>")
+                .append("<td>").append(escape(entry.target)).append("</td>")
+                .append(String.format(Locale.ROOT, "<td>%.1f</td>", entry.nanos / 1_000_000.0))
+                .append("<td>").append(entry.isFailure() ? escape(entry.outcome) : "ok").append("</td></tr>");
+        }
+        return html.append("</table></details>").toString();
+    }
+
+    /**
+     * Write entries as: magic, version, string table, then fixed-size records
+     * of end time, duration and string indexes (-1 = none)
+     */
+    public static File write(List<Entry> entries, File file) throws IOException {
+        Map<String, Integer> strings = new LinkedHashMap<>();
+        for (Entry entry : entries) {
+            for (String value : new String[] {entry.command, entry.target, entry.outcome}) {
+                if (value != null) {
+                    strings.putIfAbsent(value, strings.size());
+                }
+            }
+        }
+        if (file.getParentFile() != null) {
+            file.getParentFile().mkdirs();
+        }
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)))) {
+            out.writeInt(MAGIC);
+            out.writeByte(VERSION);
+            out.writeInt(strings.size());
+            for (String value : strings.keySet()) {
+                out.writeUTF(value);
+            }
+            out.writeInt(entries.size());
+            for (Entry entry : entries) {
+                out.writeLong(entry.endMillis);
+                out.writeLong(entry.nanos);
+                out.writeInt(entry.command == null ? -1 : strings.get(entry.command));
+                out.writeInt(entry.target == null ? -1 : strings.get(entry.target));
+                out.writeInt(entry.outcome == null ? -1 : strings.get(entry.outcome));
+            }
+        }
+        return file;
+    }
+
+    /**
+     * Read a file written by write()
+     */
+    public static List<Entry> read(File file) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            if (in.readInt() != MAGIC || in.readByte() != VERSION) {
+                throw new IOException("Not a flight recorder dump: " + file);
+            }
+            String[] strings = new String[in.readInt()];
+            for (int i = 0; i < strings.length; i++) {
+                strings[i] = in.readUTF();
+            }
+            int count = in.readInt();
+            List<Entry> entries = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                long endMillis = in.readLong();
+                long nanos = in.readLong();
+                int command = in.readInt();
+                int target = in.readInt();
+                int outcome = in.readInt();
+                entries.add(new Entry(endMillis, nanos, command < 0 ? null : strings[command],
+                    target < 0 ? null : strings[target], outcome < 0 ? null : strings[outcome]));
+            }
+            return entries;
+        }
+    }
+
+    /**
+     * Print dumps as text
+     */
+    public static void main(String[] args) throws IOException {
+        for (String path : args) {
+            System.out.println("== " + path);
+            for (Entry entry : read(new File(path))) {
+                System.out.println("  " + entry);
+            }
+        }
+    }
+
+    private static String escape(String value) {
+        if (value == null) {
+            return "";
+        }
+        return value.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;").replace("'", "&#39;");
+    }
+
+    // ================================================================
+    // RING & ENTRY
+    // ================================================================
+
+    /**
+     * Parallel arrays, one slot per command; count only grows until clear()
+     */
+    private static final class Ring {
+        final String[] commands;
+        final String[] targets;
+        final String[] outcomes;
+        final long[] endMillis;
+        final long[] nanos;
+        long count;
+
+        Ring(int capacity) {
+            int size = Math.max(1, capacity);
+            commands = new String[size];
+            targets = new String[size];
+            outcomes = new String[size];
+            endMillis = new long[size];
+            nanos = new long[size];
+        }
+
+        void add(String command, String target, long duration, String outcome) {
+            int slot = (int) (count % commands.length);
+            commands[slot] = command;
+            targets[slot] = target;
+            outcomes[slot] = outcome;
+            endMillis[slot] = System.currentTimeMillis();
+            nanos[slot] = duration;
+            count++;
+        }
+    }
+
+    /**
+     * One recorded command
+     */
+    public static final class Entry {
+        public final long endMillis;
+        public final long nanos;
+        public final String command;
+        public final String target;
+        public final String outcome;
+
+        Entry(long endMillis, long nanos, String command, String target, String outcome) {
+            this.endMillis = endMillis;
+            this.nanos = nanos;
+            this.command = command;
+            this.target = target;
+            this.outcome = outcome;
+        }
+
+        public boolean isFailure() {
+            return outcome != null;
+        }
+
+        @Override
+        public String toString() {
+            return String.format(Locale.ROOT, "%tT.%<tL %-40s %-30s %8.1f ms  %s", endMillis, command,
+                target == null ? "" : target, nanos / 1_000_000.0, outcome == null ? "ok" : outcome);
+        }
+    }
+}
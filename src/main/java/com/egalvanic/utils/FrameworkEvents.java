@@ -0,0 +1,125 @@
+package com.egalvanic.utils;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * Java Flight Recorder events for framework activity
+ *
+ * Sessions, driver commands, page waits and sleeps, report logging and
+ * screenshot captures are recorded as JFR events, so a recording shows them
+ * on the same timeline as GC, safepoints and thread states. Every event
+ * carries the test it ran for (from CommandTimings) and JFR adds the thread.
+ *
+ * Events only cost anything while a recording is running, e.g.
+ *   mvn test -DargLine="-XX:StartFlightRecording=filename=reports/suite.jfr"
+ * Stack traces are off: the call site is recorded as a field where it matters.
+ * JfrAnalyzer prints a per-test breakdown of a recording.
+ */
+public final class FrameworkEvents {
+
+    static final String CATEGORY = "eGalvanic";
+
+    private FrameworkEvents() {}
+
+    /**
+     * Test this thread is running, or null outside a test
+     */
+    static String currentTest() {
+        return CommandTimings.getCurrentTest();
+    }
+
+    // ================================================================
+    // EVENT TYPES
+    // ================================================================
+
+    @Name("egalvanic.Session")
+    @Label("Driver Session")
+    @Description("Appium session created, quit or returned to the pool")
+    @Category({CATEGORY, "Driver"})
+    @StackTrace(false)
+    public static final class SessionEvent extends Event {
+        @Label("Test")
+        public String test;
+        @Label("Action")
+        public String action;
+        @Label("Server")
+        public String server;
+        @Label("Session Id")
+        public String sessionId;
+        @Label("Success")
+        public boolean success;
+    }
+
+    @Name("egalvanic.Command")
+    @Label("Driver Command")
+    @Description("One WebDriver / Appium command round-trip")
+    @Category({CATEGORY, "Driver"})
+    @StackTrace(false)
+    public static final class CommandEvent extends Event {
+        @Label("Test")
+        public String test;
+        @Label("Command")
+        public String command;
+        @Label("Locator")
+        public String target;
+        @Label("Outcome")
+        @Description("Error state, or null on success")
+        public String outcome;
+    }
+
+    @Name("egalvanic.Wait")
+    @Label("Page Wait")
+    @Description("Adaptive wait or explicit sleep in a page object")
+    @Category({CATEGORY, "Page"})
+    @StackTrace(false)
+    public static final class WaitEvent extends Event {
+        @Label("Test")
+        public String test;
+        @Label("Kind")
+        public String kind;
+        @Label("Call Site")
+        public String callSite;
+        @Label("Legacy Sleep")
+        @Timespan(Timespan.MILLISECONDS)
+        public long legacyMillis;
+        @Label("Satisfied")
+        public boolean satisfied;
+    }
+
+    @Name("egalvanic.ReportLog")
+    @Label("Report Log")
+    @Description("ExtentReportManager call on the test thread, or its write on the report writer")
+    @Category({CATEGORY, "Report"})
+    @StackTrace(false)
+    public static final class ReportEvent extends Event {
+        @Label("Test")
+        public String test;
+        @Label("Method")
+        public String method;
+        @Label("Phase")
+        @Description("dispatch (test thread) or write (applied to the report)")
+        public String phase;
+    }
+
+    @Name("egalvanic.Screenshot")
+    @Label("Screenshot Capture")
+    @Description("Screenshot round-trip on the test thread")
+    @Category({CATEGORY, "Screenshot"})
+    @StackTrace(false)
+    public static final class ScreenshotEvent extends Event {
+        @Label("Test")
+        public String test;
+        @Label("Name")
+        public String name;
+        @Label("Size")
+        @DataAmount
+        public long bytes;
+    }
+}
@@ -0,0 +1,142 @@
+package com.egalvanic.utils;
+
+import org.testng.IMethodInstance;
+import org.testng.IMethodInterceptor;
+import org.testng.ITestContext;
+import org.testng.ITestListener;
+import org.testng.ITestNGMethod;
+import org.testng.ITestResult;
+import org.testng.xml.XmlSuite;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Orders test methods from their history: recently failed first, then longest first
+ *
+ * Recently failed tests run first for fast feedback; the rest run longest
+ * processing time first, so with several workers a long test no longer
+ * lands last and stretches the tail. Tests without history count as the
+ * average known test. The order overrides @Test(priority).
+ *
+ * At the end of each <test> prints the predicted makespan (greedy list
+ * schedule over the suite's thread count) next to the actual one. The
+ * history itself is written by TestHistoryRecorder.
+ *
+ * Register as a listener, e.g. in testng-parallel.xml:
+ *   <listener class-name="com.egalvanic.utils.HistoryOrderInterceptor"/>
+ */
+public class HistoryOrderInterceptor implements IMethodInterceptor, ITestListener {
+
+    // <test> name -> predicted makespan in ms and worker count
+    private static final Map<String, long[]> predictions = new ConcurrentHashMap<>();
+
+    // ================================================================
+    // ORDERING
+    // ================================================================
+
+    @Override
+    public List<IMethodInstance> intercept(List<IMethodInstance> methods, ITestContext context) {
+        Map<IMethodInstance, Long> estimates = new HashMap<>();
+        long knownTotal = 0;
+        int known = 0;
+        for (IMethodInstance method : methods) {
+            Long estimate = TestHistory.estimateMillis(keyOf(method.getMethod()));
+            if (estimate != null) {
+                estimates.put(method, estimate);
+                knownTotal += estimate;
+                known++;
+            }
+        }
+        long unknownEstimate = known == 0 ? 0 : knownTotal / known;
+
+        List<IMethodInstance> ordered = new ArrayList<>(methods);
+        // Stable sort: without any history the original order is kept
+        ordered.sort(Comparator
+            .comparing((IMethodInstance m) -> !TestHistory.failedRecently(keyOf(m.getMethod())))
+            .thenComparing(m -> estimates.getOrDefault(m, unknownEstimate), Comparator.reverseOrder()));
+
+        long[] durations = new long[ordered.size()];
+        int failedFirst = 0;
+        for (int i = 0; i < ordered.size(); i++) {
+            durations[i] = estimates.getOrDefault(ordered.get(i), unknownEstimate);
+            if (TestHistory.failedRecently(keyOf(ordered.get(i).getMethod()))) {
+                failedFirst++;
+            }
+        }
+        int workers = workersOf(context);
+        long makespan = predictMakespan(durations, workers);
+        predictions.put(context.getName(), new long[] {makespan, workers});
+
+        System.out.println("✔ Test order: " + ordered.size() + " tests (" + known + " with history, "
+            + failedFirst + " recently failed first), predicted makespan " + makespan + "ms on "
+            + workers + " worker(s)");
+        return ordered;
+    }
+
+    /**
+     * Makespan of running the durations in order, each on the worker that frees up first
+     */
+    static long predictMakespan(long[] durations, int workers) {
+        long[] busyUntil = new long[Math.max(1, workers)];
+        for (long duration : durations) {
+            int earliest = 0;
+            for (int w = 1; w < busyUntil.length; w++) {
+                if (busyUntil[w] < busyUntil[earliest]) {
+                    earliest = w;
+                }
+            }
+            busyUntil[earliest] += duration;
+        }
+        return Arrays.stream(busyUntil).max().orElse(0);
+    }
+
+    private static int workersOf(ITestContext context) {
+        XmlSuite suite = context.getSuite().getXmlSuite();
+        boolean parallel = suite.getParallel() == XmlSuite.ParallelMode.METHODS
+            || suite.getParallel() == XmlSuite.ParallelMode.CLASSES
+            || suite.getParallel() == XmlSuite.ParallelMode.INSTANCES;
+        return parallel ? Math.max(1, suite.getThreadCount()) : 1;
+    }
+
+    static String keyOf(ITestNGMethod method) {
+        return method.getRealClass().getName() + "." + method.getMethodName();
+    }
+
+    // ================================================================
+    // MAKESPAN
+    // ================================================================
+
+    /**
+     * Predicted vs. actual makespan of the finished <test>
+     */
+    @Override
+    public void onFinish(ITestContext context) {
+        long first = Long.MAX_VALUE;
+        long last = Long.MIN_VALUE;
+        List<ITestResult> results = new ArrayList<>(context.getPassedTests().getAllResults());
+        results.addAll(context.getFailedTests().getAllResults());
+        results.addAll(context.getSkippedTests().getAllResults());
+        for (ITestResult result : results) {
+            first = Math.min(first, result.getStartMillis());
+            last = Math.max(last, result.getEndMillis());
+        }
+        long[] predicted = predictions.getOrDefault(context.getName(), new long[] {0, 1});
+        long actual = results.isEmpty() ? 0 : last - first;
+        System.out.println("✔ " + context.getName() + " makespan: predicted " + predicted[0] + "ms, actual "
+            + actual + "ms on " + predicted[1] + " worker(s)");
+    }
+
+    /**
+     * Predicted makespan of a <test> in ms, or -1 when it was not intercepted
+     */
+    public static long getPredictedMakespan(String testName) {
+        long[] predicted = predictions.get(testName);
+        return predicted == null ? -1 : predicted[0];
+    }
+}
@@ -0,0 +1,168 @@
+package com.egalvanic.utils;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedThread;
+import jdk.jfr.consumer.RecordingFile;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Per-test breakdown of the FrameworkEvents in a JFR recording
+ *
+ * Usage: JfrAnalyzer <recording.jfr>...
+ * For each test (slowest first): time per activity - session, commands,
+ * waits, sleeps, report logging, screenshots - then the commands and wait
+ * call sites that took longest, and the threads the test ran on. Activities
+ * overlap: commands polled inside a wait count for both.
+ */
+public class JfrAnalyzer {
+
+    static final String NO_TEST = "(no test)";
+    private static final int TOP = 5;
+
+    private JfrAnalyzer() {}
+
+    public static void main(String[] args) throws IOException {
+        if (args.length == 0) {
+            System.err.println("Usage: JfrAnalyzer <recording.jfr>...");
+            System.exit(1);
+        }
+        for (String path : args) {
+            System.out.println("== " + path);
+            System.out.print(format(analyze(Paths.get(path))));
+        }
+    }
+
+    /**
+     * Breakdown per test name, in order of first appearance
+     */
+    public static Map<String, TestBreakdown> analyze(Path recording) throws IOException {
+        Map<String, TestBreakdown> tests = new LinkedHashMap<>();
+        for (RecordedEvent event : RecordingFile.readAllEvents(recording)) {
+            String type = event.getEventType().getName();
+            if (!type.startsWith("egalvanic.")) {
+                continue;
+            }
+            String test = event.getString("test");
+            TestBreakdown breakdown = tests.computeIfAbsent(test == null ? NO_TEST : test, TestBreakdown::new);
+            long nanos = event.getDuration().toNanos();
+            switch (type) {
+                case "egalvanic.Session":
+                    breakdown.add("session " + event.getString("action"), nanos);
+                    break;
+                case "egalvanic.Command":
+                    breakdown.add("command", nanos);
+                    breakdown.commands.computeIfAbsent(event.getString("command"), k -> new Stat()).add(nanos);
+                    break;
+                case "egalvanic.Wait":
+                    breakdown.add("wait " + event.getString("kind"), nanos);
+                    breakdown.callSites.computeIfAbsent(event.getString("callSite"), k -> new Stat()).add(nanos);
+                    break;
+                case "egalvanic.ReportLog":
+                    breakdown.add("report " + event.getString("phase"), nanos);
+                    break;
+                case "egalvanic.Screenshot":
+                    breakdown.add("screenshot", nanos);
+                    break;
+                default:
+                    continue;
+            }
+            RecordedThread thread = event.getThread();
+            if (thread != null) {
+                breakdown.threads.add(thread.getJavaName());
+            }
+        }
+        return tests;
+    }
+
+    /**
+     * Text table per test, slowest test (by command + wait time) first
+     */
+    public static String format(Map<String, TestBreakdown> tests) {
+        List<TestBreakdown> ordered = new ArrayList<>(tests.values());
+        ordered.sort(Comparator.comparingLong(TestBreakdown::busyNanos).reversed());
+
+        StringBuilder sb = new StringBuilder();
+        for (TestBreakdown test : ordered) {
+            sb.append(test.name).append("  [").append(String.join(", ", test.threads)).append("]\n");
+            for (Map.Entry<String, Stat> activity : test.activities.entrySet()) {
+                sb.append(String.format(Locale.ROOT, "  %-22s %6d %10.1f ms%n", activity.getKey(),
+                    activity.getValue().count, millis(activity.getValue().nanos)));
+            }
+            appendTop(sb, test.commands);
+            appendTop(sb, test.callSites);
+        }
+        return sb.toString();
+    }
+
+    private static void appendTop(StringBuilder sb, Map<String, Stat> stats) {
+        List<Map.Entry<String, Stat>> rows = new ArrayList<>(stats.entrySet());
+        rows.sort(Comparator.comparingLong((Map.Entry<String, Stat> e) -> e.getValue().nanos).reversed());
+        for (Map.Entry<String, Stat> row : rows.subList(0, Math.min(TOP, rows.size()))) {
+            sb.append(String.format(Locale.ROOT, "    %-40s %6d %10.1f ms%n", row.getKey(),
+                row.getValue().count, millis(row.getValue().nanos)));
+        }
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+
+    /**
+     * Activity totals of one test
+     */
+    public static final class TestBreakdown {
+        final String name;
+        final Map<String, Stat> activities = new TreeMap<>();
+        final Map<String, Stat> commands = new LinkedHashMap<>();
+        final Map<String, Stat> callSites = new LinkedHashMap<>();
+        final Set<String> threads = new TreeSet<>();
+
+        TestBreakdown(String name) {
+            this.name = name;
+        }
+
+        void add(String activity, long nanos) {
+            activities.computeIfAbsent(activity, k -> new Stat()).add(nanos);
+        }
+
+        public int getCount(String activity) {
+            Stat stat = activities.get(activity);
+            return stat == null ? 0 : stat.count;
+        }
+
+        public long getNanos(String activity) {
+            Stat stat = activities.get(activity);
+            return stat == null ? 0 : stat.nanos;
+        }
+
+        public Set<String> getThreads() {
+            return threads;
+        }
+
+        long busyNanos() {
+            return getNanos("command") + getNanos("wait adaptive") + getNanos("wait fixed") + getNanos("wait sleep");
+        }
+    }
+
+    static final class Stat {
+        int count;
+        long nanos;
+
+        void add(long duration) {
+            count++;
+            nanos += duration;
+        }
+    }
+}
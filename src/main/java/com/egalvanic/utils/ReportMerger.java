@@ -0,0 +1,136 @@
+package com.egalvanic.utils;
+
+import com.aventstack.extentreports.ExtentReports;
+import com.aventstack.extentreports.append.JsonDeserializer;
+import com.aventstack.extentreports.gson.GsonExtentTypeAdapterBuilder;
+import com.aventstack.extentreports.model.Test;
+import com.egalvanic.constants.AppConstants;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Combines the per-shard JSON reports of a sharded run into one detailed
+ * and one client report
+ *
+ * Usage: ReportMerger [shardDir]   (default AppConstants.SHARD_REPORT_PATH)
+ * Collect every shard's reports/shards/ into one directory first. Shards
+ * are merged in index order. Detailed tests are flat and simply appended;
+ * client Module > Feature nodes with the same name are folded together,
+ * so each module appears once however many shards ran it.
+ */
+public class ReportMerger {
+
+    private static final Pattern SHARD_FILE = Pattern.compile("(detailed|client)-(\\d+)\\.json");
+
+    private ReportMerger() {}
+
+    public static void main(String[] args) throws IOException {
+        File shardDir = new File(args.length > 0 ? args[0] : AppConstants.SHARD_REPORT_PATH);
+        String timestamp = new SimpleDateFormat("yyyyMMdd_HHmmss").format(new Date());
+        new File(AppConstants.DETAILED_REPORT_PATH).mkdirs();
+        new File(AppConstants.CLIENT_REPORT_PATH).mkdirs();
+
+        ExtentReports detailed = new ExtentReports();
+        detailed.attachReporter(ExtentReportManager.detailedSpark(
+            AppConstants.DETAILED_REPORT_PATH + "Detailed_Report_" + timestamp + "_merged.html"));
+        detailed.setSystemInfo("Application", "eGalvanic iOS");
+        detailed.setSystemInfo("Report Type", "DETAILED (QA Team), merged shards");
+        ExtentReports client = new ExtentReports();
+        client.attachReporter(ExtentReportManager.clientSpark(
+            AppConstants.CLIENT_REPORT_PATH + "Client_Report_" + timestamp + "_merged.html"));
+        client.setSystemInfo("Application", "eGalvanic iOS");
+        client.setSystemInfo("Test Date", new SimpleDateFormat("MMMM dd, yyyy").format(new Date()));
+
+        int shards = merge(shardDir, detailed, client);
+        detailed.flush();
+        client.flush();
+        System.out.println("✔ Merged " + shards + " shard(s) from " + shardDir + " into "
+            + AppConstants.DETAILED_REPORT_PATH + " and " + AppConstants.CLIENT_REPORT_PATH);
+        System.exit(shards > 0 ? 0 : 1);
+    }
+
+    /**
+     * Load every shard's detailed and client JSON into the given reports
+     *
+     * @return number of shards found
+     */
+    public static int merge(File shardDir, ExtentReports detailed, ExtentReports client) throws IOException {
+        Map<Integer, File> detailedFiles = new TreeMap<>();
+        Map<Integer, File> clientFiles = new TreeMap<>();
+        File[] files = shardDir.listFiles();
+        for (File file : files == null ? new File[0] : files) {
+            Matcher matcher = SHARD_FILE.matcher(file.getName());
+            if (matcher.matches()) {
+                Map<Integer, File> kind = matcher.group(1).equals("detailed") ? detailedFiles : clientFiles;
+                kind.put(Integer.parseInt(matcher.group(2)), file);
+            }
+        }
+        if (!detailedFiles.keySet().equals(clientFiles.keySet())) {
+            System.err.println("Shard reports incomplete: detailed " + detailedFiles.keySet()
+                + ", client " + clientFiles.keySet());
+        }
+
+        for (File file : detailedFiles.values()) {
+            detailed.createDomainFromJsonArchive(file);
+        }
+
+        Map<String, Test> modules = new LinkedHashMap<>();
+        for (File file : clientFiles.values()) {
+            for (Test module : new JsonDeserializer(file).deserialize()) {
+                fold(modules, module);
+            }
+        }
+        if (!modules.isEmpty()) {
+            File combined = File.createTempFile("client-merged", ".json");
+            try {
+                try (Writer writer = new FileWriter(combined)) {
+                    GsonExtentTypeAdapterBuilder.builder().withGsonTypeAdapterFactory().build()
+                        .toJson(new ArrayList<>(modules.values()), writer);
+                }
+                client.createDomainFromJsonArchive(combined);
+            } finally {
+                combined.delete();
+            }
+        }
+        return Math.max(detailedFiles.size(), clientFiles.size());
+    }
+
+    /**
+     * Add a node to its siblings, folding into a same-named grouping node
+     */
+    private static void fold(Map<String, Test> siblings, Test node) {
+        Test existing = siblings.get(node.getName());
+        if (existing == null || !existing.hasChildren() || !node.hasChildren()) {
+            // Leaves (the tests themselves) are never folded; keep duplicates apart
+            siblings.put(existing == null ? node.getName() : node.getName() + "#" + siblings.size(), node);
+            return;
+        }
+        Map<String, Test> children = new LinkedHashMap<>();
+        for (Test child : existing.getChildren()) {
+            children.put(keyFor(children, child), child);
+        }
+        for (Test child : node.getChildren()) {
+            child.setParent(existing);
+            fold(children, child);
+        }
+        List<Test> merged = existing.getChildren();
+        merged.clear();
+        merged.addAll(children.values());
+    }
+
+    private static String keyFor(Map<String, Test> siblings, Test node) {
+        return siblings.containsKey(node.getName()) ? node.getName() + "#" + siblings.size() : node.getName();
+    }
+}
@@ -0,0 +1,234 @@
+package com.egalvanic.utils;
+
+import com.aventstack.extentreports.ExtentTest;
+import com.aventstack.extentreports.Status;
+import com.aventstack.extentreports.model.Log;
+import com.aventstack.extentreports.model.Test;
+import com.egalvanic.constants.AppConstants;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Detailed report content kept on disk instead of in heap (REPORT_SPILL_TO_DISK)
+ *
+ * Screenshots go to media/ next to the detailed HTML under the name of
+ * their ScreenshotStore object (the SHA-256 of the bytes), so a screen
+ * captured many times is in the report once. The full image is a hard link
+ * to that object rather than a second copy - or, where links are not
+ * possible, a reference to it in place. The step links a lazy-loaded
+ * thumbnail to the full image instead of embedding base64, which keeps both
+ * the heap and the HTML small. The thumbnail is the JPEG ScreenshotPipeline
+ * already made off-thread; nothing is decoded or hashed again here.
+ *
+ * Once a test has finished and did not fail, its steps are written to
+ * steps/<run>/<id>.html and replaced in the report by one link; the last
+ * step and the result stay inline. Failed tests keep every step inline.
+ * What stays in heap is one small node per test - memory grows with the
+ * number of tests, not with steps or screenshots.
+ */
+class ReportSpill {
+
+    private static final String MEDIA_DIR = "media/";
+    private static final String STEPS_DIR = "steps/";
+
+    private final File reportDir;
+    private final String run;
+
+    // Metrics
+    private final AtomicInteger screenshots = new AtomicInteger();
+    private final AtomicInteger storedScreenshots = new AtomicInteger();
+    private final AtomicInteger linkedScreenshots = new AtomicInteger();
+    private final AtomicLong storedBytes = new AtomicLong();
+    private final AtomicInteger compactedTests = new AtomicInteger();
+    private final AtomicInteger spilledSteps = new AtomicInteger();
+
+    /**
+     * @param reportDir directory of the detailed report HTML
+     * @param run       name of this run's step directory (report timestamp)
+     */
+    ReportSpill(File reportDir, String run) {
+        this.reportDir = reportDir;
+        this.run = run;
+        new File(reportDir, MEDIA_DIR).mkdirs();
+        new File(reportDir, STEPS_DIR + run).mkdirs();
+    }
+
+    // ================================================================
+    // SCREENSHOTS
+    // ================================================================
+
+    /**
+     * Store the capture once by content and return the step HTML referencing it
+     * Without a pipeline thumbnail (queue overflow) the step shows the full image
+     */
+    String screenshotStep(String description, CapturedScreenshot screenshot) {
+        screenshots.incrementAndGet();
+        byte[] png = screenshot.getBytes();
+        String stored = screenshot.awaitFile();
+        // Hashed only when the store has no object for it (write failed)
+        String hash = stored != null ? new File(stored).getName().replaceFirst("\\.png$", "")
+            : ScreenshotStore.sha256(png);
+        String full = MEDIA_DIR + hash + ".png";
+        String thumbnail = MEDIA_DIR + hash + "_thumb.jpg";
+        try {
+            if (!new File(reportDir, thumbnail).exists()) {
+                byte[] preview = screenshot.getThumbnail();
+                if (preview == null) {
+                    thumbnail = full;
+                } else {
+                    write(thumbnail, preview);
+                }
+            }
+            if (!new File(reportDir, full).exists()) {
+                full = storeFull(full, stored, png);
+            }
+        } catch (IOException e) {
+            System.err.println("Failed to store report screenshot " + full + ": " + e.getMessage());
+            return description + " [Screenshot failed]";
+        }
+        return description + "<br><a href='" + full + "' target='_blank'><img class='screenshot' src='"
+            + thumbnail + "' loading='lazy' width='" + AppConstants.REPORT_THUMBNAIL_WIDTH + "'></a>";
+    }
+
+    /**
+     * Link the store object into media/, reference it in place if that fails,
+     * and write the PNG only when there is no object
+     *
+     * @return path of the full image relative to the report
+     */
+    private String storeFull(String full, String stored, byte[] png) throws IOException {
+        if (stored == null) {
+            write(full, png);
+            storedScreenshots.incrementAndGet();
+            storedBytes.addAndGet(png.length);
+            return full;
+        }
+        Path object = Paths.get(stored).toAbsolutePath().normalize();
+        try {
+            Files.createLink(new File(reportDir, full).toPath(), object);
+            storedScreenshots.incrementAndGet();
+            linkedScreenshots.incrementAndGet();
+            return full;
+        } catch (FileAlreadyExistsException e) {
+            // Linked meanwhile by another writer
+            return full;
+        } catch (IOException | UnsupportedOperationException e) {
+            // e.g. report and store on different file systems
+            return reportDir.toPath().toAbsolutePath().normalize().relativize(object).toString()
+                .replace(File.separatorChar, '/');
+        }
+    }
+
+    /**
+     * Write via a temp file so a concurrent writer of the same content never sees half a file
+     */
+    private void write(String relativePath, byte[] bytes) throws IOException {
+        File target = new File(reportDir, relativePath);
+        File temp = File.createTempFile(target.getName(), ".tmp", target.getParentFile());
+        Files.write(temp.toPath(), bytes);
+        Files.move(temp.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING,
+            StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    // ================================================================
+    // COMPACTION
+    // ================================================================
+
+    /**
+     * Move a finished test's steps to disk; failed tests are left as they are
+     */
+    void compact(ExtentTest test) {
+        Test model = test.getModel();
+        if (model.getStatus() == Status.FAIL) {
+            return;
+        }
+        List<Log> logs = model.getLogs();
+        List<Log> steps = new ArrayList<>();
+        synchronized (logs) {
+            for (int i = 0; i < logs.size() - 1; i++) {
+                if (logs.get(i).getStatus() == Status.INFO) {
+                    steps.add(logs.get(i));
+                }
+            }
+        }
+        // The last step (usually the final screen) stays inline
+        if (!steps.isEmpty()) {
+            steps.remove(steps.size() - 1);
+        }
+        if (steps.size() < 2) {
+            return;
+        }
+
+        String page = STEPS_DIR + run + "/" + model.getId() + ".html";
+        try {
+            Files.write(new File(reportDir, page).toPath(), stepsPage(model.getName(), steps)
+                .getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            System.err.println("Failed to spill steps of " + model.getName() + ": " + e.getMessage());
+            return;
+        }
+
+        // The first step becomes the link; the rest are dropped from the model
+        Log link = steps.get(0);
+        link.setDetails("<a href='" + page + "' target='_blank'>" + steps.size() + " steps</a>");
+        link.setMedia(null);
+        Set<Log> moved = Collections.newSetFromMap(new IdentityHashMap<>());
+        moved.addAll(steps.subList(1, steps.size()));
+        logs.removeIf(moved::contains);
+
+        compactedTests.incrementAndGet();
+        spilledSteps.addAndGet(steps.size());
+    }
+
+    private static String stepsPage(String testName, List<Log> steps) {
+        SimpleDateFormat time = new SimpleDateFormat("HH:mm:ss.SSS");
+        StringBuilder html = new StringBuilder("<!DOCTYPE html><html><head><meta charset='UTF-8'>")
+            // Steps reference media/ relative to the report
+            .append("<base href='../../'><title>").append(testName).append("</title></head><body>")
+            .append("<h3>").append(testName).append("</h3><table>");
+        for (Log step : steps) {
+            html.append("<tr><td>").append(time.format(step.getTimestamp())).append("</td><td>")
+                .append(step.getDetails()).append("</td></tr>");
+        }
+        return html.append("</table></body></html>").toString();
+    }
+
+    // ================================================================
+    // METRICS
+    // ================================================================
+
+    int getCompactedTestCount() {
+        return compactedTests.get();
+    }
+
+    int getStoredScreenshotCount() {
+        return storedScreenshots.get();
+    }
+
+    /** Screenshots in media/ that are hard links to ScreenshotStore objects */
+    int getLinkedScreenshotCount() {
+        return linkedScreenshots.get();
+    }
+
+    String getSummary() {
+        return String.format("screenshots=%d (stored %d, %d linked to the store, %d KB copied), "
+                + "compacted tests=%d, spilled steps=%d",
+            screenshots.get(), storedScreenshots.get(), linkedScreenshots.get(), storedBytes.get() / 1024,
+            compactedTests.get(), spilledSteps.get());
+    }
+}
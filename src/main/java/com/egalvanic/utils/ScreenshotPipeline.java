@@ -0,0 +1,322 @@
+package com.egalvanic.utils;
+
+import com.egalvanic.constants.AppConstants;
+import io.appium.java_client.ios.IOSDriver;
+import org.openqa.selenium.OutputType;
+import org.openqa.selenium.TakesScreenshot;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Base64;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Capture-once screenshot pipeline
+ *
+ * The test thread makes a single WDA screenshot round-trip and gets the PNG
+ * bytes. One background job per capture then decodes the image once and
+ * derives everything from it: the full-resolution archive copy (hashed and
+ * deduplicated by ScreenshotStore) and a downscaled JPEG thumbnail for the
+ * report. Base64 of the full PNG is only made if the report asks for it.
+ *
+ * The worker queue is bounded (SCREENSHOT_QUEUE_CAPACITY) and the test
+ * thread never waits on it: when it is full the capture skips transcoding,
+ * only its archive copy is written by an overflow thread, and the report
+ * falls back to the full image.
+ *
+ * A logged step used to cost two captures (file + base64); callers that now
+ * serve both from one capture report it with recordReuse, which counts the
+ * avoided capture and its bytes as saved.
+ */
+public class ScreenshotPipeline {
+
+    private static volatile ExecutorService executor = newExecutor();
+    private static volatile ExecutorService overflow = newOverflowExecutor();
+
+    // Metrics
+    private static final AtomicInteger captures = new AtomicInteger();
+    private static final AtomicInteger failedCaptures = new AtomicInteger();
+    private static final AtomicInteger savedCaptures = new AtomicInteger();
+    private static final AtomicLong capturedBytes = new AtomicLong();
+    private static final AtomicLong savedBytes = new AtomicLong();
+    private static final AtomicInteger thumbnails = new AtomicInteger();
+    private static final AtomicLong thumbnailBytes = new AtomicLong();
+    private static final AtomicInteger overflowed = new AtomicInteger();
+    private static final AtomicLong captureNanos = new AtomicLong();
+    private static final AtomicLong transcodeNanos = new AtomicLong();
+
+    private ScreenshotPipeline() {}
+
+    private static ExecutorService newExecutor() {
+        return new ThreadPoolExecutor(AppConstants.SCREENSHOT_PIPELINE_THREADS, AppConstants.SCREENSHOT_PIPELINE_THREADS,
+            0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(AppConstants.SCREENSHOT_QUEUE_CAPACITY),
+            daemon("screenshot-pipeline"), new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    private static ExecutorService newOverflowExecutor() {
+        return Executors.newSingleThreadExecutor(daemon("screenshot-overflow"));
+    }
+
+    private static ThreadFactory daemon(String name) {
+        return r -> {
+            Thread thread = new Thread(r, name);
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    // ================================================================
+    // CAPTURE
+    // ================================================================
+
+    /**
+     * Capture the current thread's driver once; null if capture failed
+     */
+    public static CapturedScreenshot capture(String name) {
+        return capture(DriverManager.getDriver(), name);
+    }
+
+    /**
+     * Capture the given driver once; null if capture failed
+     */
+    public static CapturedScreenshot capture(IOSDriver driver, String name) {
+        if (driver == null) {
+            System.err.println("Cannot capture screenshot - driver is null");
+            failedCaptures.incrementAndGet();
+            return null;
+        }
+        FrameworkEvents.ScreenshotEvent event = new FrameworkEvents.ScreenshotEvent();
+        event.begin();
+        try {
+            long start = System.nanoTime();
+            byte[] png = ((TakesScreenshot) driver).getScreenshotAs(OutputType.BYTES);
+            captureNanos.addAndGet(System.nanoTime() - start);
+            event.end();
+            if (event.shouldCommit()) {
+                event.test = FrameworkEvents.currentTest();
+                event.name = name;
+                event.bytes = png.length;
+                event.commit();
+            }
+            return submit(name, png);
+        } catch (Exception e) {
+            System.err.println("Failed to capture screenshot: " + e.getMessage());
+            failedCaptures.incrementAndGet();
+            return null;
+        }
+    }
+
+    /**
+     * Queue archive and thumbnail work for already captured PNG bytes; never blocks
+     */
+    public static CapturedScreenshot submit(String name, byte[] png) {
+        captures.incrementAndGet();
+        capturedBytes.addAndGet(png.length);
+
+        CompletableFuture<String> file = new CompletableFuture<>();
+        CompletableFuture<byte[]> thumbnail = new CompletableFuture<>();
+        // A spilled report links a smaller lazy-loaded preview to the full image
+        int width = ExtentReportManager.getSpill() != null
+            ? AppConstants.REPORT_THUMBNAIL_WIDTH : AppConstants.SCREENSHOT_THUMBNAIL_WIDTH;
+        try {
+            executor.execute(() -> transcode(name, png, width, file, thumbnail));
+        } catch (RejectedExecutionException e) {
+            overflowed.incrementAndGet();
+            thumbnail.complete(null);
+            overflow.execute(() -> archive(name, png, null, file));
+        }
+        return new CapturedScreenshot(name, png, file, thumbnail);
+    }
+
+    /**
+     * Count a capture that also served a report step which used to capture
+     * again for its base64 copy
+     */
+    public static void recordReuse(CapturedScreenshot screenshot) {
+        if (screenshot != null) {
+            savedCaptures.incrementAndGet();
+            savedBytes.addAndGet(screenshot.getSize());
+        }
+    }
+
+    // ================================================================
+    // BACKGROUND WORK
+    // ================================================================
+
+    /**
+     * Decode once, archive the full image, then make the report thumbnail
+     */
+    private static void transcode(String name, byte[] png, int width,
+                                  CompletableFuture<String> file, CompletableFuture<byte[]> thumbnail) {
+        long start = System.nanoTime();
+        BufferedImage image = width > 0 || ScreenshotStore.isPerceptual() ? decode(png) : null;
+        archive(name, png, image, file);
+        try {
+            byte[] jpeg = width > 0 && image != null ? thumbnailJpeg(image, width) : null;
+            if (jpeg != null) {
+                thumbnailBytes.addAndGet(jpeg.length);
+            }
+            thumbnail.complete(jpeg);
+        } catch (RuntimeException e) {
+            thumbnail.completeExceptionally(e);
+        }
+        transcodeNanos.addAndGet(System.nanoTime() - start);
+    }
+
+    private static void archive(String name, byte[] png, BufferedImage image, CompletableFuture<String> file) {
+        try {
+            file.complete(ScreenshotStore.store(name, png, image));
+        } catch (RuntimeException e) {
+            file.completeExceptionally(e);
+        }
+    }
+
+    /**
+     * Decoded image, or null if the bytes are not a readable image
+     */
+    static BufferedImage decode(byte[] png) {
+        try {
+            return ImageIO.read(new ByteArrayInputStream(png));
+        } catch (IOException e) {
+            System.err.println("Failed to decode screenshot: " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Scale a PNG to the given width (keeping aspect ratio) and base64 the JPEG
+     */
+    static String thumbnail(byte[] png, int width) {
+        BufferedImage source = decode(png);
+        byte[] jpeg = source == null ? null : thumbnailJpeg(source, width);
+        return jpeg == null ? null : Base64.getEncoder().encodeToString(jpeg);
+    }
+
+    /**
+     * Scale an image to at most the given width (keeping aspect ratio) as JPEG
+     */
+    static byte[] thumbnailJpeg(BufferedImage source, int width) {
+        int targetWidth = Math.min(width, source.getWidth());
+        int height = Math.max(1, source.getHeight() * targetWidth / source.getWidth());
+        // JPEG has no alpha, so always draw onto an RGB canvas
+        BufferedImage scaled = new BufferedImage(targetWidth, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = scaled.createGraphics();
+        graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+        graphics.drawImage(source, 0, 0, targetWidth, height, null);
+        graphics.dispose();
+
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        try (ByteArrayOutputStream out = new ByteArrayOutputStream();
+             ImageOutputStream stream = ImageIO.createImageOutputStream(out)) {
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(AppConstants.SCREENSHOT_JPEG_QUALITY);
+            writer.setOutput(stream);
+            writer.write(null, new IIOImage(scaled, null, null), param);
+            stream.flush();
+            thumbnails.incrementAndGet();
+            return out.toByteArray();
+        } catch (IOException e) {
+            System.err.println("Failed to create thumbnail: " + e.getMessage());
+            return null;
+        } finally {
+            writer.dispose();
+        }
+    }
+
+    // ================================================================
+    // LIFECYCLE & METRICS
+    // ================================================================
+
+    /**
+     * Finish queued file writes and encodings, then stop the worker threads
+     */
+    public static void shutdown() {
+        for (ExecutorService current : new ExecutorService[] {executor, overflow}) {
+            current.shutdown();
+            try {
+                if (!current.awaitTermination(AppConstants.REPORT_DRAIN_TIMEOUT, TimeUnit.SECONDS)) {
+                    System.err.println("Screenshot pipeline did not finish within "
+                        + AppConstants.REPORT_DRAIN_TIMEOUT + "s");
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        executor = newExecutor();
+        overflow = newOverflowExecutor();
+    }
+
+    public static int getCaptureCount() {
+        return captures.get();
+    }
+
+    public static int getFailedCaptureCount() {
+        return failedCaptures.get();
+    }
+
+    /** Captures avoided compared to capturing separately for file and report */
+    public static int getSavedCaptureCount() {
+        return savedCaptures.get();
+    }
+
+    public static long getCapturedBytes() {
+        return capturedBytes.get();
+    }
+
+    /** Screenshot bytes not transferred from WDA thanks to capture-once */
+    public static long getSavedBytes() {
+        return savedBytes.get();
+    }
+
+    public static int getThumbnailCount() {
+        return thumbnails.get();
+    }
+
+    /** Captures that found the worker queue full and were archived without a thumbnail */
+    public static int getOverflowCount() {
+        return overflowed.get();
+    }
+
+    public static String getSummary() {
+        return String.format("captures=%d (failed %d, %d ms on test thread), saved captures=%d, saved bytes=%d KB, "
+                + "thumbnails=%d (%d KB JPEG from %d KB PNG, %d ms off-thread), overflowed=%d",
+            getCaptureCount(), getFailedCaptureCount(), TimeUnit.NANOSECONDS.toMillis(captureNanos.get()),
+            getSavedCaptureCount(), getSavedBytes() / 1024, getThumbnailCount(), thumbnailBytes.get() / 1024,
+            getCapturedBytes() / 1024, TimeUnit.NANOSECONDS.toMillis(transcodeNanos.get()), getOverflowCount());
+    }
+
+    /**
+     * Reset counters (tests)
+     */
+    static void resetMetrics() {
+        captures.set(0);
+        failedCaptures.set(0);
+        savedCaptures.set(0);
+        capturedBytes.set(0);
+        savedBytes.set(0);
+        thumbnails.set(0);
+        thumbnailBytes.set(0);
+        overflowed.set(0);
+        captureNanos.set(0);
+        transcodeNanos.set(0);
+    }
+}
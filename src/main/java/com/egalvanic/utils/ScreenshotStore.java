@@ -0,0 +1,385 @@
+package com.egalvanic.utils;
+
+import com.egalvanic.constants.AppConstants;
+
+import javax.imageio.ImageIO;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Screenshot files stored once per content
+ *
+ * Every capture is hashed (SHA-256) and written to objects/<hash>.png only
+ * if that content is new; a repeat becomes a reference to the existing
+ * file. With SCREENSHOT_PERCEPTUAL_DEDUP a 64-bit DCT perceptual hash also
+ * folds near-identical screens (e.g. a blinking cursor) into the first file
+ * seen - off by default, since a one-character change can be that close.
+ * Each capture appends name -> file to index.tsv, so nothing is lost by
+ * name. Hashing runs on the ScreenshotPipeline workers, not the test thread.
+ *
+ * Retention replaces wiping the directory at suite start: files not
+ * referenced for SCREENSHOT_RETENTION_DAYS go first, then the least recently
+ * referenced until the store fits in SCREENSHOT_RETENTION_MB.
+ */
+public final class ScreenshotStore {
+
+    private static final String OBJECTS_DIR = "objects";
+    private static final String INDEX_FILE = "index.tsv";
+    private static final int PHASH_SIZE = 32;
+    private static final int PHASH_LOW = 8;
+
+    private static volatile File directory = new File(AppConstants.SCREENSHOT_PATH);
+    private static volatile boolean perceptual = AppConstants.SCREENSHOT_PERCEPTUAL_DEDUP;
+
+    // Content hash -> stored file path, completed once written
+    private static final Map<String, CompletableFuture<String>> objects = new HashMap<>();
+    // Perceptual hashes of stored files (only with perceptual dedup)
+    private static final List<Perceptual> perceptualHashes = new ArrayList<>();
+
+    // Metrics
+    private static final AtomicInteger captures = new AtomicInteger();
+    private static final AtomicInteger stored = new AtomicInteger();
+    private static final AtomicInteger exactDuplicates = new AtomicInteger();
+    private static final AtomicInteger nearDuplicates = new AtomicInteger();
+    private static final AtomicLong capturedBytes = new AtomicLong();
+    private static final AtomicLong storedBytes = new AtomicLong();
+
+    private ScreenshotStore() {}
+
+    // ================================================================
+    // STORE
+    // ================================================================
+
+    /**
+     * Store one capture and return the path of the file holding its content
+     * Blocks for hashing and, for new content, the write - call from a worker
+     */
+    public static String store(String name, byte[] png) {
+        return store(name, png, null);
+    }
+
+    /**
+     * Store one capture, reusing an already decoded image for the perceptual hash
+     *
+     * @param decoded the PNG decoded, or null to decode here when needed
+     */
+    public static String store(String name, byte[] png, BufferedImage decoded) {
+        captures.incrementAndGet();
+        capturedBytes.addAndGet(png.length);
+        String hash = sha256(png);
+
+        CompletableFuture<String> existing;
+        CompletableFuture<String> mine = new CompletableFuture<>();
+        synchronized (ScreenshotStore.class) {
+            existing = objects.putIfAbsent(hash, mine);
+        }
+        if (existing != null) {
+            exactDuplicates.incrementAndGet();
+            return reference(name, existing.join(), "exact");
+        }
+
+        String path = objectPath(hash);
+        File file = new File(path);
+        if (file.exists()) {
+            // Stored by an earlier run; touch it so retention counts it as in use
+            file.setLastModified(System.currentTimeMillis());
+            mine.complete(path);
+            exactDuplicates.incrementAndGet();
+            return reference(name, path, "exact");
+        }
+
+        Long phash = !perceptual ? null : decoded != null ? perceptualHash(decoded) : perceptualHash(png);
+        if (phash != null) {
+            String near = nearest(phash);
+            if (near != null) {
+                mine.complete(near);
+                nearDuplicates.incrementAndGet();
+                return reference(name, near, "near");
+            }
+        }
+
+        try {
+            write(file, png);
+            if (phash != null) {
+                register(phash, path);
+            }
+            stored.incrementAndGet();
+            storedBytes.addAndGet(png.length);
+            mine.complete(path);
+            return reference(name, path, "new");
+        } catch (IOException e) {
+            System.err.println("Failed to store screenshot " + path + ": " + e.getMessage());
+            synchronized (ScreenshotStore.class) {
+                objects.remove(hash, mine);
+            }
+            mine.completeExceptionally(e);
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Stored file within SCREENSHOT_PHASH_DISTANCE of the hash, or null
+     */
+    private static synchronized String nearest(long phash) {
+        for (Perceptual known : perceptualHashes) {
+            if (Long.bitCount(known.hash ^ phash) <= AppConstants.SCREENSHOT_PHASH_DISTANCE) {
+                return known.path;
+            }
+        }
+        return null;
+    }
+
+    private static synchronized void register(long phash, String path) {
+        perceptualHashes.add(new Perceptual(phash, path));
+    }
+
+    private static String reference(String name, String path, String kind) {
+        synchronized (ScreenshotStore.class) {
+            try (Writer index = new FileWriter(new File(directory, INDEX_FILE), true)) {
+                index.write(System.currentTimeMillis() + "\t" + name + "\t" + path + "\t" + kind
+                    + System.lineSeparator());
+            } catch (IOException e) {
+                System.err.println("Failed to index screenshot " + name + ": " + e.getMessage());
+            }
+        }
+        return path;
+    }
+
+    private static String objectPath(String hash) {
+        return new File(new File(directory, OBJECTS_DIR), hash + ".png").getPath();
+    }
+
+    /**
+     * Write via a temp file so a crash never leaves a truncated object behind
+     */
+    private static void write(File file, byte[] png) throws IOException {
+        file.getParentFile().mkdirs();
+        File temp = File.createTempFile(file.getName(), ".tmp", file.getParentFile());
+        Files.write(temp.toPath(), png);
+        Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING,
+            StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Hex SHA-256 of the bytes - the object name, also used by ReportSpill
+     */
+    static String sha256(byte[] bytes) {
+        try {
+            StringBuilder hex = new StringBuilder();
+            for (byte b : MessageDigest.getInstance("SHA-256").digest(bytes)) {
+                hex.append(String.format("%02x", b));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // ================================================================
+    // PERCEPTUAL HASH
+    // ================================================================
+
+    /**
+     * 64-bit pHash: 32x32 grayscale, DCT, low 8x8 frequencies against their median
+     * Null if the bytes are not a readable image
+     */
+    static Long perceptualHash(byte[] png) {
+        BufferedImage source;
+        try {
+            source = ImageIO.read(new ByteArrayInputStream(png));
+        } catch (IOException e) {
+            return null;
+        }
+        return source == null ? null : perceptualHash(source);
+    }
+
+    static long perceptualHash(BufferedImage source) {
+        BufferedImage gray = new BufferedImage(PHASH_SIZE, PHASH_SIZE, BufferedImage.TYPE_BYTE_GRAY);
+        Graphics2D graphics = gray.createGraphics();
+        graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+        graphics.drawImage(source, 0, 0, PHASH_SIZE, PHASH_SIZE, null);
+        graphics.dispose();
+
+        double[][] pixels = new double[PHASH_SIZE][PHASH_SIZE];
+        for (int y = 0; y < PHASH_SIZE; y++) {
+            for (int x = 0; x < PHASH_SIZE; x++) {
+                pixels[y][x] = gray.getRaster().getSample(x, y, 0);
+            }
+        }
+
+        double[] low = new double[PHASH_LOW * PHASH_LOW];
+        for (int v = 0; v < PHASH_LOW; v++) {
+            for (int u = 0; u < PHASH_LOW; u++) {
+                double sum = 0;
+                for (int y = 0; y < PHASH_SIZE; y++) {
+                    for (int x = 0; x < PHASH_SIZE; x++) {
+                        sum += pixels[y][x]
+                            * Math.cos((2 * x + 1) * u * Math.PI / (2 * PHASH_SIZE))
+                            * Math.cos((2 * y + 1) * v * Math.PI / (2 * PHASH_SIZE));
+                    }
+                }
+                low[v * PHASH_LOW + u] = sum;
+            }
+        }
+
+        // Median without the DC term, which only reflects overall brightness
+        double[] sorted = Arrays.copyOfRange(low, 1, low.length);
+        Arrays.sort(sorted);
+        double median = sorted[sorted.length / 2];
+        long hash = 0;
+        for (int i = 0; i < low.length; i++) {
+            if (low[i] > median) {
+                hash |= 1L << i;
+            }
+        }
+        return hash;
+    }
+
+    // ================================================================
+    // RETENTION
+    // ================================================================
+
+    /**
+     * Apply SCREENSHOT_RETENTION_DAYS and SCREENSHOT_RETENTION_MB to the store
+     */
+    public static void applyRetention() {
+        applyRetention(TimeUnit.DAYS.toMillis(AppConstants.SCREENSHOT_RETENTION_DAYS),
+            AppConstants.SCREENSHOT_RETENTION_MB * 1024L * 1024L);
+    }
+
+    /**
+     * Delete files not referenced within maxAgeMillis, then the least recently
+     * referenced until the rest fit in maxBytes
+     *
+     * @return number of files deleted
+     */
+    public static synchronized int applyRetention(long maxAgeMillis, long maxBytes) {
+        List<File> files = new ArrayList<>();
+        collect(directory, files);
+        files.sort(Comparator.comparingLong(File::lastModified));
+
+        long cutoff = System.currentTimeMillis() - maxAgeMillis;
+        long total = 0;
+        for (File file : files) {
+            total += file.length();
+        }
+        int deleted = 0;
+        for (File file : files) {
+            if (file.lastModified() >= cutoff && total <= maxBytes) {
+                break;
+            }
+            long size = file.length();
+            if (file.delete()) {
+                total -= size;
+                deleted++;
+                forget(file);
+            }
+        }
+        System.out.println("✔ Screenshots retained: " + (files.size() - deleted) + " files, "
+            + total / 1024 + " KB (removed " + deleted + ")");
+        return deleted;
+    }
+
+    /**
+     * Screenshot files under the directory: objects and legacy timestamped PNGs
+     */
+    private static void collect(File dir, List<File> files) {
+        File[] children = dir.listFiles();
+        if (children == null) {
+            return;
+        }
+        for (File child : children) {
+            if (child.isDirectory()) {
+                collect(child, files);
+            } else if (!child.getName().equals(INDEX_FILE)) {
+                files.add(child);
+            }
+        }
+    }
+
+    private static void forget(File file) {
+        String path = file.getPath();
+        objects.values().removeIf(stored -> path.equals(stored.getNow(null)));
+        perceptualHashes.removeIf(known -> known.path.equals(path));
+    }
+
+    // ================================================================
+    // METRICS & CONFIGURATION
+    // ================================================================
+
+    /** Captures per stored file (1.0 = no duplicates) */
+    public static double getDedupRatio() {
+        return stored.get() == 0 ? 1.0 : (double) (stored.get() + exactDuplicates.get() + nearDuplicates.get())
+            / stored.get();
+    }
+
+    /** Bytes not written because the content (or a near match) was already stored */
+    public static long getSavedBytes() {
+        return capturedBytes.get() - storedBytes.get();
+    }
+
+    public static int getStoredCount() {
+        return stored.get();
+    }
+
+    /** Whether near-identical screens are folded (the capture then needs decoding) */
+    public static boolean isPerceptual() {
+        return perceptual;
+    }
+
+    public static int getNearDuplicateCount() {
+        return nearDuplicates.get();
+    }
+
+    public static String getSummary() {
+        return String.format("captures=%d, stored=%d, exact dups=%d, near dups=%d, dedup ratio=%.2f, saved=%d KB",
+            captures.get(), stored.get(), exactDuplicates.get(), nearDuplicates.get(), getDedupRatio(),
+            getSavedBytes() / 1024);
+    }
+
+    /**
+     * Point the store at another directory and dedup mode, clearing state (tests)
+     */
+    static synchronized void useDirectory(File storeDirectory, boolean perceptualDedup) {
+        directory = storeDirectory;
+        perceptual = perceptualDedup;
+        objects.clear();
+        perceptualHashes.clear();
+        captures.set(0);
+        stored.set(0);
+        exactDuplicates.set(0);
+        nearDuplicates.set(0);
+        capturedBytes.set(0);
+        storedBytes.set(0);
+    }
+
+    private static final class Perceptual {
+        final long hash;
+        final String path;
+
+        Perceptual(long hash, String path) {
+            this.hash = hash;
+            this.path = path;
+        }
+    }
+}
@@ -1,15 +1,9 @@
 package com.egalvanic.utils;
 
-import com.egalvanic.constants.AppConstants;
 import io.appium.java_client.ios.IOSDriver;
-import org.apache.commons.io.FileUtils;
 import org.openqa.selenium.OutputType;
 import org.openqa.selenium.TakesScreenshot;
 
-import java.io.File;
-import java.text.SimpleDateFormat;
-import java.util.Date;
-
 /**
  * Screenshot Utility for capturing test evidence
  */
@@ -19,37 +13,17 @@ public class ScreenshotUtil {
 
     /**
      * Capture screenshot and save to file
+     * Identical screens share one stored file (see ScreenshotStore)
      * @param screenshotName Name for the screenshot
      * @return Path to saved screenshot
      */
     public static String captureScreenshot(String screenshotName) {
-        try {
-            IOSDriver driver = DriverManager.getDriver();
-            if (driver == null) {
-                System.err.println("Cannot capture screenshot - driver is null");
-                return null;
-            }
-
-            // Generate unique filename
-            String timestamp = new SimpleDateFormat("yyyyMMdd_HHmmss_SSS").format(new Date());
-            String fileName = screenshotName.replaceAll("[^a-zA-Z0-9]", "_") + "_" + timestamp + ".png";
-            String filePath = AppConstants.SCREENSHOT_PATH + fileName;
-
-            // Ensure directory exists
-            new File(AppConstants.SCREENSHOT_PATH).mkdirs();
-
-            // Capture and save
-            File srcFile = ((TakesScreenshot) driver).getScreenshotAs(OutputType.FILE);
-            File destFile = new File(filePath);
-            FileUtils.copyFile(srcFile, destFile);
-
+        CapturedScreenshot screenshot = ScreenshotPipeline.capture(screenshotName);
+        String filePath = screenshot == null ? null : screenshot.awaitFile();
+        if (filePath != null) {
             System.out.println("✔ Screenshot saved: " + filePath);
-            return filePath;
-
-        } catch (Exception e) {
-            System.err.println("Failed to capture screenshot: " + e.getMessage());
-            return null;
         }
+        return filePath;
     }
 
     /**
@@ -69,20 +43,11 @@ public class ScreenshotUtil {
     }
 
     /**
-     * Clean up old screenshots
+     * Clean up old screenshots by the store's age and size retention
      */
     public static void cleanupScreenshots() {
         try {
-            File screenshotDir = new File(AppConstants.SCREENSHOT_PATH);
-            if (screenshotDir.exists()) {
-                File[] files = screenshotDir.listFiles();
-                if (files != null) {
-                    for (File file : files) {
-                        file.delete();
-                    }
-                }
-                System.out.println("✔ Screenshots cleaned up");
-            }
+            ScreenshotStore.applyRetention();
         } catch (Exception e) {
             System.err.println("Failed to cleanup screenshots: " + e.getMessage());
         }
@@ -0,0 +1,193 @@
+package com.egalvanic.utils;
+
+import io.appium.java_client.ios.IOSDriver;
+
+import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Creates the next IOSDriver session on a background thread
+ *
+ * Every handover immediately starts warming a replacement, so the session
+ * start-up cost overlaps with the running test instead of blocking the next
+ * @BeforeMethod. At most maxWarm sessions are warming or waiting at once.
+ *
+ * Latency accounting per handover:
+ * - hidden:  start-up time that elapsed in the background before the handover
+ * - exposed: time the caller actually blocked waiting for a session
+ */
+public class SessionPrewarmer implements Supplier<IOSDriver> {
+
+    private final Supplier<IOSDriver> factory;
+    private final int maxWarm;
+    private final ExecutorService executor;
+    private final BlockingDeque<WarmSession> warm = new LinkedBlockingDeque<>();
+
+    private volatile boolean shutdown;
+
+    // Metrics
+    private final AtomicInteger handovers = new AtomicInteger();
+    private final AtomicInteger warmHits = new AtomicInteger();
+    private final AtomicInteger coldStarts = new AtomicInteger();
+    private final AtomicInteger warmFailures = new AtomicInteger();
+    private final AtomicLong hiddenNanos = new AtomicLong();
+    private final AtomicLong exposedNanos = new AtomicLong();
+
+    /**
+     * @param factory creates a brand-new session (blocking)
+     * @param maxWarm cap on sessions warming or ready at the same time
+     */
+    public SessionPrewarmer(Supplier<IOSDriver> factory, int maxWarm) {
+        if (maxWarm < 1) {
+            throw new IllegalArgumentException("maxWarm must be at least 1, was " + maxWarm);
+        }
+        this.factory = factory;
+        this.maxWarm = maxWarm;
+        this.executor = Executors.newFixedThreadPool(maxWarm, r -> {
+            Thread thread = new Thread(r, "session-prewarm");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    // ================================================================
+    // HANDOVER
+    // ================================================================
+
+    /**
+     * Hand over a warm session if one is ready or warming, otherwise create
+     * one synchronously. Starts warming the next session either way.
+     */
+    @Override
+    public IOSDriver get() {
+        long requested = System.nanoTime();
+        WarmSession session = warm.pollFirst();
+        IOSDriver driver = null;
+
+        if (session != null) {
+            try {
+                driver = session.future.join();
+                long hidden = Math.min(requested, session.finishedNanos) - session.startedNanos;
+                exposedNanos.addAndGet(System.nanoTime() - requested);
+                hiddenNanos.addAndGet(Math.max(0, hidden));
+                warmHits.incrementAndGet();
+            } catch (Exception e) {
+                warmFailures.incrementAndGet();
+                System.err.println("Pre-warmed session failed, creating synchronously: " + e.getMessage());
+            }
+        }
+
+        if (driver == null) {
+            driver = factory.get();
+            exposedNanos.addAndGet(System.nanoTime() - requested);
+            coldStarts.incrementAndGet();
+        }
+
+        handovers.incrementAndGet();
+        prewarm();
+        return driver;
+    }
+
+    /**
+     * Start warming sessions until the cap is reached
+     */
+    public synchronized void prewarm() {
+        while (!shutdown && warm.size() < maxWarm) {
+            WarmSession session = new WarmSession();
+            session.future = CompletableFuture.supplyAsync(() -> {
+                try {
+                    return factory.get();
+                } finally {
+                    session.finishedNanos = System.nanoTime();
+                }
+            }, executor);
+            warm.offerLast(session);
+        }
+    }
+
+    /**
+     * Stop warming and quit sessions that were never handed over
+     */
+    public synchronized void shutdown() {
+        shutdown = true;
+        WarmSession session;
+        while ((session = warm.pollFirst()) != null) {
+            session.future.thenAccept(driver -> {
+                try {
+                    driver.quit();
+                } catch (Exception e) {
+                    System.err.println("Error quitting pre-warmed driver: " + e.getMessage());
+                }
+            });
+        }
+        executor.shutdown();
+    }
+
+    /**
+     * Wait for background creation to finish after shutdown()
+     */
+    public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+        return executor.awaitTermination(timeout, unit);
+    }
+
+    // ================================================================
+    // METRICS
+    // ================================================================
+
+    public int getMaxWarm() {
+        return maxWarm;
+    }
+
+    /** Sessions currently warming or ready */
+    public int getWarmCount() {
+        return warm.size();
+    }
+
+    public int getHandoverCount() {
+        return handovers.get();
+    }
+
+    /** Handovers served by a background session */
+    public int getWarmHitCount() {
+        return warmHits.get();
+    }
+
+    /** Handovers that had to create a session on the caller thread */
+    public int getColdStartCount() {
+        return coldStarts.get();
+    }
+
+    public int getWarmFailureCount() {
+        return warmFailures.get();
+    }
+
+    /** Start-up latency that overlapped with test execution */
+    public long getHiddenLatencyMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(hiddenNanos.get());
+    }
+
+    /** Start-up latency callers blocked on */
+    public long getExposedLatencyMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(exposedNanos.get());
+    }
+
+    public String getSummary() {
+        return String.format(
+            "handovers=%d warmHits=%d coldStarts=%d warmFailures=%d hidden=%dms exposed=%dms (cap %d)",
+            getHandoverCount(), getWarmHitCount(), getColdStartCount(), getWarmFailureCount(),
+            getHiddenLatencyMillis(), getExposedLatencyMillis(), maxWarm);
+    }
+
+    private static class WarmSession {
+        final long startedNanos = System.nanoTime();
+        volatile long finishedNanos = Long.MAX_VALUE;
+        CompletableFuture<IOSDriver> future;
+    }
+}
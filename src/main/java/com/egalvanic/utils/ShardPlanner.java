@@ -0,0 +1,134 @@
+package com.egalvanic.utils;
+
+import com.egalvanic.constants.AppConstants;
+import org.testng.IMethodInstance;
+import org.testng.IMethodInterceptor;
+import org.testng.ITestContext;
+import org.testng.ITestNGMethod;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keeps only this process's share of the tests when the suite is split
+ * across SHARD_COUNT processes or CI nodes
+ *
+ * Every shard plans the whole suite the same way and keeps its own part,
+ * so no coordination is needed - only the same test classes and the same
+ * TestHistory file (restore it from the CI cache before the run). Units
+ * are balanced on their historical durations, largest first onto the
+ * least loaded shard; ties break on name and shard index, so the plan is
+ * deterministic. A class with @BeforeClass fixtures is one unit and runs
+ * whole on one shard; other classes are split per method.
+ *
+ * No-op when SHARD_COUNT is 1. Register before HistoryOrderInterceptor so
+ * its prediction covers only this shard.
+ */
+public class ShardPlanner implements IMethodInterceptor {
+
+    private final int shardCount;
+    private final int shardIndex;
+
+    public ShardPlanner() {
+        this(AppConstants.SHARD_COUNT, AppConstants.SHARD_INDEX);
+    }
+
+    ShardPlanner(int shardCount, int shardIndex) {
+        if (shardCount < 1 || shardIndex < 0 || shardIndex >= shardCount) {
+            throw new IllegalArgumentException("Invalid shard " + shardIndex + " of " + shardCount
+                + " (SHARD_INDEX is 0-based)");
+        }
+        this.shardCount = shardCount;
+        this.shardIndex = shardIndex;
+    }
+
+    @Override
+    public List<IMethodInstance> intercept(List<IMethodInstance> methods, ITestContext context) {
+        if (shardCount == 1) {
+            return methods;
+        }
+        Map<String, Long> unitWeights = new HashMap<>();
+        Map<String, Long> estimates = new HashMap<>();
+        long knownTotal = 0;
+        for (IMethodInstance method : methods) {
+            String key = HistoryOrderInterceptor.keyOf(method.getMethod());
+            Long estimate = TestHistory.estimateMillis(key);
+            if (estimate != null) {
+                estimates.put(key, estimate);
+                knownTotal += estimate;
+            }
+        }
+        // Without any history every test weighs the same, which balances on count
+        long unknownEstimate = Math.max(1, estimates.isEmpty() ? 1 : knownTotal / estimates.size());
+        for (IMethodInstance method : methods) {
+            String key = HistoryOrderInterceptor.keyOf(method.getMethod());
+            unitWeights.merge(unitOf(method.getMethod()), estimates.getOrDefault(key, unknownEstimate), Long::sum);
+        }
+
+        Map<String, Integer> plan = assign(unitWeights, shardCount);
+        List<IMethodInstance> kept = new ArrayList<>();
+        for (IMethodInstance method : methods) {
+            if (plan.get(unitOf(method.getMethod())) == shardIndex) {
+                kept.add(method);
+            }
+        }
+        long[] loads = loads(plan, unitWeights, shardCount);
+        String balance = estimates.isEmpty() ? "no history, balanced on count"
+            : "planned " + loads[shardIndex] + "ms, largest shard " + max(loads) + "ms";
+        System.out.println("✔ Shard " + shardIndex + " of " + shardCount + ": " + kept.size() + "/"
+            + methods.size() + " tests (" + balance + ")");
+        return kept;
+    }
+
+    /**
+     * Shard per unit: largest unit first onto the least loaded shard
+     */
+    static Map<String, Integer> assign(Map<String, Long> unitWeights, int shardCount) {
+        List<Map.Entry<String, Long>> units = new ArrayList<>(unitWeights.entrySet());
+        units.sort(Map.Entry.<String, Long>comparingByValue().reversed()
+            .thenComparing(Map.Entry.comparingByKey()));
+
+        long[] loads = new long[shardCount];
+        Map<String, Integer> plan = new LinkedHashMap<>();
+        for (Map.Entry<String, Long> unit : units) {
+            int lightest = 0;
+            for (int shard = 1; shard < shardCount; shard++) {
+                if (loads[shard] < loads[lightest]) {
+                    lightest = shard;
+                }
+            }
+            loads[lightest] += unit.getValue();
+            plan.put(unit.getKey(), lightest);
+        }
+        return plan;
+    }
+
+    /**
+     * Whole class when it has class-level fixtures, otherwise the single method
+     */
+    static String unitOf(ITestNGMethod method) {
+        if (method.getTestClass().getBeforeClassMethods().length > 0) {
+            return method.getRealClass().getName();
+        }
+        return HistoryOrderInterceptor.keyOf(method);
+    }
+
+    private static long[] loads(Map<String, Integer> plan, Map<String, Long> unitWeights, int shardCount) {
+        long[] loads = new long[shardCount];
+        for (Map.Entry<String, Integer> unit : plan.entrySet()) {
+            loads[unit.getValue()] += unitWeights.get(unit.getKey());
+        }
+        return loads;
+    }
+
+    private static long max(long[] values) {
+        long max = 0;
+        for (long value : values) {
+            max = Math.max(max, value);
+        }
+        return max;
+    }
+}
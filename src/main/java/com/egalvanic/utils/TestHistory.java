@@ -0,0 +1,155 @@
+package com.egalvanic.utils;
+
+import com.egalvanic.constants.AppConstants;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Per-test durations and outcomes across runs
+ *
+ * Append-only tab-separated file, one line per finished test
+ * (epoch ms, class.method, duration ms, PASS/FAIL). Only the last few runs
+ * of each test are kept in memory: the estimate is their median duration,
+ * and a failure among the last FAILURE_WINDOW runs marks the test as
+ * recently failed. Written by TestHistoryRecorder, read by
+ * HistoryOrderInterceptor and ShardPlanner.
+ */
+public final class TestHistory {
+
+    static final int SAMPLES = 5;
+    static final int FAILURE_WINDOW = 3;
+
+    // Test key -> most recent runs, newest last
+    private static final Map<String, Deque<Run>> runs = new HashMap<>();
+
+    private static File file = new File(AppConstants.TEST_HISTORY_PATH);
+    private static boolean loaded;
+
+    private TestHistory() {}
+
+    /**
+     * Append one finished test to the store
+     */
+    public static synchronized void record(String testKey, long millis, boolean passed) {
+        load();
+        remember(testKey, new Run(millis, passed));
+        try {
+            File parent = file.getAbsoluteFile().getParentFile();
+            if (parent != null) {
+                parent.mkdirs();
+            }
+            try (Writer writer = new FileWriter(file, true)) {
+                writer.write(System.currentTimeMillis() + "\t" + testKey + "\t" + millis + "\t"
+                    + (passed ? "PASS" : "FAIL") + System.lineSeparator());
+            }
+        } catch (IOException e) {
+            System.err.println("Could not append to test history " + file + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Median of the recent durations, or null for a test never seen
+     */
+    public static synchronized Long estimateMillis(String testKey) {
+        load();
+        Deque<Run> recent = runs.get(testKey);
+        if (recent == null || recent.isEmpty()) {
+            return null;
+        }
+        List<Long> durations = new ArrayList<>();
+        Iterator<Run> newestFirst = recent.descendingIterator();
+        for (int i = 0; i < SAMPLES && newestFirst.hasNext(); i++) {
+            durations.add(newestFirst.next().millis);
+        }
+        Collections.sort(durations);
+        return durations.get(durations.size() / 2);
+    }
+
+    /**
+     * Whether the test failed in one of its last FAILURE_WINDOW runs
+     */
+    public static synchronized boolean failedRecently(String testKey) {
+        load();
+        Deque<Run> recent = runs.get(testKey);
+        if (recent == null) {
+            return false;
+        }
+        Iterator<Run> newestFirst = recent.descendingIterator();
+        for (int i = 0; i < FAILURE_WINDOW && newestFirst.hasNext(); i++) {
+            if (!newestFirst.next().passed) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Point the store at another file (used by offline tests)
+     */
+    public static synchronized void useFile(File historyFile) {
+        file = historyFile;
+        runs.clear();
+        loaded = false;
+    }
+
+    // ================================================================
+    // PERSISTENCE
+    // ================================================================
+
+    private static void remember(String testKey, Run run) {
+        Deque<Run> recent = runs.computeIfAbsent(testKey, k -> new ArrayDeque<>());
+        recent.addLast(run);
+        while (recent.size() > Math.max(SAMPLES, FAILURE_WINDOW)) {
+            recent.removeFirst();
+        }
+    }
+
+    private static void load() {
+        if (loaded) {
+            return;
+        }
+        loaded = true;
+        if (!file.exists()) {
+            return;
+        }
+        try (BufferedReader reader = new BufferedReader(new FileReader(file))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String[] fields = line.split("\t");
+                if (fields.length < 4) {
+                    continue;
+                }
+                try {
+                    remember(fields[1], new Run(Long.parseLong(fields[2]), "PASS".equals(fields[3])));
+                } catch (NumberFormatException e) {
+                    // Skip a torn line from an interrupted run
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("Could not read test history " + file + ": " + e.getMessage());
+        }
+    }
+
+    private static final class Run {
+        final long millis;
+        final boolean passed;
+
+        Run(long millis, boolean passed) {
+            this.millis = millis;
+            this.passed = passed;
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.egalvanic.utils;
+
+import org.testng.ITestListener;
+import org.testng.ITestResult;
+
+/**
+ * Records every finished test into TestHistory
+ *
+ * Kept apart from HistoryOrderInterceptor so suites that keep their
+ * declared order (testng.xml) still build up the history that sharding
+ * and the parallel suite's ordering read. Register in every suite:
+ *   <listener class-name="com.egalvanic.utils.TestHistoryRecorder"/>
+ */
+public class TestHistoryRecorder implements ITestListener {
+
+    @Override
+    public void onTestSuccess(ITestResult result) {
+        record(result, true);
+    }
+
+    @Override
+    public void onTestFailure(ITestResult result) {
+        record(result, false);
+    }
+
+    private static void record(ITestResult result, boolean passed) {
+        TestHistory.record(HistoryOrderInterceptor.keyOf(result.getMethod()),
+            result.getEndMillis() - result.getStartMillis(), passed);
+    }
+}
@@ -0,0 +1,123 @@
+package com.egalvanic.utils;
+
+import io.appium.java_client.AppiumClientConfig;
+import io.appium.java_client.MobileCommand;
+import io.appium.java_client.remote.AppiumCommandExecutor;
+import org.openqa.selenium.remote.Command;
+import org.openqa.selenium.remote.DriverCommand;
+import org.openqa.selenium.remote.Response;
+
+import java.net.URL;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Appium command executor that times every command it sends
+ *
+ * DriverManager builds each IOSDriver on one of these, so session creation,
+ * find commands (including implicit-wait stalls on the server), screenshots
+ * and every other call land in CommandTimings, the FlightRecorder and JFR
+ * (FrameworkEvents) without touching page code. Commands that change the
+ * UI also run the UI change listener, which BasePage uses to drop its
+ * cached page snapshot whichever code path sent the command.
+ */
+public class TimedCommandExecutor extends AppiumCommandExecutor {
+
+    // "findElement" + strategy -> "findElement[accessibility id]", built once
+    private static final Map<String, Map<Object, String>> FIND_KEYS = new ConcurrentHashMap<>();
+
+    // Commands after which a page source read earlier may no longer be current
+    private static final Set<String> UI_CHANGING = Set.of(
+        DriverCommand.CLICK_ELEMENT, DriverCommand.SEND_KEYS_TO_ELEMENT, DriverCommand.CLEAR_ELEMENT,
+        DriverCommand.ACTIONS, DriverCommand.EXECUTE_SCRIPT, DriverCommand.EXECUTE_ASYNC_SCRIPT,
+        DriverCommand.GO_BACK, "hideKeyboard", "activateApp", "terminateApp");
+    // Scripts that only read state, e.g. driver.isKeyboardShown()
+    private static final Set<String> READ_ONLY_SCRIPTS = Set.of(
+        "mobile: isKeyboardShown", "mobile: activeAppInfo", "mobile: queryAppState", "mobile: deviceInfo",
+        "mobile: getDeviceTime", "mobile: batteryInfo");
+
+    private static volatile Runnable uiChangeListener = () -> { };
+
+    public TimedCommandExecutor(URL serverUrl) {
+        super(MobileCommand.commandRepository, AppiumClientConfig.defaultConfig().baseUrl(serverUrl));
+    }
+
+    @Override
+    public Response execute(Command command) {
+        FrameworkEvents.CommandEvent event = new FrameworkEvents.CommandEvent();
+        event.begin();
+        long start = System.nanoTime();
+        String outcome = null;
+        try {
+            Response response = super.execute(command);
+            Integer status = response.getStatus();
+            if (status != null && status != 0) {
+                outcome = response.getState();
+            }
+            return response;
+        } catch (RuntimeException e) {
+            outcome = e.getClass().getSimpleName();
+            throw e;
+        } finally {
+            long nanos = System.nanoTime() - start;
+            String key = keyOf(command);
+            CommandTimings.record(key, nanos);
+            FlightRecorder.record(key, targetOf(command), nanos, outcome);
+            if (changesUi(command)) {
+                uiChangeListener.run();
+            }
+            event.end();
+            if (event.shouldCommit()) {
+                event.test = FrameworkEvents.currentTest();
+                event.command = key;
+                event.target = targetOf(command);
+                event.outcome = outcome;
+                event.commit();
+            }
+        }
+    }
+
+    /**
+     * Run after every UI-changing command, on the thread that sent it
+     * (failed ones too - a click may land before the error)
+     */
+    public static void setUiChangeListener(Runnable listener) {
+        uiChangeListener = listener;
+    }
+
+    static boolean changesUi(Command command) {
+        if (!UI_CHANGING.contains(command.getName())) {
+            return false;
+        }
+        Object script = command.getParameters().get("script");
+        return !(script instanceof String && READ_ONLY_SCRIPTS.contains(script));
+    }
+
+    /**
+     * Locator value of a find command, null for other commands
+     */
+    static String targetOf(Command command) {
+        if (!command.getName().startsWith("find")) {
+            return null;
+        }
+        Object value = command.getParameters().get("value");
+        return value instanceof String ? (String) value : null;
+    }
+
+    /**
+     * Histogram key: the command name, plus the locator strategy for find commands
+     */
+    static String keyOf(Command command) {
+        String name = command.getName();
+        if (!name.startsWith("find")) {
+            return name;
+        }
+        Object using = command.getParameters().get("using");
+        if (using == null) {
+            return name;
+        }
+        return FIND_KEYS.computeIfAbsent(name, k -> new ConcurrentHashMap<>())
+            .computeIfAbsent(using, u -> name + "[" + u + "]");
+    }
+}
@@ -0,0 +1,88 @@
+package com.egalvanic.base;
+
+import com.egalvanic.stub.StubAppiumServer;
+import com.egalvanic.stub.StubDriverFixture;
+import io.appium.java_client.AppiumBy;
+import io.appium.java_client.ios.IOSDriver;
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+/**
+ * Tiered reset of pooled sessions against the scripted stub app
+ */
+public class AppResetterTest {
+
+    private StubDriverFixture fixture;
+    private StubAppiumServer stub;
+
+    @BeforeMethod
+    public void startStub() {
+        AppResetter.resetStats();
+        fixture = StubDriverFixture.start(StubDriverFixture.welcomeAndLogin()
+            .addScreen("dashboard", StubAppiumServer.loadFixture("/fixtures/dashboard_page.xml"))
+            .onTap("welcome", "info", "dashboard"), AppResetter::reset);
+        stub = fixture.getStub();
+    }
+
+    @AfterMethod(alwaysRun = true)
+    public void stopStub() {
+        fixture.close();
+    }
+
+    /** Leave the leased app on the given screen, hand it back and lease again */
+    private IOSDriver releaseDirtyAndLease(String screen) {
+        IOSDriver driver = fixture.getDriver();
+        if ("login".equals(screen)) {
+            driver.findElement(AppiumBy.iOSNsPredicateString("type == 'XCUIElementTypeTextField'")).sendKeys("acme");
+            driver.findElement(AppiumBy.accessibilityId("Continue")).click();
+        } else if ("dashboard".equals(screen)) {
+            driver.findElement(AppiumBy.accessibilityId("info")).click();
+        }
+        Assert.assertEquals(stub.getScreen(driver.getSessionId().toString()), screen);
+        fixture.release();
+        return fixture.lease();
+    }
+
+    @Test
+    public void cleanWelcomeNeedsNoReset() {
+        releaseDirtyAndLease("welcome");
+
+        Assert.assertEquals(AppResetter.getCount(AppResetter.Tier.CLEAN), 1);
+        Assert.assertEquals(stub.getCommandCount("execute:mobile: terminateApp"), 0);
+    }
+
+    @Test
+    public void navigatesBackInsteadOfRelaunching() {
+        IOSDriver driver = releaseDirtyAndLease("login");
+
+        Assert.assertEquals(stub.getScreen(driver.getSessionId().toString()), "welcome");
+        Assert.assertEquals(AppResetter.getCount(AppResetter.Tier.NAVIGATE_BACK), 1);
+        Assert.assertEquals(stub.getCommandCount("execute:mobile: terminateApp"), 0,
+            "In-app navigation should be enough");
+    }
+
+    @Test
+    public void relaunchesWhenNoWayBack() {
+        IOSDriver driver = releaseDirtyAndLease("dashboard");
+
+        Assert.assertEquals(stub.getScreen(driver.getSessionId().toString()), "welcome");
+        Assert.assertEquals(AppResetter.getCount(AppResetter.Tier.RELAUNCH), 1);
+        Assert.assertEquals(stub.getCommandCount("execute:mobile: terminateApp"), 1);
+        Assert.assertEquals(stub.getCommandCount("execute:mobile: clearKeychains"), 0,
+            "Keychain should only be cleared when a plain relaunch is not enough");
+        Assert.assertEquals(stub.getSessionsCreated(), 1);
+    }
+
+    @Test
+    public void restartsSessionWhenEveryTierFails() {
+        stub.failCommand("execute:mobile: activateApp", 1.0);
+        IOSDriver driver = releaseDirtyAndLease("dashboard");
+
+        Assert.assertEquals(AppResetter.getCount(AppResetter.Tier.RESTART_SESSION), 1);
+        Assert.assertEquals(stub.getSessionsCreated(), 2, "Pool should replace the session");
+        Assert.assertEquals(stub.getScreen(driver.getSessionId().toString()), "welcome");
+        Assert.assertTrue(AppResetter.getReport().contains("RESTART_SESSION"));
+    }
+}
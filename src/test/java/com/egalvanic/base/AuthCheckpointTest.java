@@ -0,0 +1,100 @@
+package com.egalvanic.base;
+
+import com.egalvanic.stub.StubAppiumServer;
+import com.egalvanic.stub.StubDriverFixture;
+import io.appium.java_client.AppiumBy;
+import io.appium.java_client.ios.IOSDriver;
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+/**
+ * Authenticated checkpoint kept across pooled leases of the scripted stub app
+ */
+public class AuthCheckpointTest {
+
+    private StubDriverFixture fixture;
+    private StubAppiumServer stub;
+
+    @BeforeMethod
+    public void startStub() {
+        AuthCheckpoint.reset();
+        AppResetter.resetStats();
+        fixture = StubDriverFixture.start(StubDriverFixture.welcomeAndLogin()
+            .addScreen("home", StubAppiumServer.loadFixture("/fixtures/home_page.xml"))
+            .onTap("login", "Sign In", "home")
+            .onTap("home", "Log Out", "welcome"), AppResetter::reset);
+        stub = fixture.getStub();
+    }
+
+    @AfterMethod(alwaysRun = true)
+    public void stopStub() {
+        AuthCheckpoint.require(false);
+        fixture.close();
+    }
+
+    /** First authenticated test on the new session: log in and take the checkpoint */
+    private IOSDriver logIn() {
+        AuthCheckpoint.require(true);
+        IOSDriver driver = fixture.getDriver();
+        Assert.assertFalse(AuthCheckpoint.resume(driver), "A new session has no checkpoint");
+        long start = System.nanoTime();
+        driver.findElement(AppiumBy.iOSNsPredicateString("type == 'XCUIElementTypeTextField'")).sendKeys("acme");
+        driver.findElement(AppiumBy.accessibilityId("Continue")).click();
+        driver.findElement(AppiumBy.accessibilityId("Sign In")).click();
+        Assert.assertTrue(AuthCheckpoint.establish(driver, System.nanoTime() - start));
+        AuthCheckpoint.recordTest("first", 0);
+        return driver;
+    }
+
+    @Test
+    public void laterAuthenticatedTestsResumeWithoutLoggingIn() {
+        logIn();
+        fixture.release();
+
+        for (int test = 0; test < 3; test++) {
+            AuthCheckpoint.require(true);
+            IOSDriver driver = fixture.lease();
+            Assert.assertTrue(AuthCheckpoint.resume(driver));
+            Assert.assertEquals(stub.getScreen(driver.getSessionId().toString()), "home");
+            AuthCheckpoint.recordTest("resumed" + test, 0);
+            fixture.release();
+        }
+
+        Assert.assertEquals(AuthCheckpoint.getLoginCount(), 1, "Login flow should run once per session");
+        Assert.assertEquals(AuthCheckpoint.getResumeCount(), 3);
+        Assert.assertEquals(AppResetter.getCount(AppResetter.Tier.CHECKPOINT), 3);
+        Assert.assertEquals(stub.getCommandCount("clickElement"), 2, "Only the first test taps through login");
+        Assert.assertEquals(stub.getCommandCount("execute:mobile: terminateApp"), 0);
+        Assert.assertEquals(AuthCheckpoint.getTestPhases().size(), 4);
+        Assert.assertTrue(AuthCheckpoint.getReport().contains("resumed2"));
+    }
+
+    @Test
+    public void unauthenticatedTestDropsCheckpointAndResetsToWelcome() {
+        logIn();
+        fixture.release();
+
+        AuthCheckpoint.require(false);
+        IOSDriver driver = fixture.lease();
+
+        Assert.assertEquals(stub.getScreen(driver.getSessionId().toString()), "welcome");
+        Assert.assertFalse(AuthCheckpoint.hasCheckpoint(driver));
+        Assert.assertEquals(AuthCheckpoint.getInvalidationCount(), 1);
+    }
+
+    @Test
+    public void logoutInvalidatesCheckpoint() {
+        IOSDriver driver = logIn();
+        driver.findElement(AppiumBy.accessibilityId("Log Out")).click();
+        fixture.release();
+
+        AuthCheckpoint.require(true);
+        driver = fixture.lease();
+
+        Assert.assertFalse(AuthCheckpoint.resume(driver), "Logged-out session must log in again");
+        Assert.assertEquals(AuthCheckpoint.getInvalidationCount(), 1);
+        Assert.assertEquals(AuthCheckpoint.getResumeCount(), 0);
+    }
+}
@@ -0,0 +1,16 @@
+package com.egalvanic.base;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a test that starts logged in at the home screen
+ * BaseTest resumes the session's authenticated checkpoint, or logs in
+ * once and takes it (see AuthCheckpoint)
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface Authenticated {
+}
@@ -1,22 +1,44 @@
 package com.egalvanic.base;
 
 import com.egalvanic.constants.AppConstants;
+import com.egalvanic.pages.AppScreens;
 import com.egalvanic.pages.LoginPage;
 import com.egalvanic.pages.WelcomePage;
 import com.egalvanic.utils.DriverManager;
+import com.egalvanic.utils.CapturedScreenshot;
+import com.egalvanic.utils.CommandTimings;
 import com.egalvanic.utils.ExtentReportManager;
+import com.egalvanic.utils.FlightRecorder;
+import com.egalvanic.utils.ScreenshotPipeline;
+import com.egalvanic.utils.ScreenshotStore;
 import com.egalvanic.utils.ScreenshotUtil;
+import io.appium.java_client.ios.IOSDriver;
 import org.testng.ITestResult;
 import org.testng.annotations.*;
 
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
 /**
  * Base Test class - All test classes extend this
  * Handles driver lifecycle, report initialization, and result handling
+ * 
+ * Page objects are per thread, so one test class instance can run its
+ * methods in parallel (see testng-parallel.xml)
+ *
+ * Abstract so surefire does not run its suite hooks on their own in unit runs
  */
-public class BaseTest {
+public abstract class BaseTest {
+
+    private static final ThreadLocal<WelcomePage> welcomePage = new ThreadLocal<>();
+    private static final ThreadLocal<LoginPage> loginPage = new ThreadLocal<>();
 
-    protected WelcomePage welcomePage;
-    protected LoginPage loginPage;
+    // Reset action in place before this suite, restored after it
+    private static Consumer<IOSDriver> previousResetAction;
 
     // ================================================================
     // SUITE LEVEL SETUP/TEARDOWN
@@ -31,14 +53,25 @@ public class BaseTest {
         // Initialize both Extent Reports
         ExtentReportManager.initReports();
         
+        // Reused sessions go back to Welcome via the cheapest working tier
+        previousResetAction = DriverManager.setResetAction(AppResetter::reset);
+        
         // Clean up old screenshots
         ScreenshotUtil.cleanupScreenshots();
     }
 
     @AfterSuite
     public void afterSuite() {
-        // Flush both reports
+        // Quit pooled driver sessions
+        DriverManager.shutdownPool();
+        if (previousResetAction != null) {
+            DriverManager.setResetAction(previousResetAction);
+            previousResetAction = null;
+        }
+        
+        // Flush both reports, then finish pending screenshot files
         ExtentReportManager.flushReports();
+        ScreenshotPipeline.shutdown();
         
         System.out.println("========================================");
         System.out.println("  eGalvanic iOS Automation - Complete");
@@ -46,6 +79,21 @@ public class BaseTest {
         System.out.println("Reports generated:");
         System.out.println("  - Detailed: " + AppConstants.DETAILED_REPORT_PATH);
         System.out.println("  - Client:   " + AppConstants.CLIENT_REPORT_PATH);
+        System.out.println("Adaptive waits (actual vs. legacy fixed sleep):");
+        System.out.print(WaitEngine.getReport());
+        System.out.println("✔ Screenshots: " + ScreenshotPipeline.getSummary());
+        System.out.println("✔ Screenshot store: " + ScreenshotStore.getSummary());
+        System.out.println("✔ Page snapshots: " + BasePage.getSnapshotFetchCount() + " fetches, "
+            + BasePage.getLocalQueryCount() + " local queries, "
+            + BasePage.getRemoteFallbackCount() + " remote fallbacks");
+        System.out.println("App resets between tests:");
+        System.out.print(AppResetter.getReport());
+        System.out.println("Login flow vs. test body:");
+        System.out.print(AuthCheckpoint.getReport());
+        System.out.println("Screen transitions:");
+        System.out.print(AppScreens.graph().getReport());
+        System.out.print(KeyboardState.getReport());
+        writeCommandLatencies();
     }
 
     // ================================================================
@@ -53,13 +101,31 @@ public class BaseTest {
     // ================================================================
 
     @BeforeMethod
-    public void beforeMethod() {
-        // Initialize driver
-        DriverManager.initDriver();
+    public void beforeMethod(Method method) {
+        // Time this test's driver commands from session lease onwards
+        CommandTimings.startTest(method.getDeclaringClass().getSimpleName() + "." + method.getName());
+        FlightRecorder.clear();
+        
+        // Declared before the lease, so the pool keeps an authenticated session as is
+        boolean authenticated = method.isAnnotationPresent(Authenticated.class);
+        AuthCheckpoint.require(authenticated);
+        
+        // Initialize driver (leased from the session pool when enabled)
+        if (method.isAnnotationPresent(FreshSession.class)) {
+            DriverManager.initFreshDriver();
+        } else {
+            DriverManager.initDriver();
+        }
+        // A pooled session is the same driver instance after reset
+        BasePage.invalidateSnapshot();
         
-        // Initialize page objects
-        welcomePage = new WelcomePage();
-        loginPage = new LoginPage();
+        if (authenticated) {
+            startAuthenticated();
+        } else {
+            // Initialize page objects
+            welcomePage.set(new WelcomePage());
+            loginPage.set(new LoginPage());
+        }
         
         System.out.println("✔ Test setup complete");
     }
@@ -68,10 +134,20 @@ public class BaseTest {
     public void afterMethod(ITestResult result) {
         // Handle test result for reports
         handleTestResult(result);
+        recordTestPhases(result);
+        
+        // A failed test may have left the app anywhere - log in again next time
+        if (result.getStatus() == ITestResult.FAILURE && DriverManager.isDriverActive()) {
+            AuthCheckpoint.invalidate(DriverManager.getDriver());
+        }
         
         // Clean up
         ExtentReportManager.removeTests();
         DriverManager.quitDriver();
+        welcomePage.remove();
+        loginPage.remove();
+        AuthCheckpoint.require(false);
+        CommandTimings.endTest();
         
         System.out.println("✔ Test cleanup complete");
     }
@@ -92,18 +168,19 @@ public class BaseTest {
         
         switch (result.getStatus()) {
             case ITestResult.SUCCESS:
-                ExtentReportManager.logStepWithScreenshot("Test PASSED: " + testName, null);
+                ExtentReportManager.logStepWithScreenshot("Test PASSED: " + testName,
+                    ScreenshotPipeline.capture(testName + "_PASSED"));
                 System.out.println("✔ PASSED: " + testName);
                 break;
                 
             case ITestResult.FAILURE:
                 // Capture screenshot on failure (for detailed report only)
-                String screenshotPath = ScreenshotUtil.captureScreenshot(testName + "_FAILED");
+                CapturedScreenshot screenshot = ScreenshotPipeline.capture(testName + "_FAILED");
                 
-                if (screenshotPath != null) {
+                if (screenshot != null) {
                     ExtentReportManager.logFailWithScreenshot(
                         "Test FAILED: " + testName,
-                        screenshotPath
+                        screenshot
                     );
                 } else {
                     ExtentReportManager.logFail(
@@ -111,6 +188,7 @@ public class BaseTest {
                         result.getThrowable()
                     );
                 }
+                dumpFlightRecorder(result);
                 System.out.println("✗ FAILED: " + testName);
                 break;
                 
@@ -124,29 +202,108 @@ public class BaseTest {
         }
     }
 
+    /**
+     * Commands that led up to a failure: into the detailed report and a binary file
+     */
+    private void dumpFlightRecorder(ITestResult result) {
+        List<FlightRecorder.Entry> entries = FlightRecorder.snapshot();
+        if (entries.isEmpty()) {
+            return;
+        }
+        ExtentReportManager.logInfo(FlightRecorder.toHtml(entries));
+        String name = result.getTestClass().getRealClass().getSimpleName() + "." + result.getMethod().getMethodName()
+            + "_" + System.currentTimeMillis() + ".bin";
+        try {
+            File file = FlightRecorder.write(entries, new File(AppConstants.FLIGHT_RECORDER_PATH, name));
+            System.out.println("✔ Flight recorder: " + entries.size() + " commands in " + file.getPath());
+        } catch (IOException e) {
+            System.err.println("Failed to write flight recorder dump: " + e.getMessage());
+        }
+    }
+
     // ================================================================
     // HELPER METHODS FOR TESTS
     // ================================================================
 
+    /**
+     * Welcome page of the current test thread
+     * (created on first use in @Authenticated tests)
+     */
+    protected WelcomePage welcomePage() {
+        if (welcomePage.get() == null) {
+            welcomePage.set(new WelcomePage());
+        }
+        return welcomePage.get();
+    }
+
+    /**
+     * Login page of the current test thread
+     */
+    protected LoginPage loginPage() {
+        if (loginPage.get() == null) {
+            loginPage.set(new LoginPage());
+        }
+        return loginPage.get();
+    }
+
     /**
      * Navigate to Login page by entering valid company code
+     * (arrival is verified by the screen graph)
      */
     protected void navigateToLoginPage() {
-        welcomePage.submitCompanyCode(AppConstants.VALID_COMPANY_CODE);
-        // Wait for login page to load
-        try {
-            Thread.sleep(AppConstants.PAGE_LOAD_WAIT);
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-        }
+        goTo(LoginPage.SCREEN);
     }
 
     /**
      * Complete full login with valid credentials
      */
     protected void performValidLogin() {
-        navigateToLoginPage();
-        loginPage.login(AppConstants.VALID_EMAIL, AppConstants.VALID_PASSWORD);
+        goTo(AppScreens.HOME);
+    }
+
+    /**
+     * Jump to a test's start screen along the cheapest known path,
+     * without relaunching the app
+     */
+    protected void goTo(String screen) {
+        AppScreens.navigateTo(screen);
+    }
+
+    /**
+     * Start an @Authenticated test: resume the session's checkpoint,
+     * or run the login flow once and take it
+     */
+    private void startAuthenticated() {
+        IOSDriver driver = DriverManager.getDriver();
+        if (AuthCheckpoint.resume(driver)) {
+            System.out.println("✔ Resumed authenticated checkpoint");
+            return;
+        }
+        long start = System.nanoTime();
+        performValidLogin();
+        if (!AuthCheckpoint.establish(driver, System.nanoTime() - start)) {
+            throw new IllegalStateException("Login precondition failed: app did not reach the home screen");
+        }
+    }
+
+    /**
+     * Call after a test logs out, so the next @Authenticated test logs in again
+     */
+    protected void markLoggedOut() {
+        AuthCheckpoint.invalidate(DriverManager.getDriver());
+    }
+
+    /**
+     * Login-flow time vs. test-body time, to the console and the detailed report
+     */
+    private void recordTestPhases(ITestResult result) {
+        long bodyMillis = result.getEndMillis() - result.getStartMillis();
+        AuthCheckpoint.recordTest(result.getTestClass().getRealClass().getSimpleName() + "."
+            + result.getMethod().getMethodName(), TimeUnit.MILLISECONDS.toNanos(bodyMillis));
+        if (AuthCheckpoint.isRequired()) {
+            ExtentReportManager.logInfo("Login flow: " + AuthCheckpoint.getLoginMillis() + " ms, test body: "
+                + bodyMillis + " ms");
+        }
     }
 
     /**
@@ -160,11 +317,11 @@ public class BaseTest {
      * Log step with screenshot to detailed report only
      */
     protected void logStepWithScreenshot(String stepDescription) {
-        String screenshotPath = ScreenshotUtil.captureScreenshot(
-            stepDescription.replaceAll("[^a-zA-Z0-9]", "_")
-        );
-        if (screenshotPath != null) {
-            ExtentReportManager.logStepWithScreenshot(stepDescription, screenshotPath);
+        CapturedScreenshot screenshot = ScreenshotPipeline.capture(stepDescription);
+        if (screenshot != null) {
+            // File and report copy from one capture, where there used to be two
+            ScreenshotPipeline.recordReuse(screenshot);
+            ExtentReportManager.logStepWithScreenshot(stepDescription, screenshot);
         } else {
             ExtentReportManager.logInfo(stepDescription);
         }
@@ -174,10 +331,19 @@ public class BaseTest {
      * Wait utility for tests
      */
     protected void waitSeconds(int seconds) {
+        CommandTimings.sleep(seconds * 1000L);
+    }
+
+    /**
+     * Print the slowest commands and write the JSON latency summary
+     */
+    private void writeCommandLatencies() {
+        System.out.println("Driver command latency (slowest total first):");
+        System.out.print(CommandTimings.getReport());
         try {
-            Thread.sleep(seconds * 1000L);
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
+            System.out.println("  - Latency:  " + CommandTimings.writeSummary(AppConstants.COMMAND_LATENCY_REPORT));
+        } catch (IOException e) {
+            System.out.println("✗ Could not write command latency summary: " + e.getMessage());
         }
     }
 }
@@ -0,0 +1,105 @@
+package com.egalvanic.base;
+
+import com.egalvanic.pages.WelcomePage;
+import com.egalvanic.stub.StubAppiumServer;
+import com.egalvanic.stub.StubDriverFixture;
+import io.appium.java_client.AppiumBy;
+import org.openqa.selenium.By;
+import org.openqa.selenium.Rectangle;
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+/**
+ * Element state read in one pass from the snapshot, against the stub welcome screen
+ */
+public class ElementStateTest {
+
+    private static final By CONTINUE = AppiumBy.accessibilityId("Continue");
+    private static final By COMPANY_CODE = AppiumBy.iOSNsPredicateString("type == 'XCUIElementTypeTextField'");
+
+    private StubDriverFixture fixture;
+    private StubAppiumServer stub;
+    private WelcomePage page;
+
+    @BeforeMethod
+    public void startStub() {
+        fixture = StubDriverFixture.start(new StubAppiumServer()
+            .addScreen("welcome", StubAppiumServer.loadFixture("/fixtures/welcome_page.xml"))
+            .setInitialScreen("welcome"));
+        stub = fixture.getStub();
+        page = new WelcomePage();
+        BasePage.invalidateSnapshot();
+    }
+
+    @AfterMethod(alwaysRun = true)
+    public void stopStub() {
+        fixture.close();
+    }
+
+    @Test
+    public void allAttributesFromOnePageSourceFetch() {
+        int sources = stub.getCommandCount("getPageSource");
+
+        ElementState field = page.stateOf(COMPANY_CODE);
+        ElementState button = page.stateOf(AppiumBy.accessibilityId("Missing"), CONTINUE);
+
+        Assert.assertEquals(stub.getCommandCount("getPageSource") - sources, 1);
+        Assert.assertEquals(stub.getCommandCount("findElement") + stub.getCommandCount("findElements"), 0);
+        Assert.assertTrue(field.isDisplayed());
+        Assert.assertTrue(field.isEmpty(), "Placeholder only counts as empty");
+        Assert.assertFalse(field.isBlank());
+        Assert.assertEquals(field.getType(), "XCUIElementTypeTextField");
+        Assert.assertEquals(field.getRect(), new Rectangle(40, 305, 44, 310));
+        Assert.assertEquals(button.getLabel(), "Continue");
+        Assert.assertFalse(button.isEnabled());
+        Assert.assertFalse(page.stateOf(AppiumBy.accessibilityId("Missing")).isPresent());
+    }
+
+    @Test
+    public void snapshotStateMatchesRemoteElement() {
+        ElementState local = page.stateOf(CONTINUE);
+        ElementState remote = ElementState.of(fixture.getDriver().findElement(CONTINUE));
+
+        Assert.assertEquals(remote.isDisplayed(), local.isDisplayed());
+        Assert.assertEquals(remote.isEnabled(), local.isEnabled());
+        Assert.assertEquals(remote.getName(), local.getName());
+        Assert.assertEquals(remote.getLabel(), local.getLabel());
+        Assert.assertEquals(remote.getRect(), local.getRect());
+    }
+
+    @Test
+    public void verificationMakesNoPerAttributeCalls() {
+        Assert.assertTrue(page.isCompanyCodeFieldEmpty());
+        Assert.assertFalse(page.isContinueButtonEnabled());
+
+        Assert.assertEquals(stub.getCommandCount("getElementAttribute"), 0);
+        Assert.assertEquals(stub.getCommandCount("isElementEnabled"), 0);
+        Assert.assertEquals(stub.getCommandCount("findElement"), 0);
+    }
+
+    @Test
+    public void anyClickMakesTheSnapshotStale() {
+        page.stateOf(CONTINUE);
+        int sources = stub.getCommandCount("getPageSource");
+
+        // Sent straight to the driver, not through a page action
+        fixture.getDriver().findElement(COMPANY_CODE).click();
+        page.stateOf(CONTINUE);
+
+        Assert.assertEquals(stub.getCommandCount("getPageSource") - sources, 1,
+            "The snapshot read before the click must not be reused");
+    }
+
+    @Test
+    public void settledScreenCostsOneFetchAfterASnapshot() {
+        page.stateOf(CONTINUE);
+        int sources = stub.getCommandCount("getPageSource");
+
+        page.shortWait();
+
+        Assert.assertEquals(stub.getCommandCount("getPageSource") - sources, 1,
+            "The cached snapshot is the first of the two identical sources");
+    }
+}
@@ -0,0 +1,105 @@
+package com.egalvanic.base;
+
+import com.egalvanic.constants.AppConstants;
+import com.egalvanic.utils.FlightRecorder;
+import org.testng.Assert;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * FallbackChain ordering and LocatorMemory persistence - no driver needed
+ */
+public class FallbackChainTest {
+
+    private File memoryFile;
+
+    @BeforeMethod
+    public void freshMemory() throws Exception {
+        memoryFile = new File(Files.createTempDirectory("locator-memory").toFile(), "memory.properties");
+        LocatorMemory.useFile(memoryFile, "build-1");
+    }
+
+    private FallbackChain<String> chain(List<String> tried, List<Duration> timeouts) {
+        return new FallbackChain<String>("Page.button")
+            .attempt("primary", timeout -> {
+                tried.add("primary");
+                timeouts.add(timeout);
+                throw new RuntimeException("not found");
+            })
+            .attempt("alt", timeout -> {
+                tried.add("alt");
+                timeouts.add(timeout);
+                return "clicked";
+            });
+    }
+
+    @Test
+    public void learnedStrategyIsTriedFirstWithShortTimeout() {
+        List<String> tried = new ArrayList<>();
+        List<Duration> timeouts = new ArrayList<>();
+
+        Assert.assertEquals(chain(tried, timeouts).run(), "clicked");
+        Assert.assertEquals(tried, List.of("primary", "alt"));
+        Assert.assertEquals(LocatorMemory.get("Page.button"), "alt");
+
+        tried.clear();
+        timeouts.clear();
+        Assert.assertEquals(chain(tried, timeouts).run(), "clicked");
+        Assert.assertEquals(tried, List.of("alt"), "Learned strategy should short-circuit the chain");
+        Assert.assertEquals(timeouts.get(0), Duration.ofSeconds(AppConstants.LEARNED_LOCATOR_TIMEOUT));
+    }
+
+    @Test
+    public void learnedOrderPersistsPerAppBuild() {
+        chain(new ArrayList<>(), new ArrayList<>()).run();
+        Assert.assertTrue(memoryFile.exists(), "Memory should be written to disk");
+
+        LocatorMemory.useFile(memoryFile, "build-1");
+        Assert.assertEquals(LocatorMemory.get("Page.button"), "alt", "Order should survive a reload");
+
+        LocatorMemory.useFile(memoryFile, "build-2");
+        Assert.assertNull(LocatorMemory.get("Page.button"), "A new build should re-learn");
+    }
+
+    @Test
+    public void staleLearnedStrategyFallsBackAndRelearns() {
+        LocatorMemory.remember("Page.button", "primary");
+        List<String> tried = new ArrayList<>();
+
+        String result = chain(tried, new ArrayList<>()).run();
+
+        Assert.assertEquals(result, "clicked");
+        Assert.assertEquals(tried, List.of("primary", "alt"));
+        Assert.assertEquals(LocatorMemory.get("Page.button"), "alt");
+    }
+
+    @Test(expectedExceptions = RuntimeException.class,
+          expectedExceptionsMessageRegExp = "All 2 strategies failed for Page.missing")
+    public void failsWhenEveryStrategyFails() {
+        new FallbackChain<String>("Page.missing")
+            .attempt("a", timeout -> { throw new RuntimeException("a"); })
+            .attempt("b", timeout -> { throw new RuntimeException("b"); })
+            .run();
+    }
+
+    @Test
+    public void strategiesTriedAreRecorded() {
+        FlightRecorder.clear();
+
+        chain(new ArrayList<>(), new ArrayList<>()).run();
+
+        List<FlightRecorder.Entry> entries = FlightRecorder.snapshot();
+        Assert.assertEquals(entries.size(), 2);
+        Assert.assertEquals(entries.get(0).command, "fallback[primary]");
+        Assert.assertEquals(entries.get(0).target, "Page.button");
+        Assert.assertEquals(entries.get(0).outcome, "RuntimeException");
+        Assert.assertEquals(entries.get(1).command, "fallback[alt]");
+        Assert.assertFalse(entries.get(1).isFailure());
+    }
+}
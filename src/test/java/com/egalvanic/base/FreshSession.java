@@ -0,0 +1,15 @@
+package com.egalvanic.base;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a test that must start on a brand-new driver session
+ * instead of a pooled one (e.g. first-launch behaviour)
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface FreshSession {
+}
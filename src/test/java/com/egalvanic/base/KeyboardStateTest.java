@@ -0,0 +1,100 @@
+package com.egalvanic.base;
+
+import com.egalvanic.base.snapshot.UiSnapshot;
+import com.egalvanic.stub.StubAppiumServer;
+import com.egalvanic.utils.DriverManager;
+import io.appium.java_client.AppiumBy;
+import io.appium.java_client.ios.IOSDriver;
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.nio.file.Files;
+
+/**
+ * Keyboard dismissal against the stub app: skipped when no keyboard is up,
+ * learned method when one is
+ */
+public class KeyboardStateTest {
+
+    private StubAppiumServer stub;
+    private IOSDriver driver;
+
+    @BeforeMethod
+    public void startStub() throws Exception {
+        LocatorMemory.useFile(new File(Files.createTempDirectory("locator-memory").toFile(), "memory.properties"),
+            "build-1");
+        KeyboardState.resetStats();
+        KeyboardState.invalidate();
+        stub = new StubAppiumServer()
+            .addScreen("welcome", StubAppiumServer.loadFixture("/fixtures/welcome_page.xml"))
+            .setInitialScreen("welcome")
+            .start();
+        driver = DriverManager.createDriver(stub.getUrl());
+    }
+
+    @AfterMethod(alwaysRun = true)
+    public void stopStub() {
+        KeyboardState.invalidate();
+        driver.quit();
+        stub.stop();
+    }
+
+    private void typeCompanyCode() {
+        driver.findElement(AppiumBy.iOSNsPredicateString("type == 'XCUIElementTypeTextField'")).sendKeys("acme");
+        BasePage.invalidateSnapshot();
+    }
+
+    @Test
+    public void noKeyboardChecksOnceThenSkips() {
+        Assert.assertFalse(KeyboardState.dismiss(driver, null));
+        Assert.assertFalse(KeyboardState.dismiss(driver, null));
+        Assert.assertFalse(KeyboardState.dismiss(driver, null));
+
+        Assert.assertEquals(stub.getCommandCount("execute:mobile: isKeyboardShown"), 1,
+            "Only the first call asks the server");
+        Assert.assertEquals(stub.getCommandCount("execute:mobile: hideKeyboard"), 0);
+        Assert.assertEquals(KeyboardState.getAbsentCount(), 1);
+        Assert.assertEquals(KeyboardState.getSkippedCount(), 2);
+    }
+
+    @Test
+    public void dismissesAndRemembersWorkingMethod() {
+        typeCompanyCode();
+
+        Assert.assertTrue(KeyboardState.dismiss(driver, null));
+        Assert.assertFalse(driver.isKeyboardShown());
+        Assert.assertFalse(KeyboardState.dismiss(driver, null), "Already hidden: no-op");
+
+        Assert.assertEquals(stub.getCommandCount("execute:mobile: hideKeyboard"), 1);
+        Assert.assertEquals(KeyboardState.getDismissalCount(), 1);
+        Assert.assertEquals(KeyboardState.getSkippedCount(), 1);
+        Assert.assertEquals(LocatorMemory.get("KeyboardState.dismiss@" + KeyboardState.deviceOf(driver)),
+            "hideKeyboard");
+        Assert.assertTrue(KeyboardState.getReport().contains("dismissed: 1"));
+    }
+
+    @Test
+    public void snapshotAnswersWithoutRoundTrip() {
+        Assert.assertFalse(KeyboardState.dismiss(driver, UiSnapshot.parse(driver.getPageSource())));
+        Assert.assertEquals(stub.getCommandCount("execute:mobile: isKeyboardShown"), 0);
+
+        typeCompanyCode();
+        Assert.assertTrue(KeyboardState.dismiss(driver, UiSnapshot.parse(driver.getPageSource())),
+            "A snapshot showing the keyboard overrides the known-hidden state");
+    }
+
+    @Test
+    public void failedDismissalIsRetriedNextCall() {
+        typeCompanyCode();
+        stub.failCommand("execute:mobile: hideKeyboard", 1.0);
+
+        Assert.assertFalse(KeyboardState.dismiss(driver, null));
+        Assert.assertEquals(KeyboardState.getFailureCount(), 1);
+
+        stub.failCommand("execute:mobile: hideKeyboard", 0.0);
+        Assert.assertTrue(KeyboardState.dismiss(driver, null), "Keyboard still up, so the next call tries again");
+    }
+}
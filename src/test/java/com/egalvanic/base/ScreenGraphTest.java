@@ -0,0 +1,119 @@
+package com.egalvanic.base;
+
+import com.egalvanic.base.snapshot.UiSnapshot;
+import com.egalvanic.pages.AppScreens;
+import com.egalvanic.pages.LoginPage;
+import com.egalvanic.pages.WelcomePage;
+import com.egalvanic.stub.StubAppiumServer;
+import com.egalvanic.stub.StubDriverFixture;
+import io.appium.java_client.AppiumBy;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Planner over a fake app whose screen is a field, then the real page
+ * objects against the scripted stub app
+ */
+public class ScreenGraphTest {
+
+    private final AtomicReference<String> screen = new AtomicReference<>("A");
+
+    private ScreenGraph fakeApp() {
+        ScreenGraph graph = new ScreenGraph(() -> UiSnapshot.parse(
+            "<AppiumAUT><XCUIElementTypeApplication type=\"XCUIElementTypeApplication\" visible=\"true\">"
+            + "<XCUIElementTypeStaticText type=\"XCUIElementTypeStaticText\" name=\"" + screen.get()
+            + "\" visible=\"true\"/></XCUIElementTypeApplication></AppiumAUT>"));
+        for (String name : new String[] {"A", "B", "C"}) {
+            graph.screen(name, snapshot -> snapshot.find(AppiumBy.accessibilityId(name)) != null);
+        }
+        return graph;
+    }
+
+    private Runnable goesTo(String target, long millis) {
+        return () -> {
+            try {
+                Thread.sleep(millis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            screen.set(target);
+        };
+    }
+
+    @Test
+    public void plansCheapestPath() {
+        ScreenGraph graph = fakeApp()
+            .transition("A", "C", 100, goesTo("C", 0))
+            .transition("A", "B", 10, goesTo("B", 0))
+            .transition("B", "C", 10, goesTo("C", 0));
+
+        List<ScreenGraph.Transition> path = graph.plan("A", "C");
+        Assert.assertEquals(path.size(), 2);
+        Assert.assertEquals(path.get(0).toString(), "A -> B");
+        Assert.assertEquals(path.get(1).toString(), "B -> C");
+        Assert.assertTrue(graph.plan("A", "A").isEmpty());
+        Assert.assertNull(graph.plan("C", "A"), "C has no way back");
+    }
+
+    @Test
+    public void navigatesAndRefinesCostsFromMeasuredLatency() {
+        ScreenGraph graph = fakeApp()
+            .transition("A", "C", 100, goesTo("C", 0))
+            .transition("A", "B", 10, goesTo("B", 150))
+            .transition("B", "C", 10, goesTo("C", 0))
+            .transition("C", "A", 10, goesTo("A", 0));
+
+        graph.navigateTo("C");
+        Assert.assertEquals(screen.get(), "C");
+        Assert.assertEquals(graph.getTransition("A", "B").getRuns(), 1, "First trip uses the declared costs");
+        Assert.assertTrue(graph.getTransition("A", "B").getCostMillis() >= 150,
+            "Measured latency should replace the declared cost");
+
+        graph.navigateTo("A");
+        graph.navigateTo("C");
+        Assert.assertEquals(graph.getTransition("A", "C").getRuns(), 1, "Second trip takes the now cheaper direct hop");
+        Assert.assertEquals(graph.getTransition("A", "B").getRuns(), 1);
+        Assert.assertTrue(graph.getReport().contains("A -> B"));
+    }
+
+    @Test
+    public void replansWhenHopLandsElsewhere() {
+        ScreenGraph graph = fakeApp()
+            .transition("A", "B", 10, goesTo("C", 0))
+            .transition("C", "B", 10, goesTo("B", 0));
+
+        graph.navigateTo("B");
+
+        Assert.assertEquals(screen.get(), "B");
+        Assert.assertEquals(graph.getTransition("A", "B").getSuccesses(), 0);
+        Assert.assertEquals(graph.getTransition("C", "B").getSuccesses(), 1);
+    }
+
+    @Test(expectedExceptions = IllegalStateException.class)
+    public void failsWhenTargetUnreachable() {
+        fakeApp().transition("A", "B", 10, goesTo("B", 0)).navigateTo("C");
+    }
+
+    @Test
+    public void pageObjectsNavigateStubAppWithoutRelaunch() {
+        try (StubDriverFixture fixture = StubDriverFixture.start(StubDriverFixture.welcomeAndLogin())) {
+            StubAppiumServer stub = fixture.getStub();
+            String session = fixture.getDriver().getSessionId().toString();
+            // The graph is shared, e.g. with AppResetter's navigate tier
+            int runs = AppScreens.graph().getTransition(LoginPage.SCREEN, WelcomePage.SCREEN).getRuns();
+
+            AppScreens.navigateTo(LoginPage.SCREEN);
+            Assert.assertEquals(stub.getScreen(session), "login");
+            AppScreens.navigateTo(WelcomePage.SCREEN);
+            Assert.assertEquals(stub.getScreen(session), "welcome");
+
+            Assert.assertEquals(AppScreens.graph().detectCurrent(), WelcomePage.SCREEN);
+            Assert.assertEquals(stub.getCommandCount("execute:mobile: terminateApp"), 0);
+            Assert.assertEquals(AppScreens.graph().getTransition(LoginPage.SCREEN, WelcomePage.SCREEN).getRuns(),
+                runs + 1);
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.egalvanic.base;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * WaitEngine polling, budget fallback and reporting - no driver needed
+ */
+public class WaitEngineTest {
+
+    @Test
+    public void returnsAsSoonAsConditionHolds() {
+        AtomicInteger polls = new AtomicInteger();
+
+        long start = System.currentTimeMillis();
+        boolean held = WaitEngine.waitUntil("WaitEngineTest.fast", 500, 2000, () -> polls.incrementAndGet() >= 3);
+        long elapsed = System.currentTimeMillis() - start;
+
+        Assert.assertTrue(held);
+        Assert.assertEquals(polls.get(), 3);
+        // 50ms + 100ms backoff, well under the 500ms fixed sleep
+        Assert.assertTrue(elapsed < 400, "Waited " + elapsed + "ms");
+    }
+
+    @Test
+    public void exceptionsCountAsNotYet() {
+        AtomicInteger polls = new AtomicInteger();
+        boolean held = WaitEngine.waitUntil("WaitEngineTest.exceptions", 100, 1000, () -> {
+            if (polls.incrementAndGet() < 2) {
+                throw new IllegalStateException("element not found");
+            }
+            return true;
+        });
+        Assert.assertTrue(held);
+    }
+
+    @Test
+    public void repeatedTimeoutsFallBackToLegacyBudget() {
+        String site = "WaitEngineTest.neverHolds";
+
+        Assert.assertFalse(WaitEngine.waitUntil(site, 100, 300, () -> false));
+        Assert.assertEquals(WaitEngine.getBudgetMillis(site), 300);
+        Assert.assertFalse(WaitEngine.waitUntil(site, 100, 300, () -> false));
+        Assert.assertEquals(WaitEngine.getBudgetMillis(site), 100,
+            "Budget should drop to the legacy sleep after repeated timeouts");
+
+        Assert.assertTrue(WaitEngine.waitUntil(site, 100, 300, () -> true));
+        Assert.assertEquals(WaitEngine.getBudgetMillis(site), 300, "Success should restore the budget");
+    }
+
+    @Test
+    public void reportComparesActualWithLegacySleep() {
+        WaitEngine.waitUntil("WaitEngineTest.reported", 500, 1000, () -> true);
+        String report = WaitEngine.getReport();
+
+        Assert.assertTrue(report.contains("WaitEngineTest.reported"), report);
+        Assert.assertTrue(report.contains("Legacy ms"), report);
+        Assert.assertTrue(WaitEngine.getTotalLegacyMillis() >= 500);
+    }
+
+    @Test
+    public void callSiteIsFirstFrameOutsideSkippedClasses() {
+        Assert.assertEquals(WaitEngine.callerOf(), "WaitEngineTest.callSiteIsFirstFrameOutsideSkippedClasses");
+    }
+}
@@ -0,0 +1,82 @@
+package com.egalvanic.base;
+
+import com.egalvanic.pages.LoginPage;
+import com.egalvanic.pages.LoginPage.LoginOutcome;
+import com.egalvanic.stub.StubAppiumServer;
+import com.egalvanic.stub.StubDriverFixture;
+import io.appium.java_client.AppiumBy;
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.Test;
+
+/**
+ * Racing sign-in outcomes on the stub login screen in one polling loop
+ */
+public class WaitForAnyTest {
+
+    private static final String LOGIN = StubAppiumServer.loadFixture("/fixtures/login_page.xml");
+    private static final String LOGIN_ERROR = LOGIN.replace("enabled=\"true\" visible=\"false\"",
+        "enabled=\"true\" visible=\"true\"");
+    private static final String HOME = "<?xml version=\"1.0\" encoding=\"UTF-8\"?><AppiumAUT>"
+        + "<XCUIElementTypeApplication type=\"XCUIElementTypeApplication\" name=\"eGalvanic\" enabled=\"true\""
+        + " visible=\"true\" x=\"0\" y=\"0\" width=\"390\" height=\"844\">"
+        + "<XCUIElementTypeStaticText type=\"XCUIElementTypeStaticText\" name=\"Sites\" label=\"Sites\""
+        + " enabled=\"true\" visible=\"true\" x=\"40\" y=\"100\" width=\"310\" height=\"30\"/>"
+        + "</XCUIElementTypeApplication></AppiumAUT>";
+
+    private StubDriverFixture fixture;
+    private StubAppiumServer stub;
+
+    private LoginPage startOnLogin(String signInTarget) {
+        stub = new StubAppiumServer()
+            .addScreen("login", LOGIN)
+            .addScreen("loginError", LOGIN_ERROR)
+            .addScreen("home", HOME)
+            .setInitialScreen("login");
+        if (signInTarget != null) {
+            stub.onTap("login", "Sign In", signInTarget);
+        }
+        fixture = StubDriverFixture.start(stub);
+        LoginPage page = new LoginPage();
+        fixture.getDriver().findElement(AppiumBy.accessibilityId("Sign In")).click();
+        return page;
+    }
+
+    @AfterMethod(alwaysRun = true)
+    public void stopStub() {
+        fixture.close();
+    }
+
+    @Test
+    public void errorWinsAsSoonAsItShows() {
+        LoginPage page = startOnLogin("loginError");
+        int finds = stub.getCommandCount("findElement");
+        long start = System.currentTimeMillis();
+
+        Assert.assertEquals(page.awaitLoginOutcome(), LoginOutcome.ERROR);
+
+        Assert.assertTrue(System.currentTimeMillis() - start < 1000, "No separate waits before the error check");
+        Assert.assertEquals(stub.getCommandCount("findElement"), finds, "Outcomes come from page source only");
+    }
+
+    @Test
+    public void homeWins() {
+        Assert.assertEquals(startOnLogin("home").awaitLoginOutcome(), LoginOutcome.HOME);
+    }
+
+    @Test
+    public void homeWithoutHomeScreenIdHoldsOnTwoPageSources() {
+        LoginPage page = startOnLogin("home");
+        int sources = stub.getCommandCount("getPageSource");
+
+        Assert.assertEquals(page.awaitLoginOutcome(), LoginOutcome.HOME);
+
+        Assert.assertTrue(stub.getCommandCount("getPageSource") - sources >= 2,
+            "A single frame without the login form is not enough for HOME");
+    }
+
+    @Test
+    public void neitherSignalMeansStillOnLogin() {
+        Assert.assertEquals(startOnLogin(null).awaitLoginOutcome(), LoginOutcome.STILL_ON_LOGIN);
+    }
+}
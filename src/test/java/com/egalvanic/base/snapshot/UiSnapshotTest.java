@@ -0,0 +1,149 @@
+package com.egalvanic.base.snapshot;
+
+import com.egalvanic.pages.LoginPage;
+import com.egalvanic.pages.WelcomePage;
+import io.appium.java_client.AppiumBy;
+import io.appium.java_client.pagefactory.iOSXCUITFindBy;
+import org.openqa.selenium.By;
+import org.testng.Assert;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.io.InputStream;
+import java.lang.reflect.Field;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Local locator evaluation against recorded page source - no driver needed
+ */
+public class UiSnapshotTest {
+
+    private UiSnapshot welcome;
+    private UiSnapshot login;
+
+    @BeforeClass
+    public void loadFixtures() throws Exception {
+        welcome = UiSnapshot.parse(fixture("welcome_page.xml"));
+        login = UiSnapshot.parse(fixture("login_page.xml"));
+    }
+
+    private static String fixture(String name) throws Exception {
+        try (InputStream in = UiSnapshotTest.class.getResourceAsStream("/fixtures/" + name)) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    private static String predicateOf(Class<?> page, String field) throws Exception {
+        return page.getDeclaredField(field).getAnnotation(iOSXCUITFindBy.class).iOSNsPredicate();
+    }
+
+    private static By constantOf(Class<?> page, String constant) throws Exception {
+        Field field = page.getDeclaredField(constant);
+        field.setAccessible(true);
+        return (By) field.get(null);
+    }
+
+    @Test
+    public void testPageLocatorsResolveLocally() throws Exception {
+        Assert.assertTrue(welcome.isDisplayed(AppiumBy.iOSNsPredicateString(predicateOf(WelcomePage.class, "companyCodeField"))));
+        Assert.assertFalse(welcome.isEnabled(AppiumBy.accessibilityId("Continue")));
+        Assert.assertEquals(welcome.getAttribute(AppiumBy.iOSNsPredicateString(predicateOf(WelcomePage.class, "companyCodeField")),
+            "placeholderValue"), "(e.g. acme.egalvanic)");
+        Assert.assertFalse(welcome.isDisplayed(AppiumBy.iOSNsPredicateString(predicateOf(WelcomePage.class, "errorMessage"))));
+
+        Assert.assertTrue(login.isDisplayed(constantOf(LoginPage.class, "EMAIL_BY_LABEL")));
+        Assert.assertTrue(login.isDisplayed(AppiumBy.iOSNsPredicateString(predicateOf(LoginPage.class, "passwordField"))));
+        Assert.assertTrue(login.isDisplayed(AppiumBy.iOSNsPredicateString(predicateOf(LoginPage.class, "forgotPasswordLink"))));
+        Assert.assertTrue(login.isDisplayed(AppiumBy.iOSNsPredicateString(predicateOf(LoginPage.class, "changeCompanyLink"))));
+        Assert.assertTrue(login.isEnabled(AppiumBy.accessibilityId("Sign In")));
+        // Present in the tree but hidden
+        Assert.assertFalse(login.isDisplayed(AppiumBy.iOSNsPredicateString(predicateOf(LoginPage.class, "errorMessage"))));
+    }
+
+    @Test
+    public void testPredicateOperators() {
+        Assert.assertEquals(login.findAll(AppiumBy.iOSNsPredicateString("type == 'XCUIElementTypeButton'")).size(), 4);
+        Assert.assertEquals(login.findAll(AppiumBy.iOSNsPredicateString("label BEGINSWITH[c] 'sign'")).size(), 2);
+        Assert.assertEquals(login.findAll(AppiumBy.iOSNsPredicateString("name ENDSWITH '?' AND enabled == 1")).size(), 1);
+        Assert.assertEquals(login.findAll(AppiumBy.iOSNsPredicateString("label LIKE 'Show*'")).size(), 1);
+        Assert.assertEquals(login.findAll(AppiumBy.iOSNsPredicateString("label MATCHES '.*Company.*'")).size(), 1);
+        Assert.assertEquals(login.findAll(AppiumBy.iOSNsPredicateString(
+            "type == 'XCUIElementTypeStaticText' AND NOT (visible == true)")).size(), 1);
+        Assert.assertEquals(login.findAll(AppiumBy.iOSNsPredicateString("wdName != 'Sign In' AND type == 'XCUIElementTypeButton'")).size(), 3);
+    }
+
+    @Test
+    public void testClassChain() {
+        List<UiNode> buttons = login.findAll(AppiumBy.iOSClassChain("**/XCUIElementTypeButton"));
+        Assert.assertEquals(buttons.size(), 4);
+
+        UiNode last = login.find(AppiumBy.iOSClassChain("**/XCUIElementTypeButton[-1]"));
+        Assert.assertEquals(last.getName(), "Change Company Code");
+
+        UiNode signIn = login.find(AppiumBy.iOSClassChain("**/XCUIElementTypeButton[`label == 'Sign In'`]"));
+        Assert.assertNotNull(signIn);
+
+        UiNode container = login.find(AppiumBy.iOSClassChain(
+            "XCUIElementTypeWindow/*[$type == 'XCUIElementTypeSecureTextField'$]"));
+        Assert.assertEquals(container.getType(), "XCUIElementTypeOther");
+    }
+
+    @Test
+    public void testSimpleXPath() {
+        Assert.assertEquals(login.findAll(AppiumBy.xpath("//XCUIElementTypeButton")).size(), 4);
+        Assert.assertEquals(login.findAll(AppiumBy.xpath(
+            "//XCUIElementTypeButton[contains(@label, 'Sign') or contains(@label, 'Login')]")).size(), 1);
+        Assert.assertEquals(login.find(AppiumBy.xpath("//XCUIElementTypeButton[2]")).getName(), "Forgot Password?");
+        Assert.assertEquals(login.find(AppiumBy.xpath("//XCUIElementTypeButton[last()]")).getName(), "Change Company Code");
+        Assert.assertEquals(login.findAll(AppiumBy.xpath(
+            "/AppiumAUT/XCUIElementTypeApplication/XCUIElementTypeWindow//*[@visible='false']")).size(), 1);
+        Assert.assertEquals(login.findAll(AppiumBy.xpath(
+            "//XCUIElementTypeButton[not(starts-with(@name, 'Sign'))]")).size(), 3);
+    }
+
+    @Test
+    public void testXPathResultsInDocumentOrder() {
+        UiSnapshot nested = UiSnapshot.parse("<AppiumAUT>"
+            + "<XCUIElementTypeOther type=\"XCUIElementTypeOther\" name=\"1\">"
+            + "<XCUIElementTypeCell type=\"XCUIElementTypeCell\" name=\"2\">"
+            + "<XCUIElementTypeOther type=\"XCUIElementTypeOther\" name=\"3\"/></XCUIElementTypeCell>"
+            + "<XCUIElementTypeOther type=\"XCUIElementTypeOther\" name=\"4\"/>"
+            + "</XCUIElementTypeOther></AppiumAUT>");
+
+        List<UiNode> others = nested.findAll(AppiumBy.xpath("//XCUIElementTypeOther"));
+        Assert.assertEquals(others.stream().map(UiNode::getName).collect(Collectors.toList()),
+            Arrays.asList("1", "3", "4"));
+        // Overlapping context nodes: each match once
+        Assert.assertEquals(nested.findAll(AppiumBy.xpath("//*//XCUIElementTypeOther")).size(), 3);
+    }
+
+    @Test
+    public void testClassChainResultsInDocumentOrder() {
+        UiSnapshot nested = UiSnapshot.parse("<AppiumAUT>"
+            + "<XCUIElementTypeOther type=\"XCUIElementTypeOther\" name=\"1\">"
+            + "<XCUIElementTypeCell type=\"XCUIElementTypeCell\" name=\"2\">"
+            + "<XCUIElementTypeOther type=\"XCUIElementTypeOther\" name=\"3\"/></XCUIElementTypeCell>"
+            + "<XCUIElementTypeOther type=\"XCUIElementTypeOther\" name=\"4\"/>"
+            + "</XCUIElementTypeOther></AppiumAUT>");
+
+        // First Other child of each context node: 4 (under 1) is found before 3 (under 2)
+        List<UiNode> firsts = nested.findAll(AppiumBy.iOSClassChain("**/*/XCUIElementTypeOther[1]"));
+        Assert.assertEquals(firsts.stream().map(UiNode::getName).collect(Collectors.toList()),
+            Arrays.asList("1", "3", "4"));
+        // Overlapping context nodes: each match once
+        Assert.assertEquals(nested.findAll(AppiumBy.iOSClassChain("**/*/**/XCUIElementTypeOther")).size(), 3);
+    }
+
+    @Test
+    public void testUnsupportedSyntaxIsReported() {
+        Assert.assertThrows(UnsupportedOperationException.class,
+            () -> login.findAll(AppiumBy.xpath("//XCUIElementTypeButton/following-sibling::*")));
+        Assert.assertThrows(UnsupportedOperationException.class,
+            () -> login.findAll(AppiumBy.iOSNsPredicateString("rect.x > 10")));
+        Assert.assertThrows(UnsupportedOperationException.class,
+            () -> login.findAll(AppiumBy.cssSelector("button")));
+    }
+}
@@ -0,0 +1,157 @@
+package com.egalvanic.stub;
+
+import com.egalvanic.pages.LoginPage;
+import com.egalvanic.pages.WelcomePage;
+import com.egalvanic.utils.DriverManager;
+import io.appium.java_client.AppiumBy;
+import io.appium.java_client.ios.IOSDriver;
+import org.openqa.selenium.NoSuchElementException;
+import org.openqa.selenium.OutputType;
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.WebElement;
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Scripted welcome -> login app on the stub server, driven by a raw
+ * IOSDriver, by the page objects, and by many sessions at once
+ */
+public class StubAppiumServerTest {
+
+    private static final String COMPANY_CODE_FIELD = "type == 'XCUIElementTypeTextField'";
+
+    private StubAppiumServer stub;
+
+    @BeforeMethod
+    public void startStub() {
+        stub = StubDriverFixture.welcomeAndLogin().start();
+    }
+
+    @AfterMethod(alwaysRun = true)
+    public void stopStub() {
+        stub.stop();
+    }
+
+    private IOSDriver newDriver() {
+        return DriverManager.createDriver(stub.getUrl());
+    }
+
+    @Test
+    public void scriptedHierarchyRespondsToTypingAndTaps() {
+        IOSDriver driver = newDriver();
+        try {
+            WebElement field = driver.findElement(AppiumBy.iOSNsPredicateString(COMPANY_CODE_FIELD));
+            WebElement continueButton = driver.findElement(AppiumBy.accessibilityId("Continue"));
+            Assert.assertEquals(field.getAttribute("value"), "(e.g. acme.egalvanic)");
+            Assert.assertFalse(continueButton.isEnabled(), "Continue starts disabled");
+
+            // Disabled buttons swallow taps
+            continueButton.click();
+            Assert.assertEquals(stub.getScreen(driver.getSessionId().toString()), "welcome");
+
+            field.sendKeys("acme");
+            Assert.assertEquals(field.getAttribute("value"), "acme");
+            Assert.assertTrue(driver.isKeyboardShown(), "Typing shows the keyboard");
+            Assert.assertTrue(continueButton.isEnabled(), "Continue enables once the field is filled");
+            driver.hideKeyboard();
+            Assert.assertFalse(driver.isKeyboardShown());
+
+            continueButton.click();
+            Assert.assertEquals(stub.getScreen(driver.getSessionId().toString()), "login");
+            Assert.assertThrows(StaleElementReferenceException.class, field::getText);
+
+            WebElement password = driver.findElement(AppiumBy.iOSNsPredicateString(
+                "type == 'XCUIElementTypeSecureTextField'"));
+            password.sendKeys("secret");
+            Assert.assertEquals(password.getAttribute("value"), "••••••");
+            password.clear();
+            Assert.assertEquals(password.getAttribute("value"), "Password");
+
+            Assert.assertThrows(NoSuchElementException.class,
+                () -> driver.findElement(AppiumBy.accessibilityId("Continue")));
+            Assert.assertTrue(driver.getPageSource().contains("Sign In"));
+        } finally {
+            driver.quit();
+        }
+        Assert.assertEquals(stub.getActiveSessionCount(), 0);
+    }
+
+    @Test
+    public void pageObjectsRunAgainstStub() {
+        try (StubDriverFixture fixture = StubDriverFixture.bind(stub)) {
+            WelcomePage welcomePage = new WelcomePage();
+            Assert.assertTrue(welcomePage.isPageLoaded());
+            Assert.assertFalse(welcomePage.isContinueButtonEnabled());
+
+            welcomePage.submitCompanyCode("acme");
+
+            LoginPage loginPage = new LoginPage();
+            Assert.assertTrue(loginPage.isPageLoaded(), "Continue should navigate to the login screen");
+            Assert.assertTrue(loginPage.isEmailFieldDisplayed());
+        }
+    }
+
+    @Test
+    public void injectsLatencyAndFailures() {
+        stub.setLatency("getPageSource", Duration.ofMillis(200))
+            .failCommand("screenshot", 1.0);
+        IOSDriver driver = newDriver();
+        try {
+            long start = System.nanoTime();
+            driver.getPageSource();
+            Assert.assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) >= 200,
+                "Page source should take at least the injected latency");
+
+            Assert.assertThrows(WebDriverException.class,
+                () -> driver.getScreenshotAs(OutputType.BASE64));
+            Assert.assertEquals(stub.getInjectedFailureCount(), 1);
+        } finally {
+            driver.quit();
+        }
+    }
+
+    @Test
+    public void servesHundredsOfConcurrentSessions() throws Exception {
+        int sessions = 200;
+        stub.setLatency(StubAppiumServer.ANY_COMMAND, Duration.ofMillis(2), Duration.ofMillis(8)).setSeed(42);
+        ExecutorService pool = Executors.newFixedThreadPool(50);
+        try {
+            List<Future<String>> screens = new ArrayList<>();
+            for (int i = 0; i < sessions; i++) {
+                String code = "tenant" + i;
+                screens.add(pool.submit(() -> {
+                    IOSDriver driver = newDriver();
+                    try {
+                        driver.findElement(AppiumBy.iOSNsPredicateString(COMPANY_CODE_FIELD)).sendKeys(code);
+                        String typed = driver.findElement(AppiumBy.iOSNsPredicateString(COMPANY_CODE_FIELD))
+                            .getAttribute("value");
+                        Assert.assertEquals(typed, code, "Sessions must not share app state");
+                        driver.findElement(AppiumBy.accessibilityId("Continue")).click();
+                        return stub.getScreen(driver.getSessionId().toString());
+                    } finally {
+                        driver.quit();
+                    }
+                }));
+            }
+            for (Future<String> screen : screens) {
+                Assert.assertEquals(screen.get(60, TimeUnit.SECONDS), "login");
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        Assert.assertEquals(stub.getSessionsCreated(), sessions);
+        Assert.assertEquals(stub.getSessionsDeleted(), sessions);
+        Assert.assertEquals(stub.getCommandCount("clickElement"), sessions);
+    }
+}
@@ -0,0 +1,118 @@
+package com.egalvanic.stub;
+
+import com.egalvanic.base.BasePage;
+import com.egalvanic.utils.DeviceDescriptor;
+import com.egalvanic.utils.DriverManager;
+import io.appium.java_client.ios.IOSDriver;
+
+import java.util.function.Consumer;
+
+/**
+ * A stub Appium server with this thread's DriverManager session bound to it
+ *
+ * Starts the server, binds a stub device and leases a session; close()
+ * undoes all of it, including the global reset action, which is pinned for
+ * the fixture's lifetime (DriverManager.resetAppState unless given) so a
+ * suite hook installed elsewhere (BaseTest) cannot leak into these tests.
+ *
+ *   try (StubDriverFixture fixture = StubDriverFixture.start(new StubAppiumServer()...)) { ... }
+ */
+public final class StubDriverFixture implements AutoCloseable {
+
+    private final StubAppiumServer stub;
+    private final boolean ownsStub;
+    private final Consumer<IOSDriver> previousResetAction;
+
+    private StubDriverFixture(StubAppiumServer stub, boolean ownsStub, Consumer<IOSDriver> resetAction) {
+        this.stub = stub;
+        this.ownsStub = ownsStub;
+        this.previousResetAction = DriverManager.setResetAction(resetAction);
+    }
+
+    /**
+     * Scripted welcome -> login app (not yet started); callers add screens and taps
+     */
+    public static StubAppiumServer welcomeAndLogin() {
+        return new StubAppiumServer()
+            .addScreen("welcome", StubAppiumServer.loadFixture("/fixtures/welcome_page.xml"))
+            .addScreen("login", StubAppiumServer.loadFixture("/fixtures/login_page.xml"))
+            .setInitialScreen("welcome")
+            .enableWhenFilled("Continue", "(e.g. acme.egalvanic)")
+            .onTap("welcome", "Continue", "login")
+            .onTap("login", "Change Company Code", "welcome");
+    }
+
+    /**
+     * Start a configured (not yet started) stub and open a session on it
+     */
+    public static StubDriverFixture start(StubAppiumServer stub) {
+        return start(stub, DriverManager::resetAppState);
+    }
+
+    /**
+     * Start a configured stub and open a session whose pool resets with the given action
+     */
+    public static StubDriverFixture start(StubAppiumServer stub, Consumer<IOSDriver> resetAction) {
+        return open(new StubDriverFixture(stub.start(), true, resetAction));
+    }
+
+    /**
+     * Open a session on a stub the caller already started and will stop
+     */
+    public static StubDriverFixture bind(StubAppiumServer runningStub) {
+        return open(new StubDriverFixture(runningStub, false, DriverManager::resetAppState));
+    }
+
+    private static StubDriverFixture open(StubDriverFixture fixture) {
+        try {
+            DriverManager.bindDevice(new DeviceDescriptor("stub", "", "17.0", fixture.stub.getUrl(), 0));
+            fixture.lease();
+            return fixture;
+        } catch (RuntimeException e) {
+            fixture.close();
+            throw e;
+        }
+    }
+
+    public StubAppiumServer getStub() {
+        return stub;
+    }
+
+    public IOSDriver getDriver() {
+        return DriverManager.getDriver();
+    }
+
+    /**
+     * Lease a session for this thread; a reused one is reset first
+     */
+    public IOSDriver lease() {
+        DriverManager.initDriver();
+        BasePage.invalidateSnapshot();
+        return DriverManager.getDriver();
+    }
+
+    /**
+     * Hand this thread's session back to the pool
+     */
+    public void release() {
+        BasePage.invalidateSnapshot();
+        DriverManager.quitDriver();
+    }
+
+    /**
+     * Quit the session, drop the pool and device binding, restore the reset action, stop an owned stub
+     */
+    @Override
+    public void close() {
+        try {
+            release();
+            DriverManager.shutdownPool();
+            DriverManager.unbindDevice();
+        } finally {
+            DriverManager.setResetAction(previousResetAction);
+            if (ownsStub) {
+                stub.stop();
+            }
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package com.egalvanic.utils;
+
+import com.aventstack.extentreports.ExtentReports;
+import com.aventstack.extentreports.ExtentTest;
+import com.aventstack.extentreports.model.Log;
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * AsyncReportWriter ordering, backpressure and drain, plus the per-call
+ * cost a test thread pays in sync vs async mode - no driver needed
+ */
+public class AsyncReportWriterTest {
+
+    @AfterMethod(alwaysRun = true)
+    public void syncMode() {
+        ExtentReportManager.removeTests();
+        ExtentReportManager.initReports(new ExtentReports(), new ExtentReports(), false);
+    }
+
+    @Test
+    public void keepsPerTestOrderAcrossThreads() throws Exception {
+        ExtentReportManager.initReports(new ExtentReports(), new ExtentReports(), true);
+        int threads = 4;
+        int steps = 200;
+
+        List<CompletableFuture<ExtentTest>> tests = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            String name = "test-" + t;
+            tests.add(CompletableFuture.supplyAsync(() -> {
+                ExtentReportManager.createTest("Module", "Feature", name);
+                for (int i = 0; i < steps; i++) {
+                    ExtentReportManager.logInfo(name + " step " + i);
+                }
+                ExtentReportManager.logPass(name + " done");
+                ExtentTest detailed = ExtentReportManager.getDetailedTest();
+                ExtentReportManager.removeTests();
+                return detailed;
+            }));
+        }
+
+        for (int t = 0; t < threads; t++) {
+            List<Log> logs = tests.get(t).get(30, TimeUnit.SECONDS).getModel().getLogs();
+            Assert.assertEquals(logs.size(), steps + 1);
+            for (int i = 0; i < steps; i++) {
+                Assert.assertEquals(logs.get(i).getDetails(), "test-" + t + " step " + i);
+            }
+            Assert.assertEquals(logs.get(steps).getDetails(), "test-" + t + " done");
+        }
+        Assert.assertEquals(ExtentReportManager.getWriter().getFailureCount(), 0);
+    }
+
+    @Test
+    public void blocksProducerWhenQueueIsFullAndDropsNothing() throws Exception {
+        AsyncReportWriter writer = new AsyncReportWriter(4);
+        CountDownLatch release = new CountDownLatch(1);
+        List<Integer> applied = new CopyOnWriteArrayList<>();
+
+        writer.submit(() -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        CompletableFuture<Void> producer = CompletableFuture.runAsync(() -> {
+            for (int i = 0; i < 20; i++) {
+                int value = i;
+                writer.submit(() -> applied.add(value));
+            }
+        });
+
+        Thread.sleep(200);
+        Assert.assertFalse(producer.isDone(), "Producer should be held back by the full queue");
+        Assert.assertTrue(writer.getBackpressureStalls() > 0);
+
+        release.countDown();
+        producer.get(10, TimeUnit.SECONDS);
+        Assert.assertTrue(writer.drain(Duration.ofSeconds(10)));
+        Assert.assertEquals(applied.size(), 20);
+        for (int i = 0; i < 20; i++) {
+            Assert.assertEquals(applied.get(i).intValue(), i);
+        }
+        writer.shutdown(Duration.ofSeconds(5));
+    }
+
+    @Test
+    public void flushDrainsQueuedEvents() {
+        ExtentReports detailed = new ExtentReports();
+        ExtentReportManager.initReports(detailed, new ExtentReports(), true);
+        AsyncReportWriter writer = ExtentReportManager.getWriter();
+        CountDownLatch release = new CountDownLatch(1);
+        writer.submit(() -> {
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+
+        ExtentReportManager.createTest("Module", "Feature", "flush");
+        ExtentReportManager.logInfo("queued");
+        ExtentReportManager.logFail("failed");
+        Assert.assertTrue(writer.getAppliedCount() < writer.getSubmittedCount(), "Events should still be queued");
+
+        release.countDown();
+        ExtentReportManager.flushReports();
+        Assert.assertEquals(writer.getAppliedCount(), writer.getSubmittedCount());
+        Assert.assertEquals(ExtentReportManager.getDetailedTest().getModel().getLogs().size(), 2);
+    }
+}
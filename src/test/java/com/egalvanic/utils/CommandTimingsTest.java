@@ -0,0 +1,123 @@
+package com.egalvanic.utils;
+
+import com.egalvanic.stub.StubAppiumServer;
+import io.appium.java_client.ios.IOSDriver;
+import org.openqa.selenium.OutputType;
+import org.openqa.selenium.remote.Command;
+import org.openqa.selenium.remote.SessionId;
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Map;
+
+/**
+ * Command latency histograms and the timing executor, against a stub Appium server
+ */
+public class CommandTimingsTest {
+
+    @BeforeMethod
+    public void reset() {
+        CommandTimings.reset();
+    }
+
+    @AfterMethod(alwaysRun = true)
+    public void cleanUp() {
+        CommandTimings.reset();
+    }
+
+    @Test
+    public void percentilesStayWithinBucketResolution() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long micros = 1; micros <= 10_000; micros++) {
+            histogram.record(micros * 1_000);
+        }
+
+        LatencyHistogram.Summary summary = histogram.summarize();
+        Assert.assertEquals(summary.count, 10_000);
+        Assert.assertEquals(summary.maxNanos, 10_000_000);
+        assertWithin(summary.p50Nanos, 5_000_000);
+        assertWithin(summary.p95Nanos, 9_500_000);
+        assertWithin(summary.p99Nanos, 9_900_000);
+        Assert.assertEquals(new LatencyHistogram().getPercentileNanos(99), 0);
+    }
+
+    @Test
+    public void timesEveryDriverCommandPerTestAndSuite() throws Exception {
+        StubAppiumServer stub = new StubAppiumServer().start();
+        try {
+            IOSDriver driver = DriverManager.createDriver(stub.getUrl());
+
+            CommandTimings.startTest("LoginTest.first");
+            driver.getPageSource();
+            driver.getPageSource();
+            driver.getScreenshotAs(OutputType.BYTES);
+            CommandTimings.sleep(5);
+            CommandTimings.endTest();
+
+            CommandTimings.startTest("LoginTest.second");
+            driver.getPageSource();
+            CommandTimings.endTest();
+            driver.quit();
+
+            Map<String, LatencyHistogram.Summary> suite = CommandTimings.getSuiteSummary();
+            Assert.assertEquals(suite.get("newSession").count, 1);
+            Assert.assertEquals(suite.get("getPageSource").count, 3);
+            Assert.assertEquals(suite.get("screenshot").count, 1);
+            Assert.assertEquals(suite.get("quit").count, 1);
+            Assert.assertTrue(suite.get("sleep").p50Nanos >= 4_000_000, "sleep should be recorded");
+
+            Map<String, Map<String, LatencyHistogram.Summary>> tests = CommandTimings.getTestSummaries();
+            Assert.assertEquals(tests.get("LoginTest.first").get("getPageSource").count, 2);
+            Assert.assertEquals(tests.get("LoginTest.second").get("getPageSource").count, 1);
+            Assert.assertFalse(tests.get("LoginTest.second").containsKey("newSession"));
+
+            File file = CommandTimings.writeSummary("target/command-latency-test.json");
+            String json = new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8);
+            Assert.assertTrue(json.contains("\"getPageSource\": {\"count\": 3"), json);
+            Assert.assertTrue(json.contains("\"name\": \"LoginTest.first\""), json);
+            System.out.print(CommandTimings.getReport());
+        } finally {
+            stub.stop();
+        }
+    }
+
+    @Test
+    public void findCommandsAreKeyedByLocatorStrategy() {
+        Command find = new Command(new SessionId("s"), "findElement",
+            Map.of("using", "accessibility id", "value", "Sign In"));
+        Command source = new Command(new SessionId("s"), "getPageSource", Map.of());
+
+        Assert.assertEquals(TimedCommandExecutor.keyOf(find), "findElement[accessibility id]");
+        Assert.assertSame(TimedCommandExecutor.keyOf(find), TimedCommandExecutor.keyOf(find));
+        Assert.assertEquals(TimedCommandExecutor.keyOf(source), "getPageSource");
+    }
+
+    /**
+     * Every recorded command lands in both the suite and the test histogram
+     * under its key (cost per command: InstrumentationBenchmark)
+     */
+    @Test
+    public void recordedCommandsCountTowardsSuiteAndTest() {
+        Command find = new Command(new SessionId("s"), "findElement",
+            Map.of("using", "-ios class chain", "value", "**/XCUIElementTypeButton"));
+        CommandTimings.startTest("counted");
+        for (int i = 0; i < 1_000; i++) {
+            CommandTimings.record(TimedCommandExecutor.keyOf(find), 1_000);
+        }
+        CommandTimings.endTest();
+
+        String key = "findElement[-ios class chain]";
+        Assert.assertEquals(CommandTimings.getSuiteSummary().get(key).count, 1_000);
+        Assert.assertEquals(CommandTimings.getTestSummaries().get("counted").get(key).count, 1_000);
+    }
+
+    private static void assertWithin(long actual, long expected) {
+        Assert.assertTrue(Math.abs(actual - expected) <= expected * 0.07,
+            "expected ~" + expected + " but was " + actual);
+    }
+}
@@ -0,0 +1,36 @@
+package com.egalvanic.utils;
+
+import org.testng.annotations.Test;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Minimal test class run through TestNG on the DeviceScheduler
+ *
+ * Not named *Test so surefire does not pick it up on its own - it needs
+ * a device bound to the calling thread.
+ */
+public class DeviceSchedulerSamples {
+
+    static final Map<String, String> devicesUsed = new ConcurrentHashMap<>();
+
+    private void record(String name) {
+        DriverManager.initDriver();
+        DriverManager.getDriver().getPageSource();
+        devicesUsed.put(name, DriverManager.getBoundDevice().getName());
+        try {
+            Thread.sleep(150);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        DriverManager.quitDriver();
+    }
+
+    @Test public void one() { record("one"); }
+    @Test public void two() { record("two"); }
+    @Test public void three() { record("three"); }
+    @Test public void four() { record("four"); }
+    @Test public void five() { record("five"); }
+    @Test public void six() { record("six"); }
+}
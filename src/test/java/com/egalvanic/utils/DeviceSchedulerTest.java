@@ -0,0 +1,134 @@
+package com.egalvanic.utils;
+
+import com.egalvanic.stub.StubAppiumServer;
+import org.testng.Assert;
+import org.testng.TestNG;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+import org.testng.xml.XmlClass;
+import org.testng.xml.XmlSuite;
+import org.testng.xml.XmlTest;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * DeviceScheduler against several stub Appium endpoints - no simulators needed
+ */
+public class DeviceSchedulerTest {
+
+    private final List<StubAppiumServer> stubs = new ArrayList<>();
+    private final List<DeviceDescriptor> devices = new ArrayList<>();
+
+    @BeforeMethod
+    public void startStubs() {
+        for (int i = 0; i < 3; i++) {
+            StubAppiumServer stub = new StubAppiumServer().start();
+            stubs.add(stub);
+            devices.add(new DeviceDescriptor("sim-" + i, "UDID-" + i, "17.0", stub.getUrl(), 8100 + i));
+        }
+    }
+
+    @AfterMethod(alwaysRun = true)
+    public void stopStubs() {
+        DriverManager.shutdownPool();
+        stubs.forEach(StubAppiumServer::stop);
+        stubs.clear();
+        devices.clear();
+    }
+
+    @Test
+    public void parsesDeviceSpecs() {
+        List<DeviceDescriptor> parsed = DeviceDescriptor.parseList(
+            "iPhone 15|AAA|17.2|http://127.0.0.1:4723|8101; iPhone 15 Pro|BBB|17.2|http://127.0.0.1:4724");
+
+        Assert.assertEquals(parsed.size(), 2);
+        Assert.assertEquals(parsed.get(0).getName(), "iPhone 15");
+        Assert.assertEquals(parsed.get(0).getWdaLocalPort(), 8101);
+        Assert.assertEquals(parsed.get(1).getUdid(), "BBB");
+        Assert.assertEquals(parsed.get(1).getAppiumUrl().getPort(), 4724);
+        Assert.assertEquals(parsed.get(1).getWdaLocalPort(), 0);
+        Assert.assertThrows(IllegalArgumentException.class, () -> DeviceDescriptor.parse("only|three|fields"));
+    }
+
+    @Test
+    public void idleDevicesStealWorkFromSlowDevice() throws Exception {
+        DeviceScheduler scheduler = new DeviceScheduler(devices);
+        Map<Integer, String> ranOn = new ConcurrentHashMap<>();
+        CountDownLatch quickTasks = new CountDownLatch(11);
+
+        for (int i = 0; i < 12; i++) {
+            int id = i;
+            scheduler.execute(() -> {
+                DriverManager.initDriver();
+                DriverManager.getDriver().getPageSource();
+                ranOn.put(id, DriverManager.getBoundDevice().getName());
+                if (id == 0) {
+                    // The slow test holds its device until every other test has finished
+                    await(quickTasks);
+                } else {
+                    sleep(50);
+                    quickTasks.countDown();
+                }
+                DriverManager.quitDriver();
+            });
+        }
+        scheduler.shutdown();
+        Assert.assertTrue(scheduler.awaitTermination(30, TimeUnit.SECONDS));
+        System.out.print(scheduler.getReport());
+
+        Assert.assertEquals(ranOn.size(), 12, "Every task should run");
+        List<DeviceScheduler.DeviceStats> stats = scheduler.getStats();
+        int slow = Integer.parseInt(ranOn.get(0).substring("sim-".length()));
+        Assert.assertEquals(stats.get(slow).completed, 1, "Slow device should only finish its slow test");
+        Assert.assertTrue(stats.stream().mapToLong(s -> s.stolen).sum() > 0, "Idle devices should steal queued work");
+        Assert.assertEquals(stats.stream().mapToLong(s -> s.completed).sum(), 12);
+
+        // Each device only talked to its own endpoint, one pooled session each
+        for (int i = 0; i < stubs.size(); i++) {
+            String device = "sim-" + i;
+            long tasks = ranOn.values().stream().filter(device::equals).count();
+            Assert.assertEquals(stubs.get(i).getCommandCount("getPageSource"), tasks, device);
+            Assert.assertEquals(stubs.get(i).getSessionsCreated(), 1, device);
+        }
+    }
+
+    @Test
+    public void runsTestNGMethodsAcrossDevices() {
+        DeviceSchedulerSamples.devicesUsed.clear();
+        XmlSuite suite = new XmlSuite();
+        suite.setName("device-scheduler");
+        XmlTest test = new XmlTest(suite);
+        test.setName("samples");
+        test.setXmlClasses(Collections.singletonList(new XmlClass(DeviceSchedulerSamples.class)));
+
+        TestNG testng = DeviceSuiteRunner.run(devices.subList(0, 2), Collections.singletonList(suite));
+
+        Assert.assertEquals(testng.getStatus(), 0, "All sample tests should pass");
+        Assert.assertEquals(DeviceSchedulerSamples.devicesUsed.size(), 6);
+        Assert.assertEquals(DeviceSchedulerSamples.devicesUsed.values().stream().distinct().count(), 2,
+            "Both devices should run tests");
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(20, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
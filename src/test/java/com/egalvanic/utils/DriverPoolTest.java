@@ -0,0 +1,172 @@
+package com.egalvanic.utils;
+
+import com.egalvanic.stub.StubAppiumServer;
+import com.egalvanic.stub.StubDriverFixture;
+import io.appium.java_client.ios.IOSDriver;
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * DriverPool against a local stub Appium server - no simulator needed
+ */
+public class DriverPoolTest {
+
+    private StubAppiumServer stub;
+
+    @BeforeMethod
+    public void startStub() {
+        stub = new StubAppiumServer().start();
+    }
+
+    @AfterMethod(alwaysRun = true)
+    public void stopStub() {
+        stub.stop();
+    }
+
+    private DriverPool newPool(int size, Duration leaseTimeout) {
+        return new DriverPool(
+            () -> DriverManager.createDriver(stub.getUrl()),
+            DriverManager::resetAppState,
+            size,
+            leaseTimeout
+        );
+    }
+
+    @Test
+    public void reusesSessionAndResetsAppStateBetweenLeases() {
+        DriverPool pool = newPool(1, Duration.ofSeconds(5));
+
+        IOSDriver first = pool.lease();
+        pool.release(first);
+        IOSDriver second = pool.lease();
+        pool.release(second);
+        IOSDriver third = pool.lease();
+        pool.release(third);
+
+        Assert.assertSame(second, first, "Second lease should reuse the warm session");
+        Assert.assertSame(third, first, "Third lease should reuse the warm session");
+        Assert.assertEquals(stub.getSessionsCreated(), 1, "Only one session should be created");
+        Assert.assertEquals(pool.getLeaseCount(), 3);
+        Assert.assertEquals(pool.getReuseCount(), 2);
+        Assert.assertEquals(pool.getSize(), 1);
+        Assert.assertEquals(stub.getCommandCount("execute:mobile: clearKeychains"), 2,
+            "Keychain should be cleared on every reuse");
+        Assert.assertEquals(stub.getCommandCount("execute:mobile: activeAppInfo"), 1,
+            "Bundle id should be resolved once per session");
+
+        pool.shutdown();
+        Assert.assertEquals(stub.getSessionsDeleted(), 1);
+        Assert.assertEquals(pool.getSize(), 0);
+    }
+
+    @Test
+    public void growsUpToMaxSizeForConcurrentLeases() {
+        DriverPool pool = newPool(2, Duration.ofSeconds(5));
+
+        IOSDriver first = pool.lease();
+        IOSDriver second = pool.lease();
+
+        Assert.assertNotSame(first, second);
+        Assert.assertEquals(pool.getSize(), 2);
+        Assert.assertEquals(stub.getActiveSessionCount(), 2);
+
+        pool.release(first);
+        pool.release(second);
+        pool.shutdown();
+        Assert.assertEquals(stub.getActiveSessionCount(), 0);
+    }
+
+    @Test
+    public void blockedLeaseIsServedWhenSessionIsReleased() throws Exception {
+        DriverPool pool = newPool(1, Duration.ofSeconds(10));
+        IOSDriver held = pool.lease();
+
+        CompletableFuture<IOSDriver> waiter = CompletableFuture.supplyAsync(pool::lease);
+        Thread.sleep(200);
+        Assert.assertFalse(waiter.isDone(), "Lease should block while the only session is in use");
+
+        pool.release(held);
+        IOSDriver handedOver = waiter.get(10, TimeUnit.SECONDS);
+
+        Assert.assertSame(handedOver, held);
+        Assert.assertTrue(pool.getMaxLeaseWaitMillis() >= 150,
+            "Blocked lease should be reflected in lease wait time");
+
+        pool.release(handedOver);
+        pool.shutdown();
+    }
+
+    @Test(expectedExceptions = RuntimeException.class,
+          expectedExceptionsMessageRegExp = "Timed out.*")
+    public void leaseTimesOutWhenPoolIsExhausted() {
+        DriverPool pool = newPool(1, Duration.ofMillis(200));
+        IOSDriver held = pool.lease();
+        try {
+            pool.lease();
+        } finally {
+            pool.release(held);
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void brokenSessionIsReplacedOnNextLease() {
+        DriverPool pool = newPool(1, Duration.ofSeconds(5));
+        IOSDriver first = pool.lease();
+        pool.discard(first);
+
+        IOSDriver replacement = pool.lease();
+
+        Assert.assertNotSame(replacement, first);
+        Assert.assertEquals(pool.getDiscardedCount(), 1);
+        Assert.assertEquals(stub.getSessionsCreated(), 2);
+
+        pool.release(replacement);
+        pool.shutdown();
+    }
+
+    @Test
+    public void sessionTheServerDroppedIsNotReturnedToThePool() {
+        DriverPool pool = newPool(1, Duration.ofSeconds(5));
+        IOSDriver first = pool.lease();
+        stub.failCommand("getCurrentContext", 1.0);
+
+        pool.release(first);
+
+        Assert.assertEquals(pool.getIdleCount(), 0, "A session failing the liveness probe is not reused");
+        Assert.assertEquals(pool.getDiscardedCount(), 1);
+        pool.shutdown();
+    }
+
+    @Test
+    public void shutdownQuitsLeasedSessionsToo() {
+        DriverPool pool = newPool(2, Duration.ofSeconds(5));
+        IOSDriver idleDriver = pool.lease();
+        IOSDriver stillLeased = pool.lease();
+        pool.release(idleDriver);
+
+        pool.shutdown();
+
+        Assert.assertEquals(stub.getActiveSessionCount(), 0, "No session outlives the pool");
+        Assert.assertEquals(pool.getSize(), 0);
+        pool.release(stillLeased);
+        Assert.assertEquals(pool.getIdleCount(), 0, "A release after shutdown is ignored");
+    }
+
+    @Test
+    public void quitAfterPoolShutdownDoesNotLeakTheSession() {
+        try (StubDriverFixture fixture = StubDriverFixture.bind(stub)) {
+            DriverManager.shutdownPool();
+            DriverManager.quitDriver();
+
+            Assert.assertEquals(stub.getActiveSessionCount(), 0);
+            Assert.assertFalse(DriverManager.isDriverActive(), "Thread no longer holds the session");
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package com.egalvanic.utils;
+
+import com.aventstack.extentreports.ExtentReports;
+import com.aventstack.extentreports.Status;
+import com.aventstack.extentreports.model.Log;
+import com.aventstack.extentreports.model.Test;
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Thousands of concurrent createTest / log calls must still produce one
+ * Module > Feature > Test tree with every log in place - no driver needed
+ */
+public class ExtentReportStressTest {
+
+    private static final int THREADS = 16;
+    private static final int TESTS_PER_THREAD = 150;
+    private static final int FEATURES_PER_MODULE = 3;
+    private static final int MODULES = TESTS_PER_THREAD / FEATURES_PER_MODULE;
+    private static final int STEPS = 5;
+
+    @AfterMethod(alwaysRun = true)
+    public void syncMode() {
+        ExtentReportManager.initReports(new ExtentReports(), new ExtentReports(), false);
+    }
+
+    @org.testng.annotations.Test
+    public void concurrentTestsBuildConsistentTreeSynchronously() throws Exception {
+        runStress(false);
+    }
+
+    @org.testng.annotations.Test
+    public void concurrentTestsBuildConsistentTreeAsynchronously() throws Exception {
+        runStress(true);
+    }
+
+    private void runStress(boolean async) throws Exception {
+        ExtentReports detailed = new ExtentReports();
+        ExtentReports client = new ExtentReports();
+        ExtentReportManager.initReports(detailed, client, async);
+
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> workers = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            int thread = t;
+            workers.add(pool.submit(() -> {
+                start.await();
+                for (int i = 0; i < TESTS_PER_THREAD; i++) {
+                    int id = thread * TESTS_PER_THREAD + i;
+                    // All threads reach each new module / feature at about the same time
+                    String module = "Module " + (i / FEATURES_PER_MODULE);
+                    String feature = "Feature " + (i % FEATURES_PER_MODULE);
+                    ExtentReportManager.createTest(module, feature, "test-" + id);
+                    for (int step = 0; step < STEPS; step++) {
+                        ExtentReportManager.logInfo("test-" + id + " step " + step);
+                    }
+                    if (id % 3 == 0) {
+                        ExtentReportManager.logFail("test-" + id + " failed");
+                    } else {
+                        ExtentReportManager.logPass("test-" + id + " passed");
+                    }
+                    ExtentReportManager.removeTests();
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> worker : workers) {
+            worker.get(2, TimeUnit.MINUTES);
+        }
+        pool.shutdown();
+        ExtentReportManager.flushReports();
+
+        int total = THREADS * TESTS_PER_THREAD;
+        assertDetailedReport(detailed, total);
+        assertClientTree(client, total);
+    }
+
+    private void assertDetailedReport(ExtentReports detailed, int total) {
+        List<Test> tests = detailed.getReport().getTestList();
+        Assert.assertEquals(tests.size(), total, "Every createTest should produce one detailed test");
+        for (Test test : tests) {
+            List<Log> logs = test.getLogs();
+            Assert.assertEquals(logs.size(), STEPS + 1, "Logs missing for " + test.getName());
+            for (int step = 0; step < STEPS; step++) {
+                Assert.assertEquals(logs.get(step).getDetails(), test.getName() + " step " + step,
+                    "Logs out of order for " + test.getName());
+            }
+        }
+    }
+
+    private void assertClientTree(ExtentReports client, int total) {
+        List<Test> modules = client.getReport().getTestList();
+        Assert.assertEquals(modules.size(), MODULES, "Each module should appear exactly once");
+
+        Map<String, Integer> leaves = new HashMap<>();
+        for (Test module : modules) {
+            List<String> featureNames = new ArrayList<>();
+            Assert.assertEquals(module.getChildren().size(), FEATURES_PER_MODULE,
+                "Wrong feature count under " + module.getName());
+            for (Test feature : module.getChildren()) {
+                Assert.assertFalse(featureNames.contains(feature.getName()),
+                    "Duplicate feature " + feature.getName() + " under " + module.getName());
+                featureNames.add(feature.getName());
+                for (Test leaf : feature.getChildren()) {
+                    leaves.merge(leaf.getName(), 1, Integer::sum);
+                    int id = Integer.parseInt(leaf.getName().substring("test-".length()));
+                    Assert.assertEquals(leaf.getStatus(), id % 3 == 0 ? Status.FAIL : Status.PASS);
+                }
+            }
+        }
+        Assert.assertEquals(leaves.size(), total, "Every test should appear once in the client tree");
+        Assert.assertTrue(leaves.values().stream().allMatch(count -> count == 1), "Duplicate client test nodes");
+    }
+}
@@ -0,0 +1,110 @@
+package com.egalvanic.utils;
+
+import com.egalvanic.constants.AppConstants;
+import com.egalvanic.stub.StubAppiumServer;
+import io.appium.java_client.AppiumBy;
+import io.appium.java_client.ios.IOSDriver;
+import org.openqa.selenium.NoSuchElementException;
+import org.testng.Assert;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.util.List;
+
+/**
+ * FlightRecorder ring, dumps and the commands recorded by the driver executor
+ */
+public class FlightRecorderTest {
+
+    @BeforeMethod
+    public void clear() {
+        FlightRecorder.clear();
+    }
+
+    @Test
+    public void ringKeepsTheLastCommandsInOrder() {
+        int size = AppConstants.FLIGHT_RECORDER_SIZE;
+        String[] commands = new String[size + 44];
+        for (int i = 0; i < commands.length; i++) {
+            commands[i] = "command" + i;
+            FlightRecorder.record(commands[i], null, i, null);
+        }
+
+        List<FlightRecorder.Entry> entries = FlightRecorder.snapshot();
+        Assert.assertEquals(entries.size(), size);
+        Assert.assertEquals(entries.get(0).command, "command44");
+        Assert.assertEquals(entries.get(size - 1).command, "command" + (size + 43));
+        FlightRecorder.clear();
+        Assert.assertTrue(FlightRecorder.snapshot().isEmpty());
+    }
+
+    @Test
+    public void driverCommandsAreRecordedWithLocatorAndOutcome() {
+        StubAppiumServer stub = new StubAppiumServer().start();
+        try {
+            IOSDriver driver = DriverManager.createDriver(stub.getUrl());
+            FlightRecorder.clear();
+
+            driver.getPageSource();
+            Assert.assertThrows(NoSuchElementException.class,
+                () -> driver.findElement(AppiumBy.accessibilityId("Missing Button")));
+            driver.quit();
+
+            List<FlightRecorder.Entry> entries = FlightRecorder.snapshot();
+            Assert.assertEquals(entries.get(0).command, "getPageSource");
+            Assert.assertFalse(entries.get(0).isFailure());
+            FlightRecorder.Entry find = entries.get(1);
+            Assert.assertEquals(find.command, "findElement[accessibility id]");
+            Assert.assertEquals(find.target, "Missing Button");
+            Assert.assertEquals(find.outcome, "no such element");
+            Assert.assertTrue(FlightRecorder.toHtml(entries).contains("Missing Button"));
+        } finally {
+            stub.stop();
+        }
+    }
+
+    @Test
+    public void binaryDumpRoundTrips() throws Exception {
+        for (int i = 0; i < 100; i++) {
+            FlightRecorder.record("findElement[accessibility id]", "Sign In", 1_500_000, i % 10 == 0 ? "timeout" : null);
+        }
+        List<FlightRecorder.Entry> entries = FlightRecorder.snapshot();
+        File file = new File(Files.createTempDirectory("flight").toFile(), "dump.bin");
+
+        List<FlightRecorder.Entry> read = FlightRecorder.read(FlightRecorder.write(entries, file));
+
+        Assert.assertEquals(read.size(), entries.size());
+        for (int i = 0; i < entries.size(); i++) {
+            Assert.assertEquals(read.get(i).toString(), entries.get(i).toString());
+        }
+        Assert.assertTrue(file.length() < 100 * 32 + 100, "Strings are stored once: " + file.length() + " bytes");
+    }
+
+    /**
+     * Recording must stay cheap enough to be always on: no allocation per command
+     * (cost per command: InstrumentationBenchmark)
+     */
+    @Test
+    public void recordingDoesNotAllocate() {
+        com.sun.management.ThreadMXBean threads =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        String command = "findElement[accessibility id]";
+        String target = "Sign In";
+        record(command, target, 200_000);
+
+        long allocated = threads.getCurrentThreadAllocatedBytes();
+        record(command, target, 1_000_000);
+        allocated = threads.getCurrentThreadAllocatedBytes() - allocated;
+
+        Assert.assertTrue(allocated < 64 * 1024, "Recording allocated " + allocated + " bytes");
+    }
+
+    private static void record(String command, String target, int times) {
+        for (int i = 0; i < times; i++) {
+            FlightRecorder.record(command, target, i, null);
+        }
+    }
+}
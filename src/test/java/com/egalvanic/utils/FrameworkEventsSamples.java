@@ -0,0 +1,38 @@
+package com.egalvanic.utils;
+
+import com.aventstack.extentreports.ExtentReports;
+import com.egalvanic.base.WaitEngine;
+import com.egalvanic.stub.StubAppiumServer;
+import io.appium.java_client.ios.IOSDriver;
+
+/**
+ * One test's worth of framework activity, run by FrameworkEventsTest in a
+ * JVM started with -XX:StartFlightRecording
+ *
+ * Not named *Test so surefire does not pick it up on its own.
+ */
+public class FrameworkEventsSamples {
+
+    static final String TEST_NAME = "LoginTest.sample";
+    static final String CALL_SITE = "LoginPage.sample";
+
+    public static void main(String[] args) {
+        StubAppiumServer stub = new StubAppiumServer().start();
+        try {
+            CommandTimings.startTest(TEST_NAME);
+            ExtentReportManager.initReports(new ExtentReports(), new ExtentReports(), false);
+            ExtentReportManager.createTest("Module", "Feature", "sample");
+            IOSDriver driver = DriverManager.createDriver(stub.getUrl());
+            driver.getPageSource();
+            WaitEngine.waitUntil(CALL_SITE, 10, 10, () -> true);
+            ScreenshotPipeline.capture(driver, "sample");
+            ExtentReportManager.logInfo("step");
+            driver.quit();
+            ExtentReportManager.removeTests();
+            CommandTimings.endTest();
+        } finally {
+            stub.stop();
+        }
+        System.exit(0);
+    }
+}
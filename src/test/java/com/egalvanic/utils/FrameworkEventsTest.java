@@ -0,0 +1,50 @@
+package com.egalvanic.utils;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JFR events recorded by a JVM running FrameworkEventsSamples, read back by JfrAnalyzer
+ *
+ * The recording runs in a child JVM, as it would for a suite run, so JFR
+ * does not slow down the timing-sensitive tests of this JVM.
+ */
+public class FrameworkEventsTest {
+
+    @Test
+    public void frameworkActivityIsRecordedPerTest() throws Exception {
+        File workDir = Files.createTempDirectory("jfr").toFile();
+        File recording = new File(workDir, "suite.jfr");
+        Process run = new ProcessBuilder(
+            new File(System.getProperty("java.home"), "bin/java").getPath(),
+            "-XX:StartFlightRecording=filename=" + recording.getPath(),
+            "-cp", System.getProperty("java.class.path"),
+            FrameworkEventsSamples.class.getName())
+            .directory(workDir)
+            .redirectErrorStream(true)
+            .redirectOutput(new File(workDir, "run.log"))
+            .start();
+        Assert.assertTrue(run.waitFor(120, TimeUnit.SECONDS), "Recording run did not finish");
+        Assert.assertEquals(run.exitValue(), 0, "Recording run failed");
+
+        Map<String, JfrAnalyzer.TestBreakdown> tests = JfrAnalyzer.analyze(recording.toPath());
+        JfrAnalyzer.TestBreakdown test = tests.get(FrameworkEventsSamples.TEST_NAME);
+        Assert.assertNotNull(test, "Events should carry the test name: " + tests.keySet());
+        Assert.assertEquals(test.getCount("session create"), 1);
+        Assert.assertTrue(test.getCount("command") >= 3, "newSession, getPageSource, screenshot, ...");
+        Assert.assertEquals(test.getCount("wait adaptive"), 1);
+        Assert.assertEquals(test.getCount("screenshot"), 1);
+        Assert.assertTrue(test.getCount("report dispatch") >= 2, "createTest and logInfo");
+        Assert.assertEquals(test.getCount("report write"), test.getCount("report dispatch"));
+        Assert.assertTrue(test.getThreads().contains("main"), test.getThreads().toString());
+
+        String table = JfrAnalyzer.format(tests);
+        Assert.assertTrue(table.contains("getPageSource"), table);
+        Assert.assertTrue(table.contains(FrameworkEventsSamples.CALL_SITE), table);
+    }
+}
@@ -0,0 +1,221 @@
+package com.egalvanic.utils;
+
+import com.aventstack.extentreports.ExtentReports;
+import com.aventstack.extentreports.ExtentTest;
+import com.aventstack.extentreports.model.Log;
+import com.egalvanic.constants.AppConstants;
+import org.apache.commons.io.FileUtils;
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Spill mode: screenshots stored once by content, finished tests compacted,
+ * and heap that does not grow with steps
+ */
+public class ReportSpillTest {
+
+    private static final int TESTS = 1000;
+    private static final int STEPS_PER_TEST = 50;
+    private static final int SCREENSHOT_EVERY = 10;
+    private static final int DISTINCT_SCREENS = 20;
+
+    private File reportDir;
+    private ExtentReports detailed;
+
+    @BeforeMethod
+    public void spillToTempDir() throws IOException {
+        reportDir = Files.createTempDirectory("spilled-report").toFile();
+        detailed = new ExtentReports();
+        ExtentReportManager.initReports(detailed, new ExtentReports(), true, reportDir);
+    }
+
+    @AfterMethod(alwaysRun = true)
+    public void syncMode() {
+        ExtentReportManager.removeTests();
+        ExtentReportManager.initReports(new ExtentReports(), new ExtentReports(), false);
+        FileUtils.deleteQuietly(reportDir);
+    }
+
+    @Test
+    public void screenshotStoredOnceAndLinkedByPath() {
+        byte[] png = png(new Random(1));
+        ExtentReportManager.createTest("Module", "Feature", "spilled");
+        ExtentReportManager.logStepWithScreenshot("first", screenshot(png));
+        ExtentReportManager.logStepWithScreenshot("same screen again", screenshot(png));
+        ExtentReportManager.logInfo("last step");
+        ExtentReportManager.logPass("done");
+        ExtentTest test = ExtentReportManager.getDetailedTest();
+        ExtentReportManager.removeTests();
+        drain();
+
+        Assert.assertEquals(new File(reportDir, "media").list().length, 2, "One full image and one thumbnail");
+        List<Log> logs = test.getModel().getLogs();
+        Assert.assertEquals(logs.size(), 3, "Link, last step and result");
+        Assert.assertTrue(logs.get(0).getDetails().contains("2 steps"));
+        Assert.assertEquals(logs.get(1).getDetails(), "last step");
+        for (Log log : logs) {
+            Assert.assertFalse(log.hasMedia(), "No base64 kept in the model");
+        }
+
+        File[] pages = new File(reportDir, "steps").listFiles()[0].listFiles();
+        Assert.assertEquals(pages.length, 1);
+        String page = read(pages[0]);
+        Assert.assertTrue(page.contains("same screen again") && page.contains("loading='lazy'"));
+    }
+
+    @Test
+    public void thumbnailIsWrittenAsReceivedFromThePipeline() throws IOException {
+        byte[] png = png(new Random(4));
+        CapturedScreenshot screenshot = screenshot(png);
+        String withThumbnail = ExtentReportManager.getSpill().screenshotStep("step", screenshot);
+        String thumbnail = withThumbnail.replaceAll(".*src='([^']+)'.*", "$1");
+
+        Assert.assertTrue(thumbnail.endsWith("_thumb.jpg"), withThumbnail);
+        Assert.assertEquals(Files.readAllBytes(new File(reportDir, thumbnail).toPath()), screenshot.getThumbnail());
+
+        // Overflowed capture: no thumbnail, so the step shows the full image
+        String overflowed = ExtentReportManager.getSpill().screenshotStep("step",
+            new CapturedScreenshot("step", png(new Random(5)), CompletableFuture.completedFuture(null),
+                CompletableFuture.completedFuture(null)));
+        Assert.assertTrue(overflowed.replaceAll(".*src='([^']+)'.*", "$1").endsWith(".png"), overflowed);
+    }
+
+    @Test
+    public void fullImageLinksTheScreenshotStoreObject() throws IOException {
+        File store = Files.createTempDirectory("screenshot-store").toFile();
+        ScreenshotStore.useDirectory(store, false);
+        try {
+            byte[] png = png(new Random(6));
+            String object = ScreenshotStore.store("linked", png);
+            String step = ExtentReportManager.getSpill().screenshotStep("step",
+                new CapturedScreenshot("linked", png, CompletableFuture.completedFuture(object),
+                    CompletableFuture.completedFuture(null)));
+            String full = step.replaceAll(".*href='([^']+)'.*", "$1");
+
+            Assert.assertEquals(full, "media/" + new File(object).getName());
+            Assert.assertTrue(Files.isSameFile(new File(reportDir, full).toPath(), new File(object).toPath()),
+                "Hard link to the stored object, not a second copy");
+            Assert.assertEquals(ExtentReportManager.getSpill().getLinkedScreenshotCount(), 1);
+        } finally {
+            ScreenshotStore.useDirectory(new File(AppConstants.SCREENSHOT_PATH),
+                AppConstants.SCREENSHOT_PERCEPTUAL_DEDUP);
+            FileUtils.deleteQuietly(store);
+        }
+    }
+
+    @Test
+    public void failedTestKeepsItsSteps() {
+        ExtentReportManager.createTest("Module", "Feature", "failing");
+        for (int step = 0; step < 5; step++) {
+            ExtentReportManager.logInfo("step " + step);
+        }
+        ExtentReportManager.logFailWithScreenshot("broken", screenshot(png(new Random(2))));
+        ExtentTest test = ExtentReportManager.getDetailedTest();
+        ExtentReportManager.removeTests();
+        drain();
+
+        Assert.assertEquals(test.getModel().getLogs().size(), 6);
+        Assert.assertEquals(ExtentReportManager.getSpill().getCompactedTestCount(), 0);
+        Assert.assertTrue(test.getModel().getLogs().get(5).getDetails().contains("media/"));
+    }
+
+    @Test
+    public void heapStaysFlatOverFiftyThousandSteps() {
+        CapturedScreenshot[] screens = new CapturedScreenshot[DISTINCT_SCREENS];
+        Random random = new Random(3);
+        for (int i = 0; i < screens.length; i++) {
+            screens[i] = screenshot(png(random));
+        }
+
+        int warmupTests = TESTS / 5;
+        runTests(0, warmupTests, screens);
+        long afterWarmup = usedHeap();
+        runTests(warmupTests, TESTS, screens);
+        long afterAll = usedHeap();
+
+        long bytesPerTest = Math.max(0, afterAll - afterWarmup) / (TESTS - warmupTests);
+        System.out.println("✔ Spilled report heap: " + afterWarmup / 1024 + " KB after " + warmupTests
+            + " tests, " + afterAll / 1024 + " KB after " + TESTS + " (" + bytesPerTest + " B/test of "
+            + STEPS_PER_TEST + " steps) - " + ExtentReportManager.getSpill().getSummary());
+        Assert.assertEquals(ExtentReportManager.getSpill().getCompactedTestCount(), TESTS);
+        Assert.assertEquals(ExtentReportManager.getSpill().getStoredScreenshotCount(), DISTINCT_SCREENS);
+        // What remains per test is its report nodes (~2 KB); five embedded screenshots
+        // would be hundreds of KB and 50 uncompacted steps ~7 KB
+        Assert.assertTrue(bytesPerTest < 4096, "Heap grew " + bytesPerTest + " B per test");
+    }
+
+    private void runTests(int from, int to, CapturedScreenshot[] screens) {
+        for (int t = from; t < to; t++) {
+            ExtentReportManager.createTest("Module " + t % 10, "Feature " + t % 3, "test-" + t);
+            for (int step = 1; step < STEPS_PER_TEST; step++) {
+                if (step % SCREENSHOT_EVERY == 0) {
+                    ExtentReportManager.logStepWithScreenshot("test-" + t + " screen " + step,
+                        screens[(t + step) % screens.length]);
+                } else {
+                    ExtentReportManager.logInfo("test-" + t + " step " + step);
+                }
+            }
+            ExtentReportManager.logPass("test-" + t + " passed");
+            ExtentReportManager.removeTests();
+        }
+    }
+
+    private static long usedHeap() {
+        drain();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+
+    private static void drain() {
+        Assert.assertTrue(ExtentReportManager.getWriter().drain(Duration.ofMinutes(2)));
+    }
+
+    /** A capture as the pipeline hands it over in spill mode: PNG plus report-width JPEG */
+    private static CapturedScreenshot screenshot(byte[] png) {
+        byte[] thumbnail = ScreenshotPipeline.thumbnailJpeg(ScreenshotPipeline.decode(png),
+            AppConstants.REPORT_THUMBNAIL_WIDTH);
+        return new CapturedScreenshot("step", png, CompletableFuture.completedFuture(null),
+            CompletableFuture.completedFuture(thumbnail));
+    }
+
+    /** Noise image, so PNG compression leaves it at tens of KB like a real screen */
+    private static byte[] png(Random random) {
+        BufferedImage image = new BufferedImage(390, 120, BufferedImage.TYPE_INT_RGB);
+        for (int y = 0; y < image.getHeight(); y++) {
+            for (int x = 0; x < image.getWidth(); x++) {
+                image.setRGB(x, y, random.nextInt(0x1000000));
+            }
+        }
+        try {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            ImageIO.write(image, "png", out);
+            return out.toByteArray();
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String read(File file) {
+        try {
+            return Files.readString(file.toPath());
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package com.egalvanic.utils;
+
+import com.aventstack.extentreports.ExtentReports;
+import com.aventstack.extentreports.model.Log;
+import com.egalvanic.constants.AppConstants;
+import com.egalvanic.stub.StubAppiumServer;
+import io.appium.java_client.ios.IOSDriver;
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * ScreenshotPipeline against the stub Appium server - no simulator needed
+ */
+public class ScreenshotPipelineTest {
+
+    private StubAppiumServer stub;
+    private IOSDriver driver;
+
+    @BeforeMethod
+    public void startStub() {
+        stub = new StubAppiumServer().start();
+        driver = DriverManager.createDriver(stub.getUrl());
+        ScreenshotPipeline.resetMetrics();
+    }
+
+    @AfterMethod(alwaysRun = true)
+    public void stopStub() {
+        ExtentReportManager.removeTests();
+        driver.quit();
+        stub.stop();
+    }
+
+    @Test
+    public void oneCaptureFeedsFileAndBase64() throws Exception {
+        CapturedScreenshot screenshot = ScreenshotPipeline.capture(driver, "login step");
+
+        Assert.assertNotNull(screenshot);
+        String path = screenshot.awaitFile();
+        Assert.assertNotNull(path);
+        Assert.assertEquals(Files.readAllBytes(new File(path).toPath()), screenshot.getBytes());
+        Assert.assertEquals(Base64.getDecoder().decode(screenshot.getBase64()), screenshot.getBytes());
+        Assert.assertEquals(stub.getCommandCount("screenshot"), 1, "Screenshot should be taken once");
+
+        Assert.assertEquals(ScreenshotPipeline.getCaptureCount(), 1);
+        Assert.assertEquals(ScreenshotPipeline.getSavedCaptureCount(), 0, "Nothing saved until a step reuses it");
+        ScreenshotPipeline.recordReuse(screenshot);
+        Assert.assertEquals(ScreenshotPipeline.getSavedCaptureCount(), 1);
+        Assert.assertEquals(ScreenshotPipeline.getSavedBytes(), screenshot.getSize());
+    }
+
+    @Test
+    public void reportStepUsesTheSameCapture() {
+        ExtentReportManager.initReports(new ExtentReports(), new ExtentReports(), true);
+        ExtentReportManager.createTest("Module", "Feature", "screenshot step");
+
+        ExtentReportManager.logStepWithScreenshot("Step with screenshot",
+            ScreenshotPipeline.capture(driver, "step"));
+
+        Log log = ExtentReportManager.getDetailedTest().getModel().getLogs().get(0);
+        Assert.assertEquals(log.getDetails(), "Step with screenshot");
+        Assert.assertEquals(ExtentReportManager.getDetailedTest().getModel().getMedia().size(), 1,
+            "Screenshot should be embedded");
+        Assert.assertEquals(stub.getCommandCount("screenshot"), 1, "Report must not re-capture");
+        ExtentReportManager.initReports(new ExtentReports(), new ExtentReports(), false);
+    }
+
+    @Test
+    public void thumbnailKeepsAspectRatio() throws Exception {
+        byte[] png = ScreenshotPipeline.capture(driver, "thumb").getBytes();
+
+        String thumbnail = ScreenshotPipeline.thumbnail(png, 130);
+        BufferedImage image = ImageIO.read(new ByteArrayInputStream(Base64.getDecoder().decode(thumbnail)));
+
+        Assert.assertEquals(image.getWidth(), 130);
+        Assert.assertEquals(image.getHeight(), 844 * 130 / 390);
+    }
+
+    @Test
+    public void reportGetsJpegThumbnail() throws Exception {
+        CapturedScreenshot screenshot = ScreenshotPipeline.capture(driver, "jpeg");
+
+        byte[] jpeg = screenshot.getThumbnail();
+        Assert.assertNotNull(jpeg);
+        Assert.assertEquals(jpeg[0] & 0xff, 0xff, "JPEG SOI marker");
+        Assert.assertEquals(jpeg[1] & 0xff, 0xd8, "JPEG SOI marker");
+        Assert.assertEquals(ImageIO.read(new ByteArrayInputStream(jpeg)).getWidth(),
+            AppConstants.SCREENSHOT_THUMBNAIL_WIDTH);
+        Assert.assertTrue(screenshot.getReportBase64().startsWith("data:image/jpeg;base64,"));
+        Assert.assertEquals(Files.readAllBytes(new File(screenshot.awaitFile()).toPath()), screenshot.getBytes(),
+            "Archive keeps the full-resolution PNG");
+    }
+
+    @Test
+    public void fullQueueNeverBlocksTheTestThread() {
+        byte[] png = ScreenshotPipeline.capture(driver, "burst").getBytes();
+        List<CapturedScreenshot> burst = new ArrayList<>();
+
+        for (int i = 0; i < 500; i++) {
+            burst.add(ScreenshotPipeline.submit("burst " + i, png));
+        }
+
+        Assert.assertTrue(ScreenshotPipeline.getOverflowCount() > 0, "Burst should overflow the bounded queue");
+        for (CapturedScreenshot screenshot : burst) {
+            Assert.assertNotNull(screenshot.awaitFile(), "Overflowed captures are still archived");
+            Assert.assertNotNull(screenshot.getReportBase64());
+        }
+    }
+}
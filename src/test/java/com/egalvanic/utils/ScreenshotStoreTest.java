@@ -0,0 +1,141 @@
+package com.egalvanic.utils;
+
+import com.egalvanic.constants.AppConstants;
+import org.apache.commons.io.FileUtils;
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Content-addressed screenshot store on a temporary directory
+ */
+public class ScreenshotStoreTest {
+
+    private File directory;
+
+    @BeforeMethod
+    public void useTempStore() throws IOException {
+        directory = Files.createTempDirectory("screenshot-store").toFile();
+        ScreenshotStore.useDirectory(directory, false);
+    }
+
+    @AfterMethod(alwaysRun = true)
+    public void restoreStore() {
+        ScreenshotStore.useDirectory(new File(AppConstants.SCREENSHOT_PATH),
+            AppConstants.SCREENSHOT_PERCEPTUAL_DEDUP);
+        FileUtils.deleteQuietly(directory);
+    }
+
+    @Test
+    public void identicalCapturesShareOneFile() throws IOException {
+        byte[] welcome = screen("Welcome", false);
+
+        String first = ScreenshotStore.store("welcome_1", welcome);
+        String second = ScreenshotStore.store("welcome_2", welcome.clone());
+        String other = ScreenshotStore.store("login", screen("Login", false));
+
+        Assert.assertEquals(second, first);
+        Assert.assertNotEquals(other, first);
+        Assert.assertEquals(Files.readAllBytes(new File(first).toPath()), welcome);
+        Assert.assertEquals(new File(directory, "objects").list().length, 2);
+        Assert.assertEquals(ScreenshotStore.getDedupRatio(), 1.5, 1e-9);
+        Assert.assertEquals(ScreenshotStore.getSavedBytes(), welcome.length);
+
+        List<String> index = Files.readAllLines(new File(directory, "index.tsv").toPath());
+        Assert.assertEquals(index.size(), 3, "Every capture is indexed by name");
+        Assert.assertTrue(index.get(1).contains("welcome_2\t" + first + "\texact"));
+    }
+
+    @Test
+    public void nearDuplicatesCollapseOnlyWithPerceptualDedup() {
+        byte[] plain = screen("Welcome", false);
+        byte[] withCursor = screen("Welcome", true);
+        Long a = ScreenshotStore.perceptualHash(plain);
+        Long b = ScreenshotStore.perceptualHash(withCursor);
+        Long login = ScreenshotStore.perceptualHash(screen("Login", false));
+
+        Assert.assertTrue(Long.bitCount(a ^ b) <= 4, "Cursor blink should be a near duplicate");
+        Assert.assertTrue(Long.bitCount(a ^ login) > 4, "Another screen should not be");
+
+        ScreenshotStore.store("plain", plain);
+        Assert.assertNotEquals(ScreenshotStore.store("cursor", withCursor), ScreenshotStore.store("plain", plain));
+
+        ScreenshotStore.useDirectory(directory, true);
+        FileUtils.deleteQuietly(new File(directory, "objects"));
+        String stored = ScreenshotStore.store("plain", plain);
+        Assert.assertEquals(ScreenshotStore.store("cursor", withCursor), stored);
+        Assert.assertEquals(ScreenshotStore.getNearDuplicateCount(), 1);
+        Assert.assertEquals(ScreenshotStore.getStoredCount(), 1);
+    }
+
+    @Test
+    public void retentionDropsOldThenLeastRecentlyUsed() throws IOException {
+        long now = System.currentTimeMillis();
+        File stale = file("objects/stale.png", 100, now - TimeUnit.DAYS.toMillis(10));
+        File legacy = file("login_20240101_120000_000.png", 100, now - TimeUnit.DAYS.toMillis(30));
+        File older = file("objects/older.png", 400, now - TimeUnit.HOURS.toMillis(5));
+        File newer = file("objects/newer.png", 400, now - TimeUnit.HOURS.toMillis(1));
+
+        int deleted = ScreenshotStore.applyRetention(TimeUnit.DAYS.toMillis(7), 500);
+
+        Assert.assertEquals(deleted, 3);
+        Assert.assertFalse(stale.exists());
+        Assert.assertFalse(legacy.exists());
+        Assert.assertFalse(older.exists(), "Over the size budget, least recently used goes");
+        Assert.assertTrue(newer.exists());
+    }
+
+    private File file(String name, int size, long lastModified) throws IOException {
+        File file = new File(directory, name);
+        file.getParentFile().mkdirs();
+        Files.write(file.toPath(), new byte[size]);
+        Assert.assertTrue(file.setLastModified(lastModified));
+        return file;
+    }
+
+    /** A simple app screen: title, two fields, a button, optionally a text cursor */
+    private static byte[] screen(String title, boolean cursor) {
+        BufferedImage image = new BufferedImage(390, 844, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = image.createGraphics();
+        g.setColor(Color.WHITE);
+        g.fillRect(0, 0, 390, 844);
+        g.setColor(Color.DARK_GRAY);
+        g.setFont(g.getFont().deriveFont(32f));
+        g.drawString(title, 40, 120);
+        g.setColor(new Color(220, 220, 220));
+        if (title.equals("Login")) {
+            g.fillRect(40, 250, 310, 44);
+            g.fillRect(40, 320, 310, 44);
+            g.setColor(new Color(0, 122, 255));
+            g.fillRect(40, 700, 310, 50);
+        } else {
+            g.fillRect(40, 305, 310, 44);
+            g.setColor(new Color(0, 122, 255));
+            g.fillRect(40, 420, 310, 50);
+        }
+        if (cursor) {
+            g.setColor(Color.BLACK);
+            g.fillRect(50, 312, 2, 30);
+        }
+        g.dispose();
+        try {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            ImageIO.write(image, "png", out);
+            return out.toByteArray();
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.egalvanic.utils;
+
+import com.egalvanic.stub.StubAppiumServer;
+import io.appium.java_client.ios.IOSDriver;
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * SessionPrewarmer against a stub Appium server with a configurable
+ * session-creation delay standing in for XCUITest start-up
+ */
+public class SessionPrewarmerTest {
+
+    private static final long CREATE_DELAY_MS = 600;
+
+    private StubAppiumServer stub;
+    private SessionPrewarmer prewarmer;
+
+    @BeforeMethod
+    public void startStub() {
+        stub = new StubAppiumServer()
+            .setSessionCreateDelay(Duration.ofMillis(CREATE_DELAY_MS))
+            .start();
+    }
+
+    @AfterMethod(alwaysRun = true)
+    public void stopStub() throws InterruptedException {
+        if (prewarmer != null) {
+            prewarmer.shutdown();
+            prewarmer.awaitTermination(10, TimeUnit.SECONDS);
+        }
+        stub.stop();
+    }
+
+    @Test
+    public void nextSessionIsHandedOverWithoutBlocking() throws Exception {
+        prewarmer = new SessionPrewarmer(() -> DriverManager.createDriver(stub.getUrl()), 1);
+
+        // First handover has nothing warm yet
+        IOSDriver first = prewarmer.get();
+        Assert.assertEquals(prewarmer.getColdStartCount(), 1);
+
+        // "Test body" runs long enough for the next session to warm up
+        Thread.sleep(CREATE_DELAY_MS + 400);
+        first.quit();
+
+        long start = System.nanoTime();
+        IOSDriver second = prewarmer.get();
+        long handoverMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        second.quit();
+
+        Assert.assertNotSame(second, first);
+        Assert.assertEquals(prewarmer.getWarmHitCount(), 1);
+        Assert.assertTrue(handoverMs < CREATE_DELAY_MS / 2,
+            "Warm handover should not pay session start-up, took " + handoverMs + "ms");
+        Assert.assertTrue(prewarmer.getHiddenLatencyMillis() >= CREATE_DELAY_MS - 50,
+            "Start-up latency should be hidden: " + prewarmer.getSummary());
+        Assert.assertTrue(prewarmer.getExposedLatencyMillis() >= CREATE_DELAY_MS - 50,
+            "Cold start should be exposed: " + prewarmer.getSummary());
+    }
+
+    @Test
+    public void partiallyWarmSessionExposesOnlyRemainingLatency() throws Exception {
+        prewarmer = new SessionPrewarmer(() -> DriverManager.createDriver(stub.getUrl()), 1);
+        prewarmer.prewarm();
+
+        Thread.sleep(CREATE_DELAY_MS / 2);
+        IOSDriver driver = prewarmer.get();
+        driver.quit();
+
+        Assert.assertEquals(prewarmer.getWarmHitCount(), 1);
+        Assert.assertTrue(prewarmer.getExposedLatencyMillis() < CREATE_DELAY_MS,
+            "Only the remaining start-up should be exposed: " + prewarmer.getSummary());
+        Assert.assertTrue(prewarmer.getHiddenLatencyMillis() >= CREATE_DELAY_MS / 2 - 50,
+            "Elapsed background start-up should be hidden: " + prewarmer.getSummary());
+    }
+
+    @Test
+    public void warmSessionsNeverExceedCap() throws Exception {
+        prewarmer = new SessionPrewarmer(() -> DriverManager.createDriver(stub.getUrl()), 2);
+
+        IOSDriver leased = prewarmer.get();
+        prewarmer.prewarm();
+        prewarmer.prewarm();
+        Thread.sleep(CREATE_DELAY_MS * 2 + 400);
+
+        Assert.assertEquals(prewarmer.getWarmCount(), 2);
+        Assert.assertEquals(stub.getActiveSessionCount(), 3,
+            "One leased session plus at most two warm ones");
+        leased.quit();
+    }
+}
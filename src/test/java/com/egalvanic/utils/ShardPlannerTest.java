@@ -0,0 +1,144 @@
+package com.egalvanic.utils;
+
+import com.aventstack.extentreports.ExtentReports;
+import com.aventstack.extentreports.append.JsonDeserializer;
+import com.aventstack.extentreports.reporter.JsonFormatter;
+import org.apache.commons.io.FileUtils;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Duration-balanced shard plans, and a two-shard run in separate JVMs merged into one report
+ */
+public class ShardPlannerTest {
+
+    private static final int SHARDS = 2;
+
+    @Test
+    public void balancesLargestFirstAndIsDeterministic() {
+        Map<String, Long> units = new HashMap<>();
+        units.put("a", 700L);
+        units.put("b", 500L);
+        units.put("c", 400L);
+        units.put("d", 300L);
+        units.put("e", 100L);
+
+        Map<String, Integer> plan = ShardPlanner.assign(units, 2);
+
+        long[] loads = new long[2];
+        plan.forEach((unit, shard) -> loads[shard] += units.get(unit));
+        Assert.assertEquals(loads[0], 1000);
+        Assert.assertEquals(loads[1], 1000);
+        Assert.assertEquals(ShardPlanner.assign(new HashMap<>(units), 2), plan);
+    }
+
+    @Test
+    public void equalWeightsSplitOnNameNotOnMapOrder() {
+        Map<String, Long> units = new HashMap<>();
+        for (String unit : new String[] {"d", "b", "a", "c"}) {
+            units.put(unit, 1L);
+        }
+
+        Map<String, Integer> plan = ShardPlanner.assign(units, 2);
+
+        Assert.assertEquals(plan.get("a"), Integer.valueOf(0));
+        Assert.assertEquals(plan.get("b"), Integer.valueOf(1));
+        Assert.assertEquals(plan.get("c"), Integer.valueOf(0));
+        Assert.assertEquals(plan.get("d"), Integer.valueOf(1));
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void rejectsIndexOutsideShardCount() {
+        new ShardPlanner(2, 2);
+    }
+
+    @Test
+    public void shardsInSeparateJvmsMergeIntoOneReport() throws Exception {
+        File workDir = Files.createTempDirectory("shards").toFile();
+        try {
+            runAndMergeShards(workDir);
+        } finally {
+            FileUtils.deleteQuietly(workDir);
+        }
+    }
+
+    private static void runAndMergeShards(File workDir) throws Exception {
+        List<Process> shards = new ArrayList<>();
+        for (int index = 0; index < SHARDS; index++) {
+            shards.add(startShard(workDir, index));
+        }
+        for (Process shard : shards) {
+            Assert.assertTrue(shard.waitFor(120, TimeUnit.SECONDS), "Shard did not finish");
+            Assert.assertEquals(shard.exitValue(), 0, "Shard failed");
+        }
+
+        File shardDir = new File(workDir, "reports/shards");
+        Set<String> fixtureShards = new HashSet<>();
+        for (int index = 0; index < SHARDS; index++) {
+            List<com.aventstack.extentreports.model.Test> tests = new JsonDeserializer(new File(shardDir, "detailed-" + index + ".json")).deserialize();
+            Assert.assertFalse(tests.isEmpty(), "Shard " + index + " ran nothing");
+            for (com.aventstack.extentreports.model.Test test : tests) {
+                if (test.getName().startsWith("fixture")) {
+                    fixtureShards.add("shard" + index);
+                }
+            }
+        }
+        Assert.assertEquals(fixtureShards.size(), 1, "Fixture class should stay on one shard");
+
+        File merged = new File(workDir, "merged");
+        ExtentReports detailed = new ExtentReports();
+        detailed.attachReporter(new JsonFormatter(new File(merged, "detailed.json")));
+        ExtentReports client = new ExtentReports();
+        client.attachReporter(new JsonFormatter(new File(merged, "client.json")));
+
+        Assert.assertEquals(ReportMerger.merge(shardDir, detailed, client), SHARDS);
+        detailed.flush();
+        client.flush();
+
+        List<String> names = new ArrayList<>();
+        for (com.aventstack.extentreports.model.Test test : new JsonDeserializer(new File(merged, "detailed.json")).deserialize()) {
+            names.add(test.getName());
+        }
+        Assert.assertEquals(names.size(), 7, "Every test exactly once: " + names);
+        Assert.assertEquals(new HashSet<>(names).size(), 7, "Every test exactly once: " + names);
+
+        List<com.aventstack.extentreports.model.Test> modules = new JsonDeserializer(new File(merged, "client.json")).deserialize();
+        Assert.assertEquals(modules.size(), 1, "Module folded across shards");
+        Assert.assertEquals(modules.get(0).getName(), ShardSamples.MODULE);
+        int leaves = 0;
+        for (com.aventstack.extentreports.model.Test feature : modules.get(0).getChildren()) {
+            leaves += feature.getChildren().size();
+        }
+        Assert.assertEquals(modules.get(0).getChildren().size(), 2);
+        Assert.assertEquals(leaves, 7);
+    }
+
+    private static Process startShard(File workDir, int index) throws IOException {
+        ProcessBuilder builder = new ProcessBuilder(
+            new File(System.getProperty("java.home"), "bin/java").getPath(),
+            "-cp", System.getProperty("java.class.path"),
+            "org.testng.TestNG",
+            "-d", "test-output-" + index,
+            "-listener", ShardPlanner.class.getName(),
+            "-testclass", ShardSamples.Reports.class.getName() + "," + ShardSamples.Fixture.class.getName()
+                + "," + ShardSamples.Independent.class.getName());
+        builder.directory(workDir);
+        builder.environment().put("SHARD_COUNT", String.valueOf(SHARDS));
+        builder.environment().put("SHARD_INDEX", String.valueOf(index));
+        builder.environment().put("TEST_HISTORY_PATH", new File(workDir, "history.tsv").getPath());
+        builder.redirectErrorStream(true);
+        builder.redirectOutput(new File(workDir, "shard-" + index + ".log"));
+        return builder.start();
+    }
+}
@@ -0,0 +1,77 @@
+package com.egalvanic.utils;
+
+import com.egalvanic.stub.StubAppiumServer;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.AfterSuite;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.BeforeSuite;
+import org.testng.annotations.Test;
+
+/**
+ * Test classes run by ShardPlannerTest in separate JVMs, one per shard
+ *
+ * Not named *Test so surefire does not pick them up on their own.
+ * Fixture shares one stub session across its methods, so the planner
+ * keeps it on one shard; Independent is split per method.
+ */
+public class ShardSamples {
+
+    static final String MODULE = "Samples";
+
+    private static void report(String feature, String name) {
+        ExtentReportManager.createTest(MODULE, feature, name);
+        ExtentReportManager.logPass(name + " passed");
+    }
+
+    public static class Reports {
+
+        @BeforeSuite
+        public void initReports() {
+            ExtentReportManager.initReports();
+        }
+
+        @AfterSuite(alwaysRun = true)
+        public void flushReports() {
+            ExtentReportManager.flushReports();
+        }
+    }
+
+    public static class Fixture {
+
+        private StubAppiumServer stub;
+
+        @BeforeClass
+        public void startSession() {
+            stub = new StubAppiumServer()
+                .setPageSource(StubAppiumServer.loadFixture("/fixtures/welcome_page.xml"))
+                .start();
+            DriverManager.bindDevice(new DeviceDescriptor("stub", "", "17.0", stub.getUrl(), 0));
+            DriverManager.initDriver();
+        }
+
+        @AfterClass(alwaysRun = true)
+        public void stopSession() {
+            DriverManager.quitDriver();
+            DriverManager.shutdownPool();
+            DriverManager.unbindDevice();
+            stub.stop();
+        }
+
+        private void run(String name) {
+            DriverManager.getDriver().getPageSource();
+            report("Fixture", name);
+        }
+
+        @Test public void fixtureOne() { run("fixtureOne"); }
+        @Test public void fixtureTwo() { run("fixtureTwo"); }
+        @Test public void fixtureThree() { run("fixtureThree"); }
+    }
+
+    public static class Independent {
+
+        @Test public void independentOne() { report("Independent", "independentOne"); }
+        @Test public void independentTwo() { report("Independent", "independentTwo"); }
+        @Test public void independentThree() { report("Independent", "independentThree"); }
+        @Test public void independentFour() { report("Independent", "independentFour"); }
+    }
+}
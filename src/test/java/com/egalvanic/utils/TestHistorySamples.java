@@ -0,0 +1,39 @@
+package com.egalvanic.utils;
+
+import org.testng.annotations.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Test methods of known length run through TestNG by TestHistoryTest
+ *
+ * Not named *Test so surefire does not pick it up on its own. flaky()
+ * fails while failFlaky is set.
+ */
+public class TestHistorySamples {
+
+    static final List<String> order = new CopyOnWriteArrayList<>();
+    static volatile boolean failFlaky;
+
+    private void run(String name, long millis) {
+        order.add(name);
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Test public void fast() { run("fast", 20); }
+    @Test public void medium() { run("medium", 80); }
+    @Test public void slow() { run("slow", 200); }
+
+    @Test
+    public void flaky() {
+        run("flaky", 10);
+        if (failFlaky) {
+            throw new AssertionError("flaky failure");
+        }
+    }
+}
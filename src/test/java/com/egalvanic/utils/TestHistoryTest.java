@@ -0,0 +1,98 @@
+package com.egalvanic.utils;
+
+import com.egalvanic.constants.AppConstants;
+import org.testng.Assert;
+import org.testng.TestNG;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+import org.testng.xml.XmlClass;
+import org.testng.xml.XmlSuite;
+import org.testng.xml.XmlTest;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Collections;
+
+/**
+ * Duration history and longest-first ordering, on a temporary history file
+ */
+public class TestHistoryTest {
+
+    private File historyFile;
+
+    @BeforeMethod
+    public void useTempHistory() throws IOException {
+        historyFile = File.createTempFile("test-history", ".tsv");
+        historyFile.delete();
+        TestHistory.useFile(historyFile);
+    }
+
+    @AfterMethod(alwaysRun = true)
+    public void restoreHistory() {
+        historyFile.delete();
+        TestHistory.useFile(new File(AppConstants.TEST_HISTORY_PATH));
+    }
+
+    @Test
+    public void estimatesSurviveReloadAndUseMedian() throws IOException {
+        for (long millis : new long[] {100, 900, 120, 110, 5000}) {
+            TestHistory.record("a.B.c", millis, true);
+        }
+        TestHistory.record("a.B.d", 50, false);
+        Files.writeString(historyFile.toPath(), "123\ta.B.c\t", StandardOpenOption.APPEND);
+
+        TestHistory.useFile(historyFile);
+
+        Assert.assertEquals(TestHistory.estimateMillis("a.B.c"), Long.valueOf(120));
+        Assert.assertNull(TestHistory.estimateMillis("a.B.unknown"));
+        Assert.assertFalse(TestHistory.failedRecently("a.B.c"));
+        Assert.assertTrue(TestHistory.failedRecently("a.B.d"));
+        for (int i = 0; i < TestHistory.FAILURE_WINDOW; i++) {
+            TestHistory.record("a.B.d", 50, true);
+        }
+        Assert.assertFalse(TestHistory.failedRecently("a.B.d"), "Failure aged out of the window");
+    }
+
+    @Test
+    public void makespanIsGreedyListSchedule() {
+        Assert.assertEquals(HistoryOrderInterceptor.predictMakespan(new long[] {5, 4, 3, 3, 3}, 2), 10);
+        Assert.assertEquals(HistoryOrderInterceptor.predictMakespan(new long[] {5, 4, 3}, 1), 12);
+        Assert.assertEquals(HistoryOrderInterceptor.predictMakespan(new long[0], 3), 0);
+    }
+
+    @Test
+    public void secondRunOrdersFailedThenLongestFirst() {
+        TestHistorySamples.failFlaky = true;
+        runSamples();
+        TestHistorySamples.failFlaky = false;
+
+        TestHistorySamples.order.clear();
+        TestNG second = runSamples();
+
+        Assert.assertEquals(second.getStatus(), 0);
+        Assert.assertEquals(TestHistorySamples.order, Arrays.asList("flaky", "slow", "medium", "fast"));
+        long predicted = HistoryOrderInterceptor.getPredictedMakespan("history-samples");
+        Assert.assertTrue(predicted >= 300 && predicted < 1000, "Predicted " + predicted + "ms");
+    }
+
+    private static TestNG runSamples() {
+        XmlSuite suite = new XmlSuite();
+        suite.setName("history");
+        XmlTest test = new XmlTest(suite);
+        test.setName("history-samples");
+        test.setXmlClasses(Collections.singletonList(new XmlClass(TestHistorySamples.class)));
+
+        TestNG testng = new TestNG();
+        testng.setUseDefaultListeners(false);
+        testng.setVerbose(0);
+        testng.setXmlSuites(Collections.singletonList(suite));
+        testng.addListener(new HistoryOrderInterceptor());
+        testng.addListener(new TestHistoryRecorder());
+        testng.run();
+        return testng;
+    }
+}